@@ -32,6 +32,9 @@ CREATE TABLE IF NOT EXISTS cuenta (
     numero_cuenta VARCHAR(50) UNIQUE NOT NULL,
     tipo_cuenta VARCHAR(50) NOT NULL,
     saldo_inicial DECIMAL(15,2) NOT NULL,
+    saldo_actual DECIMAL(15,2) NOT NULL,
+    ultimo_movimiento_id BIGINT,
+    version BIGINT NOT NULL DEFAULT 0,
     estado BOOLEAN NOT NULL DEFAULT true,
     cliente_id BIGINT NOT NULL,
     CONSTRAINT fk_cuenta_cliente FOREIGN KEY (cliente_id) 
@@ -50,18 +53,53 @@ CREATE TABLE IF NOT EXISTS movimientos (
     saldo DECIMAL(15,2) NOT NULL,
     estado BOOLEAN NOT NULL DEFAULT true,
     cuenta_id BIGINT NOT NULL,
+    clave_idempotencia VARCHAR(100),
+    comision DECIMAL(15,2) NOT NULL DEFAULT 0,
+    CONSTRAINT uk_movimientos_clave_idempotencia UNIQUE (clave_idempotencia),
     CONSTRAINT fk_movimientos_cuenta FOREIGN KEY (cuenta_id) 
         REFERENCES cuenta(id) 
         ON DELETE CASCADE
 );
 
+-- IDs asignados por bloques de 50 (optimizador pooled de Hibernate)
+ALTER SEQUENCE persona_id_seq INCREMENT BY 50;
+ALTER SEQUENCE cliente_cliente_id_seq INCREMENT BY 50;
+ALTER SEQUENCE cuenta_id_seq INCREMENT BY 50;
+ALTER SEQUENCE movimientos_id_seq INCREMENT BY 50;
+
+-- ====================================
+-- Tabla: Resumen diario por cuenta
+-- ====================================
+CREATE TABLE IF NOT EXISTS resumen_diario_cuenta (
+    cuenta_id BIGINT NOT NULL,
+    fecha DATE NOT NULL,
+    saldo_apertura DECIMAL(15,2) NOT NULL,
+    saldo_cierre DECIMAL(15,2) NOT NULL,
+    total_creditos DECIMAL(15,2) NOT NULL,
+    total_debitos DECIMAL(15,2) NOT NULL,
+    total_comisiones DECIMAL(15,2) NOT NULL,
+    cantidad_movimientos INTEGER NOT NULL,
+    CONSTRAINT pk_resumen_diario_cuenta PRIMARY KEY (cuenta_id, fecha),
+    CONSTRAINT fk_resumen_diario_cuenta FOREIGN KEY (cuenta_id)
+        REFERENCES cuenta(id)
+        ON DELETE CASCADE
+);
+
 -- ====================================
 -- Índices para mejorar rendimiento
 -- ====================================
 CREATE INDEX idx_cliente_persona ON cliente(persona_id);
 CREATE INDEX idx_cuenta_cliente ON cuenta(cliente_id);
-CREATE INDEX idx_movimientos_cuenta ON movimientos(cuenta_id);
+CREATE INDEX idx_movimientos_cuenta_id ON movimientos(cuenta_id, id);
 CREATE INDEX idx_movimientos_fecha ON movimientos(fecha);
+CREATE INDEX idx_movimientos_cuenta_fecha ON movimientos(cuenta_id, fecha, id);
+CREATE INDEX idx_movimientos_valor ON movimientos(valor);
+CREATE INDEX idx_movimientos_saldo ON movimientos(saldo);
+
+-- Búsqueda de texto con LIKE '%x%' (extensión pg_trgm)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_cuenta_numero_trgm ON cuenta USING gin (lower(numero_cuenta) gin_trgm_ops);
+CREATE INDEX idx_persona_nombre_trgm ON persona USING gin (lower(nombre) gin_trgm_ops);
 
 -- ====================================
 -- Datos de ejemplo
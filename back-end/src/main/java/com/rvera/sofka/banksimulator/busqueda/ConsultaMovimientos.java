@@ -0,0 +1,342 @@
+package com.rvera.sofka.banksimulator.busqueda;
+
+import com.rvera.sofka.banksimulator.entity.Cliente;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.entity.Movimientos;
+import com.rvera.sofka.banksimulator.entity.Persona;
+import com.rvera.sofka.banksimulator.strategy.Centavos;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.WildcardQuery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Consulta de /movimientos/buscar: términos libres y campos con valores o rangos, todos combinados con AND
+ * <pre>
+ *   juan retiro                      cada término en el tipo (prefijo), el número de cuenta o el nombre del cliente
+ *   tipo:deposito cuenta:478758      tipo exacto, número de cuenta exacto
+ *   cliente:"juan perez"             nombre del cliente que contiene el texto
+ *   valor:[100 TO 500] saldo:[* TO 0] rangos numéricos inclusivos ("*" deja el extremo abierto; los retiros son negativos)
+ *   fecha:[2024-01-01 TO 2024-01-31] fecha:2024-01-05   rangos de días inclusivos o un solo día
+ * </pre>
+ * Los rangos sobre valor, saldo y fecha usan sus índices B-tree. Los términos libres y cliente: no comparan texto
+ * sobre la unión de las tres tablas: cada uno se expresa como cuenta_id IN (subconsulta) con una subconsulta por
+ * tabla (número de cuenta y nombre del cliente, cada una con su índice de trigramas), que la base de datos resuelve
+ * como semi-join sobre el índice (cuenta_id, id); el prefijo del tipo se resuelve en memoria contra los tipos
+ * conocidos. Un término que coincide con muchas cuentas no agrega parámetros a la sentencia.
+ * consultaIndice expresa la misma consulta sobre el índice Lucene de movimientos (IndiceMovimientos), que la
+ * resuelve sin unir tablas mientras está cargado: rangos de puntos sobre valor y saldo en centavos y sobre la fecha.
+ */
+public final class ConsultaMovimientos {
+
+    private static final Pattern TOKEN = Pattern.compile(
+            "(\\w+):\\[([^\\]]*)\\]|(\\w+):\"([^\"]*)\"|(\\w+):(\\S+)|\"([^\"]*)\"|(\\S+)");
+    private static final Pattern HASTA = Pattern.compile("\\s+TO\\s+", Pattern.CASE_INSENSITIVE);
+    private static final String ABIERTO = "*";
+    private static final List<String> TIPOS = List.of("Deposito", "Retiro", "Transferencia");
+    private static final BigDecimal CENTAVOS_MINIMO = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal CENTAVOS_MAXIMO = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    private final List<String> terminos = new ArrayList<>();
+    private final List<String> clientes = new ArrayList<>();
+    private String tipo;
+    private String cuenta;
+    private Rango<BigDecimal> valor;
+    private Rango<BigDecimal> saldo;
+    private Rango<LocalDate> fecha;
+
+    /**
+     * Extremos inclusivos; null si el extremo está abierto
+     */
+    public record Rango<T extends Comparable<? super T>>(T desde, T hasta) {
+    }
+
+    private ConsultaMovimientos() {
+    }
+
+    /**
+     * @throws IllegalArgumentException si la consulta está vacía, usa un campo desconocido o un valor inválido
+     */
+    public static ConsultaMovimientos parsear(String filtro) {
+        ConsultaMovimientos consulta = new ConsultaMovimientos();
+        Matcher matcher = TOKEN.matcher(filtro == null ? "" : filtro);
+        while (matcher.find()) {
+            if (matcher.group(1) != null) {
+                consulta.agregarRango(matcher.group(1), matcher.group(2));
+            } else if (matcher.group(3) != null) {
+                consulta.agregarCampo(matcher.group(3), matcher.group(4));
+            } else if (matcher.group(5) != null) {
+                consulta.agregarCampo(matcher.group(5), matcher.group(6));
+            } else {
+                String termino = matcher.group(7) != null ? matcher.group(7) : matcher.group(8);
+                if (!termino.isBlank()) {
+                    consulta.terminos.add(termino.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        if (consulta.vacia()) {
+            throw new IllegalArgumentException("La consulta de búsqueda está vacía");
+        }
+        return consulta;
+    }
+
+    public List<String> getTerminos() {
+        return List.copyOf(terminos);
+    }
+
+    public Rango<BigDecimal> getValor() {
+        return valor;
+    }
+
+    public Rango<BigDecimal> getSaldo() {
+        return saldo;
+    }
+
+    public Rango<LocalDate> getFecha() {
+        return fecha;
+    }
+
+    /**
+     * Movimientos activos que cumplen la consulta con id mayor que 'after'; trae cuenta, cliente y persona
+     * en la misma sentencia (solo para listar: no sirve para consultas de conteo)
+     */
+    @SuppressWarnings("unchecked")
+    public Specification<Movimientos> especificacion(Long after) {
+        return (root, query, cb) -> {
+            Join<Movimientos, Cuenta> joinCuenta = (Join<Movimientos, Cuenta>) root.<Movimientos, Cuenta>fetch("cuenta");
+            Join<Cuenta, Cliente> joinCliente = (Join<Cuenta, Cliente>) joinCuenta.<Cuenta, Cliente>fetch("cliente");
+            joinCliente.<Cliente, Persona>fetch("persona");
+            Path<String> tipoMovimiento = root.get("tipoMovimiento");
+            // Columna cuenta_id del movimiento, no el ID de la tabla unida
+            Path<Long> cuentaId = root.get("cuenta").get("id");
+
+            List<Predicate> condiciones = new ArrayList<>();
+            condiciones.add(cb.isTrue(root.get("estado")));
+            condiciones.add(cb.greaterThan(root.get("id"), after));
+            for (String termino : terminos) {
+                List<Predicate> alternativas = new ArrayList<>(3);
+                List<String> tipos = tiposConPrefijo(termino);
+                if (!tipos.isEmpty()) {
+                    alternativas.add(tipoMovimiento.in(tipos));
+                }
+                alternativas.add(cuentaId.in(cuentasPorNumero(query, cb, contiene(termino))));
+                alternativas.add(cuentaId.in(cuentasPorCliente(query, cb, contiene(termino))));
+                condiciones.add(cb.or(alternativas.toArray(Predicate[]::new)));
+            }
+            for (String cliente : clientes) {
+                condiciones.add(cuentaId.in(cuentasPorCliente(query, cb, contiene(cliente))));
+            }
+            if (tipo != null) {
+                condiciones.add(TIPOS.stream()
+                        .filter(conocido -> conocido.equalsIgnoreCase(tipo))
+                        .findFirst()
+                        .map(conocido -> cb.equal(tipoMovimiento, conocido))
+                        .orElseGet(cb::disjunction));
+            }
+            if (cuenta != null) {
+                condiciones.add(cb.equal(joinCuenta.get("numeroCuenta"), cuenta));
+            }
+            condicionesRango(condiciones, cb, root.get("valor"), valor);
+            condicionesRango(condiciones, cb, root.get("saldo"), saldo);
+            if (fecha != null) {
+                Path<LocalDateTime> fechaMovimiento = root.get("fecha");
+                if (fecha.desde() != null) {
+                    condiciones.add(cb.greaterThanOrEqualTo(fechaMovimiento, fecha.desde().atStartOfDay()));
+                }
+                if (fecha.hasta() != null) {
+                    condiciones.add(cb.lessThan(fechaMovimiento, fecha.hasta().plusDays(1).atStartOfDay()));
+                }
+            }
+            return cb.and(condiciones.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Misma consulta sobre el índice de movimientos, con id mayor que 'after'
+     * Los extremos de valor y saldo se redondean hacia adentro del rango a centavos: valor:[100.001 TO *]
+     * empieza en 100.01, igual que al comparar con la columna DECIMAL(15,2)
+     */
+    public Query consultaIndice(Long after) {
+        if (after == Long.MAX_VALUE) {
+            return new MatchNoDocsQuery();
+        }
+        BooleanQuery.Builder condiciones = new BooleanQuery.Builder();
+        condiciones.add(LongPoint.newRangeQuery(IndiceMovimientos.ID, after + 1, Long.MAX_VALUE), Occur.FILTER);
+        for (String termino : terminos) {
+            BooleanQuery.Builder alternativas = new BooleanQuery.Builder();
+            for (String conocido : tiposConPrefijo(termino)) {
+                alternativas.add(new TermQuery(new Term(IndiceMovimientos.TIPO, conocido)), Occur.SHOULD);
+            }
+            alternativas.add(contieneEnIndice(IndiceMovimientos.NUMERO_CUENTA_MINUSCULAS, termino), Occur.SHOULD);
+            alternativas.add(contieneEnIndice(IndiceMovimientos.CLIENTE, termino), Occur.SHOULD);
+            condiciones.add(alternativas.build(), Occur.FILTER);
+        }
+        for (String cliente : clientes) {
+            condiciones.add(contieneEnIndice(IndiceMovimientos.CLIENTE, cliente), Occur.FILTER);
+        }
+        if (tipo != null) {
+            condiciones.add(TIPOS.stream()
+                    .filter(conocido -> conocido.equalsIgnoreCase(tipo))
+                    .findFirst()
+                    .<Query>map(conocido -> new TermQuery(new Term(IndiceMovimientos.TIPO, conocido)))
+                    .orElseGet(MatchNoDocsQuery::new), Occur.FILTER);
+        }
+        if (cuenta != null) {
+            condiciones.add(new TermQuery(new Term(IndiceMovimientos.NUMERO_CUENTA, cuenta)), Occur.FILTER);
+        }
+        rangoEnIndice(condiciones, IndiceMovimientos.VALOR, valor);
+        rangoEnIndice(condiciones, IndiceMovimientos.SALDO, saldo);
+        if (fecha != null) {
+            long desde = fecha.desde() == null ? Long.MIN_VALUE
+                    : IndiceMovimientos.instante(fecha.desde().atStartOfDay());
+            long hasta = fecha.hasta() == null ? Long.MAX_VALUE
+                    : IndiceMovimientos.instante(fecha.hasta().plusDays(1).atStartOfDay()) - 1;
+            condiciones.add(LongPoint.newRangeQuery(IndiceMovimientos.FECHA, desde, hasta), Occur.FILTER);
+        }
+        return condiciones.build();
+    }
+
+    // Número de cuenta en minúsculas que cumple el patrón LIKE (escape '\')
+    private static Subquery<Long> cuentasPorNumero(CriteriaQuery<?> query, CriteriaBuilder cb, String patron) {
+        Subquery<Long> subconsulta = query.subquery(Long.class);
+        Root<Cuenta> cuenta = subconsulta.from(Cuenta.class);
+        return subconsulta.select(cuenta.get("id"))
+                .where(cb.like(cb.lower(cuenta.get("numeroCuenta")), patron, '\\'));
+    }
+
+    // Nombre del cliente en minúsculas que cumple el patrón LIKE (escape '\')
+    private static Subquery<Long> cuentasPorCliente(CriteriaQuery<?> query, CriteriaBuilder cb, String patron) {
+        Subquery<Long> subconsulta = query.subquery(Long.class);
+        Root<Cuenta> cuenta = subconsulta.from(Cuenta.class);
+        Join<Cliente, Persona> persona = cuenta.<Cuenta, Cliente>join("cliente").join("persona");
+        return subconsulta.select(cuenta.get("id"))
+                .where(cb.like(cb.lower(persona.get("nombre")), patron, '\\'));
+    }
+
+    private static void condicionesRango(List<Predicate> condiciones, CriteriaBuilder cb, Path<BigDecimal> columna,
+                                         Rango<BigDecimal> rango) {
+        if (rango == null) {
+            return;
+        }
+        if (rango.desde() != null) {
+            condiciones.add(cb.greaterThanOrEqualTo(columna, rango.desde()));
+        }
+        if (rango.hasta() != null) {
+            condiciones.add(cb.lessThanOrEqualTo(columna, rango.hasta()));
+        }
+    }
+
+    private static void rangoEnIndice(BooleanQuery.Builder condiciones, String campo, Rango<BigDecimal> rango) {
+        if (rango == null) {
+            return;
+        }
+        long desde = rango.desde() == null ? Long.MIN_VALUE : centavos(rango.desde(), RoundingMode.CEILING);
+        long hasta = rango.hasta() == null ? Long.MAX_VALUE : centavos(rango.hasta(), RoundingMode.FLOOR);
+        condiciones.add(LongPoint.newRangeQuery(campo, desde, hasta), Occur.FILTER);
+    }
+
+    // Un extremo fuera del rango de long queda en el límite: ningún importe de la columna lo supera
+    private static long centavos(BigDecimal monto, RoundingMode redondeo) {
+        return monto.setScale(Centavos.ESCALA, redondeo).scaleByPowerOfTen(Centavos.ESCALA)
+                .max(CENTAVOS_MINIMO).min(CENTAVOS_MAXIMO).longValueExact();
+    }
+
+    // Campo de una sola palabra que contiene el texto, como LIKE '%texto%'
+    private static Query contieneEnIndice(String campo, String texto) {
+        String literal = texto.replace("\\", "\\\\").replace("*", "\\*").replace("?", "\\?");
+        return new WildcardQuery(new Term(campo, "*" + literal + "*"));
+    }
+
+    private static List<String> tiposConPrefijo(String termino) {
+        return TIPOS.stream()
+                .filter(conocido -> conocido.toLowerCase(Locale.ROOT).startsWith(termino))
+                .toList();
+    }
+
+    private static String contiene(String texto) {
+        return "%" + literal(texto) + "%";
+    }
+
+    // Los comodines escritos por el usuario se buscan como texto
+    private static String literal(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private boolean vacia() {
+        return terminos.isEmpty() && clientes.isEmpty() && tipo == null && cuenta == null
+                && valor == null && saldo == null && fecha == null;
+    }
+
+    private void agregarCampo(String campo, String texto) {
+        switch (campo.toLowerCase(Locale.ROOT)) {
+            case "tipo" -> tipo = texto.trim().toLowerCase(Locale.ROOT);
+            case "cuenta" -> cuenta = texto.trim();
+            case "cliente" -> clientes.add(texto.trim().toLowerCase(Locale.ROOT));
+            case "valor", "saldo", "fecha" -> agregarRango(campo, texto + " TO " + texto);
+            default -> throw new IllegalArgumentException("Campo de búsqueda desconocido: " + campo);
+        }
+    }
+
+    private void agregarRango(String campo, String texto) {
+        String[] extremos = HASTA.split(texto.trim());
+        if (extremos.length != 2) {
+            throw new IllegalArgumentException("Rango inválido en " + campo + ": se espera [desde TO hasta]");
+        }
+        switch (campo.toLowerCase(Locale.ROOT)) {
+            case "valor" -> valor = rango(campo, extremos, ConsultaMovimientos::numero);
+            case "saldo" -> saldo = rango(campo, extremos, ConsultaMovimientos::numero);
+            case "fecha" -> fecha = rango(campo, extremos, ConsultaMovimientos::dia);
+            default -> throw new IllegalArgumentException("El campo " + campo + " no admite rangos");
+        }
+    }
+
+    private static <T extends Comparable<? super T>> Rango<T> rango(String campo, String[] extremos,
+                                                                   Function<String, T> convertir) {
+        T desde = ABIERTO.equals(extremos[0]) ? null : convertir.apply(extremos[0]);
+        T hasta = ABIERTO.equals(extremos[1]) ? null : convertir.apply(extremos[1]);
+        if (desde != null && hasta != null && desde.compareTo(hasta) > 0) {
+            throw new IllegalArgumentException("Rango inválido en " + campo + ": el inicio es mayor que el fin");
+        }
+        return new Rango<>(desde, hasta);
+    }
+
+    private static BigDecimal numero(String texto) {
+        try {
+            return new BigDecimal(texto);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Número inválido en la búsqueda: " + texto);
+        }
+    }
+
+    private static LocalDate dia(String texto) {
+        try {
+            return LocalDate.parse(texto);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Fecha inválida en la búsqueda (AAAA-MM-DD): " + texto);
+        }
+    }
+}
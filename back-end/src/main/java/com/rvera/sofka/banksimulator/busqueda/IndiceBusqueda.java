@@ -0,0 +1,217 @@
+package com.rvera.sofka.banksimulator.busqueda;
+
+import com.rvera.sofka.banksimulator.entity.Cliente;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.entity.Persona;
+import com.rvera.sofka.banksimulator.event.ClientesModificadosEvent;
+import com.rvera.sofka.banksimulator.event.CuentasModificadasEvent;
+import com.rvera.sofka.banksimulator.event.PersonasModificadasEvent;
+import com.rvera.sofka.banksimulator.repository.ClienteRepository;
+import com.rvera.sofka.banksimulator.repository.CuentaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Índices de trigramas de clientes (nombre, identificación, dirección, teléfono) y cuentas (número, tipo,
+ * nombre e identificación del cliente) para las búsquedas /buscar
+ * Se cargan al iniciar la aplicación y se actualizan al confirmarse cada escritura; mientras no terminan de
+ * cargarse (o con app.busqueda.indice.habilitado=false) las búsquedas usan la consulta SQL.
+ * La actualización corre en un hilo propio, después de que la solicitud libera su conexión: los IDs modificados
+ * se acumulan y el hilo los relee juntos, así que el índice ocupa a lo sumo una conexión del pool.
+ */
+@Slf4j
+@Component
+public class IndiceBusqueda {
+
+    private static final int FILAS_POR_PAGINA = 1000;
+
+    private final ClienteRepository clienteRepository;
+    private final CuentaRepository cuentaRepository;
+    private final boolean habilitado;
+
+    private final IndiceTrigramas clientes = new IndiceTrigramas();
+    private final IndiceTrigramas cuentas = new IndiceTrigramas();
+    private volatile boolean listo;
+
+    // IDs confirmados que falta releer; el hilo de actualización se programa una vez por tanda
+    private final Set<Long> personasPendientes = ConcurrentHashMap.newKeySet();
+    private final Set<Long> clientesPendientes = ConcurrentHashMap.newKeySet();
+    private final Set<Long> cuentasPendientes = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean programado = new AtomicBoolean();
+    private final ExecutorService actualizador = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "indice-busqueda");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public IndiceBusqueda(ClienteRepository clienteRepository,
+                          CuentaRepository cuentaRepository,
+                          @Value("${app.busqueda.indice.habilitado:true}") boolean habilitado) {
+        this.clienteRepository = clienteRepository;
+        this.cuentaRepository = cuentaRepository;
+        this.habilitado = habilitado;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        if (!habilitado) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        clientes.iniciarCarga();
+        cuentas.iniciarCarga();
+        try {
+            Long despues = 0L;
+            List<Cliente> paginaClientes;
+            while (!(paginaClientes = clienteRepository.findActiveDespuesDe(despues, Limit.of(FILAS_POR_PAGINA))).isEmpty()) {
+                paginaClientes.forEach(cliente -> clientes.cargar(cliente.getClienteId(), campos(cliente)));
+                despues = paginaClientes.get(paginaClientes.size() - 1).getClienteId();
+            }
+            despues = 0L;
+            List<Cuenta> paginaCuentas;
+            while (!(paginaCuentas = cuentaRepository.findActiveDespuesDe(despues, Limit.of(FILAS_POR_PAGINA))).isEmpty()) {
+                paginaCuentas.forEach(cuenta -> cuentas.cargar(cuenta.getId(), campos(cuenta)));
+                despues = paginaCuentas.get(paginaCuentas.size() - 1).getId();
+            }
+        } finally {
+            clientes.terminarCarga();
+            cuentas.terminarCarga();
+        }
+        listo = true;
+        log.info("Índice de búsqueda cargado: {} clientes y {} cuentas en {} ms",
+                clientes.tamanio(), cuentas.tamanio(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * @return Ids de clientes activos en orden de relevancia, o vacío si la búsqueda debe resolverse por SQL
+     */
+    public Optional<List<Long>> buscarClientes(String filtro, Long after, int cantidad) {
+        return listo ? Optional.of(clientes.buscar(filtro, after, cantidad)) : Optional.empty();
+    }
+
+    /**
+     * @return Ids de cuentas activas en orden de relevancia, o vacío si la búsqueda debe resolverse por SQL
+     */
+    public Optional<List<Long>> buscarCuentas(String filtro, Long after, int cantidad) {
+        return listo ? Optional.of(cuentas.buscar(filtro, after, cantidad)) : Optional.empty();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonasModificadas(PersonasModificadasEvent evento) {
+        programar(personasPendientes, evento.personaIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientesModificados(ClientesModificadosEvent evento) {
+        programar(clientesPendientes, evento.clienteIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCuentasModificadas(CuentasModificadasEvent evento) {
+        programar(cuentasPendientes, evento.cuentaIds());
+    }
+
+    /**
+     * Espera a que el hilo de actualización aplique lo confirmado hasta ahora
+     */
+    void esperarActualizaciones() throws InterruptedException, ExecutionException {
+        actualizador.submit(() -> { }).get();
+    }
+
+    private void programar(Set<Long> pendientes, Collection<Long> ids) {
+        if (!habilitado || ids.isEmpty()) {
+            return;
+        }
+        pendientes.addAll(ids);
+        if (programado.compareAndSet(false, true)) {
+            actualizador.execute(this::actualizarPendientes);
+        }
+    }
+
+    private void actualizarPendientes() {
+        // Lo que llegue desde aquí programa una nueva tanda
+        programado.set(false);
+        List<Long> personaIds = extraer(personasPendientes);
+        List<Long> clienteIds = extraer(clientesPendientes);
+        List<Long> cuentaIds = extraer(cuentasPendientes);
+        try {
+            Set<Long> todosLosClientes = new HashSet<>(clienteIds);
+            if (!personaIds.isEmpty()) {
+                todosLosClientes.addAll(clienteRepository.findIdsByPersonaIdIn(personaIds));
+            }
+            actualizarClientes(todosLosClientes);
+            actualizarCuentas(cuentaIds);
+        } catch (RuntimeException e) {
+            // Se reintenta con la próxima escritura confirmada
+            log.warn("No se pudo actualizar el índice de búsqueda", e);
+            personasPendientes.addAll(personaIds);
+            clientesPendientes.addAll(clienteIds);
+            cuentasPendientes.addAll(cuentaIds);
+        }
+    }
+
+    private static List<Long> extraer(Set<Long> pendientes) {
+        List<Long> ids = new ArrayList<>();
+        for (Iterator<Long> it = pendientes.iterator(); it.hasNext(); ) {
+            ids.add(it.next());
+            it.remove();
+        }
+        return ids;
+    }
+
+    // Se relee lo confirmado: lo activo se reindexa y el resto sale del índice
+    private void actualizarClientes(Collection<Long> clienteIds) {
+        if (clienteIds.isEmpty()) {
+            return;
+        }
+        Set<Long> pendientes = new HashSet<>(clienteIds);
+        for (Cliente cliente : clienteRepository.findActiveByIdIn(clienteIds)) {
+            clientes.indexar(cliente.getClienteId(), campos(cliente));
+            pendientes.remove(cliente.getClienteId());
+        }
+        pendientes.forEach(clientes::eliminar);
+        // Las cuentas se buscan también por el nombre y la identificación de su cliente
+        actualizarCuentas(cuentaRepository.findIdsByClienteIdIn(clienteIds));
+    }
+
+    private void actualizarCuentas(Collection<Long> cuentaIds) {
+        if (cuentaIds.isEmpty()) {
+            return;
+        }
+        Set<Long> pendientes = new HashSet<>(cuentaIds);
+        for (Cuenta cuenta : cuentaRepository.findActiveByIdIn(cuentaIds)) {
+            cuentas.indexar(cuenta.getId(), campos(cuenta));
+            pendientes.remove(cuenta.getId());
+        }
+        pendientes.forEach(cuentas::eliminar);
+    }
+
+    private static String[] campos(Cliente cliente) {
+        Persona persona = cliente.getPersona();
+        return new String[]{persona.getNombre(), persona.getIdentificacion(), persona.getDireccion(), persona.getTelefono()};
+    }
+
+    private static String[] campos(Cuenta cuenta) {
+        Persona persona = cuenta.getCliente() == null ? null : cuenta.getCliente().getPersona();
+        return new String[]{cuenta.getNumeroCuenta(), cuenta.getTipoCuenta(),
+                persona == null ? null : persona.getNombre(), persona == null ? null : persona.getIdentificacion()};
+    }
+}
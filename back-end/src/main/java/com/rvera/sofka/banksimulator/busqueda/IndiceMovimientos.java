@@ -0,0 +1,353 @@
+package com.rvera.sofka.banksimulator.busqueda;
+
+import com.rvera.sofka.banksimulator.dto.MovimientoIndiceDTO;
+import com.rvera.sofka.banksimulator.event.ClientesModificadosEvent;
+import com.rvera.sofka.banksimulator.event.CuentasModificadasEvent;
+import com.rvera.sofka.banksimulator.event.MovimientosModificadosEvent;
+import com.rvera.sofka.banksimulator.event.PersonasModificadasEvent;
+import com.rvera.sofka.banksimulator.repository.ClienteRepository;
+import com.rvera.sofka.banksimulator.repository.CuentaRepository;
+import com.rvera.sofka.banksimulator.repository.MovimientosRepository;
+import com.rvera.sofka.banksimulator.strategy.Centavos;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Índice Lucene embebido de los movimientos activos para /movimientos/buscar
+ * Vive en app.busqueda.movimientos.directorio (fuera del heap) y se reconstruye desde la base de datos al
+ * iniciar: la base es la fuente de verdad. Mientras no termina de cargarse (o con
+ * app.busqueda.movimientos.habilitado=false) las búsquedas usan la consulta SQL.
+ * Después de cada commit un hilo propio indexa los movimientos registrados y relee completas las cuentas con
+ * movimientos eliminados o saldos recalculados, y las cuentas cuyo número o cliente cambió; los cambios se
+ * acumulan como en IndiceBusqueda, así que el índice ocupa a lo sumo una conexión del pool.
+ */
+@Slf4j
+@Component
+public class IndiceMovimientos implements DisposableBean {
+
+    // Campos del documento; ConsultaMovimientos.consultaIndice construye las consultas sobre ellos
+    static final String CLAVE = "clave";
+    static final String CUENTA_ID = "cuentaId";
+    static final String ID = "id";
+    static final String TIPO = "tipo";
+    static final String NUMERO_CUENTA = "cuenta";
+    static final String NUMERO_CUENTA_MINUSCULAS = "cuentaMinusculas";
+    static final String CLIENTE = "cliente";
+    static final String VALOR = "valor";
+    static final String SALDO = "saldo";
+    static final String FECHA = "fecha";
+
+    private static final Sort ORDEN_ID = new Sort(new SortField(ID, SortField.Type.LONG));
+
+    private final MovimientosRepository movimientosRepository;
+    private final CuentaRepository cuentaRepository;
+    private final ClienteRepository clienteRepository;
+    private final TransactionTemplate lectura;
+    private final boolean habilitado;
+
+    private final FSDirectory directorio;
+    private final IndexWriter escritor;
+    private final SearcherManager buscadores;
+    private volatile boolean listo;
+
+    // IDs confirmados que falta releer; el hilo de actualización se programa una vez por tanda
+    private final Set<Long> movimientosPendientes = ConcurrentHashMap.newKeySet();
+    private final Set<Long> cuentasPendientes = ConcurrentHashMap.newKeySet();
+    private final Set<Long> clientesPendientes = ConcurrentHashMap.newKeySet();
+    private final Set<Long> personasPendientes = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean programado = new AtomicBoolean();
+    private final ExecutorService actualizador = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "indice-movimientos");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public IndiceMovimientos(MovimientosRepository movimientosRepository,
+                             CuentaRepository cuentaRepository,
+                             ClienteRepository clienteRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.busqueda.movimientos.habilitado:true}") boolean habilitado,
+                             @Value("${app.busqueda.movimientos.directorio:${java.io.tmpdir}/banksimulator-indice-movimientos}") Path directorio) {
+        this.movimientosRepository = movimientosRepository;
+        this.cuentaRepository = cuentaRepository;
+        this.clienteRepository = clienteRepository;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.habilitado = habilitado;
+        if (!habilitado) {
+            this.directorio = null;
+            this.escritor = null;
+            this.buscadores = null;
+            return;
+        }
+        try {
+            Files.createDirectories(directorio);
+            this.directorio = FSDirectory.open(directorio);
+            // Se reconstruye al iniciar: lo que quedó de la ejecución anterior se descarta
+            this.escritor = new IndexWriter(this.directorio,
+                    new IndexWriterConfig().setOpenMode(IndexWriterConfig.OpenMode.CREATE));
+            this.buscadores = new SearcherManager(escritor, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el índice de movimientos en " + directorio, e);
+        }
+    }
+
+    /**
+     * Carga el índice en el hilo de actualización; lo que se confirme mientras tanto se aplica al terminar
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        if (habilitado) {
+            actualizador.execute(this::reconstruir);
+        }
+    }
+
+    /**
+     * @return Ids de movimientos activos que cumplen la consulta, en orden ascendente y con id mayor que 'after',
+     * o vacío si la búsqueda debe resolverse por SQL
+     */
+    public Optional<List<Long>> buscar(ConsultaMovimientos consulta, Long after, int cantidad) {
+        if (!listo) {
+            return Optional.empty();
+        }
+        try {
+            IndexSearcher buscador = buscadores.acquire();
+            try {
+                TopDocs encontrados = buscador.search(consulta.consultaIndice(after), cantidad, ORDEN_ID);
+                List<Long> ids = new ArrayList<>(encontrados.scoreDocs.length);
+                for (ScoreDoc encontrado : encontrados.scoreDocs) {
+                    ids.add((Long) ((FieldDoc) encontrado).fields[0]);
+                }
+                return Optional.of(ids);
+            } finally {
+                buscadores.release(buscador);
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo consultar el índice de movimientos; se usa la consulta SQL", e);
+            return Optional.empty();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovimientosModificados(MovimientosModificadosEvent evento) {
+        if (evento.registrados().isEmpty()) {
+            programar(cuentasPendientes, evento.cuentaIds());
+        } else {
+            programar(movimientosPendientes, evento.registrados());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCuentasModificadas(CuentasModificadasEvent evento) {
+        programar(cuentasPendientes, evento.cuentaIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientesModificados(ClientesModificadosEvent evento) {
+        programar(clientesPendientes, evento.clienteIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonasModificadas(PersonasModificadasEvent evento) {
+        programar(personasPendientes, evento.personaIds());
+    }
+
+    /**
+     * Espera a que el hilo de actualización termine la carga y aplique lo confirmado hasta ahora
+     */
+    void esperarActualizaciones() throws InterruptedException, ExecutionException {
+        actualizador.submit(() -> { }).get();
+    }
+
+    @Override
+    public void destroy() throws IOException, InterruptedException {
+        // Sin interrumpir el hilo: Lucene cierra los archivos del índice si se interrumpe una escritura
+        actualizador.shutdown();
+        actualizador.awaitTermination(10, TimeUnit.SECONDS);
+        if (habilitado) {
+            buscadores.close();
+            escritor.close();
+            directorio.close();
+        }
+    }
+
+    /**
+     * Milisegundos con los que se indexa una fecha; los extremos de fecha:[..] se convierten igual
+     */
+    static long instante(LocalDateTime fecha) {
+        return fecha.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private void reconstruir() {
+        long inicio = System.nanoTime();
+        AtomicLong total = new AtomicLong();
+        try {
+            lectura.executeWithoutResult(status -> {
+                try (Stream<MovimientoIndiceDTO> filas = movimientosRepository.streamIndiceBusqueda()) {
+                    filas.forEach(fila -> {
+                        agregar(fila);
+                        total.incrementAndGet();
+                    });
+                }
+            });
+            escritor.commit();
+            buscadores.maybeRefreshBlocking();
+        } catch (IOException | RuntimeException e) {
+            log.error("No se pudo cargar el índice de movimientos; las búsquedas usan la consulta SQL", e);
+            return;
+        }
+        listo = true;
+        log.info("Índice de movimientos cargado: {} movimientos en {} ms",
+                total.get(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private void programar(Set<Long> pendientes, Collection<Long> ids) {
+        if (!habilitado || ids.isEmpty()) {
+            return;
+        }
+        pendientes.addAll(ids);
+        if (programado.compareAndSet(false, true)) {
+            actualizador.execute(this::actualizarPendientes);
+        }
+    }
+
+    private void actualizarPendientes() {
+        // Lo que llegue desde aquí programa una nueva tanda
+        programado.set(false);
+        List<Long> movimientoIds = extraer(movimientosPendientes);
+        List<Long> cuentaIds = extraer(cuentasPendientes);
+        List<Long> clienteIds = extraer(clientesPendientes);
+        List<Long> personaIds = extraer(personasPendientes);
+        try {
+            // El nombre del cliente y el número de cuenta se copian en cada movimiento de la cuenta
+            Set<Long> todosLosClientes = new HashSet<>(clienteIds);
+            if (!personaIds.isEmpty()) {
+                todosLosClientes.addAll(clienteRepository.findIdsByPersonaIdIn(personaIds));
+            }
+            Set<Long> todasLasCuentas = new HashSet<>(cuentaIds);
+            if (!todosLosClientes.isEmpty()) {
+                todasLasCuentas.addAll(cuentaRepository.findIdsByClienteIdIn(todosLosClientes));
+            }
+            reindexarCuentas(todasLasCuentas);
+            indexarMovimientos(movimientoIds);
+            buscadores.maybeRefreshBlocking();
+        } catch (IOException | RuntimeException e) {
+            // Se reintenta con la próxima escritura confirmada
+            log.warn("No se pudo actualizar el índice de movimientos", e);
+            movimientosPendientes.addAll(movimientoIds);
+            cuentasPendientes.addAll(cuentaIds);
+            clientesPendientes.addAll(clienteIds);
+            personasPendientes.addAll(personaIds);
+        }
+    }
+
+    private static List<Long> extraer(Set<Long> pendientes) {
+        List<Long> ids = new ArrayList<>();
+        for (Iterator<Long> it = pendientes.iterator(); it.hasNext(); ) {
+            ids.add(it.next());
+            it.remove();
+        }
+        return ids;
+    }
+
+    // Se relee lo confirmado de cada cuenta: sus documentos se reemplazan por sus movimientos activos
+    private void reindexarCuentas(Collection<Long> cuentaIds) throws IOException {
+        if (cuentaIds.isEmpty()) {
+            return;
+        }
+        escritor.deleteDocuments(cuentaIds.stream()
+                .map(cuentaId -> new Term(CUENTA_ID, cuentaId.toString()))
+                .toArray(Term[]::new));
+        lectura.executeWithoutResult(status -> {
+            try (Stream<MovimientoIndiceDTO> filas = movimientosRepository.streamIndiceBusquedaByCuentaIdIn(cuentaIds)) {
+                filas.forEach(this::agregar);
+            }
+        });
+    }
+
+    // Los movimientos que ya no están activos salen del índice
+    private void indexarMovimientos(Collection<Long> movimientoIds) throws IOException {
+        if (movimientoIds.isEmpty()) {
+            return;
+        }
+        Set<Long> pendientes = new HashSet<>(movimientoIds);
+        for (MovimientoIndiceDTO fila : movimientosRepository.findIndiceBusquedaByIdIn(movimientoIds)) {
+            escritor.updateDocument(new Term(CLAVE, fila.getId().toString()), documento(fila));
+            pendientes.remove(fila.getId());
+        }
+        for (Long id : pendientes) {
+            escritor.deleteDocuments(new Term(CLAVE, id.toString()));
+        }
+    }
+
+    // updateDocument por la clave: una fila leída también por la carga o por otra tanda no se duplica
+    private void agregar(MovimientoIndiceDTO fila) {
+        try {
+            escritor.updateDocument(new Term(CLAVE, fila.getId().toString()), documento(fila));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Document documento(MovimientoIndiceDTO fila) {
+        Document documento = new Document();
+        documento.add(new StringField(CLAVE, fila.getId().toString(), Field.Store.NO));
+        documento.add(new StringField(CUENTA_ID, fila.getCuentaId().toString(), Field.Store.NO));
+        documento.add(new LongPoint(ID, fila.getId()));
+        documento.add(new NumericDocValuesField(ID, fila.getId()));
+        documento.add(new StringField(TIPO, fila.getTipoMovimiento(), Field.Store.NO));
+        documento.add(new StringField(NUMERO_CUENTA, fila.getNumeroCuenta(), Field.Store.NO));
+        documento.add(new StringField(NUMERO_CUENTA_MINUSCULAS, fila.getNumeroCuenta().toLowerCase(Locale.ROOT), Field.Store.NO));
+        documento.add(new StringField(CLIENTE, fila.getCliente().toLowerCase(Locale.ROOT), Field.Store.NO));
+        documento.add(new LongPoint(VALOR, Centavos.desde(fila.getValor())));
+        documento.add(new LongPoint(SALDO, Centavos.desde(fila.getSaldo())));
+        documento.add(new LongPoint(FECHA, instante(fila.getFecha())));
+        return documento;
+    }
+}
@@ -0,0 +1,445 @@
+package com.rvera.sofka.banksimulator.busqueda;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de trigramas en memoria para búsquedas por subcadena (typeahead)
+ * Cada documento es un id con hasta 8 campos de texto normalizados (minúsculas, sin tildes, los separadores se
+ * reducen a un espacio). Los trigramas se indexan por campo, con marcas de inicio y fin de campo y, los primeros,
+ * también con su posición, de modo que cada nivel de relevancia (campo igual, prefijo del campo, inicio de palabra,
+ * subcadena; y dentro de cada uno el orden de los campos) es una intersección de listas propia. Los niveles se recorren en orden y la búsqueda
+ * termina al reunir los resultados pedidos: el costo depende de la página, no de cuántos documentos coinciden.
+ * A igual nivel los documentos siguen el orden en que se indexaron. Seguro para uso concurrente (lecturas en paralelo).
+ */
+public class IndiceTrigramas {
+
+    static final int MAXIMO_CAMPOS = 8;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final char INICIO = '\u0001';
+    private static final char FIN = '\u0002';
+    // Trigramas del inicio de cada campo que se indexan además con su posición (prefijos y campos iguales)
+    private static final int POSICIONES_ANCLADAS = 8;
+    // 0 igual, 1 prefijo del campo, 2 inicio de palabra, 3 subcadena (solo con 3 o más caracteres)
+    private static final int CLASES = 4;
+    // Documentos eliminados tolerados antes de reconstruir las listas
+    private static final int MINIMO_ELIMINADOS_COMPACTAR = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Listado> trigramas = new HashMap<>();
+    // Un id apunta a su última versión; la versión eliminada se conserva hasta compactar para ubicar cursores
+    private final Map<Long, Integer> posiciones = new HashMap<>();
+    private final BitSet eliminados = new BitSet();
+    private long[] ids = new long[1024];
+    private String[][] campos = new String[1024][];
+    private int documentos;
+    private int cantidadEliminados;
+    private int camposEnUso;
+    private Set<Long> modificadosDuranteCarga;
+
+    /**
+     * Agrega o reemplaza el documento
+     */
+    public void indexar(long id, String... valores) {
+        validarCampos(valores);
+        lock.writeLock().lock();
+        try {
+            if (modificadosDuranteCarga != null) {
+                modificadosDuranteCarga.add(id);
+            }
+            agregar(id, valores);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(long id) {
+        lock.writeLock().lock();
+        try {
+            if (modificadosDuranteCarga != null) {
+                modificadosDuranteCarga.add(id);
+            }
+            marcarEliminado(id);
+            compactarSiCorresponde();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inicia la carga masiva: desde aquí, lo que indexar() o eliminar() modifiquen no lo sobrescribe cargar()
+     * con datos leídos antes del cambio
+     */
+    public void iniciarCarga() {
+        lock.writeLock().lock();
+        try {
+            modificadosDuranteCarga = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void cargar(long id, String... valores) {
+        validarCampos(valores);
+        lock.writeLock().lock();
+        try {
+            if (modificadosDuranteCarga == null || !modificadosDuranteCarga.contains(id)) {
+                agregar(id, valores);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void terminarCarga() {
+        lock.writeLock().lock();
+        try {
+            modificadosDuranteCarga = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param consulta Texto buscado
+     * @param after Id del último resultado de la página anterior, o null
+     * @param cantidad Máximo de resultados
+     * @return Ids en orden de relevancia; vacío si el documento del cursor ya no coincide con la consulta
+     */
+    public List<Long> buscar(String consulta, Long after, int cantidad) {
+        String texto = normalizar(consulta);
+        if (texto.isEmpty() || cantidad <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int nivelCursor = 0;
+            int documentoCursor = -1;
+            if (after != null) {
+                Integer documento = posiciones.get(after);
+                nivelCursor = documento == null ? -1 : nivel(documento, texto);
+                if (nivelCursor < 0) {
+                    return List.of();
+                }
+                documentoCursor = documento;
+            }
+
+            List<Long> resultado = new ArrayList<>(Math.min(cantidad, 1024));
+            int clases = texto.length() >= 3 ? CLASES : CLASES - 1;
+            for (int clase = nivelCursor / MAXIMO_CAMPOS; clase < clases; clase++) {
+                long[] claves = trigramasConsulta(clase, texto);
+                for (int campo = 0; campo < camposEnUso; campo++) {
+                    int nivel = clase * MAXIMO_CAMPOS + campo;
+                    Interseccion candidatos = nivel < nivelCursor ? null : interseccion(claves, campo);
+                    if (candidatos == null) {
+                        continue;
+                    }
+                    int desde = nivel == nivelCursor ? documentoCursor + 1 : 0;
+                    for (int documento = candidatos.siguiente(desde); documento >= 0;
+                         documento = candidatos.siguiente(documento + 1)) {
+                        // Cada documento se devuelve solo en su mejor nivel; se descartan también los falsos positivos
+                        if (!eliminados.get(documento) && clase(campos[documento], campo, texto) == clase
+                                && nivel(documento, texto) == nivel) {
+                            resultado.add(ids[documento]);
+                            if (resultado.size() == cantidad) {
+                                return resultado;
+                            }
+                        }
+                    }
+                }
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tamanio() {
+        lock.readLock().lock();
+        try {
+            return documentos - cantidadEliminados;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Minúsculas sin tildes; cualquier carácter que no sea letra o dígito separa palabras con un solo espacio
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinMarcas = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        StringBuilder normalizado = new StringBuilder(sinMarcas.length());
+        for (int i = 0; i < sinMarcas.length(); i++) {
+            char c = sinMarcas.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalizado.append(Character.toLowerCase(c));
+            } else if (!normalizado.isEmpty() && normalizado.charAt(normalizado.length() - 1) != ' ') {
+                normalizado.append(' ');
+            }
+        }
+        int longitud = normalizado.length();
+        return longitud > 0 && normalizado.charAt(longitud - 1) == ' '
+                ? normalizado.substring(0, longitud - 1)
+                : normalizado.toString();
+    }
+
+    private static void validarCampos(String[] valores) {
+        if (valores.length > MAXIMO_CAMPOS) {
+            throw new IllegalArgumentException("Un documento admite hasta " + MAXIMO_CAMPOS + " campos");
+        }
+    }
+
+    private void agregar(long id, String[] valores) {
+        marcarEliminado(id);
+
+        String[] normalizados = new String[valores.length];
+        for (int i = 0; i < valores.length; i++) {
+            normalizados[i] = normalizar(valores[i]);
+        }
+        if (documentos == ids.length) {
+            ids = Arrays.copyOf(ids, documentos * 2);
+            campos = Arrays.copyOf(campos, documentos * 2);
+        }
+        int documento = documentos++;
+        ids[documento] = id;
+        campos[documento] = normalizados;
+        camposEnUso = Math.max(camposEnUso, normalizados.length);
+        posiciones.put(id, documento);
+        agregarTrigramas(documento, normalizados);
+        compactarSiCorresponde();
+    }
+
+    private void marcarEliminado(long id) {
+        Integer anterior = posiciones.get(id);
+        if (anterior != null && !eliminados.get(anterior)) {
+            eliminados.set(anterior);
+            cantidadEliminados++;
+        }
+    }
+
+    private void compactarSiCorresponde() {
+        if (cantidadEliminados < MINIMO_ELIMINADOS_COMPACTAR || cantidadEliminados * 2 < documentos) {
+            return;
+        }
+        long[] idsVigentes = new long[documentos - cantidadEliminados];
+        String[][] camposVigentes = new String[idsVigentes.length][];
+        int vigentes = 0;
+        for (int documento = 0; documento < documentos; documento++) {
+            if (!eliminados.get(documento)) {
+                idsVigentes[vigentes] = ids[documento];
+                camposVigentes[vigentes++] = campos[documento];
+            }
+        }
+        trigramas.clear();
+        posiciones.clear();
+        eliminados.clear();
+        ids = Arrays.copyOf(idsVigentes, Math.max(1024, vigentes * 2));
+        campos = Arrays.copyOf(camposVigentes, ids.length);
+        documentos = vigentes;
+        cantidadEliminados = 0;
+        for (int documento = 0; documento < documentos; documento++) {
+            posiciones.put(ids[documento], documento);
+            agregarTrigramas(documento, campos[documento]);
+        }
+    }
+
+    /**
+     * Por campo, los trigramas distintos de INICIO + valor + FIN, más INICIO INICIO x (el campo empieza con x),
+     * "  x" por cada palabra que empieza con x después de un espacio y los primeros trigramas con su posición
+     */
+    private void agregarTrigramas(int documento, String[] normalizados) {
+        for (int campo = 0; campo < normalizados.length; campo++) {
+            String valor = normalizados[campo];
+            if (valor.isEmpty()) {
+                continue;
+            }
+            String marcado = INICIO + valor + FIN;
+            long[] claves = new long[marcado.length() * 2 + POSICIONES_ANCLADAS];
+            int cantidad = 0;
+            claves[cantidad++] = trigrama(INICIO, INICIO, valor.charAt(0));
+            for (int i = 0; i + 3 <= marcado.length(); i++) {
+                long clave = trigrama(marcado.charAt(i), marcado.charAt(i + 1), marcado.charAt(i + 2));
+                claves[cantidad++] = clave;
+                if (i < POSICIONES_ANCLADAS) {
+                    claves[cantidad++] = anclado(clave, i);
+                }
+                if (marcado.charAt(i) == ' ') {
+                    claves[cantidad++] = trigrama(' ', ' ', marcado.charAt(i + 1));
+                }
+            }
+            Arrays.sort(claves, 0, cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                if (i == 0 || claves[i] != claves[i - 1]) {
+                    trigramas.computeIfAbsent(claves[i] | (long) campo << 48, t -> new Listado()).agregar(documento);
+                }
+            }
+        }
+    }
+
+    /**
+     * Trigramas que un campo debe contener para tener la clase indicada: los de INICIO + texto + FIN (igual),
+     * INICIO + texto (prefijo), ambos anclados a su posición, " " + texto (inicio de palabra) o del texto (subcadena)
+     */
+    private static long[] trigramasConsulta(int clase, String texto) {
+        String marcado = switch (clase) {
+            case 0 -> INICIO + texto + FIN;
+            case 1 -> INICIO + texto;
+            case 2 -> ' ' + texto;
+            default -> texto;
+        };
+        if (marcado.length() < 3) {
+            char relleno = clase == 1 ? INICIO : ' ';
+            return new long[]{trigrama(relleno, relleno, texto.charAt(0))};
+        }
+        long[] claves = new long[marcado.length() - 2];
+        for (int i = 0; i < claves.length; i++) {
+            claves[i] = trigrama(marcado.charAt(i), marcado.charAt(i + 1), marcado.charAt(i + 2));
+            if (clase <= 1 && i < POSICIONES_ANCLADAS) {
+                claves[i] = anclado(claves[i], i);
+            }
+        }
+        return claves;
+    }
+
+    // Bits 0-47: los tres caracteres; 48-50: el campo (en interseccion); 51-54: posición + 1 si está anclado
+    private static long trigrama(char primero, char segundo, char tercero) {
+        return ((long) primero << 32) | ((long) segundo << 16) | tercero;
+    }
+
+    private static long anclado(long trigrama, int posicion) {
+        return trigrama | (long) (posicion + 1) << 51;
+    }
+
+    /**
+     * Documentos con todos los trigramas en el campo, o null si alguno no aparece en él
+     */
+    private Interseccion interseccion(long[] claves, int campo) {
+        Listado[] listados = new Listado[claves.length];
+        for (int i = 0; i < claves.length; i++) {
+            listados[i] = trigramas.get(claves[i] | (long) campo << 48);
+            if (listados[i] == null) {
+                return null;
+            }
+        }
+        Arrays.sort(listados, Comparator.comparingInt(listado -> listado.cantidad));
+        return new Interseccion(listados);
+    }
+
+    /**
+     * Mejor nivel del documento (clase * MAXIMO_CAMPOS + campo), o -1 si ningún campo contiene el texto
+     */
+    private int nivel(int documento, String texto) {
+        String[] valores = campos[documento];
+        for (int clase = 0; clase < CLASES; clase++) {
+            for (int campo = 0; campo < valores.length; campo++) {
+                if (clase(valores, campo, texto) == clase) {
+                    return clase * MAXIMO_CAMPOS + campo;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static int clase(String[] valores, int campo, String texto) {
+        if (campo >= valores.length) {
+            return -1;
+        }
+        String valor = valores[campo];
+        if (valor.equals(texto)) {
+            return 0;
+        }
+        if (valor.startsWith(texto)) {
+            return 1;
+        }
+        int posicion = valor.indexOf(texto, 1);
+        boolean subcadena = posicion > 0;
+        while (posicion > 0) {
+            if (valor.charAt(posicion - 1) == ' ') {
+                return 2;
+            }
+            posicion = valor.indexOf(texto, posicion + 1);
+        }
+        return subcadena && texto.length() >= 3 ? 3 : -1;
+    }
+
+    /**
+     * Documentos que contienen un trigrama en un campo, en orden ascendente (se agregan en orden de inserción)
+     */
+    private static final class Listado {
+        private int[] documentos = new int[4];
+        private int cantidad;
+
+        void agregar(int documento) {
+            if (cantidad == documentos.length) {
+                documentos = Arrays.copyOf(documentos, cantidad * 2);
+            }
+            documentos[cantidad++] = documento;
+        }
+
+        /**
+         * Primera posición desde 'inicio' con un documento mayor o igual al buscado (búsqueda galopante)
+         */
+        int avanzar(int inicio, int documento) {
+            int salto = 1;
+            int fin = inicio;
+            while (fin < cantidad && documentos[fin] < documento) {
+                inicio = fin + 1;
+                fin += salto;
+                salto <<= 1;
+            }
+            int posicion = Arrays.binarySearch(documentos, inicio, Math.min(fin + 1, cantidad), documento);
+            return posicion >= 0 ? posicion : -posicion - 1;
+        }
+    }
+
+    /**
+     * Intersección perezosa (leapfrog): cada llamada avanza las listas solo hasta el siguiente documento común
+     */
+    private static final class Interseccion {
+        private final Listado[] listados;
+        private final int[] posiciones;
+
+        Interseccion(Listado[] listados) {
+            this.listados = listados;
+            this.posiciones = new int[listados.length];
+        }
+
+        /**
+         * @return Siguiente documento común mayor o igual a 'desde', o -1 si no hay más
+         */
+        int siguiente(int desde) {
+            int candidato = desde;
+            int coincidencias = 0;
+            for (int i = 0; ; i = (i + 1) % listados.length) {
+                Listado listado = listados[i];
+                int posicion = listado.avanzar(posiciones[i], candidato);
+                posiciones[i] = posicion;
+                if (posicion == listado.cantidad) {
+                    return -1;
+                }
+                int documento = listado.documentos[posicion];
+                if (documento != candidato) {
+                    candidato = documento;
+                    coincidencias = 0;
+                }
+                if (++coincidencias == listados.length) {
+                    return candidato;
+                }
+            }
+        }
+    }
+}
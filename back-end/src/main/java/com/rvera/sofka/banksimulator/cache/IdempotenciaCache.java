@@ -0,0 +1,78 @@
+package com.rvera.sofka.banksimulator.cache;
+
+import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cache acotada de claves de idempotencia (Idempotency-Key) de movimientos
+ * Guarda el futuro del registro original: una repetición concurrente espera al primero y una posterior
+ * recibe el mismo resultado sin volver a la base de datos. Las entradas expiran por TTL y, al superar el
+ * máximo, se descartan las más antiguas; la columna única clave_idempotencia cubre lo que ya no está aquí.
+ */
+@Component
+public class IdempotenciaCache {
+    
+    private final long ttlNanos;
+    private final int maximoEntradas;
+    
+    // Orden de inserción: la primera entrada es siempre la más antigua
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>();
+    
+    public IdempotenciaCache(@Value("${app.movimientos.idempotencia.ttl:PT24H}") Duration ttl,
+                             @Value("${app.movimientos.idempotencia.maximo-entradas:100000}") int maximoEntradas) {
+        this.ttlNanos = ttl.toNanos();
+        this.maximoEntradas = maximoEntradas;
+    }
+    
+    private record Entrada(CompletableFuture<MovimientoDTO> resultado, long expiraEn) {
+    }
+    
+    /**
+     * Reserva la clave para un nuevo registro
+     * @return El futuro del registro existente con esa clave, o null si la reserva quedó a nombre de quien llama
+     */
+    public synchronized CompletableFuture<MovimientoDTO> reservar(String clave, CompletableFuture<MovimientoDTO> resultado) {
+        long ahora = System.nanoTime();
+        Entrada existente = entradas.get(clave);
+        if (existente != null && existente.expiraEn() - ahora > 0) {
+            return existente.resultado();
+        }
+        entradas.remove(clave);
+        entradas.put(clave, new Entrada(resultado, ahora + ttlNanos));
+        depurar(ahora);
+        return null;
+    }
+    
+    /**
+     * Libera la clave si sigue asociada a ese registro (por ejemplo, porque falló y puede reintentarse)
+     */
+    public synchronized void liberar(String clave, CompletableFuture<MovimientoDTO> resultado) {
+        Entrada existente = entradas.get(clave);
+        if (existente != null && existente.resultado() == resultado) {
+            entradas.remove(clave);
+        }
+    }
+    
+    public synchronized int size() {
+        return entradas.size();
+    }
+    
+    private void depurar(long ahora) {
+        Iterator<Map.Entry<String, Entrada>> iterador = entradas.entrySet().iterator();
+        while (iterador.hasNext()) {
+            Entrada entrada = iterador.next().getValue();
+            if (entradas.size() > maximoEntradas || entrada.expiraEn() - ahora <= 0) {
+                iterador.remove();
+            } else {
+                break;
+            }
+        }
+    }
+}
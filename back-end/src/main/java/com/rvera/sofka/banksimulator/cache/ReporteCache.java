@@ -0,0 +1,282 @@
+package com.rvera.sofka.banksimulator.cache;
+
+import com.rvera.sofka.banksimulator.dto.MovimientoReporteDTO;
+import com.rvera.sofka.banksimulator.dto.ReporteCacheEstadisticasDTO;
+import com.rvera.sofka.banksimulator.event.MovimientosModificadosEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cache de reportes de movimientos por cliente y rango de fechas
+ * El resultado JSON se guarda en memoria y el PDF en disco, ambos con TTL y expulsión LRU (por entradas
+ * y por bytes respectivamente). Los movimientos registrados o eliminados de un cliente invalidan sus
+ * entradas al confirmarse la transacción.
+ * Un resultado calculado mientras se invalidaba su cliente no se guarda: quien calcula toma la época con
+ * inicioLectura() antes de consultar, y guardar compara con la última invalidación de ese cliente.
+ */
+@Slf4j
+@Component
+public class ReporteCache {
+
+    // Clientes cuya última invalidación se recuerda; los más antiguos se resumen en pisoInvalidacion
+    private static final int MAXIMO_CLIENTES_INVALIDADOS = 10_000;
+    private static final String EXTENSION = ".pdf";
+
+    private final boolean habilitada;
+    private final long ttlNanos;
+    private final int maximoEntradas;
+    private final long maximoBytesPdf;
+    private final Path directorio;
+
+    private final LinkedHashMap<Clave, EntradaJson> json = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Clave, EntradaPdf> pdf = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Long, Long> ultimaInvalidacion = new LinkedHashMap<>();
+    private long epoca;
+    private long pisoInvalidacion;
+    private long bytesPdf;
+
+    private long jsonAciertos;
+    private long jsonFallos;
+    private long pdfAciertos;
+    private long pdfFallos;
+    private long expulsiones;
+    private long invalidaciones;
+
+    public ReporteCache(@Value("${app.reportes.cache.habilitada:true}") boolean habilitada,
+                        @Value("${app.reportes.cache.ttl:PT10M}") Duration ttl,
+                        @Value("${app.reportes.cache.maximo-entradas:500}") int maximoEntradas,
+                        @Value("${app.reportes.cache.maximo-bytes-pdf:268435456}") long maximoBytesPdf,
+                        @Value("${app.reportes.cache.directorio:${java.io.tmpdir}/banksimulator-cache}") Path directorio) {
+        this.habilitada = habilitada;
+        this.ttlNanos = ttl.toNanos();
+        this.maximoEntradas = maximoEntradas;
+        this.maximoBytesPdf = maximoBytesPdf;
+        this.directorio = directorio;
+        if (habilitada) {
+            prepararDirectorio();
+        }
+    }
+
+    public record Clave(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+    }
+
+    private record EntradaJson(List<MovimientoReporteDTO> movimientos, long expiraEn) {
+    }
+
+    private record EntradaPdf(Path archivo, long bytes, long expiraEn) {
+    }
+
+    /**
+     * Época actual; se toma antes de consultar la base de datos y se pasa al guardar el resultado
+     */
+    public synchronized long inicioLectura() {
+        return epoca;
+    }
+
+    public synchronized Optional<List<MovimientoReporteDTO>> obtenerJson(Clave clave) {
+        EntradaJson entrada = json.get(clave);
+        if (entrada == null || entrada.expiraEn() - System.nanoTime() <= 0) {
+            if (entrada != null) {
+                json.remove(clave);
+                expulsiones++;
+            }
+            jsonFallos++;
+            return Optional.empty();
+        }
+        jsonAciertos++;
+        return Optional.of(entrada.movimientos());
+    }
+
+    public synchronized void guardarJson(Clave clave, long epocaLectura, List<MovimientoReporteDTO> movimientos) {
+        if (!habilitada || invalidadoDesde(clave.clienteId(), epocaLectura)) {
+            return;
+        }
+        json.put(clave, new EntradaJson(List.copyOf(movimientos), System.nanoTime() + ttlNanos));
+        Iterator<EntradaJson> iterador = json.values().iterator();
+        while (json.size() > maximoEntradas && iterador.hasNext()) {
+            iterador.next();
+            iterador.remove();
+            expulsiones++;
+        }
+    }
+
+    public Optional<byte[]> obtenerPdf(Clave clave) {
+        EntradaPdf entrada;
+        synchronized (this) {
+            entrada = pdf.get(clave);
+            if (entrada == null || entrada.expiraEn() - System.nanoTime() <= 0) {
+                if (entrada != null) {
+                    eliminarPdf(clave);
+                    expulsiones++;
+                }
+                pdfFallos++;
+                return Optional.empty();
+            }
+        }
+        // La lectura del archivo queda fuera del monitor; si se invalidó entretanto, cuenta como fallo
+        try {
+            byte[] contenido = Files.readAllBytes(entrada.archivo());
+            synchronized (this) {
+                pdfAciertos++;
+            }
+            return Optional.of(contenido);
+        } catch (IOException e) {
+            synchronized (this) {
+                pdfFallos++;
+            }
+            return Optional.empty();
+        }
+    }
+
+    public void guardarPdf(Clave clave, long epocaLectura, byte[] contenido) {
+        if (!habilitada || contenido.length > maximoBytesPdf) {
+            return;
+        }
+        Path archivo = directorio.resolve(UUID.randomUUID() + EXTENSION);
+        try {
+            Files.write(archivo, contenido);
+        } catch (IOException e) {
+            log.warn("No se pudo guardar el reporte PDF en cache: {}", e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            if (invalidadoDesde(clave.clienteId(), epocaLectura)) {
+                eliminarArchivo(archivo);
+                return;
+            }
+            eliminarPdf(clave);
+            pdf.put(clave, new EntradaPdf(archivo, contenido.length, System.nanoTime() + ttlNanos));
+            bytesPdf += contenido.length;
+            Iterator<Map.Entry<Clave, EntradaPdf>> iterador = pdf.entrySet().iterator();
+            while (bytesPdf > maximoBytesPdf && iterador.hasNext()) {
+                EntradaPdf expulsada = iterador.next().getValue();
+                iterador.remove();
+                bytesPdf -= expulsada.bytes();
+                eliminarArchivo(expulsada.archivo());
+                expulsiones++;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovimientosModificados(MovimientosModificadosEvent evento) {
+        invalidarClientes(evento.clienteIds());
+    }
+
+    public synchronized void invalidarClientes(Collection<Long> clienteIds) {
+        epoca++;
+        for (Long clienteId : clienteIds) {
+            ultimaInvalidacion.remove(clienteId);
+            ultimaInvalidacion.put(clienteId, epoca);
+        }
+        Iterator<Map.Entry<Long, Long>> antiguas = ultimaInvalidacion.entrySet().iterator();
+        while (ultimaInvalidacion.size() > MAXIMO_CLIENTES_INVALIDADOS && antiguas.hasNext()) {
+            pisoInvalidacion = Math.max(pisoInvalidacion, antiguas.next().getValue());
+            antiguas.remove();
+        }
+
+        int antes = json.size() + pdf.size();
+        json.keySet().removeIf(clave -> clienteIds.contains(clave.clienteId()));
+        Iterator<Map.Entry<Clave, EntradaPdf>> iterador = pdf.entrySet().iterator();
+        while (iterador.hasNext()) {
+            Map.Entry<Clave, EntradaPdf> entrada = iterador.next();
+            if (clienteIds.contains(entrada.getKey().clienteId())) {
+                iterador.remove();
+                bytesPdf -= entrada.getValue().bytes();
+                eliminarArchivo(entrada.getValue().archivo());
+            }
+        }
+        invalidaciones += antes - json.size() - pdf.size();
+    }
+
+    /**
+     * Elimina las entradas con el TTL vencido (los PDF ocupan disco aunque nadie los vuelva a pedir)
+     */
+    public synchronized void purgarExpirados() {
+        long ahora = System.nanoTime();
+        int antes = json.size() + pdf.size();
+        json.values().removeIf(entrada -> entrada.expiraEn() - ahora <= 0);
+        Iterator<EntradaPdf> iterador = pdf.values().iterator();
+        while (iterador.hasNext()) {
+            EntradaPdf entrada = iterador.next();
+            if (entrada.expiraEn() - ahora <= 0) {
+                iterador.remove();
+                bytesPdf -= entrada.bytes();
+                eliminarArchivo(entrada.archivo());
+            }
+        }
+        expulsiones += antes - json.size() - pdf.size();
+    }
+
+    public synchronized void limpiar() {
+        json.clear();
+        pdf.values().forEach(entrada -> eliminarArchivo(entrada.archivo()));
+        pdf.clear();
+        bytesPdf = 0;
+    }
+
+    public synchronized ReporteCacheEstadisticasDTO estadisticas() {
+        return ReporteCacheEstadisticasDTO.builder()
+                .jsonEntradas(json.size())
+                .jsonAciertos(jsonAciertos)
+                .jsonFallos(jsonFallos)
+                .pdfEntradas(pdf.size())
+                .pdfBytes(bytesPdf)
+                .pdfAciertos(pdfAciertos)
+                .pdfFallos(pdfFallos)
+                .expulsiones(expulsiones)
+                .invalidaciones(invalidaciones)
+                .build();
+    }
+
+    private boolean invalidadoDesde(Long clienteId, long epocaLectura) {
+        return ultimaInvalidacion.getOrDefault(clienteId, pisoInvalidacion) > epocaLectura;
+    }
+
+    private void eliminarPdf(Clave clave) {
+        EntradaPdf anterior = pdf.remove(clave);
+        if (anterior != null) {
+            bytesPdf -= anterior.bytes();
+            eliminarArchivo(anterior.archivo());
+        }
+    }
+
+    private void prepararDirectorio() {
+        try {
+            Files.createDirectories(directorio);
+            // Las entradas de una ejecución anterior no tienen índice en memoria
+            try (DirectoryStream<Path> anteriores = Files.newDirectoryStream(directorio, "*" + EXTENSION)) {
+                for (Path anterior : anteriores) {
+                    eliminarArchivo(anterior);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo preparar el directorio de cache de reportes " + directorio, e);
+        }
+    }
+
+    private static void eliminarArchivo(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el reporte en cache {}: {}", archivo, e.getMessage());
+        }
+    }
+}
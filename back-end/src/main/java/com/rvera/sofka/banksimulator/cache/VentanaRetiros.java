@@ -0,0 +1,340 @@
+package com.rvera.sofka.banksimulator.cache;
+
+import com.rvera.sofka.banksimulator.dto.RetiroVentanaDTO;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.entity.Movimientos;
+import com.rvera.sofka.banksimulator.repository.MovimientosRepository;
+import com.rvera.sofka.banksimulator.strategy.Centavos;
+import com.rvera.sofka.banksimulator.strategy.CuentaStrategyFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Montos retirados por cuenta en las últimas 24 horas, para aplicar el límite diario de retiros del tipo de
+ * cuenta sin sumar los movimientos del día en cada retiro
+ * Todo débito cuenta en el límite: retiros, la cuenta de origen de una transferencia (por su valor sin
+ * comisión) y cualquier otro movimiento que se registre con valor negativo. Un débito eliminado se descuenta
+ * al confirmarse.
+ * Cada cuenta tiene una ventana deslizante de 'buckets' contadores en centavos (arreglos de long); un retiro
+ * sale de la ventana entre 'ventana - ventana/buckets' y 'ventana' después de registrarse. Las operaciones de
+ * una cuenta se serializan con compute sobre su entrada, sin bloquear las de otras cuentas. Se guardan a lo
+ * sumo 'cuentas-en-memoria' cuentas, descartando la usada hace más tiempo: una cuenta que no está se lee de la
+ * base de datos al primer retiro, así que descartarla no pierde retiros. Al iniciar se cargan los de las
+ * últimas 24 horas.
+ */
+@Slf4j
+@Component
+public class VentanaRetiros {
+
+    private final MovimientosRepository movimientosRepository;
+    private final CuentaStrategyFactory strategyFactory;
+    private final int buckets;
+    private final long duracionBucketMillis;
+    private final int maximoCuentas;
+
+    private final ConcurrentHashMap<Long, Contadores> porCuenta = new ConcurrentHashMap<>();
+    // Reloj lógico de accesos, para descartar la cuenta usada hace más tiempo
+    private final AtomicLong accesos = new AtomicLong();
+    // Identifica cada lectura de una cuenta: una reserva solo se libera en la lectura que la apartó
+    private final AtomicLong generaciones = new AtomicLong();
+
+    public VentanaRetiros(MovimientosRepository movimientosRepository,
+                          CuentaStrategyFactory strategyFactory,
+                          @Value("${app.movimientos.limite-retiros.ventana:PT24H}") Duration ventana,
+                          @Value("${app.movimientos.limite-retiros.buckets:24}") int buckets,
+                          @Value("${app.movimientos.limite-retiros.cuentas-en-memoria:50000}") int maximoCuentas) {
+        if (buckets < 1 || ventana.toMillis() < buckets) {
+            throw new IllegalArgumentException("Ventana de retiros inválida: " + ventana + " en " + buckets + " buckets");
+        }
+        if (maximoCuentas < 1) {
+            throw new IllegalArgumentException("La ventana de retiros debe guardar al menos una cuenta: " + maximoCuentas);
+        }
+        this.movimientosRepository = movimientosRepository;
+        this.strategyFactory = strategyFactory;
+        this.buckets = buckets;
+        this.duracionBucketMillis = ventana.toMillis() / buckets;
+        this.maximoCuentas = maximoCuentas;
+    }
+
+    /**
+     * Retiro apartado en la ventana; se devuelve con liberar si el movimiento no llega a confirmarse
+     * generacion identifica la lectura de la cuenta en la que se apartó
+     */
+    public record Reserva(long cuentaId, long periodo, long montoCentavos, long generacion) {
+    }
+
+    /**
+     * Aparta un débito contra el límite diario del tipo de cuenta
+     * Dentro de una transacción la reserva se libera sola si la transacción no confirma.
+     * @param valorCentavos Valor con signo que se registrará; solo se apartan los débitos (negativos)
+     * @param montoCentavos Monto solicitado, sin comisión
+     * @return La reserva, o null si el movimiento no es un débito
+     * @throws IllegalArgumentException si el débito supera el límite diario
+     */
+    public Reserva reservar(Cuenta cuenta, long valorCentavos, long montoCentavos) {
+        if (valorCentavos >= 0) {
+            return null;
+        }
+        long limite = strategyFactory.getStrategy(cuenta.getTipoCuenta()).obtenerLimiteRetiroDiarioCentavos();
+        Reserva reserva = reservar(cuenta.getId(), Centavos.abs(montoCentavos), limite, System.currentTimeMillis());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        liberar(reserva);
+                    }
+                }
+            });
+        }
+        return reserva;
+    }
+
+    Reserva reservar(long cuentaId, long montoCentavos, long limiteCentavos, long ahoraMillis) {
+        long periodo = ahoraMillis / duracionBucketMillis;
+        Reserva[] reserva = new Reserva[1];
+        actualizar(cuentaId, ahoraMillis, contadores -> {
+            long retirado = contadores.total(periodo);
+            if (retirado + montoCentavos > limiteCentavos) {
+                throw new IllegalArgumentException("El retiro supera el límite diario de $" +
+                        Centavos.aBigDecimal(limiteCentavos) + " (disponible $" +
+                        Centavos.aBigDecimal(Math.max(0, limiteCentavos - retirado)) + ")");
+            }
+            contadores.sumar(periodo, montoCentavos);
+            reserva[0] = new Reserva(cuentaId, periodo, montoCentavos, contadores.generacion);
+        });
+        return reserva[0];
+    }
+
+    /**
+     * Devuelve a la ventana el monto de un retiro que no se registró
+     */
+    public void liberar(Reserva reserva) {
+        if (reserva == null) {
+            return;
+        }
+        // Si la cuenta se descartó, se volverá a leer de la base de datos, donde el retiro no está; si ya se
+        // volvió a leer, la lectura no incluye el retiro y restarlo dejaría la ventana por debajo
+        porCuenta.computeIfPresent(reserva.cuentaId(), (cuentaId, contadores) -> {
+            if (contadores.generacion == reserva.generacion()) {
+                contadores.restar(reserva.periodo(), reserva.montoCentavos());
+            }
+            return contadores;
+        });
+    }
+
+    /**
+     * Devuelve a la ventana el monto de un débito eliminado
+     * Dentro de una transacción se descuenta solo si la transacción confirma.
+     */
+    public void descontar(Movimientos movimiento) {
+        if (movimiento.getValor().signum() >= 0) {
+            return;
+        }
+        long cuentaId = movimiento.getCuenta().getId();
+        LocalDateTime fecha = movimiento.getFecha();
+        long monto = montoRetirado(movimiento.getValor(), movimiento.getComision());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    descontar(cuentaId, fecha, monto, System.currentTimeMillis());
+                }
+            });
+        } else {
+            descontar(cuentaId, fecha, monto, System.currentTimeMillis());
+        }
+    }
+
+    void descontar(long cuentaId, LocalDateTime fecha, long montoCentavos, long ahoraMillis) {
+        // Una cuenta que no está se leerá de la base de datos, donde el movimiento ya no está activo;
+        // un movimiento cuyo bucket salió de la ventana ya no se cuenta
+        porCuenta.computeIfPresent(cuentaId, (id, contadores) -> {
+            contadores.restar(periodo(fecha, ahoraMillis), montoCentavos);
+            return contadores;
+        });
+    }
+
+    /**
+     * Monto retirado por la cuenta en la ventana actual, en centavos
+     */
+    public long retirado(long cuentaId) {
+        long ahora = System.currentTimeMillis();
+        long[] total = new long[1];
+        actualizar(cuentaId, ahora, contadores -> total[0] = contadores.total(ahora / duracionBucketMillis));
+        return total[0];
+    }
+
+    public int size() {
+        return porCuenta.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void cargar() {
+        long inicio = System.nanoTime();
+        long ahora = System.currentTimeMillis();
+        Map<Long, Contadores> cargados = new HashMap<>();
+        try (Stream<RetiroVentanaDTO> retiros = movimientosRepository.streamRetirosDesde(desde(ahora))) {
+            retiros.forEach(retiro -> {
+                Contadores contadores = cargados.get(retiro.getCuentaId());
+                if (contadores == null) {
+                    if (cargados.size() >= maximoCuentas) {
+                        return;
+                    }
+                    contadores = nuevosContadores();
+                    cargados.put(retiro.getCuentaId(), contadores);
+                }
+                sumar(contadores, retiro, ahora);
+            });
+        }
+        // Una cuenta que ya se leyó por un retiro posterior al arranque tiene datos más recientes
+        cargados.forEach(porCuenta::putIfAbsent);
+        recortar();
+        log.info("Ventana de retiros cargada: {} cuentas en {} ms", cargados.size(),
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Aplica la operación a los contadores de la cuenta bajo el bloqueo de su entrada, leyéndola de la base
+     * de datos si no está
+     */
+    private void actualizar(long cuentaId, long ahoraMillis, Consumer<Contadores> operacion) {
+        while (true) {
+            // Lectura fuera de compute: una cuenta que falta no detiene los retiros de las demás
+            if (!porCuenta.containsKey(cuentaId) && porCuenta.putIfAbsent(cuentaId, leer(cuentaId, ahoraMillis)) == null) {
+                recortar();
+            }
+            Contadores actualizados = porCuenta.computeIfPresent(cuentaId, (id, contadores) -> {
+                operacion.accept(contadores);
+                contadores.acceso = accesos.incrementAndGet();
+                return contadores;
+            });
+            if (actualizados != null) {
+                return;
+            }
+            // Se descartó antes de aplicar la operación: se vuelve a leer
+        }
+    }
+
+    private Contadores leer(long cuentaId, long ahoraMillis) {
+        Contadores leidos = nuevosContadores();
+        List<RetiroVentanaDTO> retiros = movimientosRepository.findRetirosByCuentaIdDesde(cuentaId, desde(ahoraMillis));
+        for (RetiroVentanaDTO retiro : retiros) {
+            sumar(leidos, retiro, ahoraMillis);
+        }
+        return leidos;
+    }
+
+    private Contadores nuevosContadores() {
+        Contadores contadores = new Contadores(buckets, generaciones.incrementAndGet());
+        contadores.acceso = accesos.incrementAndGet();
+        return contadores;
+    }
+
+    /**
+     * Descarta las cuentas usadas hace más tiempo hasta volver al máximo
+     * Recorre todas las cuentas, pero solo corre al agregar una cuenta leída de la base de datos.
+     */
+    private void recortar() {
+        while (porCuenta.size() > maximoCuentas) {
+            Map.Entry<Long, Contadores> masAntigua = null;
+            for (Map.Entry<Long, Contadores> entrada : porCuenta.entrySet()) {
+                if (masAntigua == null || entrada.getValue().acceso < masAntigua.getValue().acceso) {
+                    masAntigua = entrada;
+                }
+            }
+            if (masAntigua == null) {
+                return;
+            }
+            porCuenta.remove(masAntigua.getKey(), masAntigua.getValue());
+        }
+    }
+
+    private void sumar(Contadores contadores, RetiroVentanaDTO retiro, long ahoraMillis) {
+        contadores.sumar(periodo(retiro.getFecha(), ahoraMillis), montoRetirado(retiro.getValor(), retiro.getComision()));
+    }
+
+    private long periodo(LocalDateTime fecha, long ahoraMillis) {
+        long fechaMillis = fecha.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return Math.min(fechaMillis, ahoraMillis) / duracionBucketMillis;
+    }
+
+    private static long montoRetirado(BigDecimal valor, BigDecimal comision) {
+        long comisionCentavos = comision == null ? 0 : Centavos.desde(comision);
+        return Centavos.sumar(Centavos.abs(Centavos.desde(valor)), Centavos.negar(comisionCentavos));
+    }
+
+    private LocalDateTime desde(long ahoraMillis) {
+        long primerPeriodo = ahoraMillis / duracionBucketMillis - buckets + 1;
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(primerPeriodo * duracionBucketMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Anillo de contadores de una cuenta: el bucket i guarda el monto del período absoluto periodos[i]
+     * Un bucket cuyo período salió de la ventana se reutiliza al llegar un retiro de un período nuevo.
+     * Se modifica solo dentro de compute sobre la entrada de su cuenta.
+     */
+    private static final class Contadores {
+
+        private final long[] periodos;
+        private final long[] centavos;
+        private final long generacion;
+        private volatile long acceso;
+
+        private Contadores(int buckets, long generacion) {
+            this.periodos = new long[buckets];
+            this.centavos = new long[buckets];
+            this.generacion = generacion;
+        }
+
+        private long total(long periodoActual) {
+            long total = 0;
+            for (int i = 0; i < periodos.length; i++) {
+                if (periodos[i] > periodoActual - periodos.length && periodos[i] <= periodoActual) {
+                    total += centavos[i];
+                }
+            }
+            return total;
+        }
+
+        private void sumar(long periodo, long monto) {
+            int i = (int) Math.floorMod(periodo, (long) periodos.length);
+            if (periodos[i] != periodo) {
+                // Solo se reutiliza un bucket más antiguo; un período viejo no borra uno reciente
+                if (periodos[i] > periodo) {
+                    return;
+                }
+                periodos[i] = periodo;
+                centavos[i] = 0;
+            }
+            centavos[i] += monto;
+        }
+
+        private void restar(long periodo, long monto) {
+            int i = (int) Math.floorMod(periodo, (long) periodos.length);
+            if (periodos[i] == periodo) {
+                centavos[i] -= monto;
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.rvera.sofka.banksimulator.concurrencia;
+
+import com.rvera.sofka.banksimulator.dto.BulkheadEstadisticasDTO;
+import com.rvera.sofka.banksimulator.exception.BulkheadSaturadoException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compartimento de una clase de carga: a lo sumo maximoConcurrentes ejecuciones a la vez y maximoEnEspera
+ * solicitudes esperando un permiso, cada una hasta 'espera'
+ * Con la cola llena la solicitud se rechaza sin esperar; así una clase lenta (reportes) no retiene los hilos
+ * ni las conexiones que necesitan las demás.
+ */
+public class Bulkhead {
+
+    private final String nombre;
+    private final int maximoConcurrentes;
+    private final int maximoEnEspera;
+    private final long esperaNanos;
+    private final long reintentarEnSegundos;
+    private final Semaphore permisos;
+    private final AtomicInteger enEspera = new AtomicInteger();
+    private final LongAdder aceptadas = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+    private final LongAdder esperaNanosTotal = new LongAdder();
+    private final LongAdder ocupadoNanosTotal = new LongAdder();
+    private final long inicioNanos = System.nanoTime();
+
+    public Bulkhead(String nombre, int maximoConcurrentes, int maximoEnEspera, Duration espera) {
+        if (maximoConcurrentes < 1 || maximoEnEspera < 0) {
+            throw new IllegalArgumentException("Límites inválidos para el bulkhead " + nombre);
+        }
+        this.nombre = nombre;
+        this.maximoConcurrentes = maximoConcurrentes;
+        this.maximoEnEspera = maximoEnEspera;
+        this.esperaNanos = espera.toNanos();
+        this.reintentarEnSegundos = Math.max(1, (espera.toMillis() + 999) / 1000);
+        this.permisos = new Semaphore(maximoConcurrentes, true);
+    }
+
+    /**
+     * Toma un permiso; se devuelve al cerrar el Permiso
+     * @throws BulkheadSaturadoException si la cola de espera está llena o la espera se agota
+     */
+    public Permiso adquirir() {
+        long inicio = System.nanoTime();
+        if (!permisos.tryAcquire()) {
+            if (enEspera.incrementAndGet() > maximoEnEspera) {
+                enEspera.decrementAndGet();
+                throw rechazar("cola de espera llena (" + maximoEnEspera + ")");
+            }
+            try {
+                if (!permisos.tryAcquire(esperaNanos, TimeUnit.NANOSECONDS)) {
+                    throw rechazar("sin permiso disponible tras " + Duration.ofNanos(esperaNanos).toMillis() + " ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw rechazar("interrumpido esperando un permiso");
+            } finally {
+                enEspera.decrementAndGet();
+            }
+        }
+        long adquirido = System.nanoTime();
+        aceptadas.increment();
+        esperaNanosTotal.add(adquirido - inicio);
+        return new Permiso(adquirido);
+    }
+
+    /**
+     * Toma un permiso esperando lo necesario, sin ocupar la cola de espera: para trabajos en segundo plano,
+     * que no tienen una solicitud a la que responder 503 y ya están acotados por su propio pool
+     * @throws BulkheadSaturadoException si el hilo se interrumpe esperando
+     */
+    public Permiso esperar() {
+        long inicio = System.nanoTime();
+        try {
+            permisos.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw rechazar("interrumpido esperando un permiso");
+        }
+        long adquirido = System.nanoTime();
+        aceptadas.increment();
+        esperaNanosTotal.add(adquirido - inicio);
+        return new Permiso(adquirido);
+    }
+
+    private BulkheadSaturadoException rechazar(String motivo) {
+        rechazadas.increment();
+        return new BulkheadSaturadoException(nombre, motivo, reintentarEnSegundos);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public BulkheadEstadisticasDTO estadisticas() {
+        int enEjecucion = maximoConcurrentes - permisos.availablePermits();
+        long transcurridoNanos = Math.max(1, System.nanoTime() - inicioNanos);
+        long aceptadasTotal = aceptadas.sum();
+        return BulkheadEstadisticasDTO.builder()
+                .nombre(nombre)
+                .maximoConcurrentes(maximoConcurrentes)
+                .maximoEnEspera(maximoEnEspera)
+                .enEjecucion(enEjecucion)
+                .enEspera(enEspera.get())
+                .aceptadas(aceptadasTotal)
+                .rechazadas(rechazadas.sum())
+                .utilizacion((double) enEjecucion / maximoConcurrentes)
+                .utilizacionMedia(Math.min(1.0, (double) ocupadoNanosTotal.sum() / transcurridoNanos / maximoConcurrentes))
+                .esperaMediaMs(aceptadasTotal == 0 ? 0 : esperaNanosTotal.sum() / 1_000_000.0 / aceptadasTotal)
+                .build();
+    }
+
+    /**
+     * Permiso tomado; cerrarlo más de una vez no devuelve permisos de más
+     */
+    public final class Permiso implements AutoCloseable {
+
+        private final long adquiridoNanos;
+        private final AtomicBoolean liberado = new AtomicBoolean();
+
+        private Permiso(long adquiridoNanos) {
+            this.adquiridoNanos = adquiridoNanos;
+        }
+
+        public Bulkhead getBulkhead() {
+            return Bulkhead.this;
+        }
+
+        @Override
+        public void close() {
+            if (liberado.compareAndSet(false, true)) {
+                ocupadoNanosTotal.add(System.nanoTime() - adquiridoNanos);
+                permisos.release();
+            }
+        }
+    }
+}
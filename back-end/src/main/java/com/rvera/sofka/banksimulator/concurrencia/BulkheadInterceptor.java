@@ -0,0 +1,47 @@
+package com.rvera.sofka.banksimulator.concurrencia;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta los métodos anotados con @EnBulkhead dentro del bulkhead de su clase de carga
+ */
+public class BulkheadInterceptor implements MethodInterceptor {
+
+    private final Supplier<Bulkheads> bulkheads;
+    private final Map<Method, Optional<Carga>> cargas = new ConcurrentHashMap<>();
+
+    /**
+     * @param bulkheads Se resuelve en la primera llamada: el asesor se crea antes que los demás beans
+     */
+    public BulkheadInterceptor(Supplier<Bulkheads> bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Optional<Carga> carga = cargaDe(invocation);
+        if (carga.isEmpty()) {
+            return invocation.proceed();
+        }
+        return bulkheads.get().ejecutar(carga.get(), invocation::proceed);
+    }
+
+    private Optional<Carga> cargaDe(MethodInvocation invocation) {
+        // La invocación puede llegar con el método de la interfaz: la anotación está en la implementación
+        Class<?> destino = invocation.getThis() != null
+                ? AopUtils.getTargetClass(invocation.getThis())
+                : invocation.getMethod().getDeclaringClass();
+        Method metodo = AopUtils.getMostSpecificMethod(invocation.getMethod(), destino);
+        return cargas.computeIfAbsent(metodo, m ->
+                Optional.ofNullable(AnnotationUtils.findAnnotation(m, EnBulkhead.class)).map(EnBulkhead::value));
+    }
+}
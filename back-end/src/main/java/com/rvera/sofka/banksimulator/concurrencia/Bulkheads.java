@@ -0,0 +1,108 @@
+package com.rvera.sofka.banksimulator.concurrencia;
+
+import com.rvera.sofka.banksimulator.dto.BulkheadEstadisticasDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulkheads por clase de carga, configurados con app.bulkheads.{nombre}.concurrentes, .en-espera y .espera
+ * El hilo recuerda los bulkheads cuyo permiso tiene: una llamada anidada a un método @EnBulkhead de la misma
+ * clase de carga no pide un segundo permiso, que podría no llegar mientras el primero sigue tomado. Una llamada
+ * anidada de otra clase toma el permiso de esa clase, así cada clase conserva su parte del pool de conexiones.
+ */
+@Slf4j
+@Component
+public class Bulkheads {
+
+    private static final ThreadLocal<Set<Bulkhead>> EN_CURSO = new ThreadLocal<>();
+
+    private final Map<Carga, Bulkhead> porCarga = new EnumMap<>(Carga.class);
+
+    /**
+     * Tarea que se ejecuta con un permiso
+     */
+    @FunctionalInterface
+    public interface Tarea<T, E extends Throwable> {
+        T ejecutar() throws E;
+    }
+
+    public Bulkheads(Environment environment) {
+        for (Carga carga : Carga.values()) {
+            String prefijo = "app.bulkheads." + carga.getNombre() + ".";
+            Bulkhead bulkhead = new Bulkhead(carga.getNombre(),
+                    environment.getProperty(prefijo + "concurrentes", Integer.class, carga.getConcurrentes()),
+                    environment.getProperty(prefijo + "en-espera", Integer.class, carga.getEnEspera()),
+                    environment.getProperty(prefijo + "espera", Duration.class, carga.getEspera()));
+            porCarga.put(carga, bulkhead);
+            log.debug("Bulkhead {}: {}", carga.getNombre(), bulkhead.estadisticas());
+        }
+    }
+
+    public Bulkhead get(Carga carga) {
+        return porCarga.get(carga);
+    }
+
+    /**
+     * Toma un permiso de la clase en el hilo de la solicitud, para responder 503 antes de empezar una
+     * respuesta que se escribe en otro hilo (ver ejecutar)
+     */
+    public Bulkhead.Permiso adquirir(Carga carga) {
+        return get(carga).adquirir();
+    }
+
+    /**
+     * Toma un permiso de la clase esperando lo necesario, para los hilos de trabajos en segundo plano
+     * (ver Bulkhead.esperar)
+     */
+    public Bulkhead.Permiso esperar(Carga carga) {
+        return get(carga).esperar();
+    }
+
+    /**
+     * Ejecuta la tarea en el hilo actual con un permiso ya tomado y lo devuelve al terminar
+     */
+    public <T, E extends Throwable> T ejecutar(Bulkhead.Permiso permiso, Tarea<T, E> tarea) throws E {
+        Set<Bulkhead> enCurso = EN_CURSO.get();
+        if (enCurso == null) {
+            enCurso = new HashSet<>();
+            EN_CURSO.set(enCurso);
+        }
+        boolean agregado = enCurso.add(permiso.getBulkhead());
+        try {
+            return tarea.ejecutar();
+        } finally {
+            if (agregado) {
+                enCurso.remove(permiso.getBulkhead());
+                if (enCurso.isEmpty()) {
+                    EN_CURSO.remove();
+                }
+            }
+            permiso.close();
+        }
+    }
+
+    /**
+     * Ejecuta la tarea dentro del bulkhead de la clase, salvo que el hilo ya tenga un permiso de esa clase
+     */
+    public <T, E extends Throwable> T ejecutar(Carga carga, Tarea<T, E> tarea) throws E {
+        Set<Bulkhead> enCurso = EN_CURSO.get();
+        if (enCurso != null && enCurso.contains(get(carga))) {
+            return tarea.ejecutar();
+        }
+        return ejecutar(adquirir(carga), tarea);
+    }
+
+    public List<BulkheadEstadisticasDTO> estadisticas() {
+        return porCarga.values().stream()
+                .map(Bulkhead::estadisticas)
+                .toList();
+    }
+}
@@ -0,0 +1,44 @@
+package com.rvera.sofka.banksimulator.concurrencia;
+
+import java.time.Duration;
+
+/**
+ * Clases de carga con bulkhead propio y sus límites por defecto
+ * La suma de los concurrentes es la parte del pool de conexiones que pueden ocupar las solicitudes;
+ * el presupuesto completo está junto a spring.datasource.hikari.maximum-pool-size.
+ */
+public enum Carga {
+
+    REGISTRO("registro", 6, 200, Duration.ofSeconds(5)),
+    LECTURAS("lecturas", 4, 200, Duration.ofSeconds(2)),
+    BUSQUEDA("busqueda", 2, 20, Duration.ofSeconds(1)),
+    REPORTES("reportes", 2, 10, Duration.ofSeconds(10));
+
+    private final String nombre;
+    private final int concurrentes;
+    private final int enEspera;
+    private final Duration espera;
+
+    Carga(String nombre, int concurrentes, int enEspera, Duration espera) {
+        this.nombre = nombre;
+        this.concurrentes = concurrentes;
+        this.enEspera = enEspera;
+        this.espera = espera;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    int getConcurrentes() {
+        return concurrentes;
+    }
+
+    int getEnEspera() {
+        return enEspera;
+    }
+
+    Duration getEspera() {
+        return espera;
+    }
+}
@@ -0,0 +1,62 @@
+package com.rvera.sofka.banksimulator.concurrencia;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Respuesta en streaming que se escribe con un permiso tomado en el hilo de la solicitud
+ * El permiso se devuelve al terminar el cuerpo o, si el cuerpo no llegó a ejecutarse (la solicitud asíncrona
+ * expiró, falló o la tarea fue rechazada), al completarse la solicitud. Un cuerpo que empieza después de
+ * eso ya no escribe: la respuesta terminó y su permiso se devolvió.
+ */
+public final class CuerpoConPermiso implements StreamingResponseBody, CallableProcessingInterceptor {
+
+    private final Bulkheads bulkheads;
+    private final Bulkhead.Permiso permiso;
+    private final StreamingResponseBody cuerpo;
+    // Lo reclama primero el cuerpo al empezar o la solicitud al completarse
+    private final AtomicBoolean reclamado = new AtomicBoolean();
+
+    CuerpoConPermiso(Bulkheads bulkheads, Bulkhead.Permiso permiso, StreamingResponseBody cuerpo) {
+        this.bulkheads = bulkheads;
+        this.permiso = permiso;
+        this.cuerpo = cuerpo;
+    }
+
+    /**
+     * Asocia el permiso a la solicitud asíncrona que escribirá el cuerpo
+     */
+    public static StreamingResponseBody registrar(Bulkheads bulkheads, Bulkhead.Permiso permiso,
+                                                  HttpServletRequest request, StreamingResponseBody cuerpo) {
+        CuerpoConPermiso conPermiso = new CuerpoConPermiso(bulkheads, permiso, cuerpo);
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(conPermiso, conPermiso);
+        return conPermiso;
+    }
+
+    @Override
+    public void writeTo(OutputStream salida) throws IOException {
+        if (!reclamado.compareAndSet(false, true)) {
+            return;
+        }
+        bulkheads.ejecutar(permiso, () -> {
+            cuerpo.writeTo(salida);
+            return null;
+        });
+    }
+
+    @Override
+    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+        // Un cuerpo en curso devuelve el permiso al terminar o al ser interrumpido
+        if (reclamado.compareAndSet(false, true)) {
+            permiso.close();
+        }
+    }
+}
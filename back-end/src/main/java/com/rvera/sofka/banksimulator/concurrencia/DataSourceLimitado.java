@@ -0,0 +1,120 @@
+package com.rvera.sofka.banksimulator.concurrencia;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DataSource que limita las conexiones tomadas a la vez con un semáforo justo
+ * Con hilos virtuales cada solicitud tiene su propio hilo: sin este límite miles de ellos esperarían dentro del
+ * pool y agotarían su connectionTimeout a la vez. Aquí esperan en orden de llegada hasta 'espera' y el permiso
+ * se devuelve al cerrar la conexión (una sola vez aunque se cierre varias).
+ */
+public class DataSourceLimitado extends DelegatingDataSource {
+
+    private final Semaphore permisos;
+    private final int maximo;
+    private final long esperaNanos;
+    private final AtomicLong rechazadas = new AtomicLong();
+
+    public DataSourceLimitado(DataSource destino, int maximo, Duration espera) {
+        super(destino);
+        this.permisos = new Semaphore(maximo, true);
+        this.maximo = maximo;
+        this.esperaNanos = espera.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        return limitada(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        return limitada(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    public int getMaximo() {
+        return maximo;
+    }
+
+    public int getEnUso() {
+        return maximo - permisos.availablePermits();
+    }
+
+    /**
+     * Hilos esperando un permiso (aproximado)
+     */
+    public int getEsperando() {
+        return permisos.getQueueLength();
+    }
+
+    /**
+     * Solicitudes que no obtuvieron un permiso dentro de la espera máxima
+     */
+    public long getRechazadas() {
+        return rechazadas.get();
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permisos.tryAcquire(esperaNanos, TimeUnit.NANOSECONDS)) {
+                rechazadas.incrementAndGet();
+                throw new SQLTransientConnectionException("No hay conexiones disponibles: " + maximo
+                        + " en uso y " + permisos.getQueueLength() + " en espera");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando una conexión", e);
+        }
+    }
+
+    private interface Apertura {
+        Connection abrir() throws SQLException;
+    }
+
+    private Connection limitada(Apertura apertura) throws SQLException {
+        Connection conexion;
+        try {
+            conexion = apertura.abrir();
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+        AtomicBoolean liberada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, argumentos) -> switch (metodo.getName()) {
+                    case "equals" -> proxy == argumentos[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        try {
+                            conexion.close();
+                        } finally {
+                            if (liberada.compareAndSet(false, true)) {
+                                permisos.release();
+                            }
+                        }
+                        yield null;
+                    }
+                    default -> {
+                        try {
+                            yield metodo.invoke(conexion, argumentos);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,122 @@
+package com.rvera.sofka.banksimulator.concurrencia;
+
+import com.rvera.sofka.banksimulator.dto.AnclajeHiloDTO;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Registro de hilos virtuales anclados a su hilo portador (evento JFR jdk.VirtualThreadPinned, Java 21+)
+ * Un hilo virtual que se bloquea dentro de un bloque synchronized (JasperReports sincroniza el llenado y el
+ * archivo de intercambio del virtualizador) no libera su portador: con pocos portadores, unas cuantas esperas
+ * así detienen al resto de solicitudes. Se agrupan por el primer marco de la aplicación o de una librería,
+ * y el primer evento de cada marco se registra en el log con su pila.
+ */
+@Slf4j
+public class DiagnosticoAnclajes implements DisposableBean {
+
+    public static final String EVENTO = "jdk.VirtualThreadPinned";
+
+    private static final int MAXIMO_MARCOS = 200;
+    private static final int MARCOS_EN_LOG = 12;
+    private static final List<String> PAQUETES_JDK = List.of("java.", "javax.", "jdk.", "sun.", "com.sun.");
+
+    private final Map<String, Acumulado> porMarco = new ConcurrentHashMap<>();
+    private final AtomicLong eventos = new AtomicLong();
+    private final RecordingStream grabacion;
+
+    private static final class Acumulado {
+        private final AtomicLong eventos = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final LongAccumulator maximoNanos = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * @param umbral Duración mínima de un anclaje para registrarlo
+     */
+    public DiagnosticoAnclajes(Duration umbral) {
+        this.grabacion = new RecordingStream();
+        grabacion.enable(EVENTO).withThreshold(umbral).withStackTrace();
+        grabacion.onEvent(EVENTO, evento -> registrar(pila(evento), evento.getDuration()));
+        grabacion.startAsync();
+        log.info("Diagnóstico de hilos virtuales anclados activo (umbral {} ms)", umbral.toMillis());
+    }
+
+    DiagnosticoAnclajes() {
+        this.grabacion = null;
+    }
+
+    /**
+     * @param pila Marcos "clase.método:línea" desde el más interno
+     */
+    void registrar(List<String> pila, Duration duracion) {
+        eventos.incrementAndGet();
+        String marco = pila.stream()
+                .filter(m -> PAQUETES_JDK.stream().noneMatch(m::startsWith))
+                .findFirst()
+                .orElse(pila.isEmpty() ? "desconocido" : pila.get(0));
+        Acumulado acumulado = porMarco.get(marco);
+        if (acumulado == null) {
+            if (porMarco.size() >= MAXIMO_MARCOS) {
+                marco = "otros";
+            }
+            acumulado = porMarco.computeIfAbsent(marco, m -> {
+                log.warn("Hilo virtual anclado {} ms en {}:\n\t{}", duracion.toMillis(), m,
+                        String.join("\n\t", pila.subList(0, Math.min(MARCOS_EN_LOG, pila.size()))));
+                return new Acumulado();
+            });
+        }
+        acumulado.eventos.incrementAndGet();
+        acumulado.totalNanos.addAndGet(duracion.toNanos());
+        acumulado.maximoNanos.accumulate(duracion.toNanos());
+    }
+
+    private static List<String> pila(RecordedEvent evento) {
+        if (evento.getStackTrace() == null) {
+            return List.of();
+        }
+        return evento.getStackTrace().getFrames().stream()
+                .map(DiagnosticoAnclajes::marco)
+                .toList();
+    }
+
+    private static String marco(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    public long getEventos() {
+        return eventos.get();
+    }
+
+    /**
+     * Marcos ordenados por tiempo total anclado
+     */
+    public List<AnclajeHiloDTO> anclajes() {
+        return porMarco.entrySet().stream()
+                .map(e -> AnclajeHiloDTO.builder()
+                        .marco(e.getKey())
+                        .eventos(e.getValue().eventos.get())
+                        .duracionMaximaMs(Duration.ofNanos(e.getValue().maximoNanos.get()).toMillis())
+                        .duracionTotalMs(Duration.ofNanos(e.getValue().totalNanos.get()).toMillis())
+                        .build())
+                .sorted(Comparator.comparingLong(AnclajeHiloDTO::getDuracionTotalMs).reversed())
+                .toList();
+    }
+
+    @Override
+    public void destroy() {
+        if (grabacion != null) {
+            grabacion.close();
+        }
+    }
+}
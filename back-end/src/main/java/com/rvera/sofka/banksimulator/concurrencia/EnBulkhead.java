@@ -0,0 +1,21 @@
+package com.rvera.sofka.banksimulator.concurrencia;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * El método se ejecuta con un permiso del bulkhead de su clase de carga
+ * El permiso se toma antes de abrir la transacción (el asesor va delante del de @Transactional) y las
+ * llamadas anidadas de la misma clase reutilizan el permiso del hilo. En métodos que retornan
+ * CompletableFuture el permiso cubre solo la llamada.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EnBulkhead {
+
+    Carga value();
+}
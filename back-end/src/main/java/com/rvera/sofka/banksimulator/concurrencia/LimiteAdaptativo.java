@@ -0,0 +1,131 @@
+package com.rvera.sofka.banksimulator.concurrencia;
+
+import com.rvera.sofka.banksimulator.dto.LimiteConcurrenciaDTO;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Límite de solicitudes en curso que se ajusta con la latencia medida (gradiente)
+ * Se comparan dos promedios móviles de la latencia: uno corto (las últimas ~20 respuestas) y uno largo
+ * (~600) que hace de referencia sin carga. Mientras la latencia corta no supere la larga por más de
+ * 'tolerancia' el límite crece en raíz del límite; cuando la supera, se reduce en proporción, hasta la
+ * mitad por muestra. Una respuesta 503 (bulkhead o pool saturado) lo reduce un 10% sin medir latencia.
+ * El nuevo valor se suaviza con 'suavizado' y queda entre minimo y maximo.
+ */
+public class LimiteAdaptativo {
+
+    private static final double ALFA_CORTA = 2.0 / (20 + 1);
+    private static final double ALFA_LARGA = 2.0 / (600 + 1);
+    private static final double REDUCCION_POR_SOBRECARGA = 0.9;
+
+    private final String grupo;
+    private final int minimo;
+    private final int maximo;
+    private final double tolerancia;
+    private final double suavizado;
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private final LongAdder aceptadas = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+    private volatile double limite;
+
+    // Protegidas por el monitor: una actualización por respuesta
+    private double latenciaCorta;
+    private double latenciaLarga;
+    private long muestras;
+
+    public LimiteAdaptativo(String grupo, int inicial, int minimo, int maximo, double tolerancia, double suavizado) {
+        if (minimo < 1 || maximo < minimo || inicial < minimo || inicial > maximo) {
+            throw new IllegalArgumentException("Límites inválidos para el grupo " + grupo);
+        }
+        this.grupo = grupo;
+        this.limite = inicial;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.tolerancia = tolerancia;
+        this.suavizado = suavizado;
+    }
+
+    /**
+     * @return false si ya hay tantas solicitudes en curso como el límite actual
+     */
+    public boolean adquirir() {
+        while (true) {
+            int actual = enCurso.get();
+            if (actual >= (int) limite) {
+                rechazadas.increment();
+                return false;
+            }
+            if (enCurso.compareAndSet(actual, actual + 1)) {
+                aceptadas.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param latenciaNanos Duración de la solicitud
+     * @param sobrecarga    La solicitud terminó rechazada más adelante por falta de capacidad
+     */
+    public void liberar(long latenciaNanos, boolean sobrecarga) {
+        int enCursoAlTerminar = enCurso.getAndDecrement();
+        actualizar(latenciaNanos, sobrecarga, enCursoAlTerminar);
+    }
+
+    private synchronized void actualizar(long latenciaNanos, boolean sobrecarga, int enCursoAlTerminar) {
+        double nuevo;
+        if (sobrecarga) {
+            nuevo = limite * REDUCCION_POR_SOBRECARGA;
+        } else {
+            muestras++;
+            if (muestras == 1) {
+                latenciaCorta = latenciaNanos;
+                latenciaLarga = latenciaNanos;
+            } else {
+                latenciaCorta += (latenciaNanos - latenciaCorta) * ALFA_CORTA;
+                latenciaLarga += (latenciaNanos - latenciaLarga) * ALFA_LARGA;
+            }
+            // La carga bajó de forma sostenida: la referencia se acerca a la latencia actual
+            if (latenciaLarga > 2 * latenciaCorta) {
+                latenciaLarga *= 0.95;
+            }
+            // Con menos de la mitad del límite en uso la latencia no dice nada sobre si se puede crecer
+            if (enCursoAlTerminar < limite / 2) {
+                return;
+            }
+            double gradiente = Math.max(0.5, Math.min(1.0, tolerancia * latenciaLarga / Math.max(1, latenciaCorta)));
+            nuevo = limite * gradiente + Math.sqrt(limite);
+        }
+        nuevo = limite * (1 - suavizado) + nuevo * suavizado;
+        limite = Math.max(minimo, Math.min(maximo, nuevo));
+    }
+
+    public String getGrupo() {
+        return grupo;
+    }
+
+    public int getLimite() {
+        return (int) limite;
+    }
+
+    /**
+     * Segundos sugeridos en Retry-After: la latencia reciente del grupo, como mínimo 1
+     */
+    public synchronized long reintentarEnSegundos() {
+        return Math.max(1, (long) Math.ceil(latenciaCorta / 1_000_000_000.0));
+    }
+
+    public synchronized LimiteConcurrenciaDTO estadisticas() {
+        return LimiteConcurrenciaDTO.builder()
+                .grupo(grupo)
+                .limite((int) limite)
+                .limiteMinimo(minimo)
+                .limiteMaximo(maximo)
+                .enCurso(enCurso.get())
+                .aceptadas(aceptadas.sum())
+                .rechazadas(rechazadas.sum())
+                .latenciaRecienteMs(latenciaCorta / 1_000_000.0)
+                .latenciaReferenciaMs(latenciaLarga / 1_000_000.0)
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.rvera.sofka.banksimulator.concurrencia;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rvera.sofka.banksimulator.exception.ErrorResponse;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Aplica el límite adaptativo del grupo de endpoints antes de llegar al controlador
+ * Una solicitud por encima del límite se responde de inmediato con 429 y Retry-After, sin ocupar un hilo
+ * ni esperar en un bulkhead. La latencia se mide hasta que termina la respuesta, también en las respuestas
+ * asíncronas (CompletableFuture, StreamingResponseBody).
+ */
+@Slf4j
+public class LimiteConcurrenciaFilter extends OncePerRequestFilter {
+
+    private static final UrlPathHelper RUTAS = UrlPathHelper.defaultInstance;
+
+    private final LimitesAdaptativos limites;
+    private final ObjectMapper objectMapper;
+
+    public LimiteConcurrenciaFilter(LimitesAdaptativos limites, ObjectMapper objectMapper) {
+        this.limites = limites;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return HttpMethod.OPTIONS.matches(request.getMethod())
+                || LimitesAdaptativos.grupoDe(RUTAS.getPathWithinApplication(request)) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        LimiteAdaptativo limite = limites.get(LimitesAdaptativos.grupoDe(RUTAS.getPathWithinApplication(request)));
+        if (!limite.adquirir()) {
+            rechazar(limite, request, response);
+            return;
+        }
+        long inicio = System.nanoTime();
+        boolean asincrona = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Liberacion(limite, inicio));
+                asincrona = true;
+            }
+        } finally {
+            if (!asincrona) {
+                limite.liberar(System.nanoTime() - inicio, sobrecarga(response));
+            }
+        }
+    }
+
+    private void rechazar(LimiteAdaptativo limite, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        log.debug("Solicitud {} {} rechazada: {} en curso en el grupo {}", request.getMethod(),
+                request.getRequestURI(), limite.getLimite(), limite.getGrupo());
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error("Demasiadas Solicitudes")
+                .message("El servicio de " + limite.getGrupo() + " está atendiendo el máximo de solicitudes. " +
+                        "Por favor intenta de nuevo en unos segundos.")
+                .path(request.getRequestURI())
+                .build();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(limite.reintentarEnSegundos()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static boolean sobrecarga(HttpServletResponse response) {
+        return response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+
+    /**
+     * Devuelve el lugar al completarse la respuesta asíncrona; un timeout cuenta como sobrecarga
+     */
+    private static final class Liberacion implements AsyncListener {
+
+        private final LimiteAdaptativo limite;
+        private final long inicio;
+        private volatile boolean vencida;
+
+        private Liberacion(LimiteAdaptativo limite, long inicio) {
+            this.limite = limite;
+            this.inicio = inicio;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            boolean sobrecarga = vencida || (event.getSuppliedResponse() instanceof HttpServletResponse respuesta
+                    && sobrecarga(respuesta));
+            limite.liberar(System.nanoTime() - inicio, sobrecarga);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            vencida = true;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.rvera.sofka.banksimulator.concurrencia;
+
+import com.rvera.sofka.banksimulator.dto.LimiteConcurrenciaDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Límites adaptativos por grupo de endpoints, configurados con app.limite-adaptativo.*
+ * Los reportes tienen su propio grupo: sus latencias de segundos no deben frenar al resto de /movimientos.
+ */
+@Component
+public class LimitesAdaptativos {
+
+    public static final String MOVIMIENTOS = "movimientos";
+    public static final String REPORTES = "reportes";
+    public static final String CUENTAS = "cuentas";
+    public static final String CLIENTES = "clientes";
+    public static final String PERSONAS = "personas";
+
+    private final Map<String, LimiteAdaptativo> porGrupo = new LinkedHashMap<>();
+
+    public LimitesAdaptativos(@Value("${app.limite-adaptativo.inicial:20}") int inicial,
+                              @Value("${app.limite-adaptativo.minimo:4}") int minimo,
+                              @Value("${app.limite-adaptativo.maximo:200}") int maximo,
+                              @Value("${app.limite-adaptativo.tolerancia:1.5}") double tolerancia,
+                              @Value("${app.limite-adaptativo.suavizado:0.2}") double suavizado) {
+        for (String grupo : List.of(MOVIMIENTOS, REPORTES, CUENTAS, CLIENTES, PERSONAS)) {
+            porGrupo.put(grupo, new LimiteAdaptativo(grupo, inicial, minimo, maximo, tolerancia, suavizado));
+        }
+    }
+
+    /**
+     * Grupo de una ruta relativa al contexto; null para las rutas sin límite (administración, Swagger)
+     */
+    public static String grupoDe(String ruta) {
+        if (ruta.startsWith("/movimientos/reportes")) {
+            return REPORTES;
+        }
+        int fin = ruta.indexOf('/', 1);
+        String primero = fin < 0 ? ruta.substring(1) : ruta.substring(1, fin);
+        return switch (primero) {
+            case MOVIMIENTOS, CUENTAS, CLIENTES, PERSONAS -> primero;
+            default -> null;
+        };
+    }
+
+    public LimiteAdaptativo get(String grupo) {
+        return porGrupo.get(grupo);
+    }
+
+    public List<LimiteConcurrenciaDTO> estadisticas() {
+        return porGrupo.values().stream()
+                .map(LimiteAdaptativo::estadisticas)
+                .toList();
+    }
+}
@@ -0,0 +1,34 @@
+package com.rvera.sofka.banksimulator.config;
+
+import com.rvera.sofka.banksimulator.concurrencia.BulkheadInterceptor;
+import com.rvera.sofka.banksimulator.concurrencia.Bulkheads;
+import com.rvera.sofka.banksimulator.concurrencia.EnBulkhead;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Bulkheads por clase de carga (registro, lecturas, búsqueda, reportes)
+ * El asesor de @EnBulkhead tiene más precedencia que el de @Transactional: el permiso se toma antes de
+ * pedir la conexión, así los concurrentes de cada clase son también su partición del pool de conexiones.
+ */
+@Configuration
+public class BulkheadConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor bulkheadAdvisor(ObjectProvider<Bulkheads> bulkheads) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(EnBulkhead.class),
+                new BulkheadInterceptor(SingletonSupplier.of(bulkheads::getObject)));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
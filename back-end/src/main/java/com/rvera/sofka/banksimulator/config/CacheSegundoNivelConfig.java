@@ -0,0 +1,38 @@
+package com.rvera.sofka.banksimulator.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Cache de segundo nivel de Hibernate para Cliente, Persona y Cuenta y la cache de sus consultas por clave
+ * Usa hibernate-jcache con el proveedor JCache de Caffeine; el tamaño y la expiración de cada región se
+ * declaran en application.conf (caffeine.jcache), donde los lee Caffeine
+ */
+@Configuration
+public class CacheSegundoNivelConfig implements HibernatePropertiesCustomizer {
+
+    private final boolean habilitada;
+
+    public CacheSegundoNivelConfig(@Value("${app.cache.entidades.habilitada:true}") boolean habilitada) {
+        this.habilitada = habilitada;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, habilitada);
+        hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, habilitada);
+        if (!habilitada) {
+            return;
+        }
+        hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+        hibernateProperties.put(ConfigSettings.PROVIDER, CaffeineCachingProvider.class.getName());
+        // Una región sin configuración sería una cache sin límite: se exige declararla
+        hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+    }
+}
@@ -1,8 +1,10 @@
 package com.rvera.sofka.banksimulator.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
@@ -12,16 +14,23 @@ import java.util.Arrays;
 @Configuration
 public class CorsConfig {
 
+    /**
+     * Antes que los demás filtros de la aplicación: cualquier respuesta, incluso un rechazo, lleva las cabeceras CORS
+     */
+    public static final int ORDEN = Ordered.HIGHEST_PRECEDENCE + 10;
+
     @Value("${app.cors.allowed-origin}")
     private String allowedOrigin;
 
     @Bean
-    public CorsFilter corsFilter() {
+    public FilterRegistrationBean<CorsFilter> corsFilter() {
         CorsConfiguration config = new CorsConfiguration();
         
         config.setAllowedOrigins(Arrays.asList(allowedOrigin));
         config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         config.setAllowedHeaders(Arrays.asList("*"));
+        // Cursor de la página siguiente en los listados paginados
+        config.setExposedHeaders(Arrays.asList("X-Next-Cursor"));
 
         // Permitir credenciales
         config.setAllowCredentials(true);
@@ -32,6 +41,8 @@ public class CorsConfig {
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
 
-        return new CorsFilter(source);
+        FilterRegistrationBean<CorsFilter> registro = new FilterRegistrationBean<>(new CorsFilter(source));
+        registro.setOrder(ORDEN);
+        return registro;
     }
 }
@@ -0,0 +1,57 @@
+package com.rvera.sofka.banksimulator.config;
+
+import com.rvera.sofka.banksimulator.concurrencia.DataSourceLimitado;
+import com.rvera.sofka.banksimulator.concurrencia.DiagnosticoAnclajes;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Ejecución de solicitudes en hilos virtuales (perfil "virtual", Java 21+)
+ * spring.threads.virtual.enabled cubre Tomcat, @Async, las respuestas asíncronas de MVC y @Scheduled; aquí se
+ * agregan el límite de conexiones del DataSource y el diagnóstico de hilos anclados. Los pools propios (reportes
+ * asíncronos, motor de movimientos, conciliación) siguen en hilos de plataforma: están acotados a propósito.
+ */
+@Configuration
+public class HilosVirtualesConfig {
+
+    // Nombre del pool que crea DataSourceAutoConfiguration
+    static final String DATASOURCE_PRINCIPAL = "dataSource";
+
+    /**
+     * Envuelve el DataSource del pool con un semáforo de app.datasource.limite.permisos conexiones
+     * Solo el bean del pool principal: cualquier otro DataSource conserva su tipo. El pool sigue accesible
+     * con unwrap, que es como lo buscan las métricas de Hikari.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.limite.habilitado", havingValue = "true")
+    static BeanPostProcessor limiteConexionesPostProcessor(Environment environment) {
+        int permisos = environment.getProperty("app.datasource.limite.permisos", Integer.class, 10);
+        Duration espera = environment.getProperty("app.datasource.limite.espera", Duration.class, Duration.ofSeconds(5));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATASOURCE_PRINCIPAL.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof DataSourceLimitado)) {
+                    return new DataSourceLimitado(dataSource, permisos, espera);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    @ConditionalOnProperty(name = "app.hilos.anclajes.habilitado", havingValue = "true", matchIfMissing = true)
+    DiagnosticoAnclajes diagnosticoAnclajes(@Value("${app.hilos.anclajes.umbral:PT0.02S}") Duration umbral) {
+        return new DiagnosticoAnclajes(umbral);
+    }
+}
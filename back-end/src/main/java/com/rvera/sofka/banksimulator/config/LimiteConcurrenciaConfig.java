@@ -0,0 +1,27 @@
+package com.rvera.sofka.banksimulator.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rvera.sofka.banksimulator.concurrencia.LimiteConcurrenciaFilter;
+import com.rvera.sofka.banksimulator.concurrencia.LimitesAdaptativos;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Límite adaptativo de concurrencia delante de los controladores de personas, clientes, cuentas y movimientos
+ * Va después del filtro CORS (ver CorsConfig): las respuestas 429 también llevan sus cabeceras.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.limite-adaptativo.habilitado", havingValue = "true", matchIfMissing = true)
+public class LimiteConcurrenciaConfig {
+
+    @Bean
+    FilterRegistrationBean<LimiteConcurrenciaFilter> limiteConcurrenciaFilter(LimitesAdaptativos limites,
+                                                                             ObjectMapper objectMapper) {
+        FilterRegistrationBean<LimiteConcurrenciaFilter> registro =
+                new FilterRegistrationBean<>(new LimiteConcurrenciaFilter(limites, objectMapper));
+        registro.setOrder(CorsConfig.ORDEN + 1);
+        return registro;
+    }
+}
@@ -0,0 +1,29 @@
+package com.rvera.sofka.banksimulator.controller;
+
+import com.rvera.sofka.banksimulator.concurrencia.Bulkheads;
+import com.rvera.sofka.banksimulator.dto.BulkheadEstadisticasDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controlador REST de administración de los bulkheads por clase de carga
+ * Path base: /api/v1/admin/bulkheads
+ */
+@RestController
+@RequestMapping("/admin/bulkheads")
+@RequiredArgsConstructor
+public class BulkheadController {
+    
+    private final Bulkheads bulkheads;
+    
+    /**
+     * Límites, permisos en uso, cola de espera, rechazos y utilización de cada bulkhead
+     */
+    @GetMapping
+    public ResponseEntity<List<BulkheadEstadisticasDTO>> getEstadisticas() {
+        return ResponseEntity.ok(bulkheads.estadisticas());
+    }
+}
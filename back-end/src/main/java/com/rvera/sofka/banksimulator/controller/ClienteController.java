@@ -22,8 +22,10 @@ public class ClienteController {
     private final IClienteService clienteService;
     
     @GetMapping
-    public ResponseEntity<List<ClienteDTO>> getAllClientes() {
-        return ResponseEntity.ok(clienteService.findAll());
+    public ResponseEntity<List<ClienteDTO>> getAllClientes(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = RespuestaPaginada.LIMITE_POR_DEFECTO) int limit) {
+        return RespuestaPaginada.de(clienteService.findAll(after, limit));
     }
     
     @GetMapping("/{id}")
@@ -69,7 +71,10 @@ public class ClienteController {
     }
     
     @GetMapping("/buscar")
-    public ResponseEntity<List<ClienteDTO>> searchClientes(@RequestParam String filtro) {
-        return ResponseEntity.ok(clienteService.searchByFilter(filtro));
+    public ResponseEntity<List<ClienteDTO>> searchClientes(
+            @RequestParam String filtro,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = RespuestaPaginada.LIMITE_POR_DEFECTO) int limit) {
+        return RespuestaPaginada.de(clienteService.searchByFilter(filtro, after, limit));
     }
 }
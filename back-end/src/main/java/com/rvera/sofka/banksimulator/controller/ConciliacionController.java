@@ -0,0 +1,42 @@
+package com.rvera.sofka.banksimulator.controller;
+
+import com.rvera.sofka.banksimulator.dto.ConciliacionResultadoDTO;
+import com.rvera.sofka.banksimulator.service.IConciliacionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador REST de administración para la conciliación de saldos
+ * Path base: /api/v1/admin/conciliacion
+ */
+@RestController
+@RequestMapping("/admin/conciliacion")
+@RequiredArgsConstructor
+public class ConciliacionController {
+    
+    private final IConciliacionService conciliacionService;
+    
+    /**
+     * Ejecuta la conciliación y retorna las discrepancias encontradas
+     * @param reconstruir Si es true, corrige las cadenas con discrepancias
+     * @return Resultado, o 409 si ya hay una conciliación en curso
+     */
+    @PostMapping
+    public ResponseEntity<ConciliacionResultadoDTO> conciliar(@RequestParam(defaultValue = "false") boolean reconstruir) {
+        return conciliacionService.conciliar(reconstruir)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+    
+    /**
+     * Resultado de la última conciliación (manual o programada)
+     */
+    @GetMapping
+    public ResponseEntity<ConciliacionResultadoDTO> getUltimoResultado() {
+        return conciliacionService.getUltimoResultado()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.noContent().build());
+    }
+}
@@ -1,7 +1,9 @@
 package com.rvera.sofka.banksimulator.controller;
 
 import com.rvera.sofka.banksimulator.dto.CuentaDTO;
+import com.rvera.sofka.banksimulator.dto.ResumenPeriodoDTO;
 import com.rvera.sofka.banksimulator.service.ICuentaService;
+import com.rvera.sofka.banksimulator.service.IResumenDiarioService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -21,10 +23,13 @@ import java.util.List;
 public class CuentaController {
     
     private final ICuentaService cuentaService;
+    private final IResumenDiarioService resumenDiarioService;
     
     @GetMapping
-    public ResponseEntity<List<CuentaDTO>> getAllCuentas() {
-        return ResponseEntity.ok(cuentaService.findAll());
+    public ResponseEntity<List<CuentaDTO>> getAllCuentas(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = RespuestaPaginada.LIMITE_POR_DEFECTO) int limit) {
+        return RespuestaPaginada.de(cuentaService.findAll(after, limit));
     }
     
     @GetMapping("/{id}")
@@ -42,8 +47,25 @@ public class CuentaController {
     }
     
     @GetMapping("/cliente/{clienteId}")
-    public ResponseEntity<List<CuentaDTO>> getCuentasByClienteId(@PathVariable Long clienteId) {
-        return ResponseEntity.ok(cuentaService.findByClienteId(clienteId));
+    public ResponseEntity<List<CuentaDTO>> getCuentasByClienteId(
+            @PathVariable Long clienteId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = RespuestaPaginada.LIMITE_POR_DEFECTO) int limit) {
+        return RespuestaPaginada.de(cuentaService.findByClienteId(clienteId, after, limit));
+    }
+    
+    /**
+     * Resumen mensual (con mes, detalle por día) o anual (sin mes, detalle por mes)
+     * Se calcula desde los resúmenes diarios, sin recorrer los movimientos
+     */
+    @GetMapping("/{id}/resumen")
+    public ResponseEntity<ResumenPeriodoDTO> getResumen(
+            @PathVariable Long id,
+            @RequestParam int anio,
+            @RequestParam(required = false) Integer mes) {
+        return (mes != null ? resumenDiarioService.resumenMensual(id, anio, mes) : resumenDiarioService.resumenAnual(id, anio))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
     
     @PostMapping
@@ -75,7 +97,10 @@ public class CuentaController {
     }
     
     @GetMapping("/buscar")
-    public ResponseEntity<List<CuentaDTO>> searchCuentas(@RequestParam String filtro) {
-        return ResponseEntity.ok(cuentaService.searchByFilter(filtro));
+    public ResponseEntity<List<CuentaDTO>> searchCuentas(
+            @RequestParam String filtro,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = RespuestaPaginada.LIMITE_POR_DEFECTO) int limit) {
+        return RespuestaPaginada.de(cuentaService.searchByFilter(filtro, after, limit));
     }
 }
@@ -0,0 +1,50 @@
+package com.rvera.sofka.banksimulator.controller;
+
+import com.rvera.sofka.banksimulator.concurrencia.DataSourceLimitado;
+import com.rvera.sofka.banksimulator.concurrencia.DiagnosticoAnclajes;
+import com.rvera.sofka.banksimulator.dto.HilosEstadoDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Controlador REST de administración del modo de ejecución de solicitudes
+ * Path base: /api/v1/admin/hilos
+ */
+@RestController
+@RequestMapping("/admin/hilos")
+@RequiredArgsConstructor
+public class HilosController {
+    
+    private final Environment environment;
+    private final DataSource dataSource;
+    private final ObjectProvider<DiagnosticoAnclajes> diagnosticoAnclajes;
+    
+    /**
+     * Hilos virtuales activos, uso del límite de conexiones y marcos donde se anclaron hilos virtuales
+     */
+    @GetMapping
+    public ResponseEntity<HilosEstadoDTO> getEstado() {
+        HilosEstadoDTO.HilosEstadoDTOBuilder estado = HilosEstadoDTO.builder()
+                .hilosVirtuales(Threading.VIRTUAL.isActive(environment))
+                .anclajes(List.of());
+        if (dataSource instanceof DataSourceLimitado limitado) {
+            estado.conexionesMaximo(limitado.getMaximo())
+                    .conexionesEnUso(limitado.getEnUso())
+                    .conexionesEsperando(limitado.getEsperando())
+                    .conexionesRechazadas(limitado.getRechazadas());
+        }
+        DiagnosticoAnclajes diagnostico = diagnosticoAnclajes.getIfAvailable();
+        if (diagnostico != null) {
+            estado.anclajesEventos(diagnostico.getEventos())
+                    .anclajes(diagnostico.anclajes());
+        }
+        return ResponseEntity.ok(estado.build());
+    }
+}
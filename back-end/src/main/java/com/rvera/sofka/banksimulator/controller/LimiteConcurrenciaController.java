@@ -0,0 +1,29 @@
+package com.rvera.sofka.banksimulator.controller;
+
+import com.rvera.sofka.banksimulator.concurrencia.LimitesAdaptativos;
+import com.rvera.sofka.banksimulator.dto.LimiteConcurrenciaDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controlador REST de administración de los límites adaptativos de concurrencia
+ * Path base: /api/v1/admin/limites
+ */
+@RestController
+@RequestMapping("/admin/limites")
+@RequiredArgsConstructor
+public class LimiteConcurrenciaController {
+    
+    private final LimitesAdaptativos limitesAdaptativos;
+    
+    /**
+     * Límite actual, solicitudes en curso, rechazos y latencias de cada grupo de endpoints
+     */
+    @GetMapping
+    public ResponseEntity<List<LimiteConcurrenciaDTO>> getEstadisticas() {
+        return ResponseEntity.ok(limitesAdaptativos.estadisticas());
+    }
+}
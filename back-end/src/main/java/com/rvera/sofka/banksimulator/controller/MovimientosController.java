@@ -1,20 +1,43 @@
 package com.rvera.sofka.banksimulator.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rvera.sofka.banksimulator.concurrencia.Bulkhead;
+import com.rvera.sofka.banksimulator.concurrencia.Bulkheads;
+import com.rvera.sofka.banksimulator.concurrencia.Carga;
+import com.rvera.sofka.banksimulator.concurrencia.CuerpoConPermiso;
 import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import com.rvera.sofka.banksimulator.dto.MovimientoLoteResultadoDTO;
 import com.rvera.sofka.banksimulator.dto.MovimientoReporteDTO;
+import com.rvera.sofka.banksimulator.dto.ReporteJobDTO;
+import com.rvera.sofka.banksimulator.dto.ReporteJobSolicitudDTO;
+import com.rvera.sofka.banksimulator.dto.TransferenciaDTO;
+import com.rvera.sofka.banksimulator.dto.TransferenciaResultadoDTO;
+import com.rvera.sofka.banksimulator.reporte.FormatoExportacion;
 import com.rvera.sofka.banksimulator.service.IMovimientosService;
+import com.rvera.sofka.banksimulator.service.IReporteJobService;
 import com.rvera.sofka.banksimulator.service.IReporteService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Controlador REST para Movimientos
@@ -26,12 +49,20 @@ import java.util.List;
 @RequiredArgsConstructor
 public class MovimientosController {
     
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    
     private final IMovimientosService movimientosService;
     private final IReporteService reporteService;
+    private final IReporteJobService reporteJobService;
+    private final ObjectMapper objectMapper;
+    private final Bulkheads bulkheads;
     
     @GetMapping
-    public ResponseEntity<List<MovimientoDTO>> getAllMovimientos() {
-        return ResponseEntity.ok(movimientosService.findAll());
+    public ResponseEntity<List<MovimientoDTO>> getAllMovimientos(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = RespuestaPaginada.LIMITE_POR_DEFECTO) int limit) {
+        return RespuestaPaginada.de(movimientosService.findAll(after, limit));
     }
     
     @GetMapping("/{id}")
@@ -42,14 +73,77 @@ public class MovimientosController {
     }
     
     @GetMapping("/cuenta/{cuentaId}")
-    public ResponseEntity<List<MovimientoDTO>> getMovimientosByCuentaId(@PathVariable Long cuentaId) {
-        return ResponseEntity.ok(movimientosService.findByCuentaId(cuentaId));
+    public ResponseEntity<List<MovimientoDTO>> getMovimientosByCuentaId(
+            @PathVariable Long cuentaId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = RespuestaPaginada.LIMITE_POR_DEFECTO) int limit) {
+        return RespuestaPaginada.de(movimientosService.findByCuentaId(cuentaId, before, limit));
     }
     
     @PostMapping
-    public ResponseEntity<MovimientoDTO> createMovimiento(@Valid @RequestBody MovimientoDTO movimientoDTO) {
-        MovimientoDTO savedMovimiento = movimientosService.save(movimientoDTO);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedMovimiento);
+    public CompletableFuture<ResponseEntity<MovimientoDTO>> createMovimiento(
+            @Valid @RequestBody MovimientoDTO movimientoDTO,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String claveIdempotencia) {
+        movimientoDTO.setClaveIdempotencia(claveIdempotencia);
+        return movimientosService.saveAsync(movimientoDTO)
+                .thenApply(savedMovimiento -> ResponseEntity.status(HttpStatus.CREATED).body(savedMovimiento));
+    }
+    
+    /**
+     * Transferencia entre cuentas: débito (con comisión del origen) y crédito en una sola transacción
+     * @param transferenciaDTO Cuentas de origen y destino y valor a transferir
+     * @return Movimientos de débito y crédito registrados
+     */
+    @PostMapping("/transferencias")
+    public ResponseEntity<TransferenciaResultadoDTO> createTransferencia(@Valid @RequestBody TransferenciaDTO transferenciaDTO) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(movimientosService.transferir(transferenciaDTO));
+    }
+    
+    /**
+     * Carga masiva de movimientos (JSON array)
+     * Los registros se agrupan por cuenta y se insertan en lotes; los rechazados no afectan a los demás
+     * @param movimientos Lista de movimientos
+     * @return Resultado por registro (aceptado o rechazado con su motivo)
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<MovimientoLoteResultadoDTO> createMovimientosBatch(@RequestBody List<MovimientoDTO> movimientos) {
+        return ResponseEntity.ok(movimientosService.saveBatch(movimientos));
+    }
+    
+    /**
+     * Carga masiva de movimientos en formato NDJSON (un movimiento JSON por línea)
+     * Las líneas con formato inválido se reportan como rechazadas
+     * @param body Flujo NDJSON
+     * @return Resultado por registro (aceptado o rechazado con su motivo)
+     */
+    @PostMapping(value = "/batch", consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<MovimientoLoteResultadoDTO> createMovimientosBatchNdjson(InputStream body) {
+        // Las líneas se leen a medida que el servicio avanza por tramos: la carga no se retiene completa
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        Iterator<MovimientoDTO> movimientos = reader.lines()
+                .filter(linea -> !linea.isBlank())
+                .map(this::leerLinea)
+                .iterator();
+        return ResponseEntity.ok(movimientosService.saveBatch(movimientos));
+    }
+    
+    private MovimientoDTO leerLinea(String linea) {
+        try {
+            return objectMapper.readValue(linea, MovimientoDTO.class);
+        } catch (JsonProcessingException e) {
+            // Se conserva la posición: el servicio lo reporta como rechazado
+            return null;
+        }
+    }
+    
+    /**
+     * Eliminación lógica de varios movimientos; los saldos de cada cuenta se recalculan una sola vez
+     * @param ids IDs de los movimientos (los inexistentes o ya eliminados se ignoran)
+     */
+    @DeleteMapping(params = "ids")
+    public ResponseEntity<Void> deleteMovimientos(@RequestParam List<Long> ids) {
+        movimientosService.deleteByIds(ids);
+        return ResponseEntity.noContent().build();
     }
     
     @DeleteMapping("/{id}")
@@ -102,9 +196,124 @@ public class MovimientosController {
         
         return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
     }
+    
+    /**
+     * Reporte PDF para rangos grandes: los movimientos se leen con cursor, las páginas se guardan
+     * en un archivo de intercambio y el PDF se escribe directamente en la respuesta
+     * @param clienteId ID del cliente
+     * @param fechaInicio Fecha y hora de inicio (formato: yyyy-MM-dd'T'HH:mm:ss)
+     * @param fechaFin Fecha y hora de fin (formato: yyyy-MM-dd'T'HH:mm:ss)
+     * @return PDF con el reporte de movimientos (sin Content-Length)
+     */
+    @GetMapping("/reportes/pdf/stream")
+    public ResponseEntity<StreamingResponseBody> getReporteMovimientosPdfStream(
+            @RequestParam Long clienteId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            HttpServletRequest request) {
+        
+        // El permiso se toma aquí para responder 503 antes de empezar: el PDF se escribe en otro hilo
+        Bulkhead.Permiso permiso = bulkheads.adquirir(Carga.REPORTES);
+        StreamingResponseBody cuerpo = CuerpoConPermiso.registrar(bulkheads, permiso, request, salida ->
+                reporteService.generarReporteMovimientos(clienteId, fechaInicio, fechaFin, salida));
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", "reporte-movimientos.pdf");
+        
+        return new ResponseEntity<>(cuerpo, headers, HttpStatus.OK);
+    }
+   
+    /**
+     * Exportación de movimientos para volúmenes grandes: las filas se leen con cursor y se escriben
+     * en la respuesta a medida que llegan
+     * @param clienteId ID del cliente
+     * @param fechaInicio Fecha y hora de inicio (formato: yyyy-MM-dd'T'HH:mm:ss)
+     * @param fechaFin Fecha y hora de fin (formato: yyyy-MM-dd'T'HH:mm:ss)
+     * @param format csv o ndjson
+     * @param gzip Si es true, la respuesta se comprime (archivo .gz)
+     * @return Filas en el formato solicitado (sin Content-Length)
+     */
+    @GetMapping("/reportes/export")
+    public ResponseEntity<StreamingResponseBody> exportMovimientos(
+            @RequestParam Long clienteId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletRequest request) {
+        
+        // Se valida antes de empezar a escribir: después ya no se puede responder 400
+        FormatoExportacion formato = FormatoExportacion.desde(format);
+        
+        Bulkhead.Permiso permiso = bulkheads.adquirir(Carga.REPORTES);
+        StreamingResponseBody cuerpo = CuerpoConPermiso.registrar(bulkheads, permiso, request, salida -> {
+            if (gzip) {
+                // syncFlush: cada flush del exportador envía lo comprimido hasta ese punto
+                GZIPOutputStream comprimida = new GZIPOutputStream(salida, 8192, true);
+                reporteService.exportarMovimientos(clienteId, fechaInicio, fechaFin, formato, comprimida);
+                comprimida.finish();
+            } else {
+                reporteService.exportarMovimientos(clienteId, fechaInicio, fechaFin, formato, salida);
+            }
+        });
+        
+        String archivo = "movimientos." + formato.getExtension() + (gzip ? ".gz" : "");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType(formato.getContentType()));
+        headers.setContentDispositionFormData("attachment", archivo);
+        
+        return new ResponseEntity<>(cuerpo, headers, HttpStatus.OK);
+    }
+    
+    /**
+     * Encola la generación asíncrona del reporte PDF
+     * Una solicitud idéntica a un trabajo pendiente o en proceso retorna ese mismo trabajo
+     * @param solicitud Cliente y rango de fechas
+     * @return 202 con el trabajo, o 503 si la cola de reportes está llena
+     */
+    @PostMapping("/reportes/jobs")
+    public ResponseEntity<ReporteJobDTO> createReporteJob(@Valid @RequestBody ReporteJobSolicitudDTO solicitud) {
+        return reporteJobService.crear(solicitud)
+                .map(trabajo -> ResponseEntity.accepted().body(trabajo))
+                .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "30")
+                        .build());
+    }
+    
+    /**
+     * Estado del trabajo de reporte; cuando está completado retorna el PDF
+     * @param id ID del trabajo
+     * @return 202 con el estado mientras se genera, el PDF al completarse, el estado si falló,
+     *         o 404 si no existe o ya expiró
+     */
+    @GetMapping("/reportes/jobs/{id}")
+    public ResponseEntity<?> getReporteJob(@PathVariable String id) {
+        return reporteJobService.findById(id)
+                .<ResponseEntity<?>>map(trabajo -> switch (trabajo.getEstado()) {
+                    case ReporteJobDTO.COMPLETADO -> descargarReporte(trabajo);
+                    case ReporteJobDTO.FALLIDO -> ResponseEntity.ok(trabajo);
+                    default -> ResponseEntity.accepted().body(trabajo);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    private ResponseEntity<?> descargarReporte(ReporteJobDTO trabajo) {
+        return reporteJobService.getArchivo(trabajo.getId())
+                .<ResponseEntity<?>>map(archivo -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.setContentType(MediaType.APPLICATION_PDF);
+                    headers.setContentDispositionFormData("attachment", "reporte-movimientos.pdf");
+                    return new ResponseEntity<>(new FileSystemResource(archivo), headers, HttpStatus.OK);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
    
     @GetMapping("/buscar")
-    public ResponseEntity<List<MovimientoDTO>> searchMovimientos(@RequestParam String filtro) {
-        return ResponseEntity.ok(movimientosService.searchByFilter(filtro));
+    public ResponseEntity<List<MovimientoDTO>> searchMovimientos(
+            @RequestParam String filtro,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = RespuestaPaginada.LIMITE_POR_DEFECTO) int limit) {
+        return RespuestaPaginada.de(movimientosService.searchByFilter(filtro, after, limit));
     }
 }
@@ -22,8 +22,10 @@ public class PersonaController {
     private final IPersonaService personaService;
     
     @GetMapping
-    public ResponseEntity<List<PersonaDTO>> getAllPersonas() {
-        return ResponseEntity.ok(personaService.findAll());
+    public ResponseEntity<List<PersonaDTO>> getAllPersonas(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = RespuestaPaginada.LIMITE_POR_DEFECTO) int limit) {
+        return RespuestaPaginada.de(personaService.findAll(after, limit));
     }
     
     @GetMapping("/{id}")
@@ -0,0 +1,36 @@
+package com.rvera.sofka.banksimulator.controller;
+
+import com.rvera.sofka.banksimulator.cache.ReporteCache;
+import com.rvera.sofka.banksimulator.dto.ReporteCacheEstadisticasDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador REST de administración para la cache de reportes
+ * Path base: /api/v1/admin/cache/reportes
+ */
+@RestController
+@RequestMapping("/admin/cache/reportes")
+@RequiredArgsConstructor
+public class ReporteCacheController {
+    
+    private final ReporteCache reporteCache;
+    
+    /**
+     * Aciertos, fallos, expulsiones e invalidaciones de la cache JSON y PDF
+     */
+    @GetMapping
+    public ResponseEntity<ReporteCacheEstadisticasDTO> getEstadisticas() {
+        return ResponseEntity.ok(reporteCache.estadisticas());
+    }
+    
+    /**
+     * Vacía la cache; los contadores se conservan
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> limpiar() {
+        reporteCache.limpiar();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.rvera.sofka.banksimulator.controller;
+
+import com.rvera.sofka.banksimulator.dto.PaginaDTO;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Respuesta de los listados paginados por keyset (?after=&limit=)
+ * El cuerpo sigue siendo la lista; el cursor de la página siguiente viaja en la cabecera X-Next-Cursor
+ * y se omite en la última página.
+ */
+final class RespuestaPaginada {
+    
+    static final String NEXT_CURSOR = "X-Next-Cursor";
+    static final String LIMITE_POR_DEFECTO = "100";
+    
+    private RespuestaPaginada() {
+    }
+    
+    static <T> ResponseEntity<List<T>> de(PaginaDTO<T> pagina) {
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok();
+        if (pagina.getSiguiente() != null) {
+            respuesta.header(NEXT_CURSOR, pagina.getSiguiente().toString());
+        }
+        return respuesta.body(pagina.getContenido());
+    }
+}
@@ -0,0 +1,32 @@
+package com.rvera.sofka.banksimulator.controller;
+
+import com.rvera.sofka.banksimulator.service.IResumenDiarioService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Controlador REST de administración para los resúmenes diarios por cuenta
+ * Path base: /api/v1/admin/resumenes
+ */
+@RestController
+@RequestMapping("/admin/resumenes")
+@RequiredArgsConstructor
+public class ResumenDiarioController {
+    
+    private final IResumenDiarioService resumenDiarioService;
+    
+    /**
+     * Regenera los resúmenes diarios de todas las cuentas desde sus movimientos
+     * @return Cuentas procesadas, o 409 si ya hay una reconstrucción en curso
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Integer>> reconstruir() {
+        return resumenDiarioService.reconstruirTodas()
+                .map(cuentas -> ResponseEntity.ok(Map.of("cuentas", cuentas)))
+                .orElse(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+}
@@ -0,0 +1,24 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Anclajes de hilos virtuales acumulados en un marco de la pila (el primero fuera del JDK)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnclajeHiloDTO {
+    
+    private String marco;
+    
+    private long eventos;
+    
+    private long duracionMaximaMs;
+    
+    private long duracionTotalMs;
+}
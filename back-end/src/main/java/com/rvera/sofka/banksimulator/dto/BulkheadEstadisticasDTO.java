@@ -0,0 +1,45 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Uso de un bulkhead desde el inicio de la aplicación
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkheadEstadisticasDTO {
+    
+    private String nombre;
+    
+    private int maximoConcurrentes;
+    
+    private int maximoEnEspera;
+    
+    private int enEjecucion;
+    
+    private int enEspera;
+    
+    private long aceptadas;
+    
+    /**
+     * Solicitudes rechazadas con 503 (cola llena o espera agotada)
+     */
+    private long rechazadas;
+    
+    /**
+     * Fracción de permisos en uso en este momento (0 a 1)
+     */
+    private double utilizacion;
+    
+    /**
+     * Fracción media de permisos en uso desde el inicio (0 a 1)
+     */
+    private double utilizacionMedia;
+    
+    private double esperaMediaMs;
+}
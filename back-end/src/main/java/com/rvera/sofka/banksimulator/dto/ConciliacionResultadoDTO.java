@@ -0,0 +1,43 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resumen de una ejecución de la conciliación de saldos
+ * La lista de discrepancias está acotada; discrepanciasTotales cuenta todas las encontradas
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConciliacionResultadoDTO {
+    
+    private LocalDateTime inicio;
+    
+    private LocalDateTime fin;
+    
+    private long duracionMs;
+    
+    /**
+     * true si además de verificar se reconstruyeron las cadenas con discrepancias
+     */
+    private boolean reconstruir;
+    
+    private long cuentasRevisadas;
+    
+    private long movimientosRevisados;
+    
+    private long cuentasConDiscrepancias;
+    
+    private long discrepanciasTotales;
+    
+    private long movimientosCorregidos;
+    
+    private List<DiscrepanciaDTO> discrepancias;
+}
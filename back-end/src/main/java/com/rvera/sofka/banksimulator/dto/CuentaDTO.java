@@ -28,6 +28,9 @@ public class CuentaDTO {
     @DecimalMin(value = "0.0", message = "El saldo inicial debe ser mayor o igual a 0")
     private BigDecimal saldoInicial;
     
+    // Calculado por el sistema a partir de los movimientos
+    private BigDecimal saldoActual;
+    
     @NotNull(message = "El estado es obligatorio")
     private Boolean estado;
     
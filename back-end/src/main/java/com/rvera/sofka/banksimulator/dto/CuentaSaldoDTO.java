@@ -0,0 +1,22 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección de los saldos de una cuenta usada en la conciliación
+ */
+@Data
+@AllArgsConstructor
+public class CuentaSaldoDTO {
+    
+    private Long id;
+    
+    private BigDecimal saldoInicial;
+    
+    private BigDecimal saldoActual;
+    
+    private Long ultimoMovimientoId;
+}
@@ -0,0 +1,40 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Diferencia entre el valor registrado y el recalculado a partir del saldo inicial de la cuenta
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DiscrepanciaDTO {
+    
+    public static final String SALDO_MOVIMIENTO = "SALDO_MOVIMIENTO";
+    public static final String SALDO_ACTUAL = "SALDO_ACTUAL";
+    public static final String ULTIMO_MOVIMIENTO = "ULTIMO_MOVIMIENTO";
+    
+    private Long cuentaId;
+    
+    /**
+     * Movimiento con saldo incorrecto (solo en discrepancias SALDO_MOVIMIENTO)
+     */
+    private Long movimientoId;
+    
+    /**
+     * SALDO_MOVIMIENTO, SALDO_ACTUAL o ULTIMO_MOVIMIENTO
+     */
+    private String tipo;
+    
+    private String esperado;
+    
+    private String registrado;
+}
@@ -0,0 +1,41 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Modo de ejecución de las solicitudes, uso del límite de conexiones y anclajes de hilos virtuales
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HilosEstadoDTO {
+    
+    private boolean hilosVirtuales;
+    
+    /**
+     * Conexiones simultáneas permitidas; null si el límite está deshabilitado
+     */
+    private Integer conexionesMaximo;
+    
+    private int conexionesEnUso;
+    
+    private int conexionesEsperando;
+    
+    /**
+     * Solicitudes que agotaron la espera de una conexión
+     */
+    private long conexionesRechazadas;
+    
+    /**
+     * Eventos jdk.VirtualThreadPinned registrados (solo con hilos virtuales)
+     */
+    private long anclajesEventos;
+    
+    private List<AnclajeHiloDTO> anclajes;
+}
@@ -0,0 +1,46 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estado del límite adaptativo de concurrencia de un grupo de endpoints
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LimiteConcurrenciaDTO {
+    
+    private String grupo;
+    
+    /**
+     * Solicitudes en curso permitidas en este momento
+     */
+    private int limite;
+    
+    private int limiteMinimo;
+    
+    private int limiteMaximo;
+    
+    private int enCurso;
+    
+    private long aceptadas;
+    
+    /**
+     * Solicitudes rechazadas con 429 por superar el límite
+     */
+    private long rechazadas;
+    
+    /**
+     * Promedio móvil de las últimas respuestas
+     */
+    private double latenciaRecienteMs;
+    
+    /**
+     * Promedio móvil largo usado como referencia sin carga
+     */
+    private double latenciaReferenciaMs;
+}
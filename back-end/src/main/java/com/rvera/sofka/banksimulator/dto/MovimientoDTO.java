@@ -1,5 +1,6 @@
 package com.rvera.sofka.banksimulator.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -34,4 +35,8 @@ public class MovimientoDTO {
     private Long cuentaId;
     
     private CuentaDTO cuenta;
+    
+    // Se recibe en el encabezado Idempotency-Key, no en el cuerpo
+    @JsonIgnore
+    private String claveIdempotencia;
 }
@@ -0,0 +1,31 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento activo con los campos que filtra /movimientos/buscar, leído para el índice de movimientos
+ */
+@Data
+@AllArgsConstructor
+public class MovimientoIndiceDTO {
+    
+    private Long id;
+    
+    private Long cuentaId;
+    
+    private LocalDateTime fecha;
+    
+    private String tipoMovimiento;
+    
+    private String numeroCuenta;
+    
+    private String cliente;
+    
+    private BigDecimal valor;
+    
+    private BigDecimal saldo;
+}
@@ -0,0 +1,40 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Resultado de un registro dentro de una carga masiva de movimientos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MovimientoLoteItemDTO {
+    
+    /**
+     * Posición del registro en la carga (base 0)
+     */
+    private int indice;
+    
+    private Long cuentaId;
+    
+    private boolean aceptado;
+    
+    private Long movimientoId;
+    
+    private BigDecimal valor;
+    
+    private BigDecimal saldo;
+    
+    /**
+     * Motivo del rechazo (solo en registros rechazados)
+     */
+    private String error;
+}
@@ -0,0 +1,27 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resumen de una carga masiva de movimientos
+ * Los registros rechazados no invalidan los aceptados
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimientoLoteResultadoDTO {
+    
+    private int total;
+    
+    private int aceptados;
+    
+    private int rechazados;
+    
+    private List<MovimientoLoteItemDTO> resultados;
+}
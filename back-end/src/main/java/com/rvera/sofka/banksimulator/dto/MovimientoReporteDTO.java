@@ -5,10 +5,14 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Date;
 
 /**
  * DTO para reporte de movimientos por fecha y cliente
+ * Los importes se mantienen como decimales exactos hasta la respuesta
  */
 @Data
 @Builder
@@ -24,11 +28,20 @@ public class MovimientoReporteDTO {
     
     private String tipo;
     
-    private Float saldoInicial;
+    private BigDecimal saldoInicial;
     
     private Boolean estado;
     
-    private Float movimiento;
+    private BigDecimal movimiento;
     
-    private Float saldoDisponible;
+    private BigDecimal saldoDisponible;
+    
+    /**
+     * Constructor de la proyección JPQL: recibe las columnas tal como se leen de la consulta
+     */
+    public MovimientoReporteDTO(LocalDateTime fecha, String cliente, String numeroCuenta, String tipo,
+                                BigDecimal saldoInicial, Boolean estado, BigDecimal movimiento, BigDecimal saldoDisponible) {
+        this(Date.from(fecha.atZone(ZoneId.systemDefault()).toInstant()), cliente, Long.parseLong(numeroCuenta), tipo,
+                saldoInicial, estado, movimiento, saldoDisponible);
+    }
 }
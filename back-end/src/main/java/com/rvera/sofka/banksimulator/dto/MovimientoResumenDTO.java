@@ -0,0 +1,23 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de un movimiento activo para reconstruir el resumen diario de su cuenta
+ */
+@Data
+@AllArgsConstructor
+public class MovimientoResumenDTO {
+    
+    private LocalDateTime fecha;
+    
+    private BigDecimal valor;
+    
+    private BigDecimal comision;
+    
+    private BigDecimal saldo;
+}
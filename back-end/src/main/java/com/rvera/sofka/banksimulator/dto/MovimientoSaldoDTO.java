@@ -0,0 +1,25 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección mínima de un movimiento para recorrer la cadena de saldos de una cuenta
+ * Se construye directamente en la consulta (sin entidades gestionadas por el contexto de persistencia)
+ */
+@Data
+@AllArgsConstructor
+public class MovimientoSaldoDTO {
+    
+    private Long id;
+    
+    private Long cuentaId;
+    
+    private BigDecimal valor;
+    
+    private BigDecimal saldo;
+    
+    private Boolean estado;
+}
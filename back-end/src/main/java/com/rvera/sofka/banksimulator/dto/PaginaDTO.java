@@ -0,0 +1,21 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Página de un listado paginado por keyset
+ */
+@Data
+@AllArgsConstructor
+public class PaginaDTO<T> {
+    
+    private List<T> contenido;
+    
+    /**
+     * Cursor de la página siguiente (valor de "after"), o null si es la última
+     */
+    private Long siguiente;
+}
@@ -0,0 +1,40 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contadores de la cache de reportes (JSON en memoria y PDF en disco) para dimensionarla
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReporteCacheEstadisticasDTO {
+    
+    private int jsonEntradas;
+    
+    private long jsonAciertos;
+    
+    private long jsonFallos;
+    
+    private int pdfEntradas;
+    
+    private long pdfBytes;
+    
+    private long pdfAciertos;
+    
+    private long pdfFallos;
+    
+    /**
+     * Entradas descartadas por tamaño o TTL
+     */
+    private long expulsiones;
+    
+    /**
+     * Entradas eliminadas por movimientos registrados o eliminados de su cliente
+     */
+    private long invalidaciones;
+}
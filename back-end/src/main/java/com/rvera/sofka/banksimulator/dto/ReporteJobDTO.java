@@ -0,0 +1,41 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado de un trabajo de generación de reporte PDF
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReporteJobDTO {
+    
+    public static final String PENDIENTE = "PENDIENTE";
+    public static final String EN_PROCESO = "EN_PROCESO";
+    public static final String COMPLETADO = "COMPLETADO";
+    public static final String FALLIDO = "FALLIDO";
+    
+    private String id;
+    
+    private String estado;
+    
+    private Long clienteId;
+    
+    private LocalDateTime fechaInicio;
+    
+    private LocalDateTime fechaFin;
+    
+    private LocalDateTime creado;
+    
+    private LocalDateTime finalizado;
+    
+    private Long tamanoBytes;
+    
+    private String error;
+}
@@ -0,0 +1,28 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Solicitud de generación asíncrona del reporte PDF de movimientos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReporteJobSolicitudDTO {
+    
+    @NotNull(message = "El ID del cliente es obligatorio")
+    private Long clienteId;
+    
+    @NotNull(message = "La fecha de inicio es obligatoria")
+    private LocalDateTime fechaInicio;
+    
+    @NotNull(message = "La fecha de fin es obligatoria")
+    private LocalDateTime fechaFin;
+}
@@ -0,0 +1,41 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Resumen de una cuenta en un período (mes o año) calculado desde los resúmenes diarios
+ * El detalle contiene los días (resumen mensual) o los meses (resumen anual) con movimientos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenPeriodoDTO {
+    
+    private Long cuentaId;
+    
+    private LocalDate desde;
+    
+    private LocalDate hasta;
+    
+    private BigDecimal saldoApertura;
+    
+    private BigDecimal saldoCierre;
+    
+    private BigDecimal totalCreditos;
+    
+    private BigDecimal totalDebitos;
+    
+    private BigDecimal totalComisiones;
+    
+    private int cantidadMovimientos;
+    
+    private List<ResumenPeriodoDTO> detalle;
+}
@@ -0,0 +1,24 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Retiro o transferencia saliente leído para reconstruir la ventana de retiros de 24 horas
+ * valor es el débito registrado (negativo, con la comisión); el monto retirado es -valor - comision
+ */
+@Data
+@AllArgsConstructor
+public class RetiroVentanaDTO {
+    
+    private Long cuentaId;
+    
+    private LocalDateTime fecha;
+    
+    private BigDecimal valor;
+    
+    private BigDecimal comision;
+}
@@ -0,0 +1,30 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Solicitud de transferencia entre dos cuentas
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferenciaDTO {
+    
+    @NotNull(message = "El ID de la cuenta de origen es obligatorio")
+    private Long cuentaOrigenId;
+    
+    @NotNull(message = "El ID de la cuenta de destino es obligatorio")
+    private Long cuentaDestinoId;
+    
+    @NotNull(message = "El valor es obligatorio")
+    @DecimalMin(value = "0.01", message = "El valor de la transferencia debe ser mayor a cero")
+    private BigDecimal valor;
+}
@@ -0,0 +1,20 @@
+package com.rvera.sofka.banksimulator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una transferencia: el débito en la cuenta de origen (con comisión) y el crédito en la de destino
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferenciaResultadoDTO {
+    
+    private MovimientoDTO debito;
+    
+    private MovimientoDTO credito;
+}
@@ -0,0 +1,361 @@
+package com.rvera.sofka.banksimulator.engine;
+
+import com.rvera.sofka.banksimulator.cache.VentanaRetiros;
+import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.entity.Movimientos;
+import com.rvera.sofka.banksimulator.event.MovimientosModificadosEvent;
+import com.rvera.sofka.banksimulator.mapper.MovimientoMapper;
+import com.rvera.sofka.banksimulator.repository.CuentaRepository;
+import com.rvera.sofka.banksimulator.repository.MovimientosRepository;
+import com.rvera.sofka.banksimulator.service.IResumenDiarioService;
+import com.rvera.sofka.banksimulator.strategy.Centavos;
+import com.rvera.sofka.banksimulator.strategy.CuentaStrategyFactory;
+import com.rvera.sofka.banksimulator.strategy.MovimientoCalculator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Motor de registro de movimientos con un único escritor por cuenta
+ * Cada cuenta se asigna a un shard por hash de su ID. Cada shard procesa su cola en un solo hilo,
+ * mantiene el saldo de sus cuentas en memoria (sin bloqueos de fila) y persiste los movimientos
+ * acumulados en una sola transacción (group commit). El orden por cuenta es estricto.
+ * Se habilita con app.movimientos.motor.habilitado=true
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.movimientos.motor.habilitado", havingValue = "true")
+public class MovimientosPostingEngine implements DisposableBean {
+    
+    private final MovimientosRepository movimientosRepository;
+    private final CuentaRepository cuentaRepository;
+    private final MovimientoMapper movimientoMapper;
+    private final CuentaStrategyFactory strategyFactory;
+    private final VentanaRetiros ventanaRetiros;
+    private final TransactionTemplate transactionTemplate;
+    private final IResumenDiarioService resumenDiarioService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int loteMaximo;
+    private final int cuentasEnMemoria;
+    private final Shard[] shards;
+    
+    public MovimientosPostingEngine(MovimientosRepository movimientosRepository,
+                                    CuentaRepository cuentaRepository,
+                                    MovimientoMapper movimientoMapper,
+                                    CuentaStrategyFactory strategyFactory,
+                                    VentanaRetiros ventanaRetiros,
+                                    TransactionTemplate transactionTemplate,
+                                    IResumenDiarioService resumenDiarioService,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${app.movimientos.motor.shards:8}") int numeroShards,
+                                    @Value("${app.movimientos.motor.lote-maximo:256}") int loteMaximo,
+                                    @Value("${app.movimientos.motor.capacidad-cola:10000}") int capacidadCola,
+                                    @Value("${app.movimientos.motor.cuentas-en-memoria:10000}") int cuentasEnMemoria) {
+        this.movimientosRepository = movimientosRepository;
+        this.cuentaRepository = cuentaRepository;
+        this.movimientoMapper = movimientoMapper;
+        this.strategyFactory = strategyFactory;
+        this.ventanaRetiros = ventanaRetiros;
+        this.transactionTemplate = transactionTemplate;
+        this.resumenDiarioService = resumenDiarioService;
+        this.eventPublisher = eventPublisher;
+        this.loteMaximo = loteMaximo;
+        this.cuentasEnMemoria = cuentasEnMemoria;
+        this.shards = new Shard[numeroShards];
+        for (int i = 0; i < numeroShards; i++) {
+            shards[i] = new Shard(i, capacidadCola);
+        }
+        log.info("Motor de movimientos iniciado con {} shards (lote máximo {}, cola {})",
+                numeroShards, loteMaximo, capacidadCola);
+    }
+    
+    /**
+     * Encola el movimiento en el shard de su cuenta
+     * @return Futuro que se completa después del commit del lote que lo contiene
+     */
+    public CompletableFuture<MovimientoDTO> registrar(MovimientoDTO movimientoDTO) {
+        if (movimientoDTO.getCuentaId() == null || movimientoDTO.getValor() == null) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("La cuenta y el valor del movimiento son obligatorios"));
+        }
+        return shardDe(movimientoDTO.getCuentaId()).encolar(movimientoDTO);
+    }
+    
+    private Shard shardDe(Long cuentaId) {
+        return shards[Math.floorMod(Long.hashCode(cuentaId), shards.length)];
+    }
+    
+    @Override
+    public void destroy() throws InterruptedException {
+        for (Shard shard : shards) {
+            shard.detener();
+        }
+        for (Shard shard : shards) {
+            shard.hilo.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+    
+    /**
+     * Saldo y versión de una cuenta según el último commit del shard
+     */
+    private static final class EstadoCuenta {
+        private final Cuenta cuenta;
+        private long saldo;
+        private long version;
+        
+        private EstadoCuenta(Cuenta cuenta) {
+            this.cuenta = cuenta;
+            this.saldo = Centavos.desde(cuenta.getSaldoActual() != null ? cuenta.getSaldoActual() : cuenta.getSaldoInicial());
+            this.version = cuenta.getVersion();
+        }
+    }
+    
+    private record Solicitud(MovimientoDTO movimiento, CompletableFuture<MovimientoDTO> futuro) {
+    }
+    
+    /**
+     * Otro escritor modificó la cuenta después de cargarla en memoria
+     */
+    private static final class ConflictoVersionException extends RuntimeException {
+        private ConflictoVersionException(Long cuentaId) {
+            super("La cuenta " + cuentaId + " fue modificada por otro proceso");
+        }
+    }
+    
+    private final class Shard implements Runnable {
+        
+        private final BlockingQueue<Solicitud> cola;
+        private final Thread hilo;
+        private volatile boolean activo = true;
+        
+        // Solo lo accede el hilo del shard; orden de acceso para descartar las cuentas menos usadas
+        private final Map<Long, EstadoCuenta> cuentas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, EstadoCuenta> eldest) {
+                return size() > cuentasEnMemoria;
+            }
+        };
+        
+        private Shard(int numero, int capacidadCola) {
+            this.cola = new ArrayBlockingQueue<>(capacidadCola);
+            this.hilo = new Thread(this, "motor-movimientos-" + numero);
+            this.hilo.setDaemon(true);
+            this.hilo.start();
+        }
+        
+        private CompletableFuture<MovimientoDTO> encolar(MovimientoDTO movimientoDTO) {
+            Solicitud solicitud = new Solicitud(movimientoDTO, new CompletableFuture<>());
+            if (!activo || !cola.offer(solicitud)) {
+                solicitud.futuro().completeExceptionally(
+                        new IllegalStateException("El motor de movimientos está saturado, intenta de nuevo"));
+            }
+            return solicitud.futuro();
+        }
+        
+        private void detener() {
+            activo = false;
+        }
+        
+        @Override
+        public void run() {
+            List<Solicitud> lote = new ArrayList<>(loteMaximo);
+            while (activo || !cola.isEmpty()) {
+                try {
+                    Solicitud primera = cola.poll(100, TimeUnit.MILLISECONDS);
+                    if (primera == null) {
+                        continue;
+                    }
+                    lote.add(primera);
+                    cola.drainTo(lote, loteMaximo - 1);
+                    procesarConReintento(lote);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    log.error("Error inesperado en {}: {}", hilo.getName(), e.getMessage(), e);
+                    lote.forEach(s -> s.futuro().completeExceptionally(e));
+                } finally {
+                    lote.clear();
+                }
+            }
+        }
+        
+        private void procesarConReintento(List<Solicitud> lote) {
+            try {
+                procesar(lote);
+            } catch (ConflictoVersionException e) {
+                // Un escritor externo (carga masiva, eliminación) cambió el saldo: recargar y reintentar una vez
+                log.debug("{}: {}. Reintentando con saldos recargados", hilo.getName(), e.getMessage());
+                invalidar(lote);
+                try {
+                    procesar(lote);
+                } catch (RuntimeException reintento) {
+                    invalidar(lote);
+                    lote.forEach(s -> s.futuro().completeExceptionally(reintento));
+                }
+            } catch (DataIntegrityViolationException e) {
+                // Una clave de idempotencia repetida invalida todo el lote: se procesa uno a uno
+                // para que solo el duplicado falle y el servicio devuelva el movimiento original
+                invalidar(lote);
+                for (Solicitud solicitud : lote) {
+                    try {
+                        procesar(List.of(solicitud));
+                    } catch (RuntimeException individual) {
+                        invalidar(List.of(solicitud));
+                        solicitud.futuro().completeExceptionally(individual);
+                    }
+                }
+            } catch (RuntimeException e) {
+                invalidar(lote);
+                lote.forEach(s -> s.futuro().completeExceptionally(e));
+            }
+        }
+        
+        private void invalidar(List<Solicitud> lote) {
+            lote.forEach(s -> cuentas.remove(s.movimiento().getCuentaId()));
+        }
+        
+        private void procesar(List<Solicitud> lote) {
+            cargarCuentas(lote);
+            
+            // Aplicar en memoria, en orden de llegada, sobre una copia de trabajo de los saldos
+            Map<Long, Long> saldos = new HashMap<>();
+            List<Solicitud> aceptadas = new ArrayList<>(lote.size());
+            List<Movimientos> nuevos = new ArrayList<>(lote.size());
+            Map<Solicitud, RuntimeException> rechazadas = new LinkedHashMap<>();
+            List<VentanaRetiros.Reserva> reservas = new ArrayList<>();
+            
+            for (Solicitud solicitud : lote) {
+                MovimientoDTO movimientoDTO = solicitud.movimiento();
+                EstadoCuenta estado = cuentas.get(movimientoDTO.getCuentaId());
+                if (estado == null) {
+                    rechazadas.put(solicitud, new IllegalArgumentException(
+                            "Cuenta no encontrada con ID: " + movimientoDTO.getCuentaId()));
+                    continue;
+                }
+                try {
+                    long monto = Centavos.desde(movimientoDTO.getValor());
+                    long valor = MovimientoCalculator.calcularValor(strategyFactory, estado.cuenta.getTipoCuenta(),
+                            movimientoDTO.getTipoMovimiento(), monto);
+                    long nuevoSaldo = MovimientoCalculator.calcularNuevoSaldo(
+                            saldos.getOrDefault(movimientoDTO.getCuentaId(), estado.saldo), valor);
+                    reservas.add(ventanaRetiros.reservar(estado.cuenta, valor, monto));
+                    
+                    Movimientos movimiento = movimientoMapper.toEntity(movimientoDTO);
+                    movimiento.setId(null);
+                    movimiento.setCuenta(estado.cuenta);
+                    movimiento.setValor(Centavos.aBigDecimal(valor, movimientoDTO.getValor(), monto));
+                    movimiento.setComision(Centavos.aBigDecimal(MovimientoCalculator.calcularComision(valor, monto)));
+                    movimiento.setSaldo(Centavos.aBigDecimal(nuevoSaldo));
+                    movimiento.setFecha(LocalDateTime.now());
+                    
+                    saldos.put(movimientoDTO.getCuentaId(), nuevoSaldo);
+                    aceptadas.add(solicitud);
+                    nuevos.add(movimiento);
+                } catch (IllegalArgumentException e) {
+                    rechazadas.put(solicitud, e);
+                }
+            }
+            
+            Map<Long, Long> ultimos = new HashMap<>();
+            try {
+                // Un rechazo calculado sobre un saldo en memoria desactualizado no debe publicarse sin verificar la versión
+                Set<Long> soloRechazos = rechazadas.keySet().stream()
+                        .map(s -> s.movimiento().getCuentaId())
+                        .filter(id -> cuentas.containsKey(id) && !saldos.containsKey(id))
+                        .collect(Collectors.toSet());
+                for (Long cuentaId : soloRechazos) {
+                    if (!cuentaRepository.findVersionById(cuentaId).map(v -> v == cuentas.get(cuentaId).version).orElse(false)) {
+                        throw new ConflictoVersionException(cuentaId);
+                    }
+                }
+                
+                // Group commit: todos los INSERT del lote y un UPDATE condicionado por versión por cuenta
+                // La cuenta se actualiza como entidad (@Version) y no con un UPDATE masivo, que vaciaría
+                // la región "cuenta" de la cache de segundo nivel en cada lote
+                if (!nuevos.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        movimientosRepository.saveAll(nuevos);
+                        for (Movimientos movimiento : nuevos) {
+                            ultimos.put(movimiento.getCuenta().getId(), movimiento.getId());
+                        }
+                        for (Map.Entry<Long, Long> saldo : saldos.entrySet()) {
+                            Cuenta cuenta = cuentaRepository.findById(saldo.getKey())
+                                    .filter(c -> c.getVersion() == cuentas.get(saldo.getKey()).version)
+                                    .orElseThrow(() -> new ConflictoVersionException(saldo.getKey()));
+                            cuenta.setSaldoActual(Centavos.aBigDecimal(saldo.getValue()));
+                            cuenta.setUltimoMovimientoId(ultimos.get(saldo.getKey()));
+                            try {
+                                cuentaRepository.flush();
+                            } catch (ObjectOptimisticLockingFailureException e) {
+                                throw new ConflictoVersionException(saldo.getKey());
+                            }
+                        }
+                        // Después del UPDATE condicionado: la fila de la cuenta ya está bloqueada hasta el commit
+                        nuevos.stream()
+                                .collect(Collectors.groupingBy(m -> m.getCuenta().getId(), LinkedHashMap::new, Collectors.toList()))
+                                .forEach(resumenDiarioService::registrarMovimientos);
+                        eventPublisher.publishEvent(MovimientosModificadosEvent.registrados(saldos.keySet().stream()
+                                .map(cuentaId -> cuentas.get(cuentaId).cuenta)
+                                .toList(), nuevos));
+                    });
+                }
+            } catch (RuntimeException e) {
+                // El lote no se registró: los retiros apartados vuelven a la ventana antes de reintentar o fallar
+                reservas.forEach(ventanaRetiros::liberar);
+                throw e;
+            }
+            
+            // Commit confirmado: publicar el nuevo estado en memoria y completar los futuros
+            for (Map.Entry<Long, Long> saldo : saldos.entrySet()) {
+                EstadoCuenta estado = cuentas.get(saldo.getKey());
+                estado.saldo = saldo.getValue();
+                estado.version++;
+                estado.cuenta.setSaldoActual(Centavos.aBigDecimal(saldo.getValue()));
+                estado.cuenta.setUltimoMovimientoId(ultimos.get(saldo.getKey()));
+                estado.cuenta.setVersion(estado.version);
+            }
+            for (int i = 0; i < aceptadas.size(); i++) {
+                aceptadas.get(i).futuro().complete(movimientoMapper.toDTO(nuevos.get(i)));
+            }
+            rechazadas.forEach((solicitud, error) -> solicitud.futuro().completeExceptionally(error));
+        }
+        
+        /**
+         * Carga en memoria las cuentas del lote que aún no están en el shard
+         * Se leen fuera de la transacción del lote: quedan desasociadas y solo se usan como referencia
+         */
+        private void cargarCuentas(List<Solicitud> lote) {
+            Set<Long> faltantes = lote.stream()
+                    .map(s -> s.movimiento().getCuentaId())
+                    .filter(id -> !cuentas.containsKey(id))
+                    .collect(Collectors.toSet());
+            if (faltantes.isEmpty()) {
+                return;
+            }
+            for (Cuenta cuenta : cuentaRepository.findAllById(faltantes)) {
+                cuentas.put(cuenta.getId(), new EstadoCuenta(cuenta));
+            }
+        }
+    }
+}
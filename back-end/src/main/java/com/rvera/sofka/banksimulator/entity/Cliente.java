@@ -4,16 +4,25 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "cliente")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cliente")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Cliente {
     
+    /**
+     * Secuencia pooled: el cliente y su persona (cascade) se insertan al hacer flush, agrupados en lotes JDBC,
+     * en lugar de dos INSERT inmediatos para obtener cada IDENTITY
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cliente_seq")
+    @SequenceGenerator(name = "cliente_seq", sequenceName = "cliente_cliente_id_seq", allocationSize = 50)
     @Column(name = "cliente_id")
     private Long clienteId;
     
@@ -4,18 +4,26 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "cuenta")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cuenta")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Cuenta {
     
+    /**
+     * Secuencia por bloques de 50 (pooled): las altas de cuentas se agrupan en lotes JDBC
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cuenta_seq")
+    @SequenceGenerator(name = "cuenta_seq", sequenceName = "cuenta_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "numero_cuenta", unique = true, nullable = false)
@@ -27,6 +35,22 @@ public class Cuenta {
     @Column(name = "saldo_inicial", nullable = false)
     private BigDecimal saldoInicial;
     
+    /**
+     * Saldo vigente de la cuenta, mantenido en la misma transacción que registra cada movimiento
+     */
+    @Column(name = "saldo_actual", nullable = false)
+    private BigDecimal saldoActual;
+    
+    /**
+     * ID del último movimiento aplicado sobre saldoActual
+     */
+    @Column(name = "ultimo_movimiento_id")
+    private Long ultimoMovimientoId;
+    
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     @Column(nullable = false)
     private Boolean estado = true;
     
@@ -15,8 +15,12 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Movimientos {
     
+    /**
+     * Secuencia con asignación por bloques (pooled): permite a Hibernate agrupar los INSERT en lotes JDBC
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimientos_seq")
+    @SequenceGenerator(name = "movimientos_seq", sequenceName = "movimientos_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -31,10 +35,22 @@ public class Movimientos {
     @Column(nullable = false)
     private BigDecimal saldo;
     
+    /**
+     * Comisión incluida en el valor de un débito; 0 en los créditos
+     */
+    @Column(nullable = false)
+    private BigDecimal comision = BigDecimal.ZERO;
+    
     @Column(nullable = false)
     private Boolean estado = true;
     
     @ManyToOne
     @JoinColumn(name = "cuenta_id", nullable = false)
     private Cuenta cuenta;
+    
+    /**
+     * Clave Idempotency-Key enviada por el cliente; única para que un reintento no duplique el movimiento
+     */
+    @Column(name = "clave_idempotencia", length = 100, unique = true)
+    private String claveIdempotencia;
 }
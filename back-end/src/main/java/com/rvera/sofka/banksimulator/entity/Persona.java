@@ -4,16 +4,24 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "persona")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "persona")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Persona {
     
+    /**
+     * Secuencia por bloques de 50 (pooled), igual que Movimientos: sin un INSERT inmediato por persona
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "persona_seq")
+    @SequenceGenerator(name = "persona_seq", sequenceName = "persona_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -0,0 +1,48 @@
+package com.rvera.sofka.banksimulator.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totales de los movimientos activos de una cuenta en un día
+ * Los débitos incluyen la comisión; totalComisiones la desglosa
+ */
+@Entity
+@Table(name = "resumen_diario_cuenta")
+@IdClass(ResumenDiarioCuentaId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenDiarioCuenta {
+    
+    @Id
+    @Column(name = "cuenta_id")
+    private Long cuentaId;
+    
+    @Id
+    @Column(nullable = false)
+    private LocalDate fecha;
+    
+    @Column(name = "saldo_apertura", nullable = false)
+    private BigDecimal saldoApertura;
+    
+    @Column(name = "saldo_cierre", nullable = false)
+    private BigDecimal saldoCierre;
+    
+    @Column(name = "total_creditos", nullable = false)
+    private BigDecimal totalCreditos = BigDecimal.ZERO;
+    
+    @Column(name = "total_debitos", nullable = false)
+    private BigDecimal totalDebitos = BigDecimal.ZERO;
+    
+    @Column(name = "total_comisiones", nullable = false)
+    private BigDecimal totalComisiones = BigDecimal.ZERO;
+    
+    @Column(name = "cantidad_movimientos", nullable = false)
+    private Integer cantidadMovimientos = 0;
+}
@@ -0,0 +1,21 @@
+package com.rvera.sofka.banksimulator.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Clave compuesta de {@link ResumenDiarioCuenta}: cuenta y día
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenDiarioCuentaId implements Serializable {
+    
+    private Long cuentaId;
+    
+    private LocalDate fecha;
+}
@@ -0,0 +1,10 @@
+package com.rvera.sofka.banksimulator.event;
+
+import java.util.Set;
+
+/**
+ * Clientes creados, actualizados o eliminados lógicamente
+ * Se publica dentro de la transacción de escritura; los oyentes usan @TransactionalEventListener (AFTER_COMMIT)
+ */
+public record ClientesModificadosEvent(Set<Long> clienteIds) {
+}
@@ -0,0 +1,10 @@
+package com.rvera.sofka.banksimulator.event;
+
+import java.util.Set;
+
+/**
+ * Cuentas creadas, actualizadas o eliminadas lógicamente
+ * Se publica dentro de la transacción de escritura; los oyentes usan @TransactionalEventListener (AFTER_COMMIT)
+ */
+public record CuentasModificadasEvent(Set<Long> cuentaIds) {
+}
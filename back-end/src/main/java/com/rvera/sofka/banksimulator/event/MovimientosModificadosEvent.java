@@ -0,0 +1,43 @@
+package com.rvera.sofka.banksimulator.event;
+
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.entity.Movimientos;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Movimientos registrados o eliminados, o saldos recalculados, en las cuentas indicadas
+ * registrados lleva los IDs de los movimientos nuevos cuando la escritura solo agregó movimientos; vacío si
+ * además cambiaron movimientos existentes (eliminaciones, saldos recalculados) y las cuentas deben releerse
+ * Se publica dentro de la transacción de escritura: los oyentes que dependen de los datos confirmados
+ * usan @TransactionalEventListener (AFTER_COMMIT)
+ */
+public record MovimientosModificadosEvent(Set<Long> cuentaIds, Set<Long> clienteIds, Set<Long> registrados) {
+
+    public static MovimientosModificadosEvent de(Collection<Cuenta> cuentas) {
+        return nuevo(cuentas, Set.of());
+    }
+
+    /**
+     * @param movimientos Movimientos nuevos de esas cuentas, ya persistidos (con su ID asignado)
+     */
+    public static MovimientosModificadosEvent registrados(Collection<Cuenta> cuentas, Collection<Movimientos> movimientos) {
+        Set<Long> ids = new HashSet<>();
+        for (Movimientos movimiento : movimientos) {
+            ids.add(movimiento.getId());
+        }
+        return nuevo(cuentas, Set.copyOf(ids));
+    }
+
+    private static MovimientosModificadosEvent nuevo(Collection<Cuenta> cuentas, Set<Long> registrados) {
+        Set<Long> cuentaIds = new HashSet<>();
+        Set<Long> clienteIds = new HashSet<>();
+        for (Cuenta cuenta : cuentas) {
+            cuentaIds.add(cuenta.getId());
+            clienteIds.add(cuenta.getCliente().getClienteId());
+        }
+        return new MovimientosModificadosEvent(Set.copyOf(cuentaIds), Set.copyOf(clienteIds), registrados);
+    }
+}
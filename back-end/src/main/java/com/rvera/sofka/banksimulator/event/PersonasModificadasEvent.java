@@ -0,0 +1,10 @@
+package com.rvera.sofka.banksimulator.event;
+
+import java.util.Set;
+
+/**
+ * Personas creadas, actualizadas o eliminadas
+ * Se publica dentro de la transacción de escritura; los oyentes usan @TransactionalEventListener (AFTER_COMMIT)
+ */
+public record PersonasModificadasEvent(Set<Long> personaIds) {
+}
@@ -0,0 +1,25 @@
+package com.rvera.sofka.banksimulator.exception;
+
+/**
+ * Un bulkhead no admitió la solicitud: su cola de espera estaba llena o no obtuvo un permiso a tiempo
+ * Se responde 503 con Retry-After
+ */
+public class BulkheadSaturadoException extends RuntimeException {
+
+    private final String bulkhead;
+    private final long reintentarEnSegundos;
+
+    public BulkheadSaturadoException(String bulkhead, String motivo, long reintentarEnSegundos) {
+        super("El servicio de " + bulkhead + " está saturado: " + motivo);
+        this.bulkhead = bulkhead;
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public String getBulkhead() {
+        return bulkhead;
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
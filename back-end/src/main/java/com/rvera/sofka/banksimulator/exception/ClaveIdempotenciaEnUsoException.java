@@ -0,0 +1,12 @@
+package com.rvera.sofka.banksimulator.exception;
+
+/**
+ * La clave de idempotencia ya se usó para un movimiento con otra cuenta, tipo o valor
+ * Se responde 422: repetir la solicitud no la hará válida; el cliente debe usar una clave nueva
+ */
+public class ClaveIdempotenciaEnUsoException extends IllegalArgumentException {
+
+    public ClaveIdempotenciaEnUsoException(String clave) {
+        super("La clave de idempotencia ya fue utilizada para otro movimiento: " + clave);
+    }
+}
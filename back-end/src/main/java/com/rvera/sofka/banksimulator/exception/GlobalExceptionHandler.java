@@ -1,5 +1,8 @@
 package com.rvera.sofka.banksimulator.exception;
 
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -91,6 +94,78 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errorResponse);
     }
     
+    /**
+     * Maneja la reutilización de una clave de idempotencia con otra solicitud: 422
+     */
+    @ExceptionHandler(ClaveIdempotenciaEnUsoException.class)
+    public ResponseEntity<ErrorResponse> handleClaveIdempotenciaEnUsoException(
+            ClaveIdempotenciaEnUsoException ex,
+            WebRequest request) {
+
+        String path = request.getDescription(false).replace("uri=", "");
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.UNPROCESSABLE_ENTITY.value())
+            .error("Clave de Idempotencia en Uso")
+            .message("El encabezado Idempotency-Key ya se usó con otra cuenta, tipo o valor de movimiento. " +
+                "Por favor usa una clave nueva para esta solicitud.")
+            .path(path)
+            .technicalDetails(ex.getMessage())
+            .build();
+
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errorResponse);
+    }
+
+    /**
+     * Maneja la modificación concurrente de un registro versionado (otra operación confirmó antes): 409
+     */
+    @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class})
+    public ResponseEntity<ErrorResponse> handleOptimisticLockException(
+            RuntimeException ex,
+            WebRequest request) {
+
+        String path = request.getDescription(false).replace("uri=", "");
+        String proceso = determinarProceso(path);
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.CONFLICT.value())
+            .error("Conflicto de Concurrencia")
+            .message("Ha ocurrido un error en " + proceso + " debido a que otra operación modificó el registro " +
+                "al mismo tiempo. Por favor consulta los datos actualizados e intenta de nuevo.")
+            .path(path)
+            .technicalDetails(ex.getMessage())
+            .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    /**
+     * Maneja el rechazo de un bulkhead saturado: 503 con Retry-After
+     */
+    @ExceptionHandler(BulkheadSaturadoException.class)
+    public ResponseEntity<ErrorResponse> handleBulkheadSaturadoException(
+            BulkheadSaturadoException ex,
+            WebRequest request) {
+
+        String path = request.getDescription(false).replace("uri=", "");
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+            .error("Servicio Saturado")
+            .message("El servicio está atendiendo demasiadas solicitudes de " + ex.getBulkhead() +
+                ". Por favor intenta de nuevo en unos segundos.")
+            .path(path)
+            .technicalDetails(ex.getMessage())
+            .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getReintentarEnSegundos()))
+            .body(errorResponse);
+    }
+
     /**
      * Maneja excepciones generales no capturadas
      */
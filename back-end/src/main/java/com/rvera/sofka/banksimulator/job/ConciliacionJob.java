@@ -0,0 +1,33 @@
+package com.rvera.sofka.banksimulator.job;
+
+import com.rvera.sofka.banksimulator.service.IConciliacionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ejecución programada de la conciliación de saldos
+ * app.conciliacion.cron=- la deshabilita
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConciliacionJob {
+    
+    private final IConciliacionService conciliacionService;
+    
+    @Value("${app.conciliacion.reconstruir-programado:false}")
+    private boolean reconstruir;
+    
+    @Scheduled(cron = "${app.conciliacion.cron:-}")
+    public void ejecutar() {
+        conciliacionService.conciliar(reconstruir).ifPresent(resultado -> {
+            if (resultado.getDiscrepanciasTotales() > 0) {
+                log.warn("Conciliación programada: {} discrepancias en {} cuentas",
+                        resultado.getDiscrepanciasTotales(), resultado.getCuentasConDiscrepancias());
+            }
+        });
+    }
+}
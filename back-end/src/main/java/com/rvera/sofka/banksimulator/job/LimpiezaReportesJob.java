@@ -0,0 +1,25 @@
+package com.rvera.sofka.banksimulator.job;
+
+import com.rvera.sofka.banksimulator.cache.ReporteCache;
+import com.rvera.sofka.banksimulator.service.IReporteJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Eliminación periódica de los reportes asíncronos expirados (app.reportes.jobs.ttl)
+ * y de las entradas vencidas de la cache de reportes (app.reportes.cache.ttl)
+ */
+@Component
+@RequiredArgsConstructor
+public class LimpiezaReportesJob {
+    
+    private final IReporteJobService reporteJobService;
+    private final ReporteCache reporteCache;
+    
+    @Scheduled(fixedDelayString = "${app.reportes.jobs.intervalo-limpieza:PT5M}")
+    public void ejecutar() {
+        reporteJobService.limpiarExpirados();
+        reporteCache.purgarExpirados();
+    }
+}
@@ -0,0 +1,22 @@
+package com.rvera.sofka.banksimulator.job;
+
+import com.rvera.sofka.banksimulator.service.IResumenDiarioService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reconstrucción programada de los resúmenes diarios desde los movimientos
+ * Corrige cualquier desvío de la actualización incremental; app.resumenes.cron=- la deshabilita
+ */
+@Component
+@RequiredArgsConstructor
+public class ResumenDiarioJob {
+    
+    private final IResumenDiarioService resumenDiarioService;
+    
+    @Scheduled(cron = "${app.resumenes.cron:-}")
+    public void ejecutar() {
+        resumenDiarioService.reconstruirTodas();
+    }
+}
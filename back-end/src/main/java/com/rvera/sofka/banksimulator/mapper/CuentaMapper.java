@@ -25,6 +25,7 @@ public class CuentaMapper {
                 .numeroCuenta(cuenta.getNumeroCuenta())
                 .tipoCuenta(cuenta.getTipoCuenta())
                 .saldoInicial(cuenta.getSaldoInicial())
+                .saldoActual(cuenta.getSaldoActual())
                 .estado(cuenta.getEstado())
                 .clienteId(cuenta.getCliente() != null ? cuenta.getCliente().getClienteId() : null)
                 .cliente(cuenta.getCliente() != null ? clienteMapper.toDTO(cuenta.getCliente()) : null)
@@ -52,4 +53,20 @@ public class CuentaMapper {
         
         return cuenta;
     }
+    
+    public void updateEntityFromDTO(CuentaDTO cuentaDTO, Cuenta cuenta) {
+        if (cuentaDTO == null || cuenta == null) {
+            return;
+        }
+        
+        cuenta.setNumeroCuenta(cuentaDTO.getNumeroCuenta());
+        cuenta.setTipoCuenta(cuentaDTO.getTipoCuenta());
+        cuenta.setSaldoInicial(cuentaDTO.getSaldoInicial());
+        cuenta.setEstado(cuentaDTO.getEstado());
+        
+        // Sin movimientos aplicados, el saldo vigente sigue al saldo inicial
+        if (cuenta.getUltimoMovimientoId() == null) {
+            cuenta.setSaldoActual(cuentaDTO.getSaldoInicial());
+        }
+    }
 }
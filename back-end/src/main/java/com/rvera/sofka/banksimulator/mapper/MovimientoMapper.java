@@ -29,6 +29,7 @@ public class MovimientoMapper {
                 .estado(movimiento.getEstado())
                 .cuentaId(movimiento.getCuenta() != null ? movimiento.getCuenta().getId() : null)
                 .cuenta(movimiento.getCuenta() != null ? cuentaMapper.toDTO(movimiento.getCuenta()) : null)
+                .claveIdempotencia(movimiento.getClaveIdempotencia())
                 .build();
     }
     
@@ -44,6 +45,7 @@ public class MovimientoMapper {
         movimiento.setValor(movimientoDTO.getValor());
         movimiento.setSaldo(movimientoDTO.getSaldo());
         movimiento.setEstado(movimientoDTO.getEstado() != null ? movimientoDTO.getEstado() : true);
+        movimiento.setClaveIdempotencia(movimientoDTO.getClaveIdempotencia());
         
         // La cuenta se establece en el servicio
         if (movimientoDTO.getCuentaId() != null) {
@@ -0,0 +1,122 @@
+package com.rvera.sofka.banksimulator.reporte;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.rvera.sofka.banksimulator.dto.MovimientoReporteDTO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+
+/**
+ * Escribe filas del reporte de movimientos en CSV o NDJSON a medida que se leen
+ * Solo se mantiene en memoria la fila actual y el buffer de salida, que se vacía cada filasPorFlush filas.
+ * Los importes se escriben como decimales exactos. La salida no se cierra.
+ */
+public class ExportadorMovimientos {
+
+    private static final String[] COLUMNAS = {
+            "fecha", "cliente", "numeroCuenta", "tipoCuenta", "saldoInicial", "estado", "valor", "saldo"
+    };
+
+    private final JsonFactory jsonFactory;
+    private final int filasPorFlush;
+
+    public ExportadorMovimientos(JsonFactory jsonFactory, int filasPorFlush) {
+        this.jsonFactory = jsonFactory;
+        this.filasPorFlush = filasPorFlush;
+    }
+
+    /**
+     * @return Número de filas escritas
+     */
+    public long exportar(Iterator<MovimientoReporteDTO> filas, FormatoExportacion formato, OutputStream salida)
+            throws IOException {
+        return formato == FormatoExportacion.CSV ? exportarCsv(filas, salida) : exportarNdjson(filas, salida);
+    }
+
+    private long exportarCsv(Iterator<MovimientoReporteDTO> filas, OutputStream salida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        writer.write(String.join(",", COLUMNAS));
+        writer.write("\r\n");
+
+        long escritas = 0;
+        while (filas.hasNext()) {
+            MovimientoReporteDTO fila = filas.next();
+            writer.write(fecha(fila).toString());
+            writer.write(',');
+            writer.write(campoCsv(fila.getCliente()));
+            writer.write(',');
+            writer.write(String.valueOf(fila.getNumeroCuenta()));
+            writer.write(',');
+            writer.write(campoCsv(fila.getTipo()));
+            writer.write(',');
+            writer.write(fila.getSaldoInicial().toPlainString());
+            writer.write(',');
+            writer.write(String.valueOf(fila.getEstado()));
+            writer.write(',');
+            writer.write(fila.getMovimiento().toPlainString());
+            writer.write(',');
+            writer.write(fila.getSaldoDisponible().toPlainString());
+            writer.write("\r\n");
+            if (++escritas % filasPorFlush == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return escritas;
+    }
+
+    private long exportarNdjson(Iterator<MovimientoReporteDTO> filas, OutputStream salida) throws IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(salida);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Un objeto por línea
+        generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+
+        long escritas = 0;
+        while (filas.hasNext()) {
+            MovimientoReporteDTO fila = filas.next();
+            generator.writeStartObject();
+            generator.writeStringField(COLUMNAS[0], fecha(fila).toString());
+            generator.writeStringField(COLUMNAS[1], fila.getCliente());
+            generator.writeStringField(COLUMNAS[2], String.valueOf(fila.getNumeroCuenta()));
+            generator.writeStringField(COLUMNAS[3], fila.getTipo());
+            generator.writeNumberField(COLUMNAS[4], fila.getSaldoInicial());
+            generator.writeBooleanField(COLUMNAS[5], fila.getEstado());
+            generator.writeNumberField(COLUMNAS[6], fila.getMovimiento());
+            generator.writeNumberField(COLUMNAS[7], fila.getSaldoDisponible());
+            generator.writeEndObject();
+            if (++escritas % filasPorFlush == 0) {
+                generator.flush();
+            }
+        }
+        if (escritas > 0) {
+            generator.writeRaw('\n');
+        }
+        generator.close();
+        return escritas;
+    }
+
+    // Fecha local como la guarda la base de datos, con el mismo formato ISO que antes de la proyección
+    private static LocalDateTime fecha(MovimientoReporteDTO fila) {
+        return LocalDateTime.ofInstant(fila.getFecha().toInstant(), ZoneId.systemDefault());
+    }
+
+    // RFC 4180: entre comillas si contiene separador, comillas o saltos de línea
+    private static String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,36 @@
+package com.rvera.sofka.banksimulator.reporte;
+
+import java.util.Locale;
+
+/**
+ * Formatos de exportación de movimientos
+ */
+public enum FormatoExportacion {
+    
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+    
+    private final String contentType;
+    private final String extension;
+    
+    FormatoExportacion(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+    
+    public static FormatoExportacion desde(String formato) {
+        try {
+            return valueOf(formato.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato de exportación no soportado: " + formato + " (csv o ndjson)");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.rvera.sofka.banksimulator.reporte;
+
+import com.rvera.sofka.banksimulator.dto.MovimientoReporteDTO;
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
+
+import java.util.Iterator;
+
+/**
+ * JRDataSource sobre un cursor de filas del reporte de movimientos
+ * Solo conserva la fila actual: JasperReports la consume mientras avanza el cursor.
+ * Los campos y sus tipos son los de la plantilla de movimientos.
+ */
+public class MovimientosReporteDataSource implements JRDataSource {
+
+    private final Iterator<MovimientoReporteDTO> filas;
+    private MovimientoReporteDTO actual;
+    private long procesadas;
+
+    public MovimientosReporteDataSource(Iterator<MovimientoReporteDTO> filas) {
+        this.filas = filas;
+    }
+
+    @Override
+    public boolean next() {
+        if (!filas.hasNext()) {
+            actual = null;
+            return false;
+        }
+        actual = filas.next();
+        procesadas++;
+        return true;
+    }
+
+    @Override
+    public Object getFieldValue(JRField campo) throws JRException {
+        return switch (campo.getName()) {
+            case "movimientoDate" -> actual.getFecha();
+            case "cliente" -> actual.getCliente();
+            case "numeroCuenta" -> actual.getNumeroCuenta();
+            case "tipo" -> actual.getTipo();
+            case "saldoInicial" -> actual.getSaldoInicial();
+            case "estado" -> actual.getEstado();
+            case "movimiento" -> actual.getMovimiento();
+            case "saldoDisponible" -> actual.getSaldoDisponible();
+            default -> throw new JRException("Campo de reporte desconocido: " + campo.getName());
+        };
+    }
+
+    public long getProcesadas() {
+        return procesadas;
+    }
+}
@@ -0,0 +1,122 @@
+package com.rvera.sofka.banksimulator.reporte;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro de plantillas JasperReports compiladas al iniciar la aplicación
+ * Cada archivo .jrxml de la ubicación configurada queda registrado con su nombre sin extensión
+ * (reports/movimientos-report.jrxml -> "movimientos-report"); las solicitudes solo llenan y exportan.
+ * Con recompilar-si-cambia (desarrollo) la plantilla se vuelve a compilar si el archivo cambió.
+ */
+@Slf4j
+@Component
+public class RegistroPlantillasReporte {
+
+    private static final String EXTENSION = ".jrxml";
+
+    private final String ubicacion;
+    private final boolean recompilarSiCambia;
+    private final Map<String, PlantillaCompilada> plantillas = new ConcurrentHashMap<>();
+
+    public RegistroPlantillasReporte(
+            @Value("${app.reportes.plantillas.ubicacion:classpath:reports/}") String ubicacion,
+            @Value("${app.reportes.plantillas.recompilar-si-cambia:false}") boolean recompilarSiCambia) {
+        this.ubicacion = ubicacion.endsWith("/") ? ubicacion : ubicacion + "/";
+        this.recompilarSiCambia = recompilarSiCambia;
+    }
+
+    @PostConstruct
+    public void cargar() {
+        Resource[] recursos;
+        try {
+            recursos = new PathMatchingResourcePatternResolver().getResources(ubicacion + "*" + EXTENSION);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudieron listar las plantillas de reporte en " + ubicacion, e);
+        }
+
+        for (Resource recurso : recursos) {
+            String nombre = nombreDe(recurso);
+            try {
+                plantillas.put(nombre, compilar(recurso));
+            } catch (JRException | IOException e) {
+                // Una plantilla inválida debe detener el arranque, no fallar en la primera solicitud
+                throw new IllegalStateException("Error al compilar la plantilla de reporte " + nombre + ": " + e.getMessage(), e);
+            }
+        }
+        log.info("Plantillas de reporte compiladas: {}", plantillas.keySet());
+    }
+
+    /**
+     * Obtiene la plantilla compilada
+     * @param nombre Nombre del archivo .jrxml sin extensión
+     * @return Plantilla lista para llenar
+     */
+    public JasperReport obtener(String nombre) {
+        PlantillaCompilada plantilla = plantillas.get(nombre);
+        if (plantilla == null) {
+            throw new IllegalArgumentException("Plantilla de reporte no encontrada: " + nombre);
+        }
+        if (recompilarSiCambia && plantilla.modificada()) {
+            plantilla = plantillas.compute(nombre, (clave, actual) -> actual.modificada() ? recompilar(clave, actual) : actual);
+        }
+        return plantilla.reporte();
+    }
+
+    public Set<String> getNombres() {
+        return Collections.unmodifiableSet(plantillas.keySet());
+    }
+
+    private PlantillaCompilada recompilar(String nombre, PlantillaCompilada actual) {
+        try {
+            PlantillaCompilada nueva = compilar(actual.recurso());
+            log.info("Plantilla de reporte {} recompilada", nombre);
+            return nueva;
+        } catch (JRException | IOException e) {
+            // En desarrollo se conserva la última versión válida mientras se corrige el archivo
+            log.error("Error al recompilar la plantilla de reporte {}: {}", nombre, e.getMessage());
+            return new PlantillaCompilada(actual.recurso(), actual.reporte(), fechaModificacion(actual.recurso()));
+        }
+    }
+
+    private PlantillaCompilada compilar(Resource recurso) throws JRException, IOException {
+        long modificacion = fechaModificacion(recurso);
+        try (InputStream entrada = recurso.getInputStream()) {
+            return new PlantillaCompilada(recurso, JasperCompileManager.compileReport(entrada), modificacion);
+        }
+    }
+
+    private static String nombreDe(Resource recurso) {
+        String archivo = recurso.getFilename();
+        return archivo.substring(0, archivo.length() - EXTENSION.length());
+    }
+
+    private static long fechaModificacion(Resource recurso) {
+        try {
+            return recurso.lastModified();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private record PlantillaCompilada(Resource recurso, JasperReport reporte, long ultimaModificacion) {
+
+        boolean modificada() {
+            return fechaModificacion(recurso) != ultimaModificacion;
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.rvera.sofka.banksimulator.repository;
 
 import com.rvera.sofka.banksimulator.entity.Cliente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,12 +19,21 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     Optional<Cliente> findByPersonaIdentificacion(String identificacion);
     
     // Métodos para filtrar solo activos
-    @Query("SELECT c FROM Cliente c WHERE c.estado = true")
-    List<Cliente> findAllActive();
+    // Paginación por keyset: el índice de la clave primaria resuelve "id > :after ORDER BY id" sin OFFSET
+    @Query("SELECT c FROM Cliente c JOIN FETCH c.persona WHERE c.estado = true AND c.clienteId > :after ORDER BY c.clienteId")
+    List<Cliente> findActiveDespuesDe(@Param("after") Long after, Limit limite);
+    
+    @Query("SELECT c FROM Cliente c JOIN FETCH c.persona WHERE c.estado = true AND c.clienteId IN :ids")
+    List<Cliente> findActiveByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT c.clienteId FROM Cliente c WHERE c.persona.id IN :personaIds")
+    List<Long> findIdsByPersonaIdIn(@Param("personaIds") Collection<Long> personaIds);
     
     @Query("SELECT c FROM Cliente c WHERE c.clienteId = :id AND c.estado = true")
     Optional<Cliente> findByIdAndActive(Long id);
     
+    // Cache de consultas: se invalida cuando se confirma cualquier escritura sobre cliente o persona
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT c FROM Cliente c WHERE c.persona.identificacion = :identificacion AND c.estado = true")
     Optional<Cliente> findByPersonaIdentificacionAndActive(String identificacion);
     
@@ -28,6 +42,7 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
            "(LOWER(c.persona.nombre) LIKE LOWER(CONCAT('%', :filtro, '%')) OR " +
            "LOWER(c.persona.identificacion) LIKE LOWER(CONCAT('%', :filtro, '%')) OR " +
            "LOWER(c.persona.direccion) LIKE LOWER(CONCAT('%', :filtro, '%')) OR " +
-           "LOWER(c.persona.telefono) LIKE LOWER(CONCAT('%', :filtro, '%')))")
-    List<Cliente> searchByFilter(@Param("filtro") String filtro);
+           "LOWER(c.persona.telefono) LIKE LOWER(CONCAT('%', :filtro, '%'))) " +
+           "AND c.clienteId > :after ORDER BY c.clienteId")
+    List<Cliente> searchByFilter(@Param("filtro") String filtro, @Param("after") Long after, Limit limite);
 }
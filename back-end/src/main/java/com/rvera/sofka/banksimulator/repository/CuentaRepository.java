@@ -1,11 +1,19 @@
 package com.rvera.sofka.banksimulator.repository;
 
+import com.rvera.sofka.banksimulator.dto.CuentaSaldoDTO;
 import com.rvera.sofka.banksimulator.entity.Cuenta;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,24 +22,58 @@ public interface CuentaRepository extends JpaRepository<Cuenta, Long> {
     Optional<Cuenta> findByNumeroCuenta(String numeroCuenta);
     List<Cuenta> findByClienteClienteId(Long clienteId);
     
+    // Bloqueo de fila (SELECT ... FOR UPDATE): serializa los movimientos de una misma cuenta
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cuenta c WHERE c.id = :id")
+    Optional<Cuenta> findByIdForUpdate(@Param("id") Long id);
+    
+    @Query("SELECT c.version FROM Cuenta c WHERE c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
     // Métodos para filtrar solo activas
-    @Query("SELECT c FROM Cuenta c WHERE c.estado = true")
-    List<Cuenta> findAllActive();
+    // Paginación por keyset: "id > :after ORDER BY id" recorre el índice de la clave primaria sin OFFSET
+    @Query("SELECT c FROM Cuenta c LEFT JOIN FETCH c.cliente cl LEFT JOIN FETCH cl.persona " +
+           "WHERE c.estado = true AND c.id > :after ORDER BY c.id")
+    List<Cuenta> findActiveDespuesDe(@Param("after") Long after, Limit limite);
+    
+    @Query("SELECT c FROM Cuenta c LEFT JOIN FETCH c.cliente cl LEFT JOIN FETCH cl.persona " +
+           "WHERE c.estado = true AND c.id IN :ids")
+    List<Cuenta> findActiveByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT c.id FROM Cuenta c WHERE c.cliente.clienteId IN :clienteIds")
+    List<Long> findIdsByClienteIdIn(@Param("clienteIds") Collection<Long> clienteIds);
     
     @Query("SELECT c FROM Cuenta c WHERE c.id = :id AND c.estado = true")
     Optional<Cuenta> findByIdAndActive(Long id);
     
+    // Cache de consultas: se invalida cuando se confirma cualquier escritura sobre la tabla cuenta
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT c FROM Cuenta c WHERE c.numeroCuenta = :numeroCuenta AND c.estado = true")
     Optional<Cuenta> findByNumeroCuentaAndActive(String numeroCuenta);
     
-    @Query("SELECT c FROM Cuenta c WHERE c.cliente.clienteId = :clienteId AND c.estado = true")
-    List<Cuenta> findByClienteClienteIdAndActive(Long clienteId);
+    @Query("SELECT c FROM Cuenta c WHERE c.cliente.clienteId = :clienteId AND c.estado = true " +
+           "AND c.id > :after ORDER BY c.id")
+    List<Cuenta> findByClienteClienteIdAndActive(@Param("clienteId") Long clienteId, @Param("after") Long after, Limit limite);
     
     // Búsqueda general con LIKE
     @Query("SELECT c FROM Cuenta c WHERE c.estado = true AND " +
            "(LOWER(c.numeroCuenta) LIKE LOWER(CONCAT('%', :filtro, '%')) OR " +
            "LOWER(c.tipoCuenta) LIKE LOWER(CONCAT('%', :filtro, '%')) OR " +
            "LOWER(c.cliente.persona.nombre) LIKE LOWER(CONCAT('%', :filtro, '%')) OR " +
-           "LOWER(c.cliente.persona.identificacion) LIKE LOWER(CONCAT('%', :filtro, '%')))")
-    List<Cuenta> searchByFilter(@Param("filtro") String filtro);
+           "LOWER(c.cliente.persona.identificacion) LIKE LOWER(CONCAT('%', :filtro, '%'))) " +
+           "AND c.id > :after ORDER BY c.id")
+    List<Cuenta> searchByFilter(@Param("filtro") String filtro, @Param("after") Long after, Limit limite);
+    
+    @Query("SELECT c.id FROM Cuenta c WHERE c.id > :despues ORDER BY c.id")
+    List<Long> findIdsDespuesDe(@Param("despues") Long despues, Limit limite);
+    
+    @Query("SELECT MIN(c.id) FROM Cuenta c")
+    Long findMinId();
+    
+    @Query("SELECT MAX(c.id) FROM Cuenta c")
+    Long findMaxId();
+    
+    @Query("SELECT new com.rvera.sofka.banksimulator.dto.CuentaSaldoDTO(c.id, c.saldoInicial, c.saldoActual, c.ultimoMovimientoId) " +
+           "FROM Cuenta c WHERE c.id BETWEEN :desde AND :hasta ORDER BY c.id")
+    List<CuentaSaldoDTO> findSaldosByIdBetween(@Param("desde") Long desde, @Param("hasta") Long hasta);
 }
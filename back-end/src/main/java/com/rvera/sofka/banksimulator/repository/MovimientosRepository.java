@@ -1,47 +1,163 @@
 package com.rvera.sofka.banksimulator.repository;
 
+import com.rvera.sofka.banksimulator.dto.MovimientoIndiceDTO;
+import com.rvera.sofka.banksimulator.dto.MovimientoReporteDTO;
+import com.rvera.sofka.banksimulator.dto.MovimientoResumenDTO;
+import com.rvera.sofka.banksimulator.dto.MovimientoSaldoDTO;
+import com.rvera.sofka.banksimulator.dto.RetiroVentanaDTO;
 import com.rvera.sofka.banksimulator.entity.Movimientos;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface MovimientosRepository extends JpaRepository<Movimientos, Long> {
+public interface MovimientosRepository extends JpaRepository<Movimientos, Long>, JpaSpecificationExecutor<Movimientos> {
     List<Movimientos> findByCuentaId(Long cuentaId);
     List<Movimientos> findByCuentaIdOrderByFechaDesc(Long cuentaId);
     
     // Métodos para filtrar solo activos
-    @Query("SELECT m FROM Movimientos m WHERE m.estado = true")
-    List<Movimientos> findAllActive();
+    // Paginación por keyset: "id > :after ORDER BY id" recorre el índice de la clave primaria sin OFFSET
+    @Query("SELECT m FROM Movimientos m JOIN FETCH m.cuenta c LEFT JOIN FETCH c.cliente cl LEFT JOIN FETCH cl.persona " +
+           "WHERE m.estado = true AND m.id > :after ORDER BY m.id")
+    List<Movimientos> findActiveDespuesDe(@Param("after") Long after, Limit limite);
+    
+    // Resultados del índice de movimientos: la búsqueda devuelve los IDs y esta consulta las filas
+    @Query("SELECT m FROM Movimientos m JOIN FETCH m.cuenta c LEFT JOIN FETCH c.cliente cl LEFT JOIN FETCH cl.persona " +
+           "WHERE m.estado = true AND m.id IN :ids")
+    List<Movimientos> findActiveByIdIn(@Param("ids") Collection<Long> ids);
     
     @Query("SELECT m FROM Movimientos m WHERE m.id = :id AND m.estado = true")
     Optional<Movimientos> findByIdAndActive(Long id);
     
-    @Query("SELECT m FROM Movimientos m WHERE m.cuenta.id = :cuentaId AND m.estado = true ORDER BY m.fecha DESC")
-    List<Movimientos> findByCuentaIdAndActiveOrderByFechaDesc(Long cuentaId);
+    // Más recientes primero: recorre el índice (cuenta_id, id) hacia atrás
+    @Query("SELECT m FROM Movimientos m JOIN FETCH m.cuenta c LEFT JOIN FETCH c.cliente cl LEFT JOIN FETCH cl.persona " +
+           "WHERE c.id = :cuentaId AND m.estado = true AND m.id < :before ORDER BY m.id DESC")
+    List<Movimientos> findByCuentaIdAndActive(@Param("cuentaId") Long cuentaId, @Param("before") Long before, Limit limite);
+    
+    // Último movimiento activo de la cuenta (usado para restaurar el saldo vigente)
+    Optional<Movimientos> findFirstByCuentaIdAndEstadoTrueOrderByFechaDescIdDesc(Long cuentaId);
     
-    // Consulta de movimientos por rango de fechas y cliente
-    @Query("SELECT m FROM Movimientos m " +
-           "WHERE m.cuenta.cliente.clienteId = :clienteId " +
+    Optional<Movimientos> findByClaveIdempotencia(String claveIdempotencia);
+    
+    // Reporte de movimientos por rango de fechas y cliente: una sola consulta con las columnas del reporte,
+    // sin cargar entidades ni resolver sus relaciones fila por fila
+    // Se recorre con cursor: el llamador debe cerrar el Stream dentro de una transacción
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.rvera.sofka.banksimulator.dto.MovimientoReporteDTO(" +
+           "m.fecha, p.nombre, c.numeroCuenta, c.tipoCuenta, c.saldoInicial, m.estado, m.valor, m.saldo) " +
+           "FROM Movimientos m JOIN m.cuenta c JOIN c.cliente cl JOIN cl.persona p " +
+           "WHERE cl.clienteId = :clienteId " +
            "AND m.fecha BETWEEN :fechaInicio AND :fechaFin " +
            "AND m.estado = true " +
            "ORDER BY m.fecha DESC")
-    List<Movimientos> findByClienteIdAndFechaBetween(
+    Stream<MovimientoReporteDTO> streamReporteByClienteIdAndFechaBetween(
             @Param("clienteId") Long clienteId,
             @Param("fechaInicio") LocalDateTime fechaInicio,
             @Param("fechaFin") LocalDateTime fechaFin);
     
-    // Búsqueda general con LIKE
-    @Query("SELECT m FROM Movimientos m WHERE m.estado = true AND " +
-           "(LOWER(m.tipoMovimiento) LIKE LOWER(CONCAT('%', :filtro, '%')) OR " +
-           "LOWER(m.cuenta.numeroCuenta) LIKE LOWER(CONCAT('%', :filtro, '%')) OR " +
-           "LOWER(m.cuenta.cliente.persona.nombre) LIKE LOWER(CONCAT('%', :filtro, '%')) OR " +
-           "CAST(m.valor AS string) LIKE CONCAT('%', :filtro, '%') OR " +
-           "CAST(m.saldo AS string) LIKE CONCAT('%', :filtro, '%'))")
-    List<Movimientos> searchByFilter(@Param("filtro") String filtro);
+    // Mismo reporte completo en memoria, para la respuesta JSON y el PDF en bytes; requiere una transacción
+    default List<MovimientoReporteDTO> findReporteByClienteIdAndFechaBetween(
+            Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        try (Stream<MovimientoReporteDTO> filas = streamReporteByClienteIdAndFechaBetween(clienteId, fechaInicio, fechaFin)) {
+            return filas.toList();
+        }
+    }
+    
+    // Cadena de saldos de un rango de cuentas en el orden en que se aplican (fecha, id)
+    // Se recorre con cursor: el llamador debe cerrar el Stream dentro de una transacción
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.rvera.sofka.banksimulator.dto.MovimientoSaldoDTO(m.id, m.cuenta.id, m.valor, m.saldo, m.estado) " +
+           "FROM Movimientos m WHERE m.cuenta.id BETWEEN :desde AND :hasta " +
+           "ORDER BY m.cuenta.id, m.fecha, m.id")
+    Stream<MovimientoSaldoDTO> streamCadenaSaldos(@Param("desde") Long desde, @Param("hasta") Long hasta);
+    
+    // Movimientos activos de una cuenta en orden de cadena, para reconstruir su resumen diario
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.rvera.sofka.banksimulator.dto.MovimientoResumenDTO(m.fecha, m.valor, m.comision, m.saldo) " +
+           "FROM Movimientos m WHERE m.cuenta.id = :cuentaId AND m.estado = true ORDER BY m.fecha, m.id")
+    Stream<MovimientoResumenDTO> streamResumenCuenta(@Param("cuentaId") Long cuentaId);
+    
+    // Campos del índice de movimientos: todos los activos al cargarlo, o los de algunas cuentas al reindexarlas
+    // Las uniones son internas, como en la búsqueda SQL: un movimiento sin cliente no aparece en ninguna de las dos
+    // Se recorren con cursor: el llamador debe cerrar el Stream dentro de una transacción
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.rvera.sofka.banksimulator.dto.MovimientoIndiceDTO(" +
+           "m.id, c.id, m.fecha, m.tipoMovimiento, c.numeroCuenta, p.nombre, m.valor, m.saldo) " +
+           "FROM Movimientos m JOIN m.cuenta c JOIN c.cliente cl JOIN cl.persona p WHERE m.estado = true")
+    Stream<MovimientoIndiceDTO> streamIndiceBusqueda();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.rvera.sofka.banksimulator.dto.MovimientoIndiceDTO(" +
+           "m.id, c.id, m.fecha, m.tipoMovimiento, c.numeroCuenta, p.nombre, m.valor, m.saldo) " +
+           "FROM Movimientos m JOIN m.cuenta c JOIN c.cliente cl JOIN cl.persona p " +
+           "WHERE m.estado = true AND c.id IN :cuentaIds")
+    Stream<MovimientoIndiceDTO> streamIndiceBusquedaByCuentaIdIn(@Param("cuentaIds") Collection<Long> cuentaIds);
+    
+    // Movimientos recién registrados; los que ya no estén activos no se devuelven
+    @Query("SELECT new com.rvera.sofka.banksimulator.dto.MovimientoIndiceDTO(" +
+           "m.id, c.id, m.fecha, m.tipoMovimiento, c.numeroCuenta, p.nombre, m.valor, m.saldo) " +
+           "FROM Movimientos m JOIN m.cuenta c JOIN c.cliente cl JOIN cl.persona p " +
+           "WHERE m.estado = true AND m.id IN :ids")
+    List<MovimientoIndiceDTO> findIndiceBusquedaByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query("UPDATE Movimientos m SET m.saldo = :saldo WHERE m.id = :id")
+    int actualizarSaldo(@Param("id") Long id, @Param("saldo") BigDecimal saldo);
+    
+    // Recalcula en una sola sentencia los saldos activos posteriores a (fecha, id): saldo base más la
+    // suma acumulada de los valores en orden; solo modifica las filas cuyo saldo cambia
+    // Declara la tabla afectada: sin ella Hibernate vaciaría todas las regiones de la cache de segundo nivel
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "movimientos"))
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE movimientos m SET saldo = :saldoBase + s.acumulado " +
+                   "FROM (SELECT id, SUM(valor) OVER (ORDER BY fecha, id ROWS BETWEEN UNBOUNDED PRECEDING AND CURRENT ROW) AS acumulado " +
+                   "      FROM movimientos " +
+                   "      WHERE cuenta_id = :cuentaId AND estado = true " +
+                   "      AND (fecha > :fecha OR (fecha = :fecha AND id > :id))) s " +
+                   "WHERE m.id = s.id AND m.saldo <> :saldoBase + s.acumulado",
+           nativeQuery = true)
+    int recalcularSaldosPosteriores(@Param("cuentaId") Long cuentaId,
+                                    @Param("fecha") LocalDateTime fecha,
+                                    @Param("id") Long id,
+                                    @Param("saldoBase") BigDecimal saldoBase);
+    
+    // Débitos vigentes desde una fecha, para reconstruir la ventana de retiros al iniciar
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.rvera.sofka.banksimulator.dto.RetiroVentanaDTO(m.cuenta.id, m.fecha, m.valor, m.comision) " +
+           "FROM Movimientos m WHERE m.valor < 0 AND m.estado = true AND m.fecha >= :desde")
+    Stream<RetiroVentanaDTO> streamRetirosDesde(@Param("desde") LocalDateTime desde);
+    
+    // Débitos vigentes de una cuenta desde una fecha (índice cuenta_id, fecha, id)
+    @Query("SELECT new com.rvera.sofka.banksimulator.dto.RetiroVentanaDTO(m.cuenta.id, m.fecha, m.valor, m.comision) " +
+           "FROM Movimientos m WHERE m.cuenta.id = :cuentaId " +
+           "AND m.valor < 0 AND m.estado = true AND m.fecha >= :desde")
+    List<RetiroVentanaDTO> findRetirosByCuentaIdDesde(@Param("cuentaId") Long cuentaId,
+                                                      @Param("desde") LocalDateTime desde);
+    
+    // Menor saldo activo posterior a (fecha, id); null si no hay movimientos posteriores
+    @Query("SELECT MIN(m.saldo) FROM Movimientos m WHERE m.cuenta.id = :cuentaId AND m.estado = true " +
+           "AND (m.fecha > :fecha OR (m.fecha = :fecha AND m.id > :id))")
+    BigDecimal minimoSaldoPosterior(@Param("cuentaId") Long cuentaId,
+                                    @Param("fecha") LocalDateTime fecha,
+                                    @Param("id") Long id);
+    
+    @Query("SELECT COALESCE(SUM(m.valor), 0) FROM Movimientos m WHERE m.cuenta.id = :cuentaId AND m.estado = true " +
+           "AND (m.fecha > :fecha OR (m.fecha = :fecha AND m.id > :id))")
+    BigDecimal sumarValoresPosteriores(@Param("cuentaId") Long cuentaId,
+                                       @Param("fecha") LocalDateTime fecha,
+                                       @Param("id") Long id);
 }
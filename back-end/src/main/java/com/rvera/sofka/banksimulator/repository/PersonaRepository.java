@@ -1,12 +1,20 @@
 package com.rvera.sofka.banksimulator.repository;
 
 import com.rvera.sofka.banksimulator.entity.Persona;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PersonaRepository extends JpaRepository<Persona, Long> {
     Optional<Persona> findByIdentificacion(String identificacion);
+    
+    // Paginación por keyset sobre la clave primaria
+    @Query("SELECT p FROM Persona p WHERE p.id > :after ORDER BY p.id")
+    List<Persona> findDespuesDe(@Param("after") Long after, Limit limite);
 }
@@ -0,0 +1,28 @@
+package com.rvera.sofka.banksimulator.repository;
+
+import com.rvera.sofka.banksimulator.entity.ResumenDiarioCuenta;
+import com.rvera.sofka.banksimulator.entity.ResumenDiarioCuentaId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ResumenDiarioCuentaRepository extends JpaRepository<ResumenDiarioCuenta, ResumenDiarioCuentaId> {
+    
+    List<ResumenDiarioCuenta> findByCuentaIdAndFechaBetweenOrderByFecha(Long cuentaId, LocalDate desde, LocalDate hasta);
+    
+    List<ResumenDiarioCuenta> findByCuentaIdAndFechaGreaterThanEqualOrderByFecha(Long cuentaId, LocalDate desde);
+    
+    // Último día con movimientos antes del período: su saldo de cierre es la apertura del período
+    Optional<ResumenDiarioCuenta> findFirstByCuentaIdAndFechaLessThanOrderByFechaDesc(Long cuentaId, LocalDate fecha);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ResumenDiarioCuenta r WHERE r.cuentaId = :cuentaId")
+    int eliminarPorCuenta(@Param("cuentaId") Long cuentaId);
+}
@@ -1,18 +1,23 @@
 package com.rvera.sofka.banksimulator.service;
 
 import com.rvera.sofka.banksimulator.dto.ClienteDTO;
+import com.rvera.sofka.banksimulator.dto.PaginaDTO;
 
-import java.util.List;
 import java.util.Optional;
 
 /**
  * Interface del servicio de Cliente
  */
 public interface IClienteService {
-    List<ClienteDTO> findAll();
+    /**
+     * Listado paginado por keyset
+     * @param after Último id de la página anterior (null para la primera)
+     * @param limite Filas por página (1 a 1000)
+     */
+    PaginaDTO<ClienteDTO> findAll(Long after, int limite);
     Optional<ClienteDTO> findById(Long id);
     Optional<ClienteDTO> findByIdentificacion(String identificacion);
     ClienteDTO save(ClienteDTO clienteDTO);
     void deleteById(Long id);
-    List<ClienteDTO> searchByFilter(String filtro);
+    PaginaDTO<ClienteDTO> searchByFilter(String filtro, Long after, int limite);
 }
@@ -0,0 +1,20 @@
+package com.rvera.sofka.banksimulator.service;
+
+import com.rvera.sofka.banksimulator.dto.ConciliacionResultadoDTO;
+
+import java.util.Optional;
+
+/**
+ * Interface del servicio de conciliación de la cadena de saldos
+ */
+public interface IConciliacionService {
+    /**
+     * Verifica que el saldo de cada movimiento activo sea el saldo inicial de la cuenta más la suma
+     * de los valores anteriores, y que saldo_actual y ultimo_movimiento_id coincidan con el último
+     * @param reconstruir Si es true, corrige las cuentas con discrepancias
+     * @return Resultado, o vacío si ya hay una conciliación en curso
+     */
+    Optional<ConciliacionResultadoDTO> conciliar(boolean reconstruir);
+    
+    Optional<ConciliacionResultadoDTO> getUltimoResultado();
+}
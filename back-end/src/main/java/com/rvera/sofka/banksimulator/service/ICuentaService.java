@@ -1,19 +1,24 @@
 package com.rvera.sofka.banksimulator.service;
 
 import com.rvera.sofka.banksimulator.dto.CuentaDTO;
+import com.rvera.sofka.banksimulator.dto.PaginaDTO;
 
-import java.util.List;
 import java.util.Optional;
 
 /**
  * Interface del servicio de Cuenta
  */
 public interface ICuentaService {
-    List<CuentaDTO> findAll();
+    /**
+     * Listado paginado por keyset
+     * @param after Último id de la página anterior (null para la primera)
+     * @param limite Filas por página (1 a 1000)
+     */
+    PaginaDTO<CuentaDTO> findAll(Long after, int limite);
     Optional<CuentaDTO> findById(Long id);
     Optional<CuentaDTO> findByNumeroCuenta(String numeroCuenta);
-    List<CuentaDTO> findByClienteId(Long clienteId);
+    PaginaDTO<CuentaDTO> findByClienteId(Long clienteId, Long after, int limite);
     CuentaDTO save(CuentaDTO cuentaDTO);
     void deleteById(Long id);
-    List<CuentaDTO> searchByFilter(String filtro);
+    PaginaDTO<CuentaDTO> searchByFilter(String filtro, Long after, int limite);
 }
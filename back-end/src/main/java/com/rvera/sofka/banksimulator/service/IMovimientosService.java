@@ -1,21 +1,45 @@
 package com.rvera.sofka.banksimulator.service;
 
 import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import com.rvera.sofka.banksimulator.dto.MovimientoLoteResultadoDTO;
 import com.rvera.sofka.banksimulator.dto.MovimientoReporteDTO;
+import com.rvera.sofka.banksimulator.dto.PaginaDTO;
+import com.rvera.sofka.banksimulator.dto.TransferenciaDTO;
+import com.rvera.sofka.banksimulator.dto.TransferenciaResultadoDTO;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface del servicio de Movimientos
  */
 public interface IMovimientosService {
-    List<MovimientoDTO> findAll();
+    /**
+     * Listado paginado por keyset
+     * @param after Último id de la página anterior (null para la primera)
+     * @param limite Filas por página (1 a 1000)
+     */
+    PaginaDTO<MovimientoDTO> findAll(Long after, int limite);
     Optional<MovimientoDTO> findById(Long id);
-    List<MovimientoDTO> findByCuentaId(Long cuentaId);
+    /**
+     * Movimientos de la cuenta, los más recientes primero
+     * @param before Último id de la página anterior (null para la primera)
+     */
+    PaginaDTO<MovimientoDTO> findByCuentaId(Long cuentaId, Long before, int limite);
     MovimientoDTO save(MovimientoDTO movimientoDTO);
+    CompletableFuture<MovimientoDTO> saveAsync(MovimientoDTO movimientoDTO);
+    MovimientoLoteResultadoDTO saveBatch(List<MovimientoDTO> movimientos);
+    /**
+     * Carga masiva leída a medida que se procesa (por ejemplo, NDJSON); null representa un registro mal formado
+     */
+    MovimientoLoteResultadoDTO saveBatch(Iterator<MovimientoDTO> movimientos);
+    TransferenciaResultadoDTO transferir(TransferenciaDTO transferenciaDTO);
     void deleteById(Long id);
+    int deleteByIds(Collection<Long> ids);
     List<MovimientoReporteDTO> findByClienteIdAndFechaBetween(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin);
-    List<MovimientoDTO> searchByFilter(String filtro);
+    PaginaDTO<MovimientoDTO> searchByFilter(String filtro, Long after, int limite);
 }
@@ -1,15 +1,20 @@
 package com.rvera.sofka.banksimulator.service;
 
+import com.rvera.sofka.banksimulator.dto.PaginaDTO;
 import com.rvera.sofka.banksimulator.dto.PersonaDTO;
 
-import java.util.List;
 import java.util.Optional;
 
 /**
  * Interface del servicio de Persona
  */
 public interface IPersonaService {
-    List<PersonaDTO> findAll();
+    /**
+     * Listado paginado por keyset
+     * @param after Último id de la página anterior (null para la primera)
+     * @param limite Filas por página (1 a 1000)
+     */
+    PaginaDTO<PersonaDTO> findAll(Long after, int limite);
 
     Optional<PersonaDTO> findById(Long id);
 
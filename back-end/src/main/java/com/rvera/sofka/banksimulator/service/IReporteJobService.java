@@ -0,0 +1,32 @@
+package com.rvera.sofka.banksimulator.service;
+
+import com.rvera.sofka.banksimulator.dto.ReporteJobDTO;
+import com.rvera.sofka.banksimulator.dto.ReporteJobSolicitudDTO;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Interface del servicio de trabajos asíncronos de reportes PDF
+ */
+public interface IReporteJobService {
+    /**
+     * Encola la generación del reporte; una solicitud idéntica a un trabajo en curso reutiliza ese trabajo
+     * @param solicitud Cliente y rango de fechas
+     * @return Trabajo creado o existente, o vacío si la cola de reportes está llena
+     */
+    Optional<ReporteJobDTO> crear(ReporteJobSolicitudDTO solicitud);
+    
+    Optional<ReporteJobDTO> findById(String id);
+    
+    /**
+     * Archivo del reporte si el trabajo está completado y no ha expirado
+     */
+    Optional<Path> getArchivo(String id);
+    
+    /**
+     * Elimina los trabajos finalizados (y sus archivos) con más antigüedad que el TTL
+     * @return Número de trabajos eliminados
+     */
+    int limpiarExpirados();
+}
@@ -1,5 +1,8 @@
 package com.rvera.sofka.banksimulator.service;
 
+import com.rvera.sofka.banksimulator.reporte.FormatoExportacion;
+
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 
 /**
@@ -14,4 +17,26 @@ public interface IReporteService {
      * @return Byte array con el contenido del PDF
      */
     byte[] generarReporteMovimientos(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin);
+    
+    /**
+     * Genera el mismo reporte recorriendo los movimientos con cursor y escribe el PDF en la salida
+     * Las páginas llenas se guardan en un archivo de intercambio: la memoria no crece con el número de filas
+     * @param clienteId ID del cliente
+     * @param fechaInicio Fecha de inicio
+     * @param fechaFin Fecha de fin
+     * @param salida Flujo donde se escribe el PDF (no se cierra)
+     */
+    void generarReporteMovimientos(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin, OutputStream salida);
+    
+    /**
+     * Exporta los movimientos del cliente en el rango, fila por fila, en CSV o NDJSON
+     * @param clienteId ID del cliente
+     * @param fechaInicio Fecha de inicio
+     * @param fechaFin Fecha de fin
+     * @param formato Formato de salida
+     * @param salida Flujo donde se escriben las filas (no se cierra)
+     * @return Número de filas exportadas
+     */
+    long exportarMovimientos(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                             FormatoExportacion formato, OutputStream salida);
 }
@@ -0,0 +1,48 @@
+package com.rvera.sofka.banksimulator.service;
+
+import com.rvera.sofka.banksimulator.dto.ResumenPeriodoDTO;
+import com.rvera.sofka.banksimulator.entity.Movimientos;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interface del servicio de resúmenes diarios por cuenta
+ * Los métodos de actualización se ejecutan dentro de la transacción del llamador, con la cuenta
+ * bloqueada (o desde el único escritor de la cuenta en el motor por shards)
+ */
+public interface IResumenDiarioService {
+    /**
+     * Suma al resumen de su día los movimientos recién registrados de una cuenta (en orden de cadena)
+     */
+    void registrarMovimientos(Long cuentaId, List<Movimientos> movimientos);
+    
+    /**
+     * Descuenta un movimiento eliminado de su día y desplaza los saldos de los días posteriores
+     */
+    void revertirMovimiento(Movimientos eliminado);
+    
+    /**
+     * Regenera los resúmenes de una cuenta desde sus movimientos activos
+     * @return Cantidad de días con movimientos
+     */
+    int reconstruirCuenta(Long cuentaId);
+    
+    /**
+     * Regenera los resúmenes de todas las cuentas, cada una en su propia transacción
+     * @return Cantidad de cuentas procesadas, o vacío si ya hay una reconstrucción en curso
+     */
+    Optional<Integer> reconstruirTodas();
+    
+    /**
+     * Resumen de un mes con el detalle por día
+     * @return Vacío si la cuenta no existe
+     */
+    Optional<ResumenPeriodoDTO> resumenMensual(Long cuentaId, int anio, int mes);
+    
+    /**
+     * Resumen de un año con el detalle por mes
+     * @return Vacío si la cuenta no existe
+     */
+    Optional<ResumenPeriodoDTO> resumenAnual(Long cuentaId, int anio);
+}
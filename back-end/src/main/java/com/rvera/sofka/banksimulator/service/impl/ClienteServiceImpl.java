@@ -1,18 +1,25 @@
 package com.rvera.sofka.banksimulator.service.impl;
 
+import com.rvera.sofka.banksimulator.busqueda.IndiceBusqueda;
+import com.rvera.sofka.banksimulator.concurrencia.Carga;
+import com.rvera.sofka.banksimulator.concurrencia.EnBulkhead;
 import com.rvera.sofka.banksimulator.dto.ClienteDTO;
+import com.rvera.sofka.banksimulator.dto.PaginaDTO;
 import com.rvera.sofka.banksimulator.entity.Cliente;
+import com.rvera.sofka.banksimulator.event.ClientesModificadosEvent;
 import com.rvera.sofka.banksimulator.mapper.ClienteMapper;
 import com.rvera.sofka.banksimulator.repository.ClienteRepository;
 import com.rvera.sofka.banksimulator.service.IClienteService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * Implementación del servicio de Cliente
@@ -25,17 +32,21 @@ public class ClienteServiceImpl implements IClienteService {
     
     private final ClienteRepository clienteRepository;
     private final ClienteMapper clienteMapper;
+    private final IndiceBusqueda indiceBusqueda;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Override
+    @EnBulkhead(Carga.LECTURAS)
     @Transactional(readOnly = true)
-    public List<ClienteDTO> findAll() {
-        log.debug("Buscando todos los clientes activos");
-        return clienteRepository.findAllActive().stream()
-                .map(clienteMapper::toDTO)
-                .collect(Collectors.toList());
+    public PaginaDTO<ClienteDTO> findAll(Long after, int limite) {
+        log.debug("Buscando clientes activos después del ID: {}", after);
+        return Paginacion.pagina(
+                clienteRepository.findActiveDespuesDe(Paginacion.cursor(after), Paginacion.limite(limite)),
+                limite, Cliente::getClienteId, clienteMapper::toDTO);
     }
     
     @Override
+    @EnBulkhead(Carga.LECTURAS)
     @Transactional(readOnly = true)
     public Optional<ClienteDTO> findById(Long id) {
         log.debug("Buscando cliente activo por ID: {}", id);
@@ -44,6 +55,7 @@ public class ClienteServiceImpl implements IClienteService {
     }
     
     @Override
+    @EnBulkhead(Carga.LECTURAS)
     @Transactional(readOnly = true)
     public Optional<ClienteDTO> findByIdentificacion(String identificacion) {
         log.debug("Buscando cliente activo por identificación: {}", identificacion);
@@ -52,6 +64,7 @@ public class ClienteServiceImpl implements IClienteService {
     }
     
     @Override
+    @EnBulkhead(Carga.REGISTRO)
     @Transactional
     public ClienteDTO save(ClienteDTO clienteDTO) {
         log.debug("Guardando cliente: {}", clienteDTO.getNombre());
@@ -76,10 +89,12 @@ public class ClienteServiceImpl implements IClienteService {
         }
         
         Cliente savedCliente = clienteRepository.save(cliente);
+        eventPublisher.publishEvent(new ClientesModificadosEvent(Set.of(savedCliente.getClienteId())));
         return clienteMapper.toDTO(savedCliente);
     }
     
     @Override
+    @EnBulkhead(Carga.REGISTRO)
     @Transactional
     public void deleteById(Long id) {
         log.debug("Eliminando lógicamente cliente con ID: {}", id);
@@ -87,17 +102,27 @@ public class ClienteServiceImpl implements IClienteService {
                 .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado con ID: " + id));
         cliente.setEstado(false);
         clienteRepository.save(cliente);
+        eventPublisher.publishEvent(new ClientesModificadosEvent(Set.of(id)));
     }
     
     @Override
+    @EnBulkhead(Carga.BUSQUEDA)
     @Transactional(readOnly = true)
-    public List<ClienteDTO> searchByFilter(String filtro) {
+    public PaginaDTO<ClienteDTO> searchByFilter(String filtro, Long after, int limite) {
         log.debug("Buscando clientes con filtro: {}", filtro);
         if (filtro == null || filtro.trim().isEmpty()) {
-            return findAll();
+            return findAll(after, limite);
         }
-        return clienteRepository.searchByFilter(filtro).stream()
-                .map(clienteMapper::toDTO)
-                .collect(Collectors.toList());
+        Limit filas = Paginacion.limite(limite);
+        Optional<List<Long>> ids = indiceBusqueda.buscarClientes(filtro, after, filas.max());
+        if (ids.isPresent()) {
+            List<Long> primeros = Paginacion.primeros(ids.get(), limite);
+            return Paginacion.paginaOrdenada(ids.get(),
+                    primeros.isEmpty() ? List.of() : clienteRepository.findActiveByIdIn(primeros),
+                    limite, Cliente::getClienteId, clienteMapper::toDTO);
+        }
+        return Paginacion.pagina(
+                clienteRepository.searchByFilter(filtro, Paginacion.cursor(after), filas),
+                limite, Cliente::getClienteId, clienteMapper::toDTO);
     }
 }
@@ -0,0 +1,333 @@
+package com.rvera.sofka.banksimulator.service.impl;
+
+import com.rvera.sofka.banksimulator.dto.ConciliacionResultadoDTO;
+import com.rvera.sofka.banksimulator.dto.CuentaSaldoDTO;
+import com.rvera.sofka.banksimulator.dto.DiscrepanciaDTO;
+import com.rvera.sofka.banksimulator.dto.MovimientoSaldoDTO;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.event.MovimientosModificadosEvent;
+import com.rvera.sofka.banksimulator.repository.CuentaRepository;
+import com.rvera.sofka.banksimulator.repository.MovimientosRepository;
+import com.rvera.sofka.banksimulator.service.IConciliacionService;
+import com.rvera.sofka.banksimulator.service.IResumenDiarioService;
+import com.rvera.sofka.banksimulator.strategy.Centavos;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Conciliación de la cadena de saldos de los movimientos
+ * El rango de IDs de cuenta se divide en tareas de un ForkJoinPool; cada tarea recorre con cursor los
+ * movimientos de su rango ordenados por cuenta y fecha, de modo que la memoria no depende del volumen.
+ * La verificación no bloquea cuentas (lee una instantánea consistente); la reconstrucción bloquea cada
+ * cuenta a corregir y la recalcula en su propia transacción. Cada hilo del pool usa una conexión a la vez.
+ */
+@Slf4j
+@Service
+public class ConciliacionServiceImpl implements IConciliacionService {
+    
+    private final CuentaRepository cuentaRepository;
+    private final MovimientosRepository movimientosRepository;
+    private final TransactionTemplate lectura;
+    private final TransactionTemplate escritura;
+    private final IResumenDiarioService resumenDiarioService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int paralelismo;
+    private final int cuentasPorTarea;
+    private final int maximoDiscrepancias;
+    
+    private final AtomicBoolean enEjecucion = new AtomicBoolean();
+    private volatile ConciliacionResultadoDTO ultimoResultado;
+    
+    public ConciliacionServiceImpl(CuentaRepository cuentaRepository,
+                                   MovimientosRepository movimientosRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   IResumenDiarioService resumenDiarioService,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${app.conciliacion.paralelismo:2}") int paralelismo,
+                                   @Value("${app.conciliacion.cuentas-por-tarea:500}") int cuentasPorTarea,
+                                   @Value("${app.conciliacion.maximo-discrepancias:1000}") int maximoDiscrepancias) {
+        this.cuentaRepository = cuentaRepository;
+        this.movimientosRepository = movimientosRepository;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.lectura.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.escritura = new TransactionTemplate(transactionManager);
+        this.resumenDiarioService = resumenDiarioService;
+        this.eventPublisher = eventPublisher;
+        this.paralelismo = paralelismo;
+        this.cuentasPorTarea = cuentasPorTarea;
+        this.maximoDiscrepancias = maximoDiscrepancias;
+    }
+    
+    @Override
+    public Optional<ConciliacionResultadoDTO> conciliar(boolean reconstruir) {
+        if (!enEjecucion.compareAndSet(false, true)) {
+            log.warn("Conciliación omitida: ya hay una en curso");
+            return Optional.empty();
+        }
+        try {
+            LocalDateTime inicio = LocalDateTime.now();
+            long t0 = System.nanoTime();
+            log.info("Iniciando conciliación de saldos (reconstruir={})", reconstruir);
+            
+            Long minimo = cuentaRepository.findMinId();
+            Long maximo = cuentaRepository.findMaxId();
+            Resultado resultado = new Resultado();
+            if (minimo != null) {
+                ForkJoinPool pool = new ForkJoinPool(paralelismo);
+                try {
+                    resultado = pool.invoke(new ConciliacionTask(minimo, maximo, reconstruir));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+            
+            ConciliacionResultadoDTO dto = ConciliacionResultadoDTO.builder()
+                    .inicio(inicio)
+                    .fin(LocalDateTime.now())
+                    .duracionMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0))
+                    .reconstruir(reconstruir)
+                    .cuentasRevisadas(resultado.cuentas)
+                    .movimientosRevisados(resultado.movimientos)
+                    .cuentasConDiscrepancias(resultado.cuentasConDiscrepancias)
+                    .discrepanciasTotales(resultado.discrepanciasTotales)
+                    .movimientosCorregidos(resultado.corregidos)
+                    .discrepancias(resultado.discrepancias)
+                    .build();
+            ultimoResultado = dto;
+            log.info("Conciliación terminada en {} ms: {} cuentas, {} movimientos, {} cuentas con discrepancias, {} movimientos corregidos",
+                    dto.getDuracionMs(), dto.getCuentasRevisadas(), dto.getMovimientosRevisados(),
+                    dto.getCuentasConDiscrepancias(), dto.getMovimientosCorregidos());
+            return Optional.of(dto);
+        } finally {
+            enEjecucion.set(false);
+        }
+    }
+    
+    @Override
+    public Optional<ConciliacionResultadoDTO> getUltimoResultado() {
+        return Optional.ofNullable(ultimoResultado);
+    }
+    
+    /**
+     * Divide el rango de IDs de cuenta hasta cuentasPorTarea y combina los resultados
+     */
+    private final class ConciliacionTask extends RecursiveTask<Resultado> {
+        
+        private final long desde;
+        private final long hasta;
+        private final boolean reconstruir;
+        
+        private ConciliacionTask(long desde, long hasta, boolean reconstruir) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.reconstruir = reconstruir;
+        }
+        
+        @Override
+        protected Resultado compute() {
+            if (hasta - desde < cuentasPorTarea) {
+                return conciliarRango(desde, hasta, reconstruir);
+            }
+            long medio = desde + (hasta - desde) / 2;
+            ConciliacionTask izquierda = new ConciliacionTask(desde, medio, reconstruir);
+            izquierda.fork();
+            Resultado derecha = new ConciliacionTask(medio + 1, hasta, reconstruir).compute();
+            return izquierda.join().combinar(derecha);
+        }
+    }
+    
+    private Resultado conciliarRango(long desde, long hasta, boolean reconstruir) {
+        Resultado resultado = lectura.execute(status -> verificarRango(desde, hasta));
+        if (reconstruir) {
+            for (Long cuentaId : resultado.cuentasAReconstruir) {
+                resultado.corregidos += reconstruirCuenta(cuentaId);
+            }
+        }
+        resultado.cuentasAReconstruir.clear();
+        return resultado;
+    }
+    
+    /**
+     * Recorre en paralelo (por orden de ID) las cuentas del rango y el cursor de sus movimientos
+     */
+    private Resultado verificarRango(long desde, long hasta) {
+        Resultado resultado = new Resultado();
+        Iterator<CuentaSaldoDTO> cuentas = cuentaRepository.findSaldosByIdBetween(desde, hasta).iterator();
+        Cadena cadena = null;
+        try (Stream<MovimientoSaldoDTO> movimientos = movimientosRepository.streamCadenaSaldos(desde, hasta)) {
+            Iterator<MovimientoSaldoDTO> iterador = movimientos.iterator();
+            while (iterador.hasNext()) {
+                MovimientoSaldoDTO movimiento = iterador.next();
+                while (cadena == null || !cadena.cuenta.getId().equals(movimiento.getCuentaId())) {
+                    if (cadena != null) {
+                        cadena.cerrar(resultado);
+                    }
+                    cadena = new Cadena(cuentas.next());
+                }
+                cadena.aplicar(movimiento, resultado);
+            }
+        }
+        if (cadena != null) {
+            cadena.cerrar(resultado);
+        }
+        // Cuentas sin movimientos
+        while (cuentas.hasNext()) {
+            new Cadena(cuentas.next()).cerrar(resultado);
+        }
+        return resultado;
+    }
+    
+    /**
+     * Recalcula la cadena de una cuenta bloqueada y corrige los saldos que no coinciden
+     * @return Cantidad de movimientos corregidos
+     */
+    private long reconstruirCuenta(Long cuentaId) {
+        Long corregidos = escritura.execute(status -> {
+            Optional<Cuenta> encontrada = cuentaRepository.findByIdForUpdate(cuentaId);
+            if (encontrada.isEmpty()) {
+                return 0L;
+            }
+            Cuenta cuenta = encontrada.get();
+            long saldo = Centavos.desde(cuenta.getSaldoInicial());
+            Long ultimo = null;
+            long cantidad = 0;
+            try (Stream<MovimientoSaldoDTO> movimientos = movimientosRepository.streamCadenaSaldos(cuentaId, cuentaId)) {
+                Iterator<MovimientoSaldoDTO> iterador = movimientos.iterator();
+                while (iterador.hasNext()) {
+                    MovimientoSaldoDTO movimiento = iterador.next();
+                    if (!Boolean.TRUE.equals(movimiento.getEstado())) {
+                        continue;
+                    }
+                    saldo = Centavos.sumar(saldo, Centavos.desde(movimiento.getValor()));
+                    ultimo = movimiento.getId();
+                    if (Centavos.desde(movimiento.getSaldo()) != saldo) {
+                        movimientosRepository.actualizarSaldo(movimiento.getId(), Centavos.aBigDecimal(saldo));
+                        cantidad++;
+                    }
+                }
+            }
+            BigDecimal saldoActual = Centavos.aBigDecimal(saldo);
+            if (cuenta.getSaldoActual() == null || cuenta.getSaldoActual().compareTo(saldoActual) != 0
+                    || !Objects.equals(cuenta.getUltimoMovimientoId(), ultimo)) {
+                cuenta.setSaldoActual(saldoActual);
+                cuenta.setUltimoMovimientoId(ultimo);
+            }
+            if (cantidad > 0) {
+                // Los resúmenes diarios y los reportes del cliente muestran los saldos corregidos
+                resumenDiarioService.reconstruirCuenta(cuentaId);
+                eventPublisher.publishEvent(MovimientosModificadosEvent.de(List.of(cuenta)));
+            }
+            return cantidad;
+        });
+        log.info("Cuenta {} reconstruida: {} movimientos corregidos", cuentaId, corregidos);
+        return corregidos;
+    }
+    
+    /**
+     * Estado del recorrido de la cadena de una cuenta
+     */
+    private static final class Cadena {
+        
+        private final CuentaSaldoDTO cuenta;
+        private long esperado;
+        private Long ultimo;
+        private boolean conDiscrepancias;
+        
+        private Cadena(CuentaSaldoDTO cuenta) {
+            this.cuenta = cuenta;
+            this.esperado = Centavos.desde(cuenta.getSaldoInicial());
+        }
+        
+        private void aplicar(MovimientoSaldoDTO movimiento, Resultado resultado) {
+            resultado.movimientos++;
+            if (!Boolean.TRUE.equals(movimiento.getEstado())) {
+                return;
+            }
+            esperado = Centavos.sumar(esperado, Centavos.desde(movimiento.getValor()));
+            ultimo = movimiento.getId();
+            if (Centavos.desde(movimiento.getSaldo()) != esperado) {
+                registrar(resultado, movimiento.getId(), DiscrepanciaDTO.SALDO_MOVIMIENTO,
+                        Centavos.aBigDecimal(esperado).toPlainString(), movimiento.getSaldo().toPlainString());
+            }
+        }
+        
+        private void cerrar(Resultado resultado) {
+            resultado.cuentas++;
+            BigDecimal saldoActual = cuenta.getSaldoActual() != null ? cuenta.getSaldoActual() : cuenta.getSaldoInicial();
+            if (Centavos.desde(saldoActual) != esperado) {
+                registrar(resultado, null, DiscrepanciaDTO.SALDO_ACTUAL,
+                        Centavos.aBigDecimal(esperado).toPlainString(), saldoActual.toPlainString());
+            }
+            if (!Objects.equals(cuenta.getUltimoMovimientoId(), ultimo)) {
+                registrar(resultado, null, DiscrepanciaDTO.ULTIMO_MOVIMIENTO,
+                        String.valueOf(ultimo), String.valueOf(cuenta.getUltimoMovimientoId()));
+            }
+            if (conDiscrepancias) {
+                resultado.cuentasConDiscrepancias++;
+                resultado.cuentasAReconstruir.add(cuenta.getId());
+            }
+        }
+        
+        private void registrar(Resultado resultado, Long movimientoId, String tipo, String esperado, String registrado) {
+            conDiscrepancias = true;
+            resultado.agregar(DiscrepanciaDTO.builder()
+                    .cuentaId(cuenta.getId())
+                    .movimientoId(movimientoId)
+                    .tipo(tipo)
+                    .esperado(esperado)
+                    .registrado(registrado)
+                    .build());
+        }
+    }
+    
+    /**
+     * Resultado parcial de un rango; la lista de discrepancias nunca supera maximoDiscrepancias
+     */
+    private final class Resultado {
+        
+        private long cuentas;
+        private long movimientos;
+        private long cuentasConDiscrepancias;
+        private long discrepanciasTotales;
+        private long corregidos;
+        private final List<DiscrepanciaDTO> discrepancias = new ArrayList<>();
+        private final List<Long> cuentasAReconstruir = new ArrayList<>();
+        
+        private void agregar(DiscrepanciaDTO discrepancia) {
+            discrepanciasTotales++;
+            if (discrepancias.size() < maximoDiscrepancias) {
+                discrepancias.add(discrepancia);
+            }
+        }
+        
+        private Resultado combinar(Resultado otro) {
+            cuentas += otro.cuentas;
+            movimientos += otro.movimientos;
+            cuentasConDiscrepancias += otro.cuentasConDiscrepancias;
+            discrepanciasTotales += otro.discrepanciasTotales;
+            corregidos += otro.corregidos;
+            int disponibles = maximoDiscrepancias - discrepancias.size();
+            discrepancias.addAll(otro.discrepancias.subList(0, Math.min(disponibles, otro.discrepancias.size())));
+            return this;
+        }
+    }
+}
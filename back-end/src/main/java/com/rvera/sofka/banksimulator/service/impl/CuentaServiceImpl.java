@@ -1,8 +1,13 @@
 package com.rvera.sofka.banksimulator.service.impl;
 
+import com.rvera.sofka.banksimulator.busqueda.IndiceBusqueda;
+import com.rvera.sofka.banksimulator.concurrencia.Carga;
+import com.rvera.sofka.banksimulator.concurrencia.EnBulkhead;
 import com.rvera.sofka.banksimulator.dto.CuentaDTO;
+import com.rvera.sofka.banksimulator.dto.PaginaDTO;
 import com.rvera.sofka.banksimulator.entity.Cliente;
 import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.event.CuentasModificadasEvent;
 import com.rvera.sofka.banksimulator.mapper.CuentaMapper;
 import com.rvera.sofka.banksimulator.repository.ClienteRepository;
 import com.rvera.sofka.banksimulator.repository.CuentaRepository;
@@ -11,12 +16,14 @@ import com.rvera.sofka.banksimulator.strategy.CuentaStrategyFactory;
 import com.rvera.sofka.banksimulator.strategy.ICuentaStrategy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * Implementación del servicio de Cuenta
@@ -31,17 +38,21 @@ public class CuentaServiceImpl implements ICuentaService {
     private final ClienteRepository clienteRepository;
     private final CuentaMapper cuentaMapper;
     private final CuentaStrategyFactory strategyFactory;
+    private final IndiceBusqueda indiceBusqueda;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Override
+    @EnBulkhead(Carga.LECTURAS)
     @Transactional(readOnly = true)
-    public List<CuentaDTO> findAll() {
-        log.debug("Buscando todas las cuentas activas");
-        return cuentaRepository.findAllActive().stream()
-                .map(cuentaMapper::toDTO)
-                .collect(Collectors.toList());
+    public PaginaDTO<CuentaDTO> findAll(Long after, int limite) {
+        log.debug("Buscando cuentas activas después del ID: {}", after);
+        return Paginacion.pagina(
+                cuentaRepository.findActiveDespuesDe(Paginacion.cursor(after), Paginacion.limite(limite)),
+                limite, Cuenta::getId, cuentaMapper::toDTO);
     }
     
     @Override
+    @EnBulkhead(Carga.LECTURAS)
     @Transactional(readOnly = true)
     public Optional<CuentaDTO> findById(Long id) {
         log.debug("Buscando cuenta activa por ID: {}", id);
@@ -50,6 +61,7 @@ public class CuentaServiceImpl implements ICuentaService {
     }
     
     @Override
+    @EnBulkhead(Carga.LECTURAS)
     @Transactional(readOnly = true)
     public Optional<CuentaDTO> findByNumeroCuenta(String numeroCuenta) {
         log.debug("Buscando cuenta activa por número: {}", numeroCuenta);
@@ -58,15 +70,17 @@ public class CuentaServiceImpl implements ICuentaService {
     }
     
     @Override
+    @EnBulkhead(Carga.LECTURAS)
     @Transactional(readOnly = true)
-    public List<CuentaDTO> findByClienteId(Long clienteId) {
+    public PaginaDTO<CuentaDTO> findByClienteId(Long clienteId, Long after, int limite) {
         log.debug("Buscando cuentas activas del cliente ID: {}", clienteId);
-        return cuentaRepository.findByClienteClienteIdAndActive(clienteId).stream()
-                .map(cuentaMapper::toDTO)
-                .collect(Collectors.toList());
+        return Paginacion.pagina(
+                cuentaRepository.findByClienteClienteIdAndActive(clienteId, Paginacion.cursor(after), Paginacion.limite(limite)),
+                limite, Cuenta::getId, cuentaMapper::toDTO);
     }
     
     @Override
+    @EnBulkhead(Carga.REGISTRO)
     @Transactional
     public CuentaDTO save(CuentaDTO cuentaDTO) {
         log.debug("Guardando cuenta: {}", cuentaDTO.getNumeroCuenta());
@@ -83,7 +97,22 @@ public class CuentaServiceImpl implements ICuentaService {
         Cliente cliente = clienteRepository.findById(cuentaDTO.getClienteId())
                 .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado con ID: " + cuentaDTO.getClienteId()));
         
-        Cuenta cuenta = cuentaMapper.toEntity(cuentaDTO);
+        Cuenta cuenta;
+        if (cuentaDTO.getId() != null) {
+            // Actualización con la fila bloqueada, como los movimientos: conserva el saldo vigente y la versión
+            cuenta = cuentaRepository.findByIdForUpdate(cuentaDTO.getId())
+                    .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada con ID: " + cuentaDTO.getId()));
+            // Con movimientos aplicados, el saldo vigente y la cadena de saldos parten del saldo inicial
+            if (cuenta.getUltimoMovimientoId() != null && cuentaDTO.getSaldoInicial() != null
+                    && cuentaDTO.getSaldoInicial().compareTo(cuenta.getSaldoInicial()) != 0) {
+                throw new IllegalArgumentException("No se puede cambiar el saldo inicial de una cuenta con movimientos");
+            }
+            cuentaMapper.updateEntityFromDTO(cuentaDTO, cuenta);
+        } else {
+            // Creación: el saldo vigente arranca en el saldo inicial
+            cuenta = cuentaMapper.toEntity(cuentaDTO);
+            cuenta.setSaldoActual(cuenta.getSaldoInicial());
+        }
         cuenta.setCliente(cliente);
         
         // Aplicar Strategy Pattern: validar reglas según tipo de cuenta
@@ -91,28 +120,40 @@ public class CuentaServiceImpl implements ICuentaService {
         strategy.validarCuenta(cuenta);
         
         Cuenta savedCuenta = cuentaRepository.save(cuenta);
+        eventPublisher.publishEvent(new CuentasModificadasEvent(Set.of(savedCuenta.getId())));
         return cuentaMapper.toDTO(savedCuenta);
     }
     
     @Override
+    @EnBulkhead(Carga.REGISTRO)
     @Transactional
     public void deleteById(Long id) {
         log.debug("Eliminando lógicamente cuenta con ID: {}", id);
-        Cuenta cuenta = cuentaRepository.findById(id)
+        Cuenta cuenta = cuentaRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada con ID: " + id));
         cuenta.setEstado(false);
         cuentaRepository.save(cuenta);
+        eventPublisher.publishEvent(new CuentasModificadasEvent(Set.of(id)));
     }
     
     @Override
+    @EnBulkhead(Carga.BUSQUEDA)
     @Transactional(readOnly = true)
-    public List<CuentaDTO> searchByFilter(String filtro) {
+    public PaginaDTO<CuentaDTO> searchByFilter(String filtro, Long after, int limite) {
         log.debug("Buscando cuentas con filtro: {}", filtro);
         if (filtro == null || filtro.trim().isEmpty()) {
-            return findAll();
+            return findAll(after, limite);
+        }
+        Limit filas = Paginacion.limite(limite);
+        Optional<List<Long>> ids = indiceBusqueda.buscarCuentas(filtro, after, filas.max());
+        if (ids.isPresent()) {
+            List<Long> primeros = Paginacion.primeros(ids.get(), limite);
+            return Paginacion.paginaOrdenada(ids.get(),
+                    primeros.isEmpty() ? List.of() : cuentaRepository.findActiveByIdIn(primeros),
+                    limite, Cuenta::getId, cuentaMapper::toDTO);
         }
-        return cuentaRepository.searchByFilter(filtro).stream()
-                .map(cuentaMapper::toDTO)
-                .collect(Collectors.toList());
+        return Paginacion.pagina(
+                cuentaRepository.searchByFilter(filtro, Paginacion.cursor(after), filas),
+                limite, Cuenta::getId, cuentaMapper::toDTO);
     }
 }
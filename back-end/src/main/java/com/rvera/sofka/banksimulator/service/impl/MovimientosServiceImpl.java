@@ -1,26 +1,63 @@
 package com.rvera.sofka.banksimulator.service.impl;
 
+import com.rvera.sofka.banksimulator.busqueda.ConsultaMovimientos;
+import com.rvera.sofka.banksimulator.busqueda.IndiceMovimientos;
+import com.rvera.sofka.banksimulator.cache.IdempotenciaCache;
+import com.rvera.sofka.banksimulator.cache.ReporteCache;
+import com.rvera.sofka.banksimulator.cache.VentanaRetiros;
+import com.rvera.sofka.banksimulator.concurrencia.Carga;
+import com.rvera.sofka.banksimulator.concurrencia.EnBulkhead;
 import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import com.rvera.sofka.banksimulator.dto.MovimientoLoteItemDTO;
+import com.rvera.sofka.banksimulator.dto.MovimientoLoteResultadoDTO;
 import com.rvera.sofka.banksimulator.dto.MovimientoReporteDTO;
+import com.rvera.sofka.banksimulator.dto.PaginaDTO;
+import com.rvera.sofka.banksimulator.dto.TransferenciaDTO;
+import com.rvera.sofka.banksimulator.dto.TransferenciaResultadoDTO;
+import com.rvera.sofka.banksimulator.engine.MovimientosPostingEngine;
 import com.rvera.sofka.banksimulator.entity.Cuenta;
 import com.rvera.sofka.banksimulator.entity.Movimientos;
+import com.rvera.sofka.banksimulator.event.MovimientosModificadosEvent;
+import com.rvera.sofka.banksimulator.exception.ClaveIdempotenciaEnUsoException;
 import com.rvera.sofka.banksimulator.mapper.MovimientoMapper;
 import com.rvera.sofka.banksimulator.repository.CuentaRepository;
 import com.rvera.sofka.banksimulator.repository.MovimientosRepository;
 import com.rvera.sofka.banksimulator.service.IMovimientosService;
+import com.rvera.sofka.banksimulator.service.IResumenDiarioService;
+import com.rvera.sofka.banksimulator.strategy.Centavos;
 import com.rvera.sofka.banksimulator.strategy.CuentaStrategyFactory;
-import com.rvera.sofka.banksimulator.strategy.ICuentaStrategy;
+import com.rvera.sofka.banksimulator.strategy.MovimientoCalculator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 /**
@@ -32,21 +69,48 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MovimientosServiceImpl implements IMovimientosService {
     
+    private static final String TIPO_TRANSFERENCIA = "Transferencia";
+    
+    // Orden en que se aplican los movimientos de una cuenta
+    private static final Comparator<Movimientos> ORDEN_CADENA =
+            Comparator.comparing(Movimientos::getFecha).thenComparing(Movimientos::getId);
+    
     private final MovimientosRepository movimientosRepository;
     private final CuentaRepository cuentaRepository;
     private final MovimientoMapper movimientoMapper;
     private final CuentaStrategyFactory strategyFactory;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotenciaCache idempotenciaCache;
+    private final ReporteCache reporteCache;
+    private final VentanaRetiros ventanaRetiros;
+    private final IndiceMovimientos indiceMovimientos;
+    private final IResumenDiarioService resumenDiarioService;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // Registros de la carga masiva que se leen y procesan juntos
+    @Value("${app.movimientos.lote.filas-por-tramo:1000}")
+    private int filasPorTramo = 1000;
+    
+    // Solo presente con app.movimientos.motor.habilitado=true
+    @Autowired(required = false)
+    private MovimientosPostingEngine postingEngine;
     
     @Override
+    @EnBulkhead(Carga.LECTURAS)
     @Transactional(readOnly = true)
-    public List<MovimientoDTO> findAll() {
-        log.debug("Buscando todos los movimientos activos");
-        return movimientosRepository.findAllActive().stream()
-                .map(movimientoMapper::toDTO)
-                .collect(Collectors.toList());
+    public PaginaDTO<MovimientoDTO> findAll(Long after, int limite) {
+        log.debug("Buscando movimientos activos después del ID: {}", after);
+        return Paginacion.pagina(
+                movimientosRepository.findActiveDespuesDe(Paginacion.cursor(after), Paginacion.limite(limite)),
+                limite, Movimientos::getId, movimientoMapper::toDTO);
     }
     
     @Override
+    @EnBulkhead(Carga.LECTURAS)
     @Transactional(readOnly = true)
     public Optional<MovimientoDTO> findById(Long id) {
         log.debug("Buscando movimiento activo por ID: {}", id);
@@ -55,113 +119,552 @@ public class MovimientosServiceImpl implements IMovimientosService {
     }
     
     @Override
+    @EnBulkhead(Carga.LECTURAS)
     @Transactional(readOnly = true)
-    public List<MovimientoDTO> findByCuentaId(Long cuentaId) {
+    public PaginaDTO<MovimientoDTO> findByCuentaId(Long cuentaId, Long before, int limite) {
         log.debug("Buscando movimientos activos de la cuenta ID: {}", cuentaId);
-        return movimientosRepository.findByCuentaIdAndActiveOrderByFechaDesc(cuentaId).stream()
-                .map(movimientoMapper::toDTO)
-                .collect(Collectors.toList());
+        return Paginacion.pagina(
+                movimientosRepository.findByCuentaIdAndActive(cuentaId, Paginacion.cursorDescendente(before),
+                        Paginacion.limite(limite)),
+                limite, Movimientos::getId, movimientoMapper::toDTO);
     }
     
+    /**
+     * Registra el movimiento. Con el motor de registro habilitado el movimiento se encola en el
+     * shard de su cuenta; por eso la transacción es programática: la espera no retiene una conexión.
+     */
     @Override
-    @Transactional
+    @EnBulkhead(Carga.REGISTRO)
     public MovimientoDTO save(MovimientoDTO movimientoDTO) {
-        log.debug("Guardando movimiento: {}", movimientoDTO.getTipoMovimiento());
-        
-        // Validar que la cuenta exista
-        Cuenta cuenta = cuentaRepository.findById(movimientoDTO.getCuentaId())
-                .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada con ID: " + movimientoDTO.getCuentaId()));
+        try {
+            return saveAsync(movimientoDTO).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Con clave de idempotencia, una repetición devuelve el movimiento original sin un segundo INSERT:
+     * primero se consulta la cache en memoria y, si la clave ya no está en ella, la restricción única
+     * de la columna detecta el duplicado y se devuelve el movimiento guardado.
+     */
+    @Override
+    @EnBulkhead(Carga.REGISTRO)
+    public CompletableFuture<MovimientoDTO> saveAsync(MovimientoDTO movimientoDTO) {
+        String clave = movimientoDTO.getClaveIdempotencia();
+        if (clave == null) {
+            return registrar(movimientoDTO);
+        }
+        if (clave.isBlank() || clave.length() > 100) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("La clave de idempotencia debe tener entre 1 y 100 caracteres"));
+        }
         
-        // Obtener último saldo
-        BigDecimal saldoActual = obtenerUltimoSaldo(cuenta.getId());
+        CompletableFuture<MovimientoDTO> reserva = new CompletableFuture<>();
+        CompletableFuture<MovimientoDTO> existente = idempotenciaCache.reservar(clave, reserva);
+        if (existente != null) {
+            log.debug("Movimiento repetido con clave de idempotencia: {}", clave);
+            return existente.thenApply(original -> verificarMismaSolicitud(original, movimientoDTO));
+        }
         
-        // Aplicar Strategy Pattern: calcular comisión según tipo de cuenta si es retiro
-        BigDecimal valor = movimientoDTO.getValor();
-        if ("Retiro".equals(movimientoDTO.getTipoMovimiento())) {
-            ICuentaStrategy strategy = strategyFactory.getStrategy(cuenta.getTipoCuenta());
-            valor = strategy.aplicarComision(valor.abs());
-            valor = valor.negate(); // Los retiros son negativos
+        registrar(movimientoDTO).whenComplete((guardado, error) -> {
+            if (error == null) {
+                reserva.complete(guardado);
+                return;
+            }
+            Throwable causa = error instanceof CompletionException ? error.getCause() : error;
+            Optional<Movimientos> original = causa instanceof DataIntegrityViolationException
+                    ? movimientosRepository.findByClaveIdempotencia(clave)
+                    : Optional.empty();
+            if (original.isPresent()) {
+                reserva.complete(movimientoMapper.toDTO(original.get()));
+            } else {
+                // El registro falló: la clave queda libre para un nuevo intento
+                idempotenciaCache.liberar(clave, reserva);
+                reserva.completeExceptionally(causa);
+            }
+        });
+        return reserva.thenApply(original -> verificarMismaSolicitud(original, movimientoDTO));
+    }
+    
+    private CompletableFuture<MovimientoDTO> registrar(MovimientoDTO movimientoDTO) {
+        if (postingEngine != null) {
+            return postingEngine.registrar(movimientoDTO);
+        }
+        try {
+            return CompletableFuture.completedFuture(transactionTemplate.execute(status -> registrarMovimiento(movimientoDTO)));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    /**
+     * Una clave de idempotencia solo puede repetirse con la misma cuenta, tipo de movimiento y valor
+     * El original guarda el valor con signo y comisión: se compara con el que registraría la repetición
+     */
+    private MovimientoDTO verificarMismaSolicitud(MovimientoDTO original, MovimientoDTO repetido) {
+        if (!original.getCuentaId().equals(repetido.getCuentaId())
+                || !original.getTipoMovimiento().equals(repetido.getTipoMovimiento())
+                || Centavos.desde(original.getValor()) != valorRegistrado(original, repetido)) {
+            throw new ClaveIdempotenciaEnUsoException(repetido.getClaveIdempotencia());
         }
+        return original;
+    }
+    
+    private long valorRegistrado(MovimientoDTO original, MovimientoDTO repetido) {
+        String tipoCuenta = original.getCuenta() != null
+                ? original.getCuenta().getTipoCuenta()
+                : cuentaRepository.findById(original.getCuentaId()).map(Cuenta::getTipoCuenta).orElse(null);
+        return MovimientoCalculator.calcularValor(strategyFactory, tipoCuenta,
+                repetido.getTipoMovimiento(), Centavos.desde(repetido.getValor()));
+    }
+    
+    private MovimientoDTO registrarMovimiento(MovimientoDTO movimientoDTO) {
+        log.debug("Guardando movimiento: {}", movimientoDTO.getTipoMovimiento());
         
-        // Calcular nuevo saldo
-        BigDecimal nuevoSaldo = saldoActual.add(valor);
+        // Validar que la cuenta exista y bloquearla hasta el commit:
+        // los movimientos de una misma cuenta se serializan, cuentas distintas avanzan en paralelo
+        Cuenta cuenta = cuentaRepository.findByIdForUpdate(movimientoDTO.getCuentaId())
+                .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada con ID: " + movimientoDTO.getCuentaId()));
         
-        // Validar saldo suficiente
-        if (nuevoSaldo.compareTo(BigDecimal.ZERO) < 0) {
-            throw new IllegalArgumentException("Saldo insuficiente para realizar el movimiento");
-        }
+        // Cálculo en centavos; cada monto se convierte una sola vez al leer y al escribir las entidades
+        long monto = Centavos.desde(movimientoDTO.getValor());
+        long saldoActual = Centavos.desde(obtenerUltimoSaldo(cuenta));
+        long valor = calcularValor(cuenta, movimientoDTO.getTipoMovimiento(), monto);
+        BigDecimal nuevoSaldo = Centavos.aBigDecimal(MovimientoCalculator.calcularNuevoSaldo(saldoActual, valor));
+        // Límite diario del tipo de cuenta; la reserva se devuelve si la transacción no confirma
+        ventanaRetiros.reservar(cuenta, valor, monto);
         
         Movimientos movimiento = movimientoMapper.toEntity(movimientoDTO);
         movimiento.setCuenta(cuenta);
-        movimiento.setValor(valor);
+        movimiento.setValor(Centavos.aBigDecimal(valor, movimientoDTO.getValor(), monto));
+        movimiento.setComision(Centavos.aBigDecimal(MovimientoCalculator.calcularComision(valor, monto)));
         movimiento.setSaldo(nuevoSaldo);
         movimiento.setFecha(LocalDateTime.now());
         
         Movimientos savedMovimiento = movimientosRepository.save(movimiento);
+        
+        // Mantener el saldo vigente en la cuenta dentro de la misma transacción
+        cuenta.setSaldoActual(nuevoSaldo);
+        cuenta.setUltimoMovimientoId(savedMovimiento.getId());
+        resumenDiarioService.registrarMovimientos(cuenta.getId(), List.of(savedMovimiento));
+        eventPublisher.publishEvent(MovimientosModificadosEvent.registrados(List.of(cuenta), List.of(savedMovimiento)));
+        
         return movimientoMapper.toDTO(savedMovimiento);
     }
     
     @Override
+    @EnBulkhead(Carga.REGISTRO)
+    public MovimientoLoteResultadoDTO saveBatch(List<MovimientoDTO> movimientos) {
+        return saveBatch(movimientos.iterator());
+    }
+    
+    /**
+     * Lee la carga a medida que avanza y la procesa en tramos de 'filas-por-tramo' registros; dentro de
+     * un tramo cada cuenta se registra en su propia transacción, así que los bloqueos duran lo que tarda
+     * su grupo y un error solo deshace los movimientos de ese grupo, que se reportan como rechazados
+     */
+    @Override
+    @EnBulkhead(Carga.REGISTRO)
+    public MovimientoLoteResultadoDTO saveBatch(Iterator<MovimientoDTO> movimientos) {
+        List<MovimientoLoteItemDTO> resultados = new ArrayList<>();
+        List<MovimientoDTO> tramo = new ArrayList<>(Math.min(filasPorTramo, 1024));
+        while (movimientos.hasNext()) {
+            tramo.add(movimientos.next());
+            if (tramo.size() >= filasPorTramo) {
+                resultados.addAll(procesarTramo(tramo, resultados.size()));
+                tramo.clear();
+            }
+        }
+        if (!tramo.isEmpty()) {
+            resultados.addAll(procesarTramo(tramo, resultados.size()));
+        }
+        
+        int aceptados = 0;
+        for (MovimientoLoteItemDTO resultado : resultados) {
+            if (resultado.isAceptado()) {
+                aceptados++;
+            }
+        }
+        log.info("Carga masiva procesada: {} aceptados, {} rechazados", aceptados, resultados.size() - aceptados);
+        
+        return MovimientoLoteResultadoDTO.builder()
+                .total(resultados.size())
+                .aceptados(aceptados)
+                .rechazados(resultados.size() - aceptados)
+                .resultados(resultados)
+                .build();
+    }
+    
+    /**
+     * @param desplazamiento Posición en la carga del primer registro del tramo
+     */
+    private List<MovimientoLoteItemDTO> procesarTramo(List<MovimientoDTO> movimientos, int desplazamiento) {
+        log.debug("Procesando tramo de {} movimientos desde la posición {}", movimientos.size(), desplazamiento);
+        
+        MovimientoLoteItemDTO[] resultados = new MovimientoLoteItemDTO[movimientos.size()];
+        
+        // Agrupar por cuenta conservando el orden de llegada; el TreeMap fija el orden de bloqueo
+        // (menor ID primero) para que cargas concurrentes no se bloqueen mutuamente
+        Map<Long, List<Integer>> indicesPorCuenta = new TreeMap<>();
+        for (int i = 0; i < movimientos.size(); i++) {
+            MovimientoDTO movimientoDTO = movimientos.get(i);
+            String error = validarRegistro(movimientoDTO);
+            if (error != null) {
+                resultados[i] = rechazado(desplazamiento + i, movimientoDTO, error);
+                continue;
+            }
+            indicesPorCuenta.computeIfAbsent(movimientoDTO.getCuentaId(), k -> new ArrayList<>()).add(i);
+        }
+        
+        for (Map.Entry<Long, List<Integer>> grupo : indicesPorCuenta.entrySet()) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        procesarGrupoCuenta(grupo.getKey(), grupo.getValue(), movimientos, desplazamiento, resultados));
+            } catch (RuntimeException e) {
+                // Falla solo el grupo (también al confirmar): sus aceptados se revierten, el resto de la carga sigue
+                log.warn("Carga masiva: no se pudo registrar el grupo de la cuenta {}", grupo.getKey(), e);
+                for (Integer indice : grupo.getValue()) {
+                    if (resultados[indice] == null || resultados[indice].isAceptado()) {
+                        resultados[indice] = rechazado(desplazamiento + indice, movimientos.get(indice),
+                                "No se pudo registrar el movimiento, intente nuevamente");
+                    }
+                }
+            }
+        }
+        return Arrays.asList(resultados);
+    }
+    
+    /**
+     * Aplica en memoria los movimientos de una cuenta y los inserta en lote JDBC
+     * Si se insertó al menos un movimiento publica MovimientosModificadosEvent con los registrados
+     */
+    private void procesarGrupoCuenta(Long cuentaId, List<Integer> indices, List<MovimientoDTO> movimientos,
+                                     int desplazamiento, MovimientoLoteItemDTO[] resultados) {
+        Optional<Cuenta> cuentaEncontrada = cuentaRepository.findByIdForUpdate(cuentaId);
+        if (cuentaEncontrada.isEmpty()) {
+            for (Integer indice : indices) {
+                resultados[indice] = rechazado(desplazamiento + indice, movimientos.get(indice),
+                        "Cuenta no encontrada con ID: " + cuentaId);
+            }
+            return;
+        }
+        
+        Cuenta cuenta = cuentaEncontrada.get();
+        long saldo = Centavos.desde(obtenerUltimoSaldo(cuenta));
+        List<Movimientos> nuevos = new ArrayList<>(indices.size());
+        List<Integer> indicesAceptados = new ArrayList<>(indices.size());
+        
+        for (Integer indice : indices) {
+            MovimientoDTO movimientoDTO = movimientos.get(indice);
+            try {
+                long monto = Centavos.desde(movimientoDTO.getValor());
+                long valor = calcularValor(cuenta, movimientoDTO.getTipoMovimiento(), monto);
+                long nuevoSaldo = MovimientoCalculator.calcularNuevoSaldo(saldo, valor);
+                ventanaRetiros.reservar(cuenta, valor, monto);
+                
+                Movimientos movimiento = movimientoMapper.toEntity(movimientoDTO);
+                movimiento.setId(null);
+                movimiento.setCuenta(cuenta);
+                movimiento.setValor(Centavos.aBigDecimal(valor, movimientoDTO.getValor(), monto));
+                movimiento.setComision(Centavos.aBigDecimal(MovimientoCalculator.calcularComision(valor, monto)));
+                movimiento.setSaldo(Centavos.aBigDecimal(nuevoSaldo));
+                movimiento.setFecha(LocalDateTime.now());
+                
+                nuevos.add(movimiento);
+                indicesAceptados.add(indice);
+                saldo = nuevoSaldo;
+            } catch (IllegalArgumentException e) {
+                resultados[indice] = rechazado(desplazamiento + indice, movimientoDTO, e.getMessage());
+            }
+        }
+        
+        if (nuevos.isEmpty()) {
+            return;
+        }
+        
+        // IDs asignados por secuencia (pooled): Hibernate agrupa los INSERT en lotes JDBC
+        List<Movimientos> guardados = movimientosRepository.saveAll(nuevos);
+        for (int i = 0; i < guardados.size(); i++) {
+            Movimientos guardado = guardados.get(i);
+            int indice = indicesAceptados.get(i);
+            resultados[indice] = MovimientoLoteItemDTO.builder()
+                    .indice(desplazamiento + indice)
+                    .cuentaId(cuentaId)
+                    .aceptado(true)
+                    .movimientoId(guardado.getId())
+                    .valor(guardado.getValor())
+                    .saldo(guardado.getSaldo())
+                    .build();
+        }
+        
+        cuenta.setSaldoActual(guardados.get(guardados.size() - 1).getSaldo());
+        cuenta.setUltimoMovimientoId(guardados.get(guardados.size() - 1).getId());
+        resumenDiarioService.registrarMovimientos(cuentaId, guardados);
+        eventPublisher.publishEvent(MovimientosModificadosEvent.registrados(List.of(cuenta), guardados));
+        
+        // Liberar el contexto de persistencia por cuenta: la memoria no crece con el tamaño de la carga
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    /**
+     * Débito en la cuenta de origen (con su comisión) y crédito en la de destino en una sola transacción
+     * Las dos cuentas se bloquean siempre en el mismo orden (menor ID primero): transferencias
+     * cruzadas entre las mismas cuentas esperan su turno en lugar de bloquearse mutuamente
+     */
+    @Override
+    @EnBulkhead(Carga.REGISTRO)
+    @Transactional
+    public TransferenciaResultadoDTO transferir(TransferenciaDTO transferenciaDTO) {
+        Long origenId = transferenciaDTO.getCuentaOrigenId();
+        Long destinoId = transferenciaDTO.getCuentaDestinoId();
+        log.debug("Transfiriendo {} de la cuenta {} a la cuenta {}", transferenciaDTO.getValor(), origenId, destinoId);
+        
+        if (origenId.equals(destinoId)) {
+            throw new IllegalArgumentException("La cuenta de origen y la de destino deben ser distintas");
+        }
+        if (transferenciaDTO.getValor().signum() <= 0) {
+            throw new IllegalArgumentException("El valor de la transferencia debe ser mayor a cero");
+        }
+        
+        Cuenta primera = bloquearCuenta(Math.min(origenId, destinoId));
+        Cuenta segunda = bloquearCuenta(Math.max(origenId, destinoId));
+        Cuenta origen = primera.getId().equals(origenId) ? primera : segunda;
+        Cuenta destino = origen == primera ? segunda : primera;
+        
+        long valor = Centavos.desde(transferenciaDTO.getValor());
+        long debito = MovimientoCalculator.calcularDebito(strategyFactory, origen.getTipoCuenta(), valor);
+        long saldoOrigen = MovimientoCalculator.calcularNuevoSaldo(Centavos.desde(obtenerUltimoSaldo(origen)), debito);
+        long saldoDestino = MovimientoCalculator.calcularNuevoSaldo(Centavos.desde(obtenerUltimoSaldo(destino)), valor);
+        // El débito de origen cuenta en el límite diario de retiros; se devuelve si la transacción no confirma
+        ventanaRetiros.reservar(origen, debito, valor);
+        
+        LocalDateTime fecha = LocalDateTime.now();
+        Movimientos movimientoDebito = nuevoMovimiento(origen, debito, saldoOrigen, fecha);
+        Movimientos movimientoCredito = nuevoMovimiento(destino, valor, saldoDestino, fecha);
+        movimientoDebito.setComision(Centavos.aBigDecimal(MovimientoCalculator.calcularComision(debito, valor)));
+        movimientosRepository.saveAll(List.of(movimientoDebito, movimientoCredito));
+        
+        origen.setSaldoActual(movimientoDebito.getSaldo());
+        origen.setUltimoMovimientoId(movimientoDebito.getId());
+        destino.setSaldoActual(movimientoCredito.getSaldo());
+        destino.setUltimoMovimientoId(movimientoCredito.getId());
+        resumenDiarioService.registrarMovimientos(origen.getId(), List.of(movimientoDebito));
+        resumenDiarioService.registrarMovimientos(destino.getId(), List.of(movimientoCredito));
+        eventPublisher.publishEvent(MovimientosModificadosEvent.registrados(List.of(origen, destino),
+                List.of(movimientoDebito, movimientoCredito)));
+        
+        return TransferenciaResultadoDTO.builder()
+                .debito(movimientoMapper.toDTO(movimientoDebito))
+                .credito(movimientoMapper.toDTO(movimientoCredito))
+                .build();
+    }
+    
+    private Cuenta bloquearCuenta(Long cuentaId) {
+        return cuentaRepository.findByIdForUpdate(cuentaId)
+                .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada con ID: " + cuentaId));
+    }
+    
+    private Movimientos nuevoMovimiento(Cuenta cuenta, long valor, long saldo, LocalDateTime fecha) {
+        Movimientos movimiento = new Movimientos();
+        movimiento.setTipoMovimiento(TIPO_TRANSFERENCIA);
+        movimiento.setCuenta(cuenta);
+        movimiento.setValor(Centavos.aBigDecimal(valor));
+        movimiento.setSaldo(Centavos.aBigDecimal(saldo));
+        movimiento.setFecha(fecha);
+        return movimiento;
+    }
+    
+    private String validarRegistro(MovimientoDTO movimientoDTO) {
+        if (movimientoDTO == null) {
+            return "Registro vacío o con formato inválido";
+        }
+        Set<ConstraintViolation<MovimientoDTO>> violaciones = validator.validate(movimientoDTO);
+        if (violaciones.isEmpty()) {
+            return null;
+        }
+        return violaciones.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+    
+    private MovimientoLoteItemDTO rechazado(int indice, MovimientoDTO movimientoDTO, String error) {
+        return MovimientoLoteItemDTO.builder()
+                .indice(indice)
+                .cuentaId(movimientoDTO != null ? movimientoDTO.getCuentaId() : null)
+                .aceptado(false)
+                .error(error)
+                .build();
+    }
+    
+    @Override
+    @EnBulkhead(Carga.REGISTRO)
     @Transactional
     public void deleteById(Long id) {
         log.debug("Eliminando lógicamente movimiento con ID: {}", id);
         Movimientos movimiento = movimientosRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Movimiento no encontrado con ID: " + id));
+        Cuenta cuenta = bloquearCuenta(movimiento.getCuenta().getId());
+        // Releer con la cuenta bloqueada: una eliminación concurrente ya confirmada no se aplica dos veces
+        entityManager.refresh(movimiento);
+        if (!Boolean.TRUE.equals(movimiento.getEstado())) {
+            throw new IllegalArgumentException("Movimiento no encontrado con ID: " + id);
+        }
         movimiento.setEstado(false);
         movimientosRepository.save(movimiento);
+        
+        recalcularSaldosPosteriores(cuenta, movimiento, List.of(movimiento));
+        resumenDiarioService.revertirMovimiento(movimiento);
+        ventanaRetiros.descontar(movimiento);
+        eventPublisher.publishEvent(MovimientosModificadosEvent.de(List.of(cuenta)));
+    }
+    
+    /**
+     * Eliminación lógica de varios movimientos: una sola pasada de recálculo por cuenta,
+     * desde el más antiguo de los eliminados. Los IDs inexistentes o ya eliminados se ignoran; el estado
+     * se vuelve a leer con la cuenta bloqueada, así que una eliminación concurrente no se aplica dos veces.
+     */
+    @Override
+    @EnBulkhead(Carga.REGISTRO)
+    @Transactional
+    public int deleteByIds(Collection<Long> ids) {
+        log.debug("Eliminando lógicamente {} movimientos", ids.size());
+        
+        // Agrupar por cuenta; el TreeMap fija el orden de bloqueo (menor ID primero)
+        Map<Long, List<Movimientos>> porCuenta = new TreeMap<>();
+        for (Movimientos movimiento : movimientosRepository.findAllById(ids)) {
+            if (Boolean.TRUE.equals(movimiento.getEstado())) {
+                porCuenta.computeIfAbsent(movimiento.getCuenta().getId(), k -> new ArrayList<>()).add(movimiento);
+            }
+        }
+        
+        int eliminados = 0;
+        List<Cuenta> modificadas = new ArrayList<>(porCuenta.size());
+        for (Map.Entry<Long, List<Movimientos>> grupo : porCuenta.entrySet()) {
+            Cuenta cuenta = bloquearCuenta(grupo.getKey());
+            List<Movimientos> activos = new ArrayList<>(grupo.getValue().size());
+            for (Movimientos movimiento : grupo.getValue()) {
+                entityManager.refresh(movimiento);
+                if (Boolean.TRUE.equals(movimiento.getEstado())) {
+                    activos.add(movimiento);
+                }
+            }
+            if (activos.isEmpty()) {
+                continue;
+            }
+            modificadas.add(cuenta);
+            Movimientos primero = activos.get(0);
+            for (Movimientos movimiento : activos) {
+                movimiento.setEstado(false);
+                if (ORDEN_CADENA.compare(movimiento, primero) < 0) {
+                    primero = movimiento;
+                }
+            }
+            movimientosRepository.saveAll(activos);
+            recalcularSaldosPosteriores(cuenta, primero, activos);
+            activos.forEach(resumenDiarioService::revertirMovimiento);
+            activos.forEach(ventanaRetiros::descontar);
+            eliminados += activos.size();
+        }
+        if (!modificadas.isEmpty()) {
+            eventPublisher.publishEvent(MovimientosModificadosEvent.de(modificadas));
+        }
+        return eliminados;
+    }
+    
+    /**
+     * Recalcula solo el tramo de la cadena posterior al movimiento eliminado, con una sentencia
+     * UPDATE basada en una suma acumulada (window function), sin cargar las entidades
+     * El saldo base es el saldo anterior al eliminado: su saldo registrado menos su valor
+     * Si se elimina un crédito los saldos posteriores bajan: como al registrar, ninguno puede quedar
+     * negativo; si quedara, se rechaza y la transacción deshace el recálculo
+     */
+    private void recalcularSaldosPosteriores(Cuenta cuenta, Movimientos primero, Collection<Movimientos> eliminados) {
+        BigDecimal saldoBase = primero.getSaldo().subtract(primero.getValor());
+        int recalculados = movimientosRepository.recalcularSaldosPosteriores(
+                cuenta.getId(), primero.getFecha(), primero.getId(), saldoBase);
+        log.debug("Cuenta {}: {} saldos posteriores recalculados", cuenta.getId(), recalculados);
+        
+        if (eliminados.stream().anyMatch(eliminado -> eliminado.getValor().signum() > 0)) {
+            verificarSaldoSuficiente(movimientosRepository.minimoSaldoPosterior(
+                    cuenta.getId(), primero.getFecha(), primero.getId()));
+        }
+        
+        BigDecimal posteriores = movimientosRepository.sumarValoresPosteriores(
+                cuenta.getId(), primero.getFecha(), primero.getId());
+        cuenta.setSaldoActual(saldoBase.add(posteriores));
+        cuenta.setUltimoMovimientoId(movimientosRepository
+                .findFirstByCuentaIdAndEstadoTrueOrderByFechaDescIdDesc(cuenta.getId())
+                .map(Movimientos::getId)
+                .orElse(null));
+    }
+    
+    private void verificarSaldoSuficiente(BigDecimal minimo) {
+        if (minimo != null && minimo.signum() < 0) {
+            throw new IllegalArgumentException("No se puede eliminar el movimiento: el saldo de la cuenta quedaría en $" +
+                    minimo);
+        }
     }
     
     @Override
+    @EnBulkhead(Carga.REPORTES)
     @Transactional(readOnly = true)
     public List<MovimientoReporteDTO> findByClienteIdAndFechaBetween(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        ReporteCache.Clave clave = new ReporteCache.Clave(clienteId, fechaInicio, fechaFin);
+        Optional<List<MovimientoReporteDTO>> enCache = reporteCache.obtenerJson(clave);
+        if (enCache.isPresent()) {
+            return enCache.get();
+        }
         log.debug("Buscando movimientos del cliente ID: {} entre {} y {}", clienteId, fechaInicio, fechaFin);
         
-        List<Movimientos> movimientos = movimientosRepository.findByClienteIdAndFechaBetween(
+        // La época se toma antes de consultar: si el cliente se invalida entretanto, el resultado no se guarda
+        long epoca = reporteCache.inicioLectura();
+        List<MovimientoReporteDTO> reporte = movimientosRepository.findReporteByClienteIdAndFechaBetween(
                 clienteId, fechaInicio, fechaFin);
-        
-        return movimientos.stream()
-                .map(this::mapToReporteDTO)
-                .collect(Collectors.toList());
-    }
-    
-    private MovimientoReporteDTO mapToReporteDTO(Movimientos movimiento) {
-        // Convertir LocalDateTime a Date
-        Date fechaDate = Date.from(movimiento.getFecha()
-                .atZone(ZoneId.systemDefault())
-                .toInstant());
-        
-        return MovimientoReporteDTO.builder()
-                .fecha(fechaDate)
-                .cliente(movimiento.getCuenta().getCliente().getPersona().getNombre())
-                .numeroCuenta(Long.parseLong(movimiento.getCuenta().getNumeroCuenta()))
-                .tipo(movimiento.getCuenta().getTipoCuenta())
-                .saldoInicial(movimiento.getCuenta().getSaldoInicial().floatValue())
-                .estado(movimiento.getEstado())
-                .movimiento(movimiento.getValor().floatValue())
-                .saldoDisponible(movimiento.getSaldo().floatValue())
-                .build();
+        reporteCache.guardarJson(clave, epoca, reporte);
+        return reporte;
     }
     
-    private BigDecimal obtenerUltimoSaldo(Long cuentaId) {
-        List<Movimientos> movimientos = movimientosRepository.findByCuentaIdAndActiveOrderByFechaDesc(cuentaId);
-        if (movimientos.isEmpty()) {
-            // Si no hay movimientos, retornar el saldo inicial de la cuenta
-            return cuentaRepository.findById(cuentaId)
-                    .map(Cuenta::getSaldoInicial)
-                    .orElse(BigDecimal.ZERO);
+    private long calcularValor(Cuenta cuenta, String tipoMovimiento, long monto) {
+        return MovimientoCalculator.calcularValor(strategyFactory, cuenta.getTipoCuenta(), tipoMovimiento, monto);
+    }
+    
+    /**
+     * Lee el saldo vigente mantenido en la cuenta, sin recorrer el historial de movimientos
+     */
+    private BigDecimal obtenerUltimoSaldo(Cuenta cuenta) {
+        if (cuenta.getSaldoActual() == null) {
+            // Cuenta sin movimientos aplicados: retornar el saldo inicial
+            return cuenta.getSaldoInicial();
         }
-        return movimientos.get(0).getSaldo();
+        return cuenta.getSaldoActual();
     }
     
     @Override
+    @EnBulkhead(Carga.BUSQUEDA)
     @Transactional(readOnly = true)
-    public List<MovimientoDTO> searchByFilter(String filtro) {
+    public PaginaDTO<MovimientoDTO> searchByFilter(String filtro, Long after, int limite) {
         log.debug("Buscando movimientos con filtro: {}", filtro);
         if (filtro == null || filtro.trim().isEmpty()) {
-            return findAll();
+            return findAll(after, limite);
+        }
+        Limit filas = Paginacion.limite(limite);
+        ConsultaMovimientos consultaMovimientos = ConsultaMovimientos.parsear(filtro);
+        Optional<List<Long>> ids = indiceMovimientos.buscar(consultaMovimientos, Paginacion.cursor(after), filas.max());
+        if (ids.isPresent()) {
+            List<Long> primeros = Paginacion.primeros(ids.get(), limite);
+            return Paginacion.paginaOrdenada(ids.get(),
+                    primeros.isEmpty() ? List.of() : movimientosRepository.findActiveByIdIn(primeros),
+                    limite, Movimientos::getId, movimientoMapper::toDTO);
         }
-        return movimientosRepository.searchByFilter(filtro).stream()
-                .map(movimientoMapper::toDTO)
-                .collect(Collectors.toList());
+        Specification<Movimientos> consulta = consultaMovimientos.especificacion(Paginacion.cursor(after));
+        return Paginacion.pagina(
+                movimientosRepository.findBy(consulta, q -> q.sortBy(Sort.by("id")).limit(filas.max()).all()),
+                limite, Movimientos::getId, movimientoMapper::toDTO);
     }
 }
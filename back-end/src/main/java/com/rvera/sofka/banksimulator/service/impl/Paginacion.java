@@ -0,0 +1,64 @@
+package com.rvera.sofka.banksimulator.service.impl;
+
+import com.rvera.sofka.banksimulator.dto.PaginaDTO;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Paginación por keyset (WHERE id > :after ORDER BY id LIMIT n) de los listados
+ * Se consulta una fila más que el límite para saber si existe una página siguiente sin contar el total.
+ * Los listados en orden descendente (WHERE id < :before ORDER BY id DESC) usan cursorDescendente.
+ */
+final class Paginacion {
+    
+    static final int LIMITE_MAXIMO = 1000;
+    
+    private Paginacion() {
+    }
+    
+    static Long cursor(Long after) {
+        return after == null ? 0L : after;
+    }
+    
+    static Long cursorDescendente(Long before) {
+        return before == null ? Long.MAX_VALUE : before;
+    }
+    
+    static Limit limite(int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + LIMITE_MAXIMO);
+        }
+        return Limit.of(limite + 1);
+    }
+    
+    /**
+     * @param filas Resultado de la consulta con límite + 1 filas, ordenado por id (ascendente o descendente)
+     */
+    static <E, T> PaginaDTO<T> pagina(List<E> filas, int limite, Function<E, Long> id, Function<E, T> mapper) {
+        List<E> contenido = filas.size() > limite ? filas.subList(0, limite) : filas;
+        Long siguiente = filas.size() > limite ? id.apply(contenido.get(limite - 1)) : null;
+        return new PaginaDTO<>(contenido.stream().map(mapper).toList(), siguiente);
+    }
+    
+    /**
+     * Página de un resultado ordenado por relevancia en lugar de por id: el cursor es el id del último resultado
+     * @param ids Ids ordenados, hasta límite + 1
+     * @param filas Filas de los primeros 'limite' ids en cualquier orden; las que falten (ya eliminadas) se omiten
+     */
+    static <E, T> PaginaDTO<T> paginaOrdenada(List<Long> ids, List<E> filas, int limite,
+                                              Function<E, Long> id, Function<E, T> mapper) {
+        List<Long> contenido = primeros(ids, limite);
+        Long siguiente = ids.size() > limite ? contenido.get(limite - 1) : null;
+        Map<Long, E> porId = filas.stream().collect(Collectors.toMap(id, Function.identity()));
+        return new PaginaDTO<>(contenido.stream().map(porId::get).filter(Objects::nonNull).map(mapper).toList(), siguiente);
+    }
+    
+    static List<Long> primeros(List<Long> ids, int limite) {
+        return ids.size() > limite ? ids.subList(0, limite) : ids;
+    }
+}
@@ -1,18 +1,22 @@
 package com.rvera.sofka.banksimulator.service.impl;
 
+import com.rvera.sofka.banksimulator.concurrencia.Carga;
+import com.rvera.sofka.banksimulator.concurrencia.EnBulkhead;
+import com.rvera.sofka.banksimulator.dto.PaginaDTO;
 import com.rvera.sofka.banksimulator.dto.PersonaDTO;
 import com.rvera.sofka.banksimulator.entity.Persona;
+import com.rvera.sofka.banksimulator.event.PersonasModificadasEvent;
 import com.rvera.sofka.banksimulator.mapper.PersonaMapper;
 import com.rvera.sofka.banksimulator.repository.PersonaRepository;
 import com.rvera.sofka.banksimulator.service.IPersonaService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * Implementación del servicio de Persona
@@ -24,17 +28,20 @@ public class PersonaServiceImpl implements IPersonaService {
     
     private final PersonaRepository personaRepository;
     private final PersonaMapper personaMapper;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Override
+    @EnBulkhead(Carga.LECTURAS)
     @Transactional(readOnly = true)
-    public List<PersonaDTO> findAll() {
-        log.debug("Buscando todas las personas");
-        return personaRepository.findAll().stream()
-                .map(personaMapper::toDTO)
-                .collect(Collectors.toList());
+    public PaginaDTO<PersonaDTO> findAll(Long after, int limite) {
+        log.debug("Buscando personas después del ID: {}", after);
+        return Paginacion.pagina(
+                personaRepository.findDespuesDe(Paginacion.cursor(after), Paginacion.limite(limite)),
+                limite, Persona::getId, personaMapper::toDTO);
     }
     
     @Override
+    @EnBulkhead(Carga.LECTURAS)
     @Transactional(readOnly = true)
     public Optional<PersonaDTO> findById(Long id) {
         log.debug("Buscando persona por ID: {}", id);
@@ -43,6 +50,7 @@ public class PersonaServiceImpl implements IPersonaService {
     }
     
     @Override
+    @EnBulkhead(Carga.LECTURAS)
     @Transactional(readOnly = true)
     public Optional<PersonaDTO> findByIdentificacion(String identificacion) {
         log.debug("Buscando persona por identificación: {}", identificacion);
@@ -51,6 +59,7 @@ public class PersonaServiceImpl implements IPersonaService {
     }
     
     @Override
+    @EnBulkhead(Carga.REGISTRO)
     @Transactional
     public PersonaDTO save(PersonaDTO personaDTO) {
         log.debug("Guardando persona: {}", personaDTO.getNombre());
@@ -65,13 +74,16 @@ public class PersonaServiceImpl implements IPersonaService {
         
         Persona persona = personaMapper.toEntity(personaDTO);
         Persona savedPersona = personaRepository.save(persona);
+        eventPublisher.publishEvent(new PersonasModificadasEvent(Set.of(savedPersona.getId())));
         return personaMapper.toDTO(savedPersona);
     }
     
     @Override
+    @EnBulkhead(Carga.REGISTRO)
     @Transactional
     public void deleteById(Long id) {
         log.debug("Eliminando persona con ID: {}", id);
         personaRepository.deleteById(id);
+        eventPublisher.publishEvent(new PersonasModificadasEvent(Set.of(id)));
     }
 }
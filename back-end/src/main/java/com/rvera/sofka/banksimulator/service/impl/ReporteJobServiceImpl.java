@@ -0,0 +1,242 @@
+package com.rvera.sofka.banksimulator.service.impl;
+
+import com.rvera.sofka.banksimulator.concurrencia.Bulkheads;
+import com.rvera.sofka.banksimulator.concurrencia.Carga;
+import com.rvera.sofka.banksimulator.dto.ReporteJobDTO;
+import com.rvera.sofka.banksimulator.dto.ReporteJobSolicitudDTO;
+import com.rvera.sofka.banksimulator.service.IReporteJobService;
+import com.rvera.sofka.banksimulator.service.IReporteService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Trabajos asíncronos de reportes PDF
+ * Un pool acotado y dedicado genera los reportes fuera de los hilos de Tomcat; el resultado se guarda en disco
+ * y se conserva durante el TTL. Las solicitudes idénticas (cliente y rango) mientras el trabajo está pendiente
+ * o en proceso se agrupan en un solo trabajo. El estado se mantiene en memoria: al reiniciar se descartan
+ * los archivos anteriores.
+ * Cada hilo del pool espera su permiso del bulkhead de reportes sin límite de tiempo: comparte la partición
+ * de conexiones con los reportes síncronos, pero no falla porque estos ocupen los permisos un momento.
+ */
+@Slf4j
+@Service
+public class ReporteJobServiceImpl implements IReporteJobService, DisposableBean {
+
+    private static final String EXTENSION = ".pdf";
+
+    private final IReporteService reporteService;
+    private final Bulkheads bulkheads;
+    private final ThreadPoolExecutor executor;
+    private final Path directorio;
+    private final Duration ttl;
+
+    private final Map<String, Trabajo> trabajos = new ConcurrentHashMap<>();
+    // Trabajos pendientes o en proceso por solicitud; se accede bajo el monitor de this
+    private final Map<ClaveReporte, Trabajo> enCurso = new HashMap<>();
+
+    public ReporteJobServiceImpl(IReporteService reporteService,
+                                 Bulkheads bulkheads,
+                                 @Value("${app.reportes.jobs.hilos:2}") int hilos,
+                                 @Value("${app.reportes.jobs.capacidad-cola:20}") int capacidadCola,
+                                 @Value("${app.reportes.jobs.directorio:${java.io.tmpdir}/banksimulator-reportes}") Path directorio,
+                                 @Value("${app.reportes.jobs.ttl:PT1H}") Duration ttl) {
+        this.reporteService = reporteService;
+        this.bulkheads = bulkheads;
+        this.directorio = directorio;
+        this.ttl = ttl;
+        prepararDirectorio();
+
+        AtomicInteger numero = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "reportes-" + numero.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private record ClaveReporte(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+    }
+
+    private static final class Trabajo {
+        private final String id = UUID.randomUUID().toString();
+        private final ClaveReporte clave;
+        private final LocalDateTime creado = LocalDateTime.now();
+        private volatile String estado = ReporteJobDTO.PENDIENTE;
+        private volatile LocalDateTime finalizado;
+        private volatile long finalizadoNanos;
+        private volatile Long tamanoBytes;
+        private volatile String error;
+
+        private Trabajo(ClaveReporte clave) {
+            this.clave = clave;
+        }
+
+        private ReporteJobDTO toDTO() {
+            return ReporteJobDTO.builder()
+                    .id(id)
+                    .estado(estado)
+                    .clienteId(clave.clienteId())
+                    .fechaInicio(clave.fechaInicio())
+                    .fechaFin(clave.fechaFin())
+                    .creado(creado)
+                    .finalizado(finalizado)
+                    .tamanoBytes(tamanoBytes)
+                    .error(error)
+                    .build();
+        }
+    }
+
+    @Override
+    public synchronized Optional<ReporteJobDTO> crear(ReporteJobSolicitudDTO solicitud) {
+        if (solicitud.getFechaInicio().isAfter(solicitud.getFechaFin())) {
+            throw new IllegalArgumentException("La fecha de inicio debe ser anterior a la fecha de fin");
+        }
+        ClaveReporte clave = new ClaveReporte(solicitud.getClienteId(), solicitud.getFechaInicio(), solicitud.getFechaFin());
+
+        Trabajo existente = enCurso.get(clave);
+        if (existente != null) {
+            log.debug("Solicitud de reporte agrupada en el trabajo {}", existente.id);
+            return Optional.of(existente.toDTO());
+        }
+
+        // Se registra antes de encolar: el trabajo puede terminar antes de que execute retorne
+        Trabajo trabajo = new Trabajo(clave);
+        trabajos.put(trabajo.id, trabajo);
+        enCurso.put(clave, trabajo);
+        try {
+            executor.execute(() -> generar(trabajo));
+        } catch (RejectedExecutionException e) {
+            trabajos.remove(trabajo.id);
+            enCurso.remove(clave);
+            log.warn("Cola de reportes llena: solicitud rechazada para cliente ID: {}", clave.clienteId());
+            return Optional.empty();
+        }
+        return Optional.of(trabajo.toDTO());
+    }
+
+    @Override
+    public Optional<ReporteJobDTO> findById(String id) {
+        return Optional.ofNullable(trabajos.get(id)).map(Trabajo::toDTO);
+    }
+
+    @Override
+    public Optional<Path> getArchivo(String id) {
+        Trabajo trabajo = trabajos.get(id);
+        if (trabajo == null || !ReporteJobDTO.COMPLETADO.equals(trabajo.estado)) {
+            return Optional.empty();
+        }
+        Path archivo = archivoDe(trabajo);
+        return Files.exists(archivo) ? Optional.of(archivo) : Optional.empty();
+    }
+
+    @Override
+    public int limpiarExpirados() {
+        long limite = System.nanoTime() - ttl.toNanos();
+        int eliminados = 0;
+        Iterator<Trabajo> iterador = trabajos.values().iterator();
+        while (iterador.hasNext()) {
+            Trabajo trabajo = iterador.next();
+            if (trabajo.finalizado != null && trabajo.finalizadoNanos - limite <= 0) {
+                iterador.remove();
+                eliminarArchivo(archivoDe(trabajo));
+                eliminados++;
+            }
+        }
+        if (eliminados > 0) {
+            log.debug("{} trabajos de reporte expirados eliminados", eliminados);
+        }
+        return eliminados;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void generar(Trabajo trabajo) {
+        trabajo.estado = ReporteJobDTO.EN_PROCESO;
+        Path archivo = archivoDe(trabajo);
+        Path temporal = archivo.resolveSibling(trabajo.id + ".tmp");
+        try {
+            // Con el permiso del hilo, la llamada @EnBulkhead al servicio no pide otro con espera acotada
+            bulkheads.ejecutar(bulkheads.esperar(Carga.REPORTES), () -> {
+                try (OutputStream salida = Files.newOutputStream(temporal)) {
+                    reporteService.generarReporteMovimientos(trabajo.clave.clienteId(),
+                            trabajo.clave.fechaInicio(), trabajo.clave.fechaFin(), salida);
+                }
+                return null;
+            });
+            // El archivo final solo aparece completo
+            Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE);
+            trabajo.tamanoBytes = Files.size(archivo);
+            finalizar(trabajo, ReporteJobDTO.COMPLETADO);
+            log.info("Reporte {} generado ({} bytes)", trabajo.id, trabajo.tamanoBytes);
+        } catch (IOException | RuntimeException e) {
+            log.error("Error al generar el reporte {}: {}", trabajo.id, e.getMessage(), e);
+            eliminarArchivo(temporal);
+            trabajo.error = e.getMessage();
+            finalizar(trabajo, ReporteJobDTO.FALLIDO);
+        }
+    }
+
+    private synchronized void finalizar(Trabajo trabajo, String estado) {
+        // finalizado se asigna al final: quien lo ve asignado ve también el estado y finalizadoNanos
+        trabajo.finalizadoNanos = System.nanoTime();
+        trabajo.estado = estado;
+        trabajo.finalizado = LocalDateTime.now();
+        enCurso.remove(trabajo.clave, trabajo);
+    }
+
+    private Path archivoDe(Trabajo trabajo) {
+        return directorio.resolve(trabajo.id + EXTENSION);
+    }
+
+    private void prepararDirectorio() {
+        try {
+            Files.createDirectories(directorio);
+            // Los trabajos anteriores a un reinicio ya no tienen estado en memoria
+            try (DirectoryStream<Path> anteriores = Files.newDirectoryStream(directorio, "*.{pdf,tmp}")) {
+                for (Path anterior : anteriores) {
+                    eliminarArchivo(anterior);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo preparar el directorio de reportes " + directorio, e);
+        }
+    }
+
+    private static void eliminarArchivo(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo de reporte {}: {}", archivo, e.getMessage());
+        }
+    }
+}
@@ -1,43 +1,89 @@
 package com.rvera.sofka.banksimulator.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rvera.sofka.banksimulator.cache.ReporteCache;
+import com.rvera.sofka.banksimulator.concurrencia.Carga;
+import com.rvera.sofka.banksimulator.concurrencia.EnBulkhead;
 import com.rvera.sofka.banksimulator.dto.MovimientoReporteDTO;
-import com.rvera.sofka.banksimulator.entity.Movimientos;
+import com.rvera.sofka.banksimulator.reporte.ExportadorMovimientos;
+import com.rvera.sofka.banksimulator.reporte.FormatoExportacion;
+import com.rvera.sofka.banksimulator.reporte.MovimientosReporteDataSource;
+import com.rvera.sofka.banksimulator.reporte.RegistroPlantillasReporte;
 import com.rvera.sofka.banksimulator.repository.MovimientosRepository;
 import com.rvera.sofka.banksimulator.service.IReporteService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.sf.jasperreports.engine.*;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
-import org.springframework.core.io.ClassPathResource;
+import net.sf.jasperreports.engine.export.JRPdfExporter;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRSwapFile;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.InputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementación del servicio de reportes PDF usando JasperReports
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ReporteServiceImpl implements IReporteService {
 
+    private static final String PLANTILLA_MOVIMIENTOS = "movimientos-report";
+    private static final String PLANTILLA_MOVIMIENTOS_STREAMING = "movimientos-report-streaming";
+    private static final int TAMANO_BLOQUE_SWAP = 4096;
+    private static final int CRECIMIENTO_MINIMO_SWAP = 100;
+
     private final MovimientosRepository movimientosRepository;
+    private final RegistroPlantillasReporte registroPlantillas;
+    private final ReporteCache reporteCache;
+    private final int paginasEnMemoria;
+    private final String directorioSwap;
+    private final ExportadorMovimientos exportador;
+
+    public ReporteServiceImpl(MovimientosRepository movimientosRepository,
+                              RegistroPlantillasReporte registroPlantillas,
+                              ReporteCache reporteCache,
+                              ObjectMapper objectMapper,
+                              @Value("${app.reportes.virtualizador.paginas-en-memoria:20}") int paginasEnMemoria,
+                              @Value("${app.reportes.virtualizador.directorio:${java.io.tmpdir}}") String directorioSwap,
+                              @Value("${app.reportes.exportacion.filas-por-flush:500}") int filasPorFlush) {
+        this.movimientosRepository = movimientosRepository;
+        this.registroPlantillas = registroPlantillas;
+        this.reporteCache = reporteCache;
+        this.paginasEnMemoria = paginasEnMemoria;
+        this.directorioSwap = directorioSwap;
+        this.exportador = new ExportadorMovimientos(objectMapper.getFactory(), filasPorFlush);
+    }
 
     @Override
+    @EnBulkhead(Carga.REPORTES)
     @Transactional(readOnly = true)
     public byte[] generarReporteMovimientos(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        ReporteCache.Clave clave = new ReporteCache.Clave(clienteId, fechaInicio, fechaFin);
+        Optional<byte[]> enCache = reporteCache.obtenerPdf(clave);
+        if (enCache.isPresent()) {
+            log.debug("Reporte PDF del cliente ID: {} servido desde cache", clienteId);
+            return enCache.get();
+        }
+        long epoca = reporteCache.inicioLectura();
+        
         log.debug("Generando reporte PDF de movimientos para cliente ID: {} entre {} y {}", 
                 clienteId, fechaInicio, fechaFin);
         
         try {
             // Obtener los movimientos del repositorio
-            List<Movimientos> movimientos = movimientosRepository.findByClienteIdAndFechaBetween(
+            List<MovimientoReporteDTO> movimientos = movimientosRepository.findReporteByClienteIdAndFechaBetween(
                     clienteId, fechaInicio, fechaFin);
             
             if (movimientos.isEmpty()) {
@@ -49,12 +95,8 @@ public class ReporteServiceImpl implements IReporteService {
                     .map(this::mapToReportData)
                     .collect(Collectors.toList());
             
-            // Cargar el archivo .jrxml
-            InputStream reportStream = new ClassPathResource("reports/movimientos-report.jrxml")
-                    .getInputStream();
-            
-            // Compilar el reporte
-            JasperReport jasperReport = JasperCompileManager.compileReport(reportStream);
+            // Plantilla compilada al iniciar la aplicación
+            JasperReport jasperReport = registroPlantillas.obtener(PLANTILLA_MOVIMIENTOS);
             
             // Crear el data source
             JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(reportData);
@@ -74,6 +116,7 @@ public class ReporteServiceImpl implements IReporteService {
             byte[] pdfBytes = JasperExportManager.exportReportToPdf(jasperPrint);
             
             log.info("Reporte PDF generado exitosamente con {} movimientos", reportData.size());
+            reporteCache.guardarPdf(clave, epoca, pdfBytes);
             return pdfBytes;
             
         } catch (Exception e) {
@@ -82,25 +125,79 @@ public class ReporteServiceImpl implements IReporteService {
         }
     }
     
+    @Override
+    @EnBulkhead(Carga.REPORTES)
+    @Transactional(readOnly = true)
+    public void generarReporteMovimientos(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                          OutputStream salida) {
+        log.debug("Generando reporte PDF en streaming para cliente ID: {} entre {} y {}",
+                clienteId, fechaInicio, fechaFin);
+        
+        // Solo paginasEnMemoria páginas llenas quedan en heap; el resto va al archivo de intercambio
+        JRSwapFileVirtualizer virtualizador = new JRSwapFileVirtualizer(paginasEnMemoria,
+                new JRSwapFile(directorioSwap, TAMANO_BLOQUE_SWAP, CRECIMIENTO_MINIMO_SWAP), true);
+        
+        try (Stream<MovimientoReporteDTO> filas = movimientosRepository.streamReporteByClienteIdAndFechaBetween(
+                clienteId, fechaInicio, fechaFin)) {
+            
+            MovimientosReporteDataSource dataSource = new MovimientosReporteDataSource(filas.iterator());
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put(JRParameter.REPORT_VIRTUALIZER, virtualizador);
+            
+            JasperPrint jasperPrint = JasperFillManager.fillReport(
+                    registroPlantillas.obtener(PLANTILLA_MOVIMIENTOS_STREAMING), parameters, dataSource);
+            virtualizador.setReadOnly(true);
+            
+            // El exportador recupera las páginas del archivo de intercambio a medida que las escribe
+            JRPdfExporter exporter = new JRPdfExporter();
+            exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
+            exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(salida));
+            exporter.exportReport();
+            
+            log.info("Reporte PDF en streaming generado con {} movimientos y {} páginas",
+                    dataSource.getProcesadas(), jasperPrint.getPages().size());
+            
+        } catch (JRException e) {
+            log.error("Error al generar reporte PDF en streaming: {}", e.getMessage(), e);
+            throw new RuntimeException("Error al generar el reporte PDF: " + e.getMessage(), e);
+        } finally {
+            virtualizador.cleanup();
+        }
+    }
+    
+    @Override
+    @EnBulkhead(Carga.REPORTES)
+    @Transactional(readOnly = true)
+    public long exportarMovimientos(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                    FormatoExportacion formato, OutputStream salida) {
+        log.debug("Exportando movimientos en {} para cliente ID: {} entre {} y {}",
+                formato, clienteId, fechaInicio, fechaFin);
+        
+        try (Stream<MovimientoReporteDTO> filas = movimientosRepository.streamReporteByClienteIdAndFechaBetween(
+                clienteId, fechaInicio, fechaFin)) {
+            long exportadas = exportador.exportar(filas.iterator(), formato, salida);
+            log.info("Exportación {} generada con {} movimientos", formato, exportadas);
+            return exportadas;
+        } catch (IOException e) {
+            // Normalmente el cliente cerró la conexión: se cierra el cursor y se libera la conexión
+            throw new UncheckedIOException("Error al escribir la exportación de movimientos", e);
+        }
+    }
+    
     /**
-     * Mapea una entidad Movimiento a un Map para el reporte JasperReports
+     * Mapea una fila proyectada del reporte a un Map para el reporte JasperReports
      */
-    private Map<String, Object> mapToReportData(Movimientos movimiento) {
+    private Map<String, Object> mapToReportData(MovimientoReporteDTO movimiento) {
         Map<String, Object> data = new HashMap<>();
         
-        // Convertir LocalDateTime a Date para JasperReports
-        Date fechaDate = Date.from(movimiento.getFecha()
-                .atZone(ZoneId.systemDefault())
-                .toInstant());
-        
-        data.put("movimientoDate", fechaDate);
-        data.put("cliente", movimiento.getCuenta().getCliente().getPersona().getNombre());
-        data.put("numeroCuenta", Long.parseLong(movimiento.getCuenta().getNumeroCuenta()));
-        data.put("tipo", movimiento.getCuenta().getTipoCuenta());
-        data.put("saldoInicial", movimiento.getCuenta().getSaldoInicial().floatValue());
+        data.put("movimientoDate", movimiento.getFecha());
+        data.put("cliente", movimiento.getCliente());
+        data.put("numeroCuenta", movimiento.getNumeroCuenta());
+        data.put("tipo", movimiento.getTipo());
+        data.put("saldoInicial", movimiento.getSaldoInicial());
         data.put("estado", movimiento.getEstado());
-        data.put("movimiento", movimiento.getValor().floatValue());
-        data.put("saldoDisponible", movimiento.getSaldo().floatValue());
+        data.put("movimiento", movimiento.getMovimiento());
+        data.put("saldoDisponible", movimiento.getSaldoDisponible());
         
         return data;
     }
@@ -0,0 +1,228 @@
+package com.rvera.sofka.banksimulator.service.impl;
+
+import com.rvera.sofka.banksimulator.dto.MovimientoResumenDTO;
+import com.rvera.sofka.banksimulator.dto.ResumenPeriodoDTO;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.entity.Movimientos;
+import com.rvera.sofka.banksimulator.entity.ResumenDiarioCuenta;
+import com.rvera.sofka.banksimulator.entity.ResumenDiarioCuentaId;
+import com.rvera.sofka.banksimulator.repository.CuentaRepository;
+import com.rvera.sofka.banksimulator.repository.MovimientosRepository;
+import com.rvera.sofka.banksimulator.repository.ResumenDiarioCuentaRepository;
+import com.rvera.sofka.banksimulator.service.IResumenDiarioService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Implementación del servicio de resúmenes diarios por cuenta
+ * Cada escritura de movimientos actualiza solo las filas de sus días, y los resúmenes de un mes o
+ * un año se calculan desde esas filas: el costo depende de los días con movimientos, no de los movimientos.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResumenDiarioServiceImpl implements IResumenDiarioService {
+
+    private static final int CUENTAS_POR_PAGINA = 500;
+
+    private final ResumenDiarioCuentaRepository resumenRepository;
+    private final MovimientosRepository movimientosRepository;
+    private final CuentaRepository cuentaRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final AtomicBoolean enEjecucion = new AtomicBoolean();
+
+    @Override
+    public void registrarMovimientos(Long cuentaId, List<Movimientos> movimientos) {
+        Map<LocalDate, ResumenDiarioCuenta> porDia = new LinkedHashMap<>();
+        for (Movimientos movimiento : movimientos) {
+            LocalDate dia = movimiento.getFecha().toLocalDate();
+            ResumenDiarioCuenta resumen = porDia.computeIfAbsent(dia, d ->
+                    resumenRepository.findById(new ResumenDiarioCuentaId(cuentaId, d))
+                            .orElseGet(() -> nuevo(cuentaId, d, movimiento.getSaldo().subtract(movimiento.getValor()))));
+            acumular(resumen, movimiento.getValor(), movimiento.getComision(), movimiento.getSaldo());
+        }
+    }
+
+    @Override
+    public void revertirMovimiento(Movimientos eliminado) {
+        LocalDate dia = eliminado.getFecha().toLocalDate();
+        BigDecimal valor = eliminado.getValor();
+
+        for (ResumenDiarioCuenta resumen : resumenRepository.findByCuentaIdAndFechaGreaterThanEqualOrderByFecha(
+                eliminado.getCuenta().getId(), dia)) {
+            // El saldo de todos los movimientos posteriores baja en el valor eliminado
+            resumen.setSaldoCierre(resumen.getSaldoCierre().subtract(valor));
+            if (resumen.getFecha().isAfter(dia)) {
+                resumen.setSaldoApertura(resumen.getSaldoApertura().subtract(valor));
+                continue;
+            }
+            if (valor.signum() >= 0) {
+                resumen.setTotalCreditos(resumen.getTotalCreditos().subtract(valor));
+            } else {
+                resumen.setTotalDebitos(resumen.getTotalDebitos().add(valor));
+            }
+            resumen.setTotalComisiones(resumen.getTotalComisiones().subtract(eliminado.getComision()));
+            resumen.setCantidadMovimientos(resumen.getCantidadMovimientos() - 1);
+            if (resumen.getCantidadMovimientos() == 0) {
+                resumenRepository.delete(resumen);
+            }
+        }
+    }
+
+    @Override
+    public int reconstruirCuenta(Long cuentaId) {
+        resumenRepository.eliminarPorCuenta(cuentaId);
+
+        int dias = 0;
+        ResumenDiarioCuenta actual = null;
+        try (Stream<MovimientoResumenDTO> movimientos = movimientosRepository.streamResumenCuenta(cuentaId)) {
+            Iterator<MovimientoResumenDTO> iterador = movimientos.iterator();
+            while (iterador.hasNext()) {
+                MovimientoResumenDTO movimiento = iterador.next();
+                LocalDate dia = movimiento.getFecha().toLocalDate();
+                if (actual == null || !actual.getFecha().equals(dia)) {
+                    actual = nuevo(cuentaId, dia, movimiento.getSaldo().subtract(movimiento.getValor()));
+                    dias++;
+                }
+                acumular(actual, movimiento.getValor(), movimiento.getComision(), movimiento.getSaldo());
+            }
+        }
+        return dias;
+    }
+
+    @Override
+    public Optional<Integer> reconstruirTodas() {
+        if (!enEjecucion.compareAndSet(false, true)) {
+            log.warn("Reconstrucción de resúmenes diarios omitida: ya hay una en curso");
+            return Optional.empty();
+        }
+        try {
+            long inicio = System.nanoTime();
+            int cuentas = 0;
+            Long despues = 0L;
+            List<Long> ids;
+            while (!(ids = cuentaRepository.findIdsDespuesDe(despues, Limit.of(CUENTAS_POR_PAGINA))).isEmpty()) {
+                for (Long cuentaId : ids) {
+                    // Con la cuenta bloqueada no se registran movimientos mientras se regenera
+                    transactionTemplate.executeWithoutResult(status -> cuentaRepository.findByIdForUpdate(cuentaId)
+                            .ifPresent(cuenta -> reconstruirCuenta(cuentaId)));
+                    cuentas++;
+                }
+                despues = ids.get(ids.size() - 1);
+            }
+            log.info("Resúmenes diarios reconstruidos: {} cuentas en {} ms",
+                    cuentas, (System.nanoTime() - inicio) / 1_000_000);
+            return Optional.of(cuentas);
+        } finally {
+            enEjecucion.set(false);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ResumenPeriodoDTO> resumenMensual(Long cuentaId, int anio, int mes) {
+        YearMonth periodo = periodo(anio, mes);
+        return resumen(cuentaId, periodo.atDay(1), periodo.atEndOfMonth(), false);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ResumenPeriodoDTO> resumenAnual(Long cuentaId, int anio) {
+        return resumen(cuentaId, periodo(anio, 1).atDay(1), periodo(anio, 12).atEndOfMonth(), true);
+    }
+
+    private Optional<ResumenPeriodoDTO> resumen(Long cuentaId, LocalDate desde, LocalDate hasta, boolean detallePorMes) {
+        Optional<Cuenta> cuenta = cuentaRepository.findById(cuentaId);
+        if (cuenta.isEmpty()) {
+            return Optional.empty();
+        }
+        BigDecimal apertura = resumenRepository.findFirstByCuentaIdAndFechaLessThanOrderByFechaDesc(cuentaId, desde)
+                .map(ResumenDiarioCuenta::getSaldoCierre)
+                .orElse(cuenta.get().getSaldoInicial());
+
+        ResumenPeriodoDTO total = vacio(cuentaId, desde, hasta, apertura);
+        Map<LocalDate, ResumenPeriodoDTO> detalle = new LinkedHashMap<>();
+        for (ResumenDiarioCuenta dia : resumenRepository.findByCuentaIdAndFechaBetweenOrderByFecha(cuentaId, desde, hasta)) {
+            LocalDate inicio = detallePorMes ? dia.getFecha().withDayOfMonth(1) : dia.getFecha();
+            LocalDate fin = detallePorMes ? YearMonth.from(inicio).atEndOfMonth() : inicio;
+            sumar(detalle.computeIfAbsent(inicio, d -> vacio(cuentaId, d, fin, dia.getSaldoApertura())), dia);
+            sumar(total, dia);
+        }
+        total.setDetalle(new ArrayList<>(detalle.values()));
+        return Optional.of(total);
+    }
+
+    private YearMonth periodo(int anio, int mes) {
+        try {
+            return YearMonth.of(anio, mes);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Período inválido: " + anio + "-" + mes);
+        }
+    }
+
+    private ResumenDiarioCuenta nuevo(Long cuentaId, LocalDate dia, BigDecimal saldoApertura) {
+        ResumenDiarioCuenta resumen = new ResumenDiarioCuenta();
+        resumen.setCuentaId(cuentaId);
+        resumen.setFecha(dia);
+        resumen.setSaldoApertura(saldoApertura);
+        resumen.setSaldoCierre(saldoApertura);
+        // Clave asignada: persist evita el SELECT previo que haría save (merge)
+        entityManager.persist(resumen);
+        return resumen;
+    }
+
+    private static void acumular(ResumenDiarioCuenta resumen, BigDecimal valor, BigDecimal comision, BigDecimal saldo) {
+        if (valor.signum() >= 0) {
+            resumen.setTotalCreditos(resumen.getTotalCreditos().add(valor));
+        } else {
+            resumen.setTotalDebitos(resumen.getTotalDebitos().subtract(valor));
+        }
+        resumen.setTotalComisiones(resumen.getTotalComisiones().add(comision));
+        resumen.setCantidadMovimientos(resumen.getCantidadMovimientos() + 1);
+        resumen.setSaldoCierre(saldo);
+    }
+
+    private static ResumenPeriodoDTO vacio(Long cuentaId, LocalDate desde, LocalDate hasta, BigDecimal apertura) {
+        return ResumenPeriodoDTO.builder()
+                .cuentaId(cuentaId)
+                .desde(desde)
+                .hasta(hasta)
+                .saldoApertura(apertura)
+                .saldoCierre(apertura)
+                .totalCreditos(BigDecimal.ZERO)
+                .totalDebitos(BigDecimal.ZERO)
+                .totalComisiones(BigDecimal.ZERO)
+                .build();
+    }
+
+    private static void sumar(ResumenPeriodoDTO periodo, ResumenDiarioCuenta dia) {
+        periodo.setTotalCreditos(periodo.getTotalCreditos().add(dia.getTotalCreditos()));
+        periodo.setTotalDebitos(periodo.getTotalDebitos().add(dia.getTotalDebitos()));
+        periodo.setTotalComisiones(periodo.getTotalComisiones().add(dia.getTotalComisiones()));
+        periodo.setCantidadMovimientos(periodo.getCantidadMovimientos() + dia.getCantidadMovimientos());
+        periodo.setSaldoCierre(dia.getSaldoCierre());
+    }
+}
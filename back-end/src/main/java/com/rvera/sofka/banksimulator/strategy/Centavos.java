@@ -0,0 +1,68 @@
+package com.rvera.sofka.banksimulator.strategy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Montos como long en centavos (escala 2) para el cálculo de movimientos
+ * Las operaciones no crean objetos y fallan ante desbordamiento; BigDecimal queda en los bordes (JPA y JSON)
+ */
+public final class Centavos {
+    
+    public static final int ESCALA = 2;
+    
+    private Centavos() {
+    }
+    
+    /**
+     * Convierte un monto a centavos redondeando a 2 decimales, como la columna DECIMAL(15,2)
+     */
+    public static long desde(BigDecimal monto) {
+        try {
+            // scaleByPowerOfTen deja escala 0 y longValueExact lee el valor compacto sin crear un BigInteger
+            return monto.setScale(ESCALA, RoundingMode.HALF_UP).scaleByPowerOfTen(ESCALA).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("El monto excede el rango permitido: " + monto);
+        }
+    }
+    
+    public static BigDecimal aBigDecimal(long centavos) {
+        return BigDecimal.valueOf(centavos, ESCALA);
+    }
+    
+    /**
+     * Devuelve el monto recibido si ya representa esos centavos con escala 2 (por ejemplo, el valor de un
+     * depósito) en lugar de crear otro BigDecimal
+     * @param recibidoCentavos El monto recibido ya convertido con desde
+     */
+    public static BigDecimal aBigDecimal(long centavos, BigDecimal recibido, long recibidoCentavos) {
+        if (centavos == recibidoCentavos && recibido.scale() == ESCALA) {
+            return recibido;
+        }
+        return BigDecimal.valueOf(centavos, ESCALA);
+    }
+    
+    public static long sumar(long a, long b) {
+        try {
+            return Math.addExact(a, b);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("El monto excede el rango permitido");
+        }
+    }
+    
+    public static long negar(long centavos) {
+        try {
+            return Math.negateExact(centavos);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("El monto excede el rango permitido");
+        }
+    }
+    
+    public static long abs(long centavos) {
+        try {
+            return Math.absExact(centavos);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("El monto excede el rango permitido");
+        }
+    }
+}
@@ -13,6 +13,8 @@ import java.math.BigDecimal;
 public class CuentaAhorrosStrategy implements ICuentaStrategy {
     
     private static final BigDecimal SALDO_MINIMO = new BigDecimal("100.00");
+    private static final BigDecimal LIMITE_RETIRO_DIARIO = new BigDecimal("2000.00");
+    private static final long LIMITE_RETIRO_DIARIO_CENTAVOS = Centavos.desde(LIMITE_RETIRO_DIARIO);
     
     @Override
     public void validarCuenta(Cuenta cuenta) {
@@ -29,11 +31,26 @@ public class CuentaAhorrosStrategy implements ICuentaStrategy {
         return monto;
     }
     
+    @Override
+    public long aplicarComisionCentavos(long montoCentavos) {
+        return montoCentavos;
+    }
+    
     @Override
     public BigDecimal obtenerSaldoMinimo() {
         return SALDO_MINIMO;
     }
     
+    @Override
+    public BigDecimal obtenerLimiteRetiroDiario() {
+        return LIMITE_RETIRO_DIARIO;
+    }
+    
+    @Override
+    public long obtenerLimiteRetiroDiarioCentavos() {
+        return LIMITE_RETIRO_DIARIO_CENTAVOS;
+    }
+    
     @Override
     public String getTipoCuenta() {
         return "Ahorros";
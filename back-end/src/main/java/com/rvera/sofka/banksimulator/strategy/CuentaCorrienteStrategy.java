@@ -13,7 +13,10 @@ import java.math.BigDecimal;
 public class CuentaCorrienteStrategy implements ICuentaStrategy {
     
     private static final BigDecimal SALDO_MINIMO = new BigDecimal("500.00");
+    private static final BigDecimal LIMITE_RETIRO_DIARIO = new BigDecimal("5000.00");
+    private static final long LIMITE_RETIRO_DIARIO_CENTAVOS = Centavos.desde(LIMITE_RETIRO_DIARIO);
     private static final BigDecimal COMISION_RETIRO = new BigDecimal("2.00"); // $2 por retiro
+    private static final long COMISION_RETIRO_CENTAVOS = Centavos.desde(COMISION_RETIRO);
     
     @Override
     public void validarCuenta(Cuenta cuenta) {
@@ -30,11 +33,26 @@ public class CuentaCorrienteStrategy implements ICuentaStrategy {
         return monto.add(COMISION_RETIRO);
     }
     
+    @Override
+    public long aplicarComisionCentavos(long montoCentavos) {
+        return Centavos.sumar(montoCentavos, COMISION_RETIRO_CENTAVOS);
+    }
+    
     @Override
     public BigDecimal obtenerSaldoMinimo() {
         return SALDO_MINIMO;
     }
     
+    @Override
+    public BigDecimal obtenerLimiteRetiroDiario() {
+        return LIMITE_RETIRO_DIARIO;
+    }
+    
+    @Override
+    public long obtenerLimiteRetiroDiarioCentavos() {
+        return LIMITE_RETIRO_DIARIO_CENTAVOS;
+    }
+    
     @Override
     public String getTipoCuenta() {
         return "Corriente";
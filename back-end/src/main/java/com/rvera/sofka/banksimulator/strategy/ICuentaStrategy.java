@@ -20,11 +20,31 @@ public interface ICuentaStrategy {
      */
     BigDecimal aplicarComision(BigDecimal monto);
     
+    /**
+     * Variante en centavos de aplicarComision usada al registrar movimientos
+     * Las estrategias la sobrescriben para no crear BigDecimal en cada movimiento
+     */
+    default long aplicarComisionCentavos(long montoCentavos) {
+        return Centavos.desde(aplicarComision(Centavos.aBigDecimal(montoCentavos)));
+    }
+    
     /**
      * Obtiene el saldo mínimo requerido para el tipo de cuenta
      */
     BigDecimal obtenerSaldoMinimo();
     
+    /**
+     * Obtiene el monto máximo que se puede retirar en 24 horas (sin contar comisiones)
+     */
+    BigDecimal obtenerLimiteRetiroDiario();
+    
+    /**
+     * Variante en centavos de obtenerLimiteRetiroDiario, consultada en cada retiro
+     */
+    default long obtenerLimiteRetiroDiarioCentavos() {
+        return Centavos.desde(obtenerLimiteRetiroDiario());
+    }
+    
     /**
      * Retorna el tipo de cuenta que maneja esta estrategia
      */
@@ -0,0 +1,55 @@
+package com.rvera.sofka.banksimulator.strategy;
+
+/**
+ * Reglas de cálculo comunes a todos los caminos de registro de movimientos
+ * (registro individual, carga masiva, transferencias y motor de registro por shards)
+ * Trabaja en centavos: los llamadores convierten desde y hacia BigDecimal con {@link Centavos}
+ */
+public final class MovimientoCalculator {
+    
+    private MovimientoCalculator() {
+    }
+    
+    /**
+     * Aplica Strategy Pattern: calcula la comisión según tipo de cuenta si es retiro
+     * @return Valor con signo a registrar en centavos (los retiros son negativos)
+     */
+    public static long calcularValor(CuentaStrategyFactory strategyFactory, String tipoCuenta,
+                                     String tipoMovimiento, long valor) {
+        if ("Retiro".equals(tipoMovimiento)) {
+            return calcularDebito(strategyFactory, tipoCuenta, valor);
+        }
+        return valor;
+    }
+    
+    /**
+     * Débito con la comisión del tipo de cuenta (retiros y cuenta de origen de una transferencia)
+     * @return Valor negativo a registrar en centavos
+     */
+    public static long calcularDebito(CuentaStrategyFactory strategyFactory, String tipoCuenta, long valor) {
+        ICuentaStrategy strategy = strategyFactory.getStrategy(tipoCuenta);
+        return Centavos.negar(strategy.aplicarComisionCentavos(Centavos.abs(valor)));
+    }
+    
+    /**
+     * Comisión incluida en un débito: diferencia entre el valor registrado y el monto solicitado
+     * @return Comisión en centavos (0 para créditos)
+     */
+    public static long calcularComision(long valorRegistrado, long monto) {
+        if (valorRegistrado >= 0) {
+            return 0;
+        }
+        return Centavos.sumar(Centavos.abs(valorRegistrado), Centavos.negar(Centavos.abs(monto)));
+    }
+    
+    /**
+     * Calcula el nuevo saldo en centavos validando que sea suficiente
+     */
+    public static long calcularNuevoSaldo(long saldoActual, long valor) {
+        long nuevoSaldo = Centavos.sumar(saldoActual, valor);
+        if (nuevoSaldo < 0) {
+            throw new IllegalArgumentException("Saldo insuficiente para realizar el movimiento");
+        }
+        return nuevoSaldo;
+    }
+}
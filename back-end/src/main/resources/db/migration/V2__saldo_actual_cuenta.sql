@@ -0,0 +1,25 @@
+-- ====================================
+-- Saldo vigente mantenido en la cuenta
+-- Evita recorrer el historial de movimientos en cada registro
+-- ====================================
+ALTER TABLE cuenta ADD COLUMN IF NOT EXISTS saldo_actual DECIMAL(15,2);
+ALTER TABLE cuenta ADD COLUMN IF NOT EXISTS ultimo_movimiento_id BIGINT;
+ALTER TABLE cuenta ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Backfill desde el último movimiento activo de cada cuenta
+UPDATE cuenta c
+SET saldo_actual = COALESCE(u.saldo, c.saldo_inicial),
+    ultimo_movimiento_id = u.id
+FROM cuenta c2
+LEFT JOIN LATERAL (
+    SELECT m.id, m.saldo
+    FROM movimientos m
+    WHERE m.cuenta_id = c2.id AND m.estado = true
+    ORDER BY m.fecha DESC, m.id DESC
+    LIMIT 1
+) u ON true
+WHERE c.id = c2.id;
+
+ALTER TABLE cuenta ALTER COLUMN saldo_actual SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_movimientos_cuenta_fecha ON movimientos(cuenta_id, fecha, id);
@@ -0,0 +1,5 @@
+-- ====================================
+-- IDs de movimientos por bloques de 50 (optimizador pooled de Hibernate)
+-- Con IDENTITY Hibernate no puede agrupar los INSERT en lotes JDBC
+-- ====================================
+ALTER SEQUENCE movimientos_id_seq INCREMENT BY 50;
@@ -0,0 +1,7 @@
+-- ====================================
+-- Clave de idempotencia (encabezado Idempotency-Key) de los movimientos
+-- Única: un reintento con la misma clave no puede insertar un segundo movimiento
+-- ====================================
+ALTER TABLE movimientos ADD COLUMN IF NOT EXISTS clave_idempotencia VARCHAR(100);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_movimientos_clave_idempotencia ON movimientos(clave_idempotencia);
@@ -0,0 +1,24 @@
+-- ====================================
+-- Comisión cobrada en cada débito (retiros y origen de transferencias)
+-- Los movimientos anteriores a esta migración quedan con comisión 0
+-- ====================================
+ALTER TABLE movimientos ADD COLUMN IF NOT EXISTS comision DECIMAL(15,2) NOT NULL DEFAULT 0;
+
+-- ====================================
+-- Resumen diario por cuenta: se mantiene al registrar y eliminar movimientos
+-- Las filas existentes se generan con POST /admin/resumenes o el job programado
+-- ====================================
+CREATE TABLE IF NOT EXISTS resumen_diario_cuenta (
+    cuenta_id BIGINT NOT NULL,
+    fecha DATE NOT NULL,
+    saldo_apertura DECIMAL(15,2) NOT NULL,
+    saldo_cierre DECIMAL(15,2) NOT NULL,
+    total_creditos DECIMAL(15,2) NOT NULL,
+    total_debitos DECIMAL(15,2) NOT NULL,
+    total_comisiones DECIMAL(15,2) NOT NULL,
+    cantidad_movimientos INTEGER NOT NULL,
+    CONSTRAINT pk_resumen_diario_cuenta PRIMARY KEY (cuenta_id, fecha),
+    CONSTRAINT fk_resumen_diario_cuenta FOREIGN KEY (cuenta_id)
+        REFERENCES cuenta(id)
+        ON DELETE CASCADE
+);
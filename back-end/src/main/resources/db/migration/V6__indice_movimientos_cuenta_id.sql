@@ -0,0 +1,7 @@
+-- ====================================
+-- Paginación por keyset de los movimientos de una cuenta (cuenta_id = ? AND id > ? ORDER BY id)
+-- El índice (cuenta_id, id) reemplaza al de solo cuenta_id, que es su prefijo
+-- ====================================
+CREATE INDEX IF NOT EXISTS idx_movimientos_cuenta_id ON movimientos(cuenta_id, id);
+
+DROP INDEX IF EXISTS idx_movimientos_cuenta;
@@ -0,0 +1,11 @@
+-- ====================================
+-- Búsqueda de movimientos (/movimientos/buscar)
+-- Los rangos de valor, saldo y fecha usan índices B-tree; los términos de texto (LIKE '%x%' sobre el número de
+-- cuenta y el nombre del cliente) usan índices GIN de trigramas sobre la expresión en minúsculas
+-- ====================================
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_movimientos_valor ON movimientos(valor);
+CREATE INDEX IF NOT EXISTS idx_movimientos_saldo ON movimientos(saldo);
+CREATE INDEX IF NOT EXISTS idx_cuenta_numero_trgm ON cuenta USING gin (lower(numero_cuenta) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_persona_nombre_trgm ON persona USING gin (lower(nombre) gin_trgm_ops);
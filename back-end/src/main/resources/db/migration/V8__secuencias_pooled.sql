@@ -0,0 +1,7 @@
+-- ====================================
+-- IDs de persona, cliente y cuenta por bloques de 50 (optimizador pooled de Hibernate), como movimientos (V3)
+-- Las altas dejan de ejecutar un INSERT inmediato por entidad y se agrupan en lotes JDBC
+-- ====================================
+ALTER SEQUENCE persona_id_seq INCREMENT BY 50;
+ALTER SEQUENCE cliente_cliente_id_seq INCREMENT BY 50;
+ALTER SEQUENCE cuenta_id_seq INCREMENT BY 50;
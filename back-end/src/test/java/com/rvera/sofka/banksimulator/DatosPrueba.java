@@ -0,0 +1,68 @@
+package com.rvera.sofka.banksimulator;
+
+import com.rvera.sofka.banksimulator.entity.Cliente;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.entity.Persona;
+import com.rvera.sofka.banksimulator.repository.ClienteRepository;
+import com.rvera.sofka.banksimulator.repository.CuentaRepository;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clientes y cuentas persistidos para las pruebas de integración (@SpringBootTest)
+ * Cada alta usa un número nuevo: las pruebas comparten la base de datos sin chocar en las columnas únicas
+ */
+@Component
+public class DatosPrueba {
+
+    private static final AtomicLong SECUENCIA = new AtomicLong(System.nanoTime() % 1_000_000);
+
+    private final ClienteRepository clienteRepository;
+    private final CuentaRepository cuentaRepository;
+
+    public DatosPrueba(ClienteRepository clienteRepository, CuentaRepository cuentaRepository) {
+        this.clienteRepository = clienteRepository;
+        this.cuentaRepository = cuentaRepository;
+    }
+
+    public Cliente crearCliente() {
+        long n = SECUENCIA.incrementAndGet();
+
+        Persona persona = new Persona();
+        persona.setNombre("Cliente Prueba " + n);
+        persona.setIdentificacion("31" + n);
+
+        Cliente cliente = new Cliente();
+        cliente.setPersona(persona);
+        cliente.setContrasena("password123");
+        cliente.setEstado(true);
+        return clienteRepository.save(cliente);
+    }
+
+    /**
+     * Cuenta de ahorros de un cliente nuevo
+     */
+    public Cuenta crearCuenta(BigDecimal saldoInicial) {
+        return crearCuenta("Ahorros", saldoInicial);
+    }
+
+    /**
+     * Cuenta de un cliente nuevo
+     */
+    public Cuenta crearCuenta(String tipoCuenta, BigDecimal saldoInicial) {
+        return crearCuenta(crearCliente(), tipoCuenta, saldoInicial);
+    }
+
+    public Cuenta crearCuenta(Cliente cliente, String tipoCuenta, BigDecimal saldoInicial) {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setNumeroCuenta("30" + SECUENCIA.incrementAndGet());
+        cuenta.setTipoCuenta(tipoCuenta);
+        cuenta.setSaldoInicial(saldoInicial);
+        cuenta.setSaldoActual(saldoInicial);
+        cuenta.setEstado(true);
+        cuenta.setCliente(cliente);
+        return cuentaRepository.save(cuenta);
+    }
+}
@@ -0,0 +1,84 @@
+package com.rvera.sofka.banksimulator.benchmark;
+
+import com.rvera.sofka.banksimulator.busqueda.IndiceTrigramas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsquedas typeahead sobre un índice de un millón de clientes (nombre, identificación, dirección, teléfono)
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec -Djmh.filter=IndiceTrigramasBenchmark
+ *
+ * - identificacion: prefijo de la identificación (unos 140 clientes coinciden)
+ * - apellido: apellido frecuente (coincide uno de cada 20 clientes)
+ * - inicioDePalabra: consulta de dos caracteres
+ * - nombreCompleto: dos palabras seguidas (intersección de once trigramas)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class IndiceTrigramasBenchmark {
+
+    private static final String[] NOMBRES = {"Juan", "María", "José", "Ana", "Luis", "Carmen", "Pedro", "Lucía",
+            "Jorge", "Sofía", "Andrés", "Valeria", "Diego", "Camila", "Miguel", "Daniela"};
+    private static final String[] APELLIDOS = {"García", "Rodríguez", "Martínez", "López", "González", "Pérez",
+            "Sánchez", "Ramírez", "Torres", "Flores", "Rivera", "Gómez", "Díaz", "Cruz", "Morales", "Vera",
+            "Reyes", "Ortiz", "Gutiérrez", "Chávez", "Ramos", "Ruiz", "Castillo", "Jiménez", "Mendoza", "Vargas",
+            "Aguilar", "Herrera", "Medina", "Castro", "Romero", "Suárez", "Salazar", "Guerrero", "Vásquez",
+            "Cabrera", "Molina", "Rojas", "Paredes", "Carrillo"};
+    private static final String[] CALLES = {"Av. Amazonas", "Calle Bolívar", "Av. 6 de Diciembre", "Calle Sucre",
+            "Av. República", "Calle Olmedo", "Av. Colón", "Calle Rocafuerte"};
+
+    @Param("1000000")
+    private int clientes;
+
+    private IndiceTrigramas indice;
+
+    @Setup
+    public void setUp() {
+        indice = new IndiceTrigramas();
+        Random random = new Random(42);
+        for (int i = 1; i <= clientes; i++) {
+            String nombre = NOMBRES[random.nextInt(NOMBRES.length)] + " " + APELLIDOS[random.nextInt(APELLIDOS.length)]
+                    + " " + APELLIDOS[random.nextInt(APELLIDOS.length)];
+            indice.indexar(i, nombre, String.valueOf(1_700_000_000L + i * 7L),
+                    CALLES[random.nextInt(CALLES.length)] + " N" + random.nextInt(100) + "-" + random.nextInt(200),
+                    "09" + (10_000_000 + random.nextInt(90_000_000)));
+        }
+    }
+
+    @Benchmark
+    public List<Long> identificacion() {
+        return indice.buscar("1700350", null, 100);
+    }
+
+    @Benchmark
+    public List<Long> apellido() {
+        return indice.buscar("carrillo", null, 100);
+    }
+
+    @Benchmark
+    public List<Long> nombreCompleto() {
+        return indice.buscar("García López", null, 100);
+    }
+
+    @Benchmark
+    public List<Long> inicioDePalabra() {
+        return indice.buscar("ca", null, 100);
+    }
+}
@@ -0,0 +1,223 @@
+package com.rvera.sofka.banksimulator.benchmark;
+
+import com.rvera.sofka.banksimulator.BanksimulatorApplication;
+import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import com.rvera.sofka.banksimulator.entity.Cliente;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.entity.Persona;
+import com.rvera.sofka.banksimulator.repository.ClienteRepository;
+import com.rvera.sofka.banksimulator.repository.CuentaRepository;
+import com.rvera.sofka.banksimulator.service.IMovimientosService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Altas masivas de clientes (con su persona) y de movimientos con IDs IDENTITY frente a secuencias pooled
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec -Djmh.filter=InsercionMasivaBenchmark
+ *
+ * - identity: el mapeo anterior (benchmark/ids-identity-orm.xml) sin lotes JDBC: un INSERT inmediato por fila
+ * - pooled: la configuración actual, secuencias por bloques de 50 e INSERT en lotes ordenados por tabla
+ * Cada operación da de alta CLIENTES clientes en una transacción (clientes) o registra MOVIMIENTOS depósitos con
+ * la carga masiva (movimientos). La columna idasYVueltas cuenta las ejecuciones de sentencias, lotes y commits
+ * que llegan al driver, sumadas en las iteraciones medidas (una operación por iteración): contra PostgreSQL cada
+ * una es un viaje por la red, mientras que H2 en memoria solo muestra una parte de la diferencia de tiempo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class InsercionMasivaBenchmark {
+
+    private static final int CLIENTES = 200;
+    private static final int MOVIMIENTOS = 1000;
+    private static final AtomicLong SECUENCIA = new AtomicLong();
+
+    @Param({"identity", "pooled"})
+    private String ids;
+
+    private ConfigurableApplicationContext contexto;
+    private ContadorIdasYVueltas contador;
+    private ClienteRepository clienteRepository;
+    private IMovimientosService movimientosService;
+    private TransactionTemplate transactionTemplate;
+    private Long cuentaId;
+
+    /**
+     * Idas y vueltas del hilo del benchmark en la iteración (una operación por iteración)
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class IdasYVueltas {
+
+        public long idasYVueltas;
+
+        @Setup(Level.Iteration)
+        public void reiniciar() {
+            idasYVueltas = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        SpringApplicationBuilder aplicacion = new SpringApplicationBuilder(BanksimulatorApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN");
+        if ("identity".equals(ids)) {
+            aplicacion.properties("spring.jpa.mapping-resources=benchmark/ids-identity-orm.xml",
+                    "spring.jpa.properties.hibernate.jdbc.batch_size=1",
+                    "spring.jpa.properties.hibernate.order_inserts=false",
+                    "spring.jpa.properties.hibernate.order_updates=false");
+        }
+        aplicacion.initializers(inicial -> inicial.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ContadorIdasYVueltas)) {
+                    contador = new ContadorIdasYVueltas(dataSource);
+                    return contador;
+                }
+                return bean;
+            }
+        }));
+        contexto = aplicacion.run();
+        clienteRepository = contexto.getBean(ClienteRepository.class);
+        movimientosService = contexto.getBean(IMovimientosService.class);
+        transactionTemplate = contexto.getBean(TransactionTemplate.class);
+
+        Cliente cliente = clienteRepository.save(cliente());
+        Cuenta cuenta = new Cuenta();
+        cuenta.setNumeroCuenta("8" + SECUENCIA.incrementAndGet());
+        cuenta.setTipoCuenta("Ahorros");
+        cuenta.setSaldoInicial(new BigDecimal("1000.00"));
+        cuenta.setSaldoActual(new BigDecimal("1000.00"));
+        cuenta.setEstado(true);
+        cuenta.setCliente(cliente);
+        cuentaId = contexto.getBean(CuentaRepository.class).save(cuenta).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int clientes(IdasYVueltas medicion) {
+        List<Cliente> clientes = new ArrayList<>(CLIENTES);
+        for (int i = 0; i < CLIENTES; i++) {
+            clientes.add(cliente());
+        }
+        long antes = contador.delHilo();
+        transactionTemplate.executeWithoutResult(status -> clienteRepository.saveAll(clientes));
+        medicion.idasYVueltas += contador.delHilo() - antes;
+        return clientes.size();
+    }
+
+    @Benchmark
+    public int movimientos(IdasYVueltas medicion) {
+        List<MovimientoDTO> lote = new ArrayList<>(MOVIMIENTOS);
+        for (int i = 0; i < MOVIMIENTOS; i++) {
+            lote.add(MovimientoDTO.builder()
+                    .tipoMovimiento("Deposito")
+                    .valor(new BigDecimal("1.00"))
+                    .cuentaId(cuentaId)
+                    .build());
+        }
+        long antes = contador.delHilo();
+        int aceptados = movimientosService.saveBatch(lote).getAceptados();
+        medicion.idasYVueltas += contador.delHilo() - antes;
+        return aceptados;
+    }
+
+    private static Cliente cliente() {
+        long n = SECUENCIA.incrementAndGet();
+        Persona persona = new Persona();
+        persona.setNombre("Alta masiva " + n);
+        persona.setIdentificacion(String.valueOf(1_800_000_000L + n));
+        Cliente cliente = new Cliente();
+        cliente.setPersona(persona);
+        cliente.setContrasena("password123");
+        cliente.setEstado(true);
+        return cliente;
+    }
+
+    /**
+     * Cuenta por hilo las llamadas que llegan a la base de datos: execute*, executeBatch, commit y rollback
+     */
+    static final class ContadorIdasYVueltas extends DelegatingDataSource {
+
+        private final ThreadLocal<long[]> porHilo = ThreadLocal.withInitial(() -> new long[1]);
+
+        ContadorIdasYVueltas(DataSource destino) {
+            super(destino);
+        }
+
+        long delHilo() {
+            return porHilo.get()[0];
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return contar(obtainTargetDataSource().getConnection(), Connection.class);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return contar(obtainTargetDataSource().getConnection(username, password), Connection.class);
+        }
+
+        private <T> T contar(Object destino, Class<T> tipo) {
+            return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo},
+                    (proxy, metodo, argumentos) -> {
+                        String nombre = metodo.getName();
+                        if (nombre.startsWith("execute") || nombre.equals("commit") || nombre.equals("rollback")) {
+                            porHilo.get()[0]++;
+                        }
+                        Object resultado = invocar(metodo, destino, argumentos);
+                        if (nombre.equals("createStatement") || nombre.startsWith("prepare")) {
+                            return contar(resultado, metodo.getReturnType());
+                        }
+                        return resultado;
+                    }));
+        }
+
+        private static Object invocar(Method metodo, Object destino, Object[] argumentos) throws Throwable {
+            try {
+                return metodo.invoke(destino, argumentos);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.rvera.sofka.banksimulator.benchmark;
+
+import com.rvera.sofka.banksimulator.BanksimulatorApplication;
+import com.rvera.sofka.banksimulator.dto.ClienteDTO;
+import com.rvera.sofka.banksimulator.dto.CuentaDTO;
+import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import com.rvera.sofka.banksimulator.service.IClienteService;
+import com.rvera.sofka.banksimulator.service.ICuentaService;
+import com.rvera.sofka.banksimulator.service.IMovimientosService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga mixta por HTTP contra la aplicación con hilos de plataforma o con hilos virtuales
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec -Djmh.filter=ModoEjecucionBenchmark
+ * El modo "virtual" requiere Java 21 (-p modo=plataforma para medir solo el modo actual)
+ *
+ * Cada modo levanta la aplicación (H2 en memoria, perfil "virtual" en el modo virtual) con pocos hilos de
+ * Tomcat para que la saturación aparezca con pocos clientes, y la llena con clientes, cuentas y movimientos.
+ * En el grupo "mixto" corren a la vez:
+ * - cuentaPorId: GET /cuentas/{id}, la consulta rápida que no debería esperar a las lentas
+ * - busquedaMovimientos: GET /movimientos/buscar con un cliente que casi no tiene movimientos (recorre la tabla)
+ * - exportacion: GET /movimientos/reportes/export en CSV de un cliente con muchos movimientos
+ * SampleTime reporta p50/p99 por método y Throughput las operaciones por segundo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ModoEjecucionBenchmark {
+
+    private static final int CUENTAS = 200;
+    private static final int CUENTAS_PESADAS = 10;
+    private static final int MOVIMIENTOS_POR_CUENTA_PESADA = 3000;
+    private static final int LOTE = 1000;
+
+    @Param({"plataforma", "virtual"})
+    private String modo;
+
+    @Param("16")
+    private int hilosTomcat;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient http;
+    private String base;
+    private final List<Long> cuentas = new ArrayList<>();
+    private final List<Long> clientesPesados = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        boolean virtual = "virtual".equals(modo);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("El modo virtual requiere Java 21; JVM actual: " + Runtime.version());
+        }
+        SpringApplicationBuilder aplicacion = new SpringApplicationBuilder(BanksimulatorApplication.class)
+                .properties("server.port=0",
+                        "server.tomcat.threads.max=" + hilosTomcat,
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        // Se compara el modo de ejecución: sin descartar solicitudes con 429
+                        "app.limite-adaptativo.habilitado=false",
+                        "logging.level.root=WARN");
+        if (virtual) {
+            aplicacion.profiles("virtual");
+        }
+        contexto = aplicacion.run();
+        base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port")
+                + contexto.getEnvironment().getProperty("server.servlet.context-path");
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        poblar();
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    @Group("mixto")
+    @GroupThreads(32)
+    public int cuentaPorId() throws IOException, InterruptedException {
+        return get("/cuentas/" + cuentas.get(ThreadLocalRandom.current().nextInt(cuentas.size())));
+    }
+
+    @Benchmark
+    @Group("mixto")
+    @GroupThreads(8)
+    public int busquedaMovimientos() throws IOException, InterruptedException {
+        int cliente = CUENTAS_PESADAS + ThreadLocalRandom.current().nextInt(CUENTAS - CUENTAS_PESADAS);
+        return get("/movimientos/buscar?limit=100&filtro=cliente:%22carga%20" + cliente + "%22");
+    }
+
+    @Benchmark
+    @Group("mixto")
+    @GroupThreads(4)
+    public int exportacion() throws IOException, InterruptedException {
+        Long clienteId = clientesPesados.get(ThreadLocalRandom.current().nextInt(clientesPesados.size()));
+        return get("/movimientos/reportes/export?format=csv&clienteId=" + clienteId
+                + "&fechaInicio=2000-01-01T00:00:00&fechaFin=2100-01-01T00:00:00");
+    }
+
+    private int get(String ruta) throws IOException, InterruptedException {
+        HttpResponse<Void> respuesta = http.send(HttpRequest.newBuilder(URI.create(base + ruta)).build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (respuesta.statusCode() != 200) {
+            throw new IllegalStateException(ruta + " respondió " + respuesta.statusCode());
+        }
+        return respuesta.statusCode();
+    }
+
+    private void poblar() {
+        IClienteService clienteService = contexto.getBean(IClienteService.class);
+        ICuentaService cuentaService = contexto.getBean(ICuentaService.class);
+        IMovimientosService movimientosService = contexto.getBean(IMovimientosService.class);
+        for (int i = 0; i < CUENTAS; i++) {
+            ClienteDTO cliente = clienteService.save(ClienteDTO.builder()
+                    .nombre("Carga " + i)
+                    .identificacion(String.valueOf(1_700_000_000L + i))
+                    .contrasena("password123")
+                    .estado(true)
+                    .build());
+            CuentaDTO cuenta = cuentaService.save(CuentaDTO.builder()
+                    .numeroCuenta(String.valueOf(900_000 + i))
+                    .tipoCuenta("Ahorros")
+                    .saldoInicial(new BigDecimal("1000.00"))
+                    .estado(true)
+                    .clienteId(cliente.getClienteId())
+                    .build());
+            cuentas.add(cuenta.getId());
+            int movimientos = i < CUENTAS_PESADAS ? MOVIMIENTOS_POR_CUENTA_PESADA : 1;
+            if (i < CUENTAS_PESADAS) {
+                clientesPesados.add(cliente.getClienteId());
+            }
+            List<MovimientoDTO> lote = new ArrayList<>(LOTE);
+            for (int m = 0; m < movimientos; m++) {
+                lote.add(MovimientoDTO.builder()
+                        .tipoMovimiento("Deposito")
+                        .valor(new BigDecimal("1.00"))
+                        .cuentaId(cuenta.getId())
+                        .build());
+                if (lote.size() == LOTE || m == movimientos - 1) {
+                    movimientosService.saveBatch(lote);
+                    lote = new ArrayList<>(LOTE);
+                }
+            }
+        }
+    }
+}
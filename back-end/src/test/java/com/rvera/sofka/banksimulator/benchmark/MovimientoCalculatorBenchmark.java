@@ -0,0 +1,98 @@
+package com.rvera.sofka.banksimulator.benchmark;
+
+import com.rvera.sofka.banksimulator.strategy.Centavos;
+import com.rvera.sofka.banksimulator.strategy.CuentaAhorrosStrategy;
+import com.rvera.sofka.banksimulator.strategy.CuentaCorrienteStrategy;
+import com.rvera.sofka.banksimulator.strategy.CuentaStrategyFactory;
+import com.rvera.sofka.banksimulator.strategy.ICuentaStrategy;
+import com.rvera.sofka.banksimulator.strategy.MovimientoCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo de un movimiento (comisión, signo, nuevo saldo y validación) con BigDecimal frente a centavos
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec
+ * El perfil agrega -prof gc: gc.alloc.rate.norm indica los bytes asignados por operación
+ *
+ * - bigDecimal: el cálculo anterior (abs, aplicarComision, negate, add, compareTo)
+ * - centavosConBordes: el registro actual, con una conversión desde BigDecimal por monto leído y una hacia
+ *   BigDecimal por monto escrito (un depósito reutiliza el valor recibido)
+ * - centavos: solo el núcleo en long
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovimientoCalculatorBenchmark {
+    
+    private static final String[] TIPOS = {"Deposito", "Retiro"};
+    
+    private CuentaStrategyFactory strategyFactory;
+    private BigDecimal[] valores;
+    private long[] valoresCentavos;
+    private BigDecimal saldo;
+    private long saldoCentavos;
+    private int indice;
+    
+    @Setup
+    public void setUp() {
+        strategyFactory = new CuentaStrategyFactory(List.of(new CuentaAhorrosStrategy(), new CuentaCorrienteStrategy()));
+        valores = new BigDecimal[1024];
+        valoresCentavos = new long[valores.length];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = new BigDecimal((i % 500) + 1 + ".25");
+            valoresCentavos[i] = Centavos.desde(valores[i]);
+        }
+        // Cada par depósito/retiro descuenta la comisión: saldo suficiente para toda la medición
+        saldo = new BigDecimal("1000000000000.00");
+        saldoCentavos = Centavos.desde(saldo);
+    }
+    
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        int i = indice++ & (valores.length - 1);
+        BigDecimal valor = valores[i];
+        if ("Retiro".equals(TIPOS[i & 1])) {
+            ICuentaStrategy strategy = strategyFactory.getStrategy("Corriente");
+            valor = strategy.aplicarComision(valor.abs()).negate();
+        }
+        BigDecimal nuevoSaldo = saldo.add(valor);
+        if (nuevoSaldo.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Saldo insuficiente para realizar el movimiento");
+        }
+        saldo = nuevoSaldo;
+        return valor;
+    }
+    
+    @Benchmark
+    public BigDecimal centavosConBordes() {
+        int i = indice++ & (valores.length - 1);
+        long monto = Centavos.desde(valores[i]);
+        long valor = MovimientoCalculator.calcularValor(strategyFactory, "Corriente", TIPOS[i & 1], monto);
+        long nuevoSaldo = MovimientoCalculator.calcularNuevoSaldo(Centavos.desde(saldo), valor);
+        saldo = Centavos.aBigDecimal(nuevoSaldo);
+        return Centavos.aBigDecimal(valor, valores[i], monto);
+    }
+    
+    @Benchmark
+    public long centavos() {
+        int i = indice++ & (valoresCentavos.length - 1);
+        long valor = MovimientoCalculator.calcularValor(strategyFactory, "Corriente", TIPOS[i & 1], valoresCentavos[i]);
+        saldoCentavos = MovimientoCalculator.calcularNuevoSaldo(saldoCentavos, valor);
+        return valor;
+    }
+}
@@ -0,0 +1,48 @@
+package com.rvera.sofka.banksimulator.busqueda;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsultaMovimientosTest {
+
+    @Test
+    void testParsear_ShouldReadTermsAndRanges() {
+        // Act
+        ConsultaMovimientos consulta = ConsultaMovimientos.parsear(
+                "Juan \"Pérez Díaz\" valor:[100 TO 500.50] saldo:[* to 0] fecha:[2024-01-01 TO *]");
+
+        // Assert
+        assertEquals(List.of("juan", "pérez díaz"), consulta.getTerminos());
+        assertEquals(new ConsultaMovimientos.Rango<>(new BigDecimal("100"), new BigDecimal("500.50")), consulta.getValor());
+        assertEquals(new ConsultaMovimientos.Rango<>(null, BigDecimal.ZERO), consulta.getSaldo());
+        assertEquals(new ConsultaMovimientos.Rango<>(LocalDate.of(2024, 1, 1), null), consulta.getFecha());
+    }
+
+    @Test
+    void testParsear_ValorUnico_ShouldBecomeClosedRange() {
+        // Act
+        ConsultaMovimientos consulta = ConsultaMovimientos.parsear("valor:-575 fecha:2024-03-05");
+
+        // Assert
+        assertEquals(new ConsultaMovimientos.Rango<>(new BigDecimal("-575"), new BigDecimal("-575")), consulta.getValor());
+        assertEquals(new ConsultaMovimientos.Rango<>(LocalDate.of(2024, 3, 5), LocalDate.of(2024, 3, 5)), consulta.getFecha());
+        assertTrue(consulta.getTerminos().isEmpty());
+    }
+
+    @Test
+    void testParsear_ConsultaInvalida_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> ConsultaMovimientos.parsear("   "));
+        assertThrows(IllegalArgumentException.class, () -> ConsultaMovimientos.parsear("moneda:usd"));
+        assertThrows(IllegalArgumentException.class, () -> ConsultaMovimientos.parsear("valor:[abc TO 5]"));
+        assertThrows(IllegalArgumentException.class, () -> ConsultaMovimientos.parsear("valor:[500 TO 100]"));
+        assertThrows(IllegalArgumentException.class, () -> ConsultaMovimientos.parsear("valor:[100]"));
+        assertThrows(IllegalArgumentException.class, () -> ConsultaMovimientos.parsear("fecha:05/01/2024"));
+        assertThrows(IllegalArgumentException.class, () -> ConsultaMovimientos.parsear("tipo:[a TO b]"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.rvera.sofka.banksimulator.busqueda;
+
+import com.rvera.sofka.banksimulator.dto.ClienteDTO;
+import com.rvera.sofka.banksimulator.dto.CuentaDTO;
+import com.rvera.sofka.banksimulator.service.IClienteService;
+import com.rvera.sofka.banksimulator.service.ICuentaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de integración del índice de búsqueda: las escrituras confirmadas se reflejan en /buscar
+ */
+@SpringBootTest
+class IndiceBusquedaTest {
+
+    private static final AtomicLong SECUENCIA = new AtomicLong(System.nanoTime() % 1_000_000);
+
+    @Autowired
+    private IClienteService clienteService;
+
+    @Autowired
+    private ICuentaService cuentaService;
+
+    @Autowired
+    private IndiceBusqueda indice;
+
+    @Test
+    void testSave_ShouldIndexClienteAndItsCuentas() throws Exception {
+        // Arrange
+        long n = SECUENCIA.incrementAndGet();
+        ClienteDTO cliente = crearCliente("Zoila Índice " + n, n);
+        CuentaDTO cuenta = crearCuenta(cliente, n);
+
+        // Act
+        cliente.setNombre("Zenón Índice " + n);
+        clienteService.save(cliente);
+        indice.esperarActualizaciones();
+
+        // Assert: búsqueda sin tildes, por el nombre nuevo y desde la cuenta del cliente
+        assertEquals(List.of(cliente.getClienteId()), idsClientes("zenon indice " + n));
+        assertTrue(clienteService.searchByFilter("zoila indice " + n, null, 10).getContenido().isEmpty());
+        assertEquals(List.of(cuenta.getId()), cuentaService.searchByFilter("zenon indice " + n, null, 10)
+                .getContenido().stream().map(CuentaDTO::getId).toList());
+    }
+
+    @Test
+    void testDeleteById_ShouldRemoveFromSearch() throws Exception {
+        // Arrange
+        long n = SECUENCIA.incrementAndGet();
+        ClienteDTO cliente = crearCliente("Eliminado Índice " + n, n);
+        CuentaDTO cuenta = crearCuenta(cliente, n);
+
+        // Act
+        clienteService.deleteById(cliente.getClienteId());
+        cuentaService.deleteById(cuenta.getId());
+        indice.esperarActualizaciones();
+
+        // Assert
+        assertTrue(idsClientes("21" + n).isEmpty());
+        assertTrue(cuentaService.searchByFilter("20" + n, null, 10).getContenido().isEmpty());
+    }
+
+    private List<Long> idsClientes(String filtro) {
+        return clienteService.searchByFilter(filtro, null, 10).getContenido().stream()
+                .map(ClienteDTO::getClienteId)
+                .toList();
+    }
+
+    private ClienteDTO crearCliente(String nombre, long n) {
+        return clienteService.save(ClienteDTO.builder()
+                .nombre(nombre)
+                .identificacion("21" + n)
+                .contrasena("password123")
+                .estado(true)
+                .build());
+    }
+
+    private CuentaDTO crearCuenta(ClienteDTO cliente, long n) {
+        return cuentaService.save(CuentaDTO.builder()
+                .numeroCuenta("20" + n)
+                .tipoCuenta("Ahorros")
+                .saldoInicial(new BigDecimal("100.00"))
+                .estado(true)
+                .clienteId(cliente.getClienteId())
+                .build());
+    }
+}
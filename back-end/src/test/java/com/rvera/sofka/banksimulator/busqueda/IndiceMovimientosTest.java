@@ -0,0 +1,109 @@
+package com.rvera.sofka.banksimulator.busqueda;
+
+import com.rvera.sofka.banksimulator.DatosPrueba;
+import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import com.rvera.sofka.banksimulator.dto.PaginaDTO;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.service.IMovimientosService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de integración del índice de movimientos: lo confirmado se refleja en /movimientos/buscar
+ */
+@SpringBootTest
+class IndiceMovimientosTest {
+
+    @Autowired
+    private IMovimientosService movimientosService;
+
+    @Autowired
+    private IndiceMovimientos indice;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Test
+    void testBuscar_RangosYCampos_ShouldMatchLikeSql() throws Exception {
+        // Arrange: el depósito de 240 deja saldo 350; el retiro de 50 se guarda como -50 y deja saldo 300
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("100.00"));
+        registrar(cuenta, "Deposito", "10.00");
+        Long deposito = registrar(cuenta, "Deposito", "240.00");
+        Long retiro = registrar(cuenta, "Retiro", "50.00");
+        String numero = cuenta.getNumeroCuenta();
+        String nombre = cuenta.getCliente().getPersona().getNombre();
+        String hoy = LocalDate.now().toString();
+
+        // Act
+        indice.esperarActualizaciones();
+
+        // Assert
+        assertEquals(List.of(deposito), ids("cuenta:" + numero + " valor:[100 TO 500]"));
+        assertEquals(List.of(deposito), ids("cuenta:" + numero + " valor:[239.995 TO 240.004]"));
+        assertEquals(List.of(retiro), ids(numero + " tipo:retiro valor:[* TO 0]"));
+        assertEquals(List.of(retiro), ids("cliente:\"" + nombre + "\" cuenta:" + numero + " saldo:[300 TO 349.99]"));
+        assertEquals(List.of(retiro), ids("cuenta:" + numero + " \"" + nombre.toUpperCase() + "\" ret"));
+        assertEquals(3, ids("cuenta:" + numero + " fecha:[" + hoy + " TO " + hoy + "]").size());
+        assertTrue(ids("cuenta:" + numero + " fecha:2000-01-01").isEmpty());
+        assertTrue(ids("cuenta:" + numero + " tipo:desconocido").isEmpty());
+        assertTrue(ids(numero + " zzz_sin_coincidencias").isEmpty());
+    }
+
+    @Test
+    void testDeleteById_ShouldReindexCuentaWithRecalculatedSaldos() throws Exception {
+        // Arrange
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("100.00"));
+        Long deposito = registrar(cuenta, "Deposito", "240.00");
+        Long retiro = registrar(cuenta, "Retiro", "50.00");
+        String numero = cuenta.getNumeroCuenta();
+
+        // Act: sin el depósito, el saldo del retiro pasa de 290 a 50
+        movimientosService.deleteById(deposito);
+        indice.esperarActualizaciones();
+
+        // Assert
+        assertEquals(List.of(retiro), ids(numero));
+        assertTrue(ids("cuenta:" + numero + " saldo:[290 TO 290]").isEmpty());
+        assertEquals(List.of(retiro), ids("cuenta:" + numero + " saldo:[50 TO 50]"));
+    }
+
+    @Test
+    void testSearchByFilter_ShouldPageFromIndex() throws Exception {
+        // Arrange
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("100.00"));
+        Long primero = registrar(cuenta, "Deposito", "10.00");
+        Long segundo = registrar(cuenta, "Deposito", "20.00");
+        Long tercero = registrar(cuenta, "Deposito", "30.00");
+        indice.esperarActualizaciones();
+
+        // Act
+        PaginaDTO<MovimientoDTO> inicial = movimientosService.searchByFilter(cuenta.getNumeroCuenta(), null, 2);
+        PaginaDTO<MovimientoDTO> ultima = movimientosService.searchByFilter(cuenta.getNumeroCuenta(), inicial.getSiguiente(), 2);
+
+        // Assert
+        assertEquals(List.of(primero, segundo), inicial.getContenido().stream().map(MovimientoDTO::getId).toList());
+        assertEquals(segundo, inicial.getSiguiente());
+        assertEquals(List.of(tercero), ultima.getContenido().stream().map(MovimientoDTO::getId).toList());
+        assertNull(ultima.getSiguiente());
+    }
+
+    // Desde el índice: falla si la búsqueda tuviera que resolverse por SQL
+    private List<Long> ids(String filtro) {
+        return indice.buscar(ConsultaMovimientos.parsear(filtro), 0L, 10).orElseThrow();
+    }
+
+    private Long registrar(Cuenta cuenta, String tipo, String valor) {
+        return movimientosService.save(MovimientoDTO.builder()
+                .tipoMovimiento(tipo)
+                .valor(new BigDecimal(valor))
+                .cuentaId(cuenta.getId())
+                .build()).getId();
+    }
+}
@@ -0,0 +1,131 @@
+package com.rvera.sofka.banksimulator.busqueda;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceTrigramasTest {
+
+    @Test
+    void testBuscar_ShouldRankExactThenPrefixThenWordThenSubstring() {
+        // Arrange
+        IndiceTrigramas indice = new IndiceTrigramas();
+        indice.indexar(1L, "Mariana Ruiz", "111");
+        indice.indexar(2L, "Ana", "222");
+        indice.indexar(3L, "Juan Anaya", "333");
+        indice.indexar(4L, "Anabel Soto", "444");
+        indice.indexar(5L, "Pedro Gómez", "555");
+
+        // Act
+        List<Long> resultado = indice.buscar("ana", null, 10);
+
+        // Assert
+        assertEquals(List.of(2L, 4L, 3L, 1L), resultado);
+    }
+
+    @Test
+    void testBuscar_ShouldIgnoreCaseAccentsAndSeparators() {
+        // Arrange
+        IndiceTrigramas indice = new IndiceTrigramas();
+        indice.indexar(1L, "José Pérez", "Av. Amazonas N-24");
+
+        // Act & Assert
+        assertEquals(List.of(1L), indice.buscar("PEREZ", null, 10));
+        assertEquals(List.of(1L), indice.buscar("jose perez", null, 10));
+        assertEquals(List.of(1L), indice.buscar("amazonas n 24", null, 10));
+        assertTrue(indice.buscar("perezz", null, 10).isEmpty());
+    }
+
+    @Test
+    void testBuscar_ConsultaCorta_ShouldMatchOnlyWordStarts() {
+        // Arrange
+        IndiceTrigramas indice = new IndiceTrigramas();
+        indice.indexar(1L, "Ruben Vera");
+        indice.indexar(2L, "Carla Ruano");
+
+        // Act & Assert
+        assertEquals(List.of(1L, 2L), indice.buscar("r", null, 10));
+        assertEquals(List.of(1L, 2L), indice.buscar("ru", null, 10));
+        assertEquals(List.of(1L), indice.buscar("v", null, 10));
+        assertTrue(indice.buscar("er", null, 10).isEmpty());
+    }
+
+    @Test
+    void testBuscar_ConCursor_ShouldWalkAllPagesInRankOrder() {
+        // Arrange
+        IndiceTrigramas indice = new IndiceTrigramas();
+        IntStream.rangeClosed(1, 25).forEach(i -> indice.indexar(i, "Cliente " + i, "09" + i));
+        List<Long> completo = indice.buscar("cliente", null, 100);
+
+        // Act
+        List<Long> paginado = new ArrayList<>();
+        Long after = null;
+        List<Long> pagina;
+        while (!(pagina = indice.buscar("cliente", after, 10)).isEmpty()) {
+            paginado.addAll(pagina);
+            after = pagina.get(pagina.size() - 1);
+        }
+
+        // Assert
+        assertEquals(25, completo.size());
+        assertEquals(completo, paginado);
+    }
+
+    @Test
+    void testIndexarYEliminar_ShouldReplaceAndRemoveDocuments() {
+        // Arrange
+        IndiceTrigramas indice = new IndiceTrigramas();
+        indice.indexar(1L, "Juan Pérez");
+        indice.indexar(2L, "Juana Díaz");
+
+        // Act
+        indice.indexar(1L, "Pedro López");
+        indice.eliminar(2L);
+
+        // Assert
+        assertTrue(indice.buscar("juan", null, 10).isEmpty());
+        assertEquals(List.of(1L), indice.buscar("lopez", null, 10));
+        assertEquals(1, indice.tamanio());
+        assertTrue(indice.buscar("juan", 2L, 10).isEmpty());
+    }
+
+    @Test
+    void testEliminar_MuchosDocumentos_ShouldCompactAndKeepResults() {
+        // Arrange
+        IndiceTrigramas indice = new IndiceTrigramas();
+        IntStream.range(0, 5000).forEach(i -> indice.indexar(i, "Cuenta " + i));
+
+        // Act
+        IntStream.range(0, 5000).filter(i -> i % 5 != 0).forEach(indice::eliminar);
+
+        // Assert
+        assertEquals(1000, indice.tamanio());
+        assertEquals(List.of(4995L), indice.buscar("4995", null, 10));
+        assertTrue(indice.buscar("4996", null, 10).isEmpty());
+    }
+
+    @Test
+    void testCargar_ShouldNotOverwriteChangesMadeDuringLoad() {
+        // Arrange
+        IndiceTrigramas indice = new IndiceTrigramas();
+        indice.iniciarCarga();
+        indice.indexar(1L, "Nombre Nuevo");
+        indice.eliminar(2L);
+
+        // Act: la carga trae datos leídos antes de esos cambios
+        indice.cargar(1L, "Nombre Viejo");
+        indice.cargar(2L, "Eliminado");
+        indice.cargar(3L, "Otro");
+        indice.terminarCarga();
+
+        // Assert
+        assertEquals(List.of(1L), indice.buscar("nuevo", null, 10));
+        assertTrue(indice.buscar("viejo", null, 10).isEmpty());
+        assertTrue(indice.buscar("eliminado", null, 10).isEmpty());
+        assertEquals(2, indice.tamanio());
+    }
+}
@@ -0,0 +1,146 @@
+package com.rvera.sofka.banksimulator.cache;
+
+import com.rvera.sofka.banksimulator.dto.ClienteDTO;
+import com.rvera.sofka.banksimulator.dto.CuentaDTO;
+import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.repository.CuentaRepository;
+import com.rvera.sofka.banksimulator.service.IClienteService;
+import com.rvera.sofka.banksimulator.service.ICuentaService;
+import com.rvera.sofka.banksimulator.service.IMovimientosService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de integración de la cache de segundo nivel: los datos de referencia no vuelven a la base de datos
+ */
+@SpringBootTest
+class CacheSegundoNivelTest {
+
+    private static final AtomicLong SECUENCIA = new AtomicLong(System.nanoTime() % 1_000_000);
+
+    @Autowired
+    private IClienteService clienteService;
+
+    @Autowired
+    private ICuentaService cuentaService;
+
+    @Autowired
+    private IMovimientosService movimientosService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testRegistrarMovimiento_ShouldReadClienteAndPersonaFromCache() {
+        // Arrange
+        long n = SECUENCIA.incrementAndGet();
+        CuentaDTO cuenta = crearCuenta(crearCliente(n), n);
+        registrar(cuenta);
+        estadisticas.clear();
+
+        // Act
+        registrar(cuenta);
+
+        // Assert: la cuenta se lee con bloqueo de fila; su cliente y persona salen de la cache
+        assertEquals(0, estadisticas.getEntityStatistics("com.rvera.sofka.banksimulator.entity.Cliente").getLoadCount());
+        assertEquals(0, estadisticas.getEntityStatistics("com.rvera.sofka.banksimulator.entity.Persona").getLoadCount());
+        assertTrue(estadisticas.getDomainDataRegionStatistics("cliente").getHitCount() > 0);
+        assertTrue(estadisticas.getDomainDataRegionStatistics("persona").getHitCount() > 0);
+    }
+
+    @Test
+    void testBusquedasPorClave_ShouldUseQueryCacheUntilTableChanges() {
+        // Arrange
+        long n = SECUENCIA.incrementAndGet();
+        ClienteDTO cliente = crearCliente(n);
+        CuentaDTO cuenta = crearCuenta(cliente, n);
+        cuentaService.findByNumeroCuenta(cuenta.getNumeroCuenta());
+        clienteService.findByIdentificacion(cliente.getIdentificacion());
+        estadisticas.clear();
+
+        // Act
+        CuentaDTO cacheada = cuentaService.findByNumeroCuenta(cuenta.getNumeroCuenta()).orElseThrow();
+        ClienteDTO clienteCacheado = clienteService.findByIdentificacion(cliente.getIdentificacion()).orElseThrow();
+        long sentenciasCacheadas = estadisticas.getPrepareStatementCount();
+        cuenta.setTipoCuenta("Corriente");
+        cuenta.setSaldoInicial(new BigDecimal("500.00"));
+        cuentaService.save(cuenta);
+        CuentaDTO actualizada = cuentaService.findByNumeroCuenta(cuenta.getNumeroCuenta()).orElseThrow();
+
+        // Assert
+        assertEquals(0, sentenciasCacheadas);
+        assertEquals(cuenta.getId(), cacheada.getId());
+        assertEquals(cliente.getClienteId(), clienteCacheado.getClienteId());
+        assertEquals("Corriente", actualizada.getTipoCuenta());
+        assertEquals(2, estadisticas.getQueryCacheHitCount());
+    }
+
+    @Test
+    void testEvictAll_ShouldReadCuentaFromDatabaseAgain() {
+        // Arrange
+        long n = SECUENCIA.incrementAndGet();
+        CuentaDTO cuenta = crearCuenta(crearCliente(n), n);
+        cuentaRepository.findById(cuenta.getId());
+        estadisticas.clear();
+        cuentaRepository.findById(cuenta.getId());
+        long aciertos = estadisticas.getDomainDataRegionStatistics("cuenta").getHitCount();
+
+        // Act
+        entityManagerFactory.getCache().evictAll();
+        estadisticas.clear();
+        cuentaRepository.findById(cuenta.getId());
+
+        // Assert
+        assertEquals(1, aciertos);
+        assertEquals(1, estadisticas.getEntityStatistics(Cuenta.class.getName()).getLoadCount());
+        assertEquals(1, estadisticas.getDomainDataRegionStatistics("cuenta").getMissCount());
+    }
+
+    private void registrar(CuentaDTO cuenta) {
+        movimientosService.save(MovimientoDTO.builder()
+                .tipoMovimiento("Deposito")
+                .valor(new BigDecimal("10.00"))
+                .cuentaId(cuenta.getId())
+                .build());
+    }
+
+    private ClienteDTO crearCliente(long n) {
+        return clienteService.save(ClienteDTO.builder()
+                .nombre("Cliente Cache " + n)
+                .identificacion("23" + n)
+                .contrasena("password123")
+                .estado(true)
+                .build());
+    }
+
+    private CuentaDTO crearCuenta(ClienteDTO cliente, long n) {
+        return cuentaService.save(CuentaDTO.builder()
+                .numeroCuenta("22" + n)
+                .tipoCuenta("Ahorros")
+                .saldoInicial(new BigDecimal("100.00"))
+                .estado(true)
+                .clienteId(cliente.getClienteId())
+                .build());
+    }
+}
@@ -0,0 +1,86 @@
+package com.rvera.sofka.banksimulator.cache;
+
+import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotenciaCacheTest {
+
+    @Test
+    void testReservar_ClaveNueva_ShouldReturnNull() {
+        // Arrange
+        IdempotenciaCache cache = new IdempotenciaCache(Duration.ofHours(1), 10);
+
+        // Act
+        CompletableFuture<MovimientoDTO> existente = cache.reservar("clave-1", new CompletableFuture<>());
+
+        // Assert
+        assertNull(existente);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testReservar_ClaveRepetida_ShouldReturnOriginalFuture() {
+        // Arrange
+        IdempotenciaCache cache = new IdempotenciaCache(Duration.ofHours(1), 10);
+        CompletableFuture<MovimientoDTO> original = new CompletableFuture<>();
+        cache.reservar("clave-1", original);
+
+        // Act
+        CompletableFuture<MovimientoDTO> existente = cache.reservar("clave-1", new CompletableFuture<>());
+
+        // Assert
+        assertSame(original, existente);
+    }
+
+    @Test
+    void testReservar_ClaveExpirada_ShouldReserveAgain() throws InterruptedException {
+        // Arrange
+        IdempotenciaCache cache = new IdempotenciaCache(Duration.ofMillis(1), 10);
+        cache.reservar("clave-1", new CompletableFuture<>());
+        Thread.sleep(5);
+
+        // Act
+        CompletableFuture<MovimientoDTO> existente = cache.reservar("clave-1", new CompletableFuture<>());
+
+        // Assert
+        assertNull(existente);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testReservar_SuperaMaximo_ShouldEvictOldest() {
+        // Arrange
+        IdempotenciaCache cache = new IdempotenciaCache(Duration.ofHours(1), 2);
+        cache.reservar("clave-1", new CompletableFuture<>());
+        cache.reservar("clave-2", new CompletableFuture<>());
+
+        // Act
+        cache.reservar("clave-3", new CompletableFuture<>());
+
+        // Assert
+        assertEquals(2, cache.size());
+        assertNull(cache.reservar("clave-1", new CompletableFuture<>()));
+    }
+
+    @Test
+    void testLiberar_MismoRegistro_ShouldRemoveKey() {
+        // Arrange
+        IdempotenciaCache cache = new IdempotenciaCache(Duration.ofHours(1), 10);
+        CompletableFuture<MovimientoDTO> original = new CompletableFuture<>();
+        cache.reservar("clave-1", original);
+
+        // Act
+        cache.liberar("clave-1", new CompletableFuture<>());
+        int trasOtroRegistro = cache.size();
+        cache.liberar("clave-1", original);
+
+        // Assert
+        assertEquals(1, trasOtroRegistro);
+        assertEquals(0, cache.size());
+    }
+}
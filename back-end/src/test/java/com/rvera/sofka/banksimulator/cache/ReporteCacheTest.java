@@ -0,0 +1,155 @@
+package com.rvera.sofka.banksimulator.cache;
+
+import com.rvera.sofka.banksimulator.dto.MovimientoReporteDTO;
+import com.rvera.sofka.banksimulator.dto.ReporteCacheEstadisticasDTO;
+import com.rvera.sofka.banksimulator.event.MovimientosModificadosEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReporteCacheTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime FIN = LocalDateTime.of(2024, 12, 31, 23, 59);
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void testObtenerJson_ShouldCountMissThenHit() {
+        // Arrange
+        ReporteCache cache = nuevaCache(Duration.ofHours(1), 10, 1024);
+        ReporteCache.Clave clave = clave(1L);
+
+        // Act
+        boolean falloInicial = cache.obtenerJson(clave).isEmpty();
+        cache.guardarJson(clave, cache.inicioLectura(), List.of(movimiento()));
+        List<MovimientoReporteDTO> enCache = cache.obtenerJson(clave).orElseThrow();
+
+        // Assert
+        assertTrue(falloInicial);
+        assertEquals(1, enCache.size());
+        ReporteCacheEstadisticasDTO estadisticas = cache.estadisticas();
+        assertEquals(1, estadisticas.getJsonAciertos());
+        assertEquals(1, estadisticas.getJsonFallos());
+    }
+
+    @Test
+    void testGuardarJson_ExcedeMaximo_ShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        ReporteCache cache = nuevaCache(Duration.ofHours(1), 2, 1024);
+        cache.guardarJson(clave(1L), cache.inicioLectura(), List.of());
+        cache.guardarJson(clave(2L), cache.inicioLectura(), List.of());
+        cache.obtenerJson(clave(1L));
+
+        // Act
+        cache.guardarJson(clave(3L), cache.inicioLectura(), List.of());
+
+        // Assert: la clave 2 era la menos usada
+        assertTrue(cache.obtenerJson(clave(1L)).isPresent());
+        assertTrue(cache.obtenerJson(clave(2L)).isEmpty());
+        assertTrue(cache.obtenerJson(clave(3L)).isPresent());
+        assertEquals(1, cache.estadisticas().getExpulsiones());
+    }
+
+    @Test
+    void testObtenerJson_TtlVencido_ShouldMiss() throws InterruptedException {
+        // Arrange
+        ReporteCache cache = nuevaCache(Duration.ofMillis(1), 10, 1024);
+        cache.guardarJson(clave(1L), cache.inicioLectura(), List.of());
+        Thread.sleep(5);
+
+        // Act & Assert
+        assertTrue(cache.obtenerJson(clave(1L)).isEmpty());
+        assertEquals(0, cache.estadisticas().getJsonEntradas());
+    }
+
+    @Test
+    void testOnMovimientosModificados_ShouldInvalidateOnlyAffectedClients() {
+        // Arrange
+        ReporteCache cache = nuevaCache(Duration.ofHours(1), 10, 1024);
+        cache.guardarJson(clave(1L), cache.inicioLectura(), List.of());
+        cache.guardarJson(clave(2L), cache.inicioLectura(), List.of());
+        cache.guardarPdf(clave(1L), cache.inicioLectura(), new byte[10]);
+
+        // Act
+        cache.onMovimientosModificados(new MovimientosModificadosEvent(Set.of(100L), Set.of(1L), Set.of()));
+
+        // Assert
+        assertTrue(cache.obtenerJson(clave(1L)).isEmpty());
+        assertTrue(cache.obtenerPdf(clave(1L)).isEmpty());
+        assertTrue(cache.obtenerJson(clave(2L)).isPresent());
+        assertEquals(2, cache.estadisticas().getInvalidaciones());
+        assertEquals(0, cache.estadisticas().getPdfBytes());
+    }
+
+    @Test
+    void testGuardarJson_InvalidadoDuranteLaConsulta_ShouldNotStoreStaleResult() {
+        // Arrange: la consulta empieza antes de que se confirme un movimiento del cliente
+        ReporteCache cache = nuevaCache(Duration.ofHours(1), 10, 1024);
+        long epoca = cache.inicioLectura();
+        cache.invalidarClientes(Set.of(1L));
+
+        // Act
+        cache.guardarJson(clave(1L), epoca, List.of(movimiento()));
+        cache.guardarJson(clave(2L), epoca, List.of(movimiento()));
+
+        // Assert: solo se descarta el resultado del cliente invalidado
+        assertTrue(cache.obtenerJson(clave(1L)).isEmpty());
+        assertTrue(cache.obtenerJson(clave(2L)).isPresent());
+    }
+
+    @Test
+    void testGuardarPdf_ExcedeMaximoBytes_ShouldEvictAndDeleteFile() throws IOException {
+        // Arrange
+        ReporteCache cache = nuevaCache(Duration.ofHours(1), 10, 25);
+        cache.guardarPdf(clave(1L), cache.inicioLectura(), new byte[10]);
+        cache.guardarPdf(clave(2L), cache.inicioLectura(), new byte[10]);
+
+        // Act
+        cache.guardarPdf(clave(3L), cache.inicioLectura(), new byte[10]);
+        cache.guardarPdf(clave(4L), cache.inicioLectura(), new byte[30]);
+
+        // Assert: el PDF más grande que el máximo no se guarda
+        assertTrue(cache.obtenerPdf(clave(1L)).isEmpty());
+        assertArrayEquals(new byte[10], cache.obtenerPdf(clave(3L)).orElseThrow());
+        assertTrue(cache.obtenerPdf(clave(4L)).isEmpty());
+        assertEquals(20, cache.estadisticas().getPdfBytes());
+        try (var archivos = Files.list(directorio)) {
+            assertEquals(2, archivos.count());
+        }
+    }
+
+    @Test
+    void testConstructor_ShouldDiscardFilesFromPreviousRun() throws IOException {
+        // Arrange
+        Path anterior = Files.writeString(directorio.resolve("anterior.pdf"), "%PDF");
+
+        // Act
+        nuevaCache(Duration.ofHours(1), 10, 1024);
+
+        // Assert
+        assertFalse(Files.exists(anterior));
+    }
+
+    private ReporteCache nuevaCache(Duration ttl, int maximoEntradas, long maximoBytesPdf) {
+        return new ReporteCache(true, ttl, maximoEntradas, maximoBytesPdf, directorio);
+    }
+
+    private ReporteCache.Clave clave(Long clienteId) {
+        return new ReporteCache.Clave(clienteId, INICIO, FIN);
+    }
+
+    private MovimientoReporteDTO movimiento() {
+        return MovimientoReporteDTO.builder().cliente("Juan").build();
+    }
+}
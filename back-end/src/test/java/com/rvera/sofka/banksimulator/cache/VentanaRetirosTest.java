@@ -0,0 +1,196 @@
+package com.rvera.sofka.banksimulator.cache;
+
+import com.rvera.sofka.banksimulator.dto.RetiroVentanaDTO;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.entity.Movimientos;
+import com.rvera.sofka.banksimulator.repository.MovimientosRepository;
+import com.rvera.sofka.banksimulator.strategy.CuentaAhorrosStrategy;
+import com.rvera.sofka.banksimulator.strategy.CuentaCorrienteStrategy;
+import com.rvera.sofka.banksimulator.strategy.CuentaStrategyFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class VentanaRetirosTest {
+
+    private static final long HORA = Duration.ofHours(1).toMillis();
+    private static final long AHORA = 1_000_000 * HORA;
+
+    private MovimientosRepository movimientosRepository;
+    private VentanaRetiros ventana;
+
+    @BeforeEach
+    void setUp() {
+        movimientosRepository = mock(MovimientosRepository.class);
+        when(movimientosRepository.findRetirosByCuentaIdDesde(anyLong(), any())).thenReturn(List.of());
+        ventana = new VentanaRetiros(movimientosRepository,
+                new CuentaStrategyFactory(List.of(new CuentaAhorrosStrategy(), new CuentaCorrienteStrategy())),
+                Duration.ofHours(24), 24, 100);
+    }
+
+    @Test
+    void testReservar_SobreElLimite_ShouldThrowWithAvailableAmount() {
+        // Arrange
+        ventana.reservar(1L, 150_000, 200_000, AHORA);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ventana.reservar(1L, 60_000, 200_000, AHORA + HORA));
+        assertTrue(exception.getMessage().contains("2000.00"));
+        assertTrue(exception.getMessage().contains("500.00"));
+        assertDoesNotThrow(() -> ventana.reservar(1L, 50_000, 200_000, AHORA + HORA));
+        assertDoesNotThrow(() -> ventana.reservar(2L, 200_000, 200_000, AHORA));
+    }
+
+    @Test
+    void testReservar_PasadasVeinticuatroHoras_ShouldSlideWindow() {
+        // Arrange
+        ventana.reservar(1L, 150_000, 200_000, AHORA);
+        ventana.reservar(1L, 50_000, 200_000, AHORA + 12 * HORA);
+
+        // Act & Assert: a las 23 horas ambos retiros siguen dentro; a las 24 sale el primero
+        assertThrows(IllegalArgumentException.class, () -> ventana.reservar(1L, 1, 200_000, AHORA + 23 * HORA));
+        assertDoesNotThrow(() -> ventana.reservar(1L, 150_000, 200_000, AHORA + 24 * HORA));
+        assertThrows(IllegalArgumentException.class, () -> ventana.reservar(1L, 1, 200_000, AHORA + 24 * HORA));
+    }
+
+    @Test
+    void testLiberar_ShouldReturnAmountToWindow() {
+        // Arrange
+        VentanaRetiros.Reserva reserva = ventana.reservar(1L, 200_000, 200_000, AHORA);
+
+        // Act
+        ventana.liberar(reserva);
+
+        // Assert
+        assertDoesNotThrow(() -> ventana.reservar(1L, 200_000, 200_000, AHORA));
+    }
+
+    @Test
+    void testLiberar_CuentaReleidaDespuesDeLaReserva_ShouldIgnoreRelease() {
+        // Arrange: la cuenta 1 se descarta mientras su reserva sigue abierta y se vuelve a leer con un retiro
+        // confirmado de 1000
+        VentanaRetiros acotada = new VentanaRetiros(movimientosRepository,
+                new CuentaStrategyFactory(List.of(new CuentaAhorrosStrategy())), Duration.ofHours(24), 24, 1);
+        VentanaRetiros.Reserva reserva = acotada.reservar(1L, 50_000, 200_000, AHORA);
+        acotada.reservar(2L, 100, 200_000, AHORA);
+        LocalDateTime fecha = LocalDateTime.ofInstant(Instant.ofEpochMilli(AHORA), ZoneId.systemDefault());
+        when(movimientosRepository.findRetirosByCuentaIdDesde(eq(1L), any())).thenReturn(List.of(
+                new RetiroVentanaDTO(1L, fecha, new BigDecimal("-1000.00"), BigDecimal.ZERO)));
+        acotada.reservar(1L, 0, 200_000, AHORA);
+
+        // Act
+        acotada.liberar(reserva);
+
+        // Assert: la lectura nueva no incluye la reserva, así que no se le resta
+        assertThrows(IllegalArgumentException.class, () -> acotada.reservar(1L, 100_001, 200_000, AHORA));
+        assertDoesNotThrow(() -> acotada.reservar(1L, 100_000, 200_000, AHORA));
+    }
+
+    @Test
+    void testReservar_DepositoNegativo_ShouldCountAsWithdrawal() {
+        // Arrange
+        Cuenta cuenta = new Cuenta();
+        cuenta.setId(9L);
+        cuenta.setTipoCuenta("Ahorros");
+
+        // Act: un depósito con valor negativo se registra como débito sin comisión
+        ventana.reservar(cuenta, -50_000, -50_000);
+
+        // Assert
+        assertEquals(50_000, ventana.retirado(9L));
+    }
+
+    @Test
+    void testDescontar_RetiroEliminado_ShouldReturnAmountToItsBucket() {
+        // Arrange: retiros de 1500 hace 12 horas y de 500 ahora
+        ventana.reservar(1L, 150_000, 200_000, AHORA - 12 * HORA);
+        ventana.reservar(1L, 50_000, 200_000, AHORA);
+        LocalDateTime fecha = LocalDateTime.ofInstant(Instant.ofEpochMilli(AHORA - 12 * HORA), ZoneId.systemDefault());
+
+        // Act
+        ventana.descontar(1L, fecha, 150_000, AHORA);
+
+        // Assert: vuelve el monto del bucket de hace 12 horas; el de ahora sigue contando
+        assertDoesNotThrow(() -> ventana.reservar(1L, 150_000, 200_000, AHORA));
+        assertThrows(IllegalArgumentException.class, () -> ventana.reservar(1L, 1, 200_000, AHORA));
+    }
+
+    @Test
+    void testReservar_DebitoDeTransferencia_ShouldShareLimitWithWithdrawals() {
+        // Arrange
+        Cuenta cuenta = new Cuenta();
+        cuenta.setId(8L);
+        cuenta.setTipoCuenta("Ahorros");
+        ventana.reservar(cuenta, -150_000, 150_000);
+
+        // Act
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ventana.reservar(cuenta, -60_000, 60_000));
+        ventana.descontar(transferencia(cuenta, "1500.00"));
+        ventana.descontar(transferencia(cuenta, "-1500.00"));
+
+        // Assert: solo el débito de origen se descuenta
+        assertTrue(exception.getMessage().contains("500.00"));
+        assertEquals(0, ventana.retirado(8L));
+    }
+
+    @Test
+    void testReservar_CuentaNoCargada_ShouldReadItsWithdrawalsOnce() {
+        // Arrange: un retiro de 1000 en cuenta corriente registrado como -1002 con 2 de comisión
+        when(movimientosRepository.findRetirosByCuentaIdDesde(eq(7L), any())).thenReturn(List.of(
+                new RetiroVentanaDTO(7L, LocalDateTime.now().minusHours(1), new BigDecimal("-1002.00"), new BigDecimal("2.00"))));
+        Cuenta cuenta = new Cuenta();
+        cuenta.setId(7L);
+        cuenta.setTipoCuenta("Corriente");
+
+        // Act
+        ventana.reservar(cuenta, -300_200, 300_000);
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ventana.reservar(cuenta, -100_201, 100_001));
+
+        // Assert
+        assertTrue(exception.getMessage().contains("1000.00"));
+        assertEquals(400_000, ventana.retirado(7L));
+        assertNull(ventana.reservar(cuenta, 900_000, 900_000));
+        verify(movimientosRepository, times(1)).findRetirosByCuentaIdDesde(eq(7L), any());
+    }
+
+    @Test
+    void testReservar_MasCuentasQueElMaximo_ShouldKeepMemoryBounded() {
+        // Arrange
+        VentanaRetiros acotada = new VentanaRetiros(movimientosRepository,
+                new CuentaStrategyFactory(List.of(new CuentaAhorrosStrategy())), Duration.ofHours(24), 24, 2);
+
+        // Act
+        for (long cuentaId = 1; cuentaId <= 5; cuentaId++) {
+            acotada.reservar(cuentaId, 100, 200_000, AHORA);
+        }
+
+        // Assert: la cuenta descartada se vuelve a leer de la base de datos
+        assertEquals(2, acotada.size());
+        acotada.reservar(1L, 100, 200_000, AHORA);
+        verify(movimientosRepository, times(2)).findRetirosByCuentaIdDesde(eq(1L), any());
+    }
+
+    private static Movimientos transferencia(Cuenta cuenta, String valor) {
+        Movimientos movimiento = new Movimientos();
+        movimiento.setTipoMovimiento("Transferencia");
+        movimiento.setCuenta(cuenta);
+        movimiento.setValor(new BigDecimal(valor));
+        movimiento.setComision(BigDecimal.ZERO);
+        movimiento.setFecha(LocalDateTime.now());
+        return movimiento;
+    }
+}
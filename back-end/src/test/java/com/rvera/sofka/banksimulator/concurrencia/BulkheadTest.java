@@ -0,0 +1,105 @@
+package com.rvera.sofka.banksimulator.concurrencia;
+
+import com.rvera.sofka.banksimulator.dto.BulkheadEstadisticasDTO;
+import com.rvera.sofka.banksimulator.exception.BulkheadSaturadoException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    @Test
+    void testAdquirir_ColaLlena_ShouldRejectWithoutWaiting() {
+        // Arrange
+        Bulkhead bulkhead = new Bulkhead("reportes", 1, 0, Duration.ofSeconds(30));
+        Bulkhead.Permiso permiso = bulkhead.adquirir();
+        long inicio = System.nanoTime();
+
+        // Act
+        BulkheadSaturadoException exception = assertThrows(BulkheadSaturadoException.class, bulkhead::adquirir);
+
+        // Assert
+        assertTrue(System.nanoTime() - inicio < TimeUnit.SECONDS.toNanos(5));
+        assertEquals("reportes", exception.getBulkhead());
+        assertEquals(30, exception.getReintentarEnSegundos());
+        assertEquals(1, bulkhead.estadisticas().getRechazadas());
+        permiso.close();
+    }
+
+    @Test
+    void testAdquirir_EsperaAgotada_ShouldReject() {
+        // Arrange
+        Bulkhead bulkhead = new Bulkhead("busqueda", 1, 1, Duration.ofMillis(50));
+        Bulkhead.Permiso permiso = bulkhead.adquirir();
+
+        // Act & Assert
+        assertThrows(BulkheadSaturadoException.class, bulkhead::adquirir);
+        BulkheadEstadisticasDTO estadisticas = bulkhead.estadisticas();
+        assertEquals(1, estadisticas.getAceptadas());
+        assertEquals(1, estadisticas.getRechazadas());
+        assertEquals(0, estadisticas.getEnEspera());
+        assertEquals(1.0, estadisticas.getUtilizacion());
+        permiso.close();
+    }
+
+    @Test
+    void testAdquirir_PermisoLiberado_ShouldAdmitWaiting() throws Exception {
+        // Arrange
+        Bulkhead bulkhead = new Bulkhead("registro", 1, 1, Duration.ofSeconds(10));
+        Bulkhead.Permiso permiso = bulkhead.adquirir();
+        CompletableFuture<Bulkhead.Permiso> enEspera = CompletableFuture.supplyAsync(bulkhead::adquirir);
+        while (bulkhead.estadisticas().getEnEspera() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Act
+        permiso.close();
+
+        // Assert
+        Bulkhead.Permiso siguiente = enEspera.get(5, TimeUnit.SECONDS);
+        assertEquals(2, bulkhead.estadisticas().getAceptadas());
+        assertEquals(1, bulkhead.estadisticas().getEnEjecucion());
+        siguiente.close();
+    }
+
+    @Test
+    void testEsperar_SinPermisos_ShouldWaitBeyondTimeoutWithoutQueue() throws Exception {
+        // Arrange: sin cola de espera y con una espera más corta que la ocupación del permiso
+        Bulkhead bulkhead = new Bulkhead("reportes", 1, 0, Duration.ofMillis(20));
+        Bulkhead.Permiso permiso = bulkhead.adquirir();
+        CompletableFuture<Bulkhead.Permiso> trabajo = CompletableFuture.supplyAsync(bulkhead::esperar);
+        Thread.sleep(100);
+
+        // Act
+        boolean terminadoAntes = trabajo.isDone();
+        permiso.close();
+
+        // Assert
+        Bulkhead.Permiso siguiente = trabajo.get(5, TimeUnit.SECONDS);
+        assertFalse(terminadoAntes);
+        assertEquals(0, bulkhead.estadisticas().getRechazadas());
+        assertEquals(1, bulkhead.estadisticas().getEnEjecucion());
+        siguiente.close();
+    }
+
+    @Test
+    void testClose_Repetido_ShouldReleaseOnlyOnce() {
+        // Arrange
+        Bulkhead bulkhead = new Bulkhead("lecturas", 2, 0, Duration.ofMillis(50));
+        Bulkhead.Permiso primero = bulkhead.adquirir();
+        bulkhead.adquirir();
+
+        // Act
+        primero.close();
+        primero.close();
+
+        // Assert
+        assertEquals(1, bulkhead.estadisticas().getEnEjecucion());
+        bulkhead.adquirir();
+        assertThrows(BulkheadSaturadoException.class, bulkhead::adquirir);
+    }
+}
@@ -0,0 +1,129 @@
+package com.rvera.sofka.banksimulator.concurrencia;
+
+import com.rvera.sofka.banksimulator.dto.BulkheadEstadisticasDTO;
+import com.rvera.sofka.banksimulator.exception.BulkheadSaturadoException;
+import com.rvera.sofka.banksimulator.service.IClienteService;
+import com.rvera.sofka.banksimulator.service.ICuentaService;
+import org.aopalliance.aop.Advice;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de integración de los bulkheads sobre los servicios anotados con @EnBulkhead
+ */
+@SpringBootTest
+class BulkheadsTest {
+
+    @Autowired
+    private Bulkheads bulkheads;
+
+    @Autowired
+    private IClienteService clienteService;
+
+    @Autowired
+    private ICuentaService cuentaService;
+
+    @Test
+    void testSearchByFilter_SinPermisos_ShouldRejectAndAdmitAfterRelease() {
+        // Arrange: otra solicitud ocupa todos los permisos de búsqueda
+        List<Bulkhead.Permiso> ocupados = ocupar(Carga.BUSQUEDA);
+        long rechazadas = estadisticas(Carga.BUSQUEDA).getRechazadas();
+
+        // Act & Assert
+        assertThrows(BulkheadSaturadoException.class, () -> cuentaService.searchByFilter("zz", null, 10));
+        assertEquals(rechazadas + 1, estadisticas(Carga.BUSQUEDA).getRechazadas());
+        ocupados.forEach(Bulkhead.Permiso::close);
+        long aceptadas = estadisticas(Carga.BUSQUEDA).getAceptadas();
+        assertNotNull(cuentaService.searchByFilter("zz", null, 10));
+        assertEquals(aceptadas + 1, estadisticas(Carga.BUSQUEDA).getAceptadas());
+    }
+
+    @Test
+    void testEjecutar_LlamadaAnidadaMismaCarga_ShouldReuseThreadPermit() {
+        // Arrange: el hilo toma el último permiso de lectura libre
+        List<Bulkhead.Permiso> ocupados = ocupar(Carga.LECTURAS);
+        ocupados.remove(0).close();
+        long aceptadas = estadisticas(Carga.LECTURAS).getAceptadas();
+
+        try {
+            // Act & Assert: la lectura anidada no pide un segundo permiso de lectura
+            assertNotNull(bulkheads.ejecutar(bulkheads.adquirir(Carga.LECTURAS), () -> clienteService.findAll(null, 1)));
+            assertEquals(aceptadas + 1, estadisticas(Carga.LECTURAS).getAceptadas());
+        } finally {
+            ocupados.forEach(Bulkhead.Permiso::close);
+        }
+    }
+
+    @Test
+    void testEjecutar_LlamadaAnidadaOtraCarga_ShouldTakeItsOwnPermit() {
+        // Arrange
+        long lecturas = estadisticas(Carga.LECTURAS).getAceptadas();
+        long reportes = estadisticas(Carga.REPORTES).getAceptadas();
+
+        // Act
+        bulkheads.ejecutar(Carga.REPORTES, () -> clienteService.findAll(null, 1));
+
+        // Assert: la lectura anidada en un reporte ocupa también un permiso de lectura
+        assertEquals(reportes + 1, estadisticas(Carga.REPORTES).getAceptadas());
+        assertEquals(lecturas + 1, estadisticas(Carga.LECTURAS).getAceptadas());
+    }
+
+    @Test
+    void testEjecutar_LlamadaAnidadaOtraCargaSinPermisos_ShouldReject() {
+        // Arrange: sin permisos de búsqueda libres
+        List<Bulkhead.Permiso> ocupados = ocupar(Carga.BUSQUEDA);
+
+        try {
+            // Act & Assert: el permiso de lectura del hilo no cubre una búsqueda anidada
+            assertThrows(BulkheadSaturadoException.class, () -> bulkheads.ejecutar(Carga.LECTURAS,
+                    () -> cuentaService.searchByFilter("zz", null, 10)));
+        } finally {
+            ocupados.forEach(Bulkhead.Permiso::close);
+        }
+    }
+
+    @Test
+    void testServicio_ShouldApplyBulkheadBeforeTransaction() {
+        // Act
+        List<Advice> consejos = Arrays.stream(((Advised) cuentaService).getAdvisors())
+                .map(Advisor::getAdvice)
+                .toList();
+
+        // Assert: el permiso se toma antes de que la transacción pida una conexión
+        int bulkhead = indiceDe(consejos, BulkheadInterceptor.class);
+        int transaccion = indiceDe(consejos, TransactionInterceptor.class);
+        assertTrue(bulkhead >= 0 && transaccion >= 0);
+        assertTrue(bulkhead < transaccion);
+    }
+
+    private static int indiceDe(List<Advice> consejos, Class<?> tipo) {
+        for (int i = 0; i < consejos.size(); i++) {
+            if (tipo.isInstance(consejos.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private List<Bulkhead.Permiso> ocupar(Carga carga) {
+        List<Bulkhead.Permiso> permisos = new ArrayList<>();
+        for (int i = 0; i < estadisticas(carga).getMaximoConcurrentes(); i++) {
+            permisos.add(bulkheads.adquirir(carga));
+        }
+        return permisos;
+    }
+
+    private BulkheadEstadisticasDTO estadisticas(Carga carga) {
+        return bulkheads.get(carga).estadisticas();
+    }
+}
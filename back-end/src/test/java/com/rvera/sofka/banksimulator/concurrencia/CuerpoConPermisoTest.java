@@ -0,0 +1,72 @@
+package com.rvera.sofka.banksimulator.concurrencia;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CuerpoConPermisoTest {
+
+    private final Bulkheads bulkheads = new Bulkheads(new MockEnvironment());
+
+    @Test
+    void testWriteTo_ShouldWriteWithPermitAndReleaseIt() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        Bulkhead.Permiso permiso = bulkheads.adquirir(Carga.REPORTES);
+        StreamingResponseBody cuerpo = CuerpoConPermiso.registrar(bulkheads, permiso, request,
+                salida -> salida.write("%PDF".getBytes(StandardCharsets.UTF_8)));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        cuerpo.writeTo(salida);
+
+        // Assert
+        assertEquals("%PDF", salida.toString(StandardCharsets.UTF_8));
+        assertEquals(0, enEjecucion());
+    }
+
+    @Test
+    void testAfterCompletion_CuerpoSinEjecutar_ShouldReleasePermitAndSkipBody() throws Exception {
+        // Arrange: la solicitud asíncrona empieza, pero la tarea que escribiría el cuerpo nunca corre
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, new MockHttpServletResponse()));
+        AtomicBoolean escrito = new AtomicBoolean();
+        Bulkhead.Permiso permiso = bulkheads.adquirir(Carga.REPORTES);
+        StreamingResponseBody cuerpo = CuerpoConPermiso.registrar(bulkheads, permiso, request,
+                salida -> escrito.set(true));
+        asyncManager.startCallableProcessing(new WebAsyncTask<>(-1L, new SimpleAsyncTaskExecutor() {
+            @Override
+            public void execute(Runnable task) {
+                // Retenida: simula un cuerpo que no llega a ejecutarse antes del timeout
+            }
+        }, () -> null));
+
+        // Act: el contenedor completa la solicitud (timeout, error o desconexión)
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        cuerpo.writeTo(new ByteArrayOutputStream());
+
+        // Assert
+        assertEquals(0, enEjecucion());
+        assertFalse(escrito.get());
+    }
+
+    private int enEjecucion() {
+        return bulkheads.get(Carga.REPORTES).estadisticas().getEnEjecucion();
+    }
+}
@@ -0,0 +1,89 @@
+package com.rvera.sofka.banksimulator.concurrencia;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DataSourceLimitadoTest {
+
+    @Mock
+    private DataSource destino;
+
+    @Mock
+    private Connection conexion;
+
+    private DataSourceLimitado dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DataSourceLimitado(destino, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    void testGetConnection_SinPermisos_ShouldFailAfterWait() throws SQLException {
+        // Arrange
+        when(destino.getConnection()).thenReturn(conexion);
+        Connection primera = dataSource.getConnection();
+
+        // Act & Assert
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.getEnUso());
+        assertEquals(1, dataSource.getRechazadas());
+        verify(destino, times(1)).getConnection();
+        primera.close();
+    }
+
+    @Test
+    void testClose_Repetido_ShouldReleaseOnlyOnce() throws SQLException {
+        // Arrange
+        when(destino.getConnection()).thenReturn(conexion);
+        DataSourceLimitado dosPermisos = new DataSourceLimitado(destino, 2, Duration.ofMillis(50));
+        Connection primera = dosPermisos.getConnection();
+        dosPermisos.getConnection();
+
+        // Act
+        primera.close();
+        primera.close();
+
+        // Assert
+        assertEquals(1, dosPermisos.getEnUso());
+        verify(conexion, times(2)).close();
+        assertNotNull(dosPermisos.getConnection());
+        assertEquals(2, dosPermisos.getEnUso());
+    }
+
+    @Test
+    void testGetConnection_ErrorDelPool_ShouldReturnPermit() throws SQLException {
+        // Arrange
+        when(destino.getConnection()).thenThrow(new SQLException("sin red"));
+
+        // Act & Assert
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(0, dataSource.getEnUso());
+    }
+
+    @Test
+    void testConexion_ShouldDelegateOtherMethods() throws SQLException {
+        // Arrange
+        when(destino.getConnection()).thenReturn(conexion);
+        when(conexion.getAutoCommit()).thenReturn(false);
+        Connection limitada = dataSource.getConnection();
+
+        // Act & Assert
+        assertFalse(limitada.getAutoCommit());
+        assertEquals(limitada, limitada);
+        assertNotEquals(limitada, conexion);
+    }
+}
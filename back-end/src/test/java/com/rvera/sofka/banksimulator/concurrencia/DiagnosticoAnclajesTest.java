@@ -0,0 +1,38 @@
+package com.rvera.sofka.banksimulator.concurrencia;
+
+import com.rvera.sofka.banksimulator.dto.AnclajeHiloDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiagnosticoAnclajesTest {
+
+    @Test
+    void testRegistrar_ShouldGroupByFirstFrameOutsideJdk() {
+        // Arrange
+        DiagnosticoAnclajes diagnostico = new DiagnosticoAnclajes();
+        List<String> swap = List.of("java.io.RandomAccessFile.writeBytes:-1",
+                "net.sf.jasperreports.engine.util.JRSwapFile.write:120",
+                "net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer.pageOut:80");
+        List<String> fill = List.of("jdk.internal.misc.Unsafe.park:-1",
+                "net.sf.jasperreports.engine.fill.JRBaseFiller.fill:400");
+
+        // Act
+        diagnostico.registrar(swap, Duration.ofMillis(30));
+        diagnostico.registrar(swap, Duration.ofMillis(50));
+        diagnostico.registrar(fill, Duration.ofMillis(200));
+
+        // Assert
+        List<AnclajeHiloDTO> anclajes = diagnostico.anclajes();
+        assertEquals(3, diagnostico.getEventos());
+        assertEquals(2, anclajes.size());
+        assertEquals("net.sf.jasperreports.engine.fill.JRBaseFiller.fill:400", anclajes.get(0).getMarco());
+        assertEquals("net.sf.jasperreports.engine.util.JRSwapFile.write:120", anclajes.get(1).getMarco());
+        assertEquals(2, anclajes.get(1).getEventos());
+        assertEquals(50, anclajes.get(1).getDuracionMaximaMs());
+        assertEquals(80, anclajes.get(1).getDuracionTotalMs());
+    }
+}
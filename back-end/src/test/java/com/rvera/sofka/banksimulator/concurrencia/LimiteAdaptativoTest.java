@@ -0,0 +1,99 @@
+package com.rvera.sofka.banksimulator.concurrencia;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteAdaptativoTest {
+
+    private static final long RAPIDA = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long LENTA = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void testAdquirir_LimiteAlcanzado_ShouldReject() {
+        // Arrange
+        LimiteAdaptativo limite = new LimiteAdaptativo("cuentas", 2, 1, 10, 1.5, 0.2);
+        limite.adquirir();
+        limite.adquirir();
+
+        // Act & Assert
+        assertFalse(limite.adquirir());
+        assertEquals(2, limite.estadisticas().getAceptadas());
+        assertEquals(1, limite.estadisticas().getRechazadas());
+        assertEquals(2, limite.estadisticas().getEnCurso());
+    }
+
+    @Test
+    void testLiberar_LatenciaEstableEnUso_ShouldIncreaseLimit() {
+        // Arrange
+        LimiteAdaptativo limite = new LimiteAdaptativo("cuentas", 10, 1, 100, 1.5, 0.2);
+
+        // Act
+        saturar(limite, RAPIDA, 50);
+
+        // Assert
+        assertTrue(limite.getLimite() > 10);
+    }
+
+    @Test
+    void testLiberar_LatenciaCreciente_ShouldDecreaseLimit() {
+        // Arrange
+        LimiteAdaptativo limite = new LimiteAdaptativo("cuentas", 10, 1, 100, 1.5, 0.2);
+        saturar(limite, RAPIDA, 50);
+        int antes = limite.getLimite();
+
+        // Act: un aumento reciente, antes de que la referencia larga lo absorba
+        saturar(limite, LENTA, 3);
+
+        // Assert
+        assertTrue(limite.getLimite() < antes);
+        assertTrue(limite.estadisticas().getLatenciaRecienteMs() > limite.estadisticas().getLatenciaReferenciaMs());
+    }
+
+    @Test
+    void testLiberar_PocoUso_ShouldKeepLimit() {
+        // Arrange
+        LimiteAdaptativo limite = new LimiteAdaptativo("cuentas", 10, 1, 100, 1.5, 0.2);
+
+        // Act: una solicitud a la vez no llega a la mitad del límite
+        for (int i = 0; i < 50; i++) {
+            limite.adquirir();
+            limite.liberar(RAPIDA, false);
+        }
+
+        // Assert
+        assertEquals(10, limite.getLimite());
+    }
+
+    @Test
+    void testLiberar_Sobrecarga_ShouldDecreaseToMinimum() {
+        // Arrange
+        LimiteAdaptativo limite = new LimiteAdaptativo("reportes", 10, 4, 100, 1.5, 0.2);
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            limite.adquirir();
+            limite.liberar(RAPIDA, true);
+        }
+
+        // Assert
+        assertEquals(4, limite.getLimite());
+    }
+
+    /**
+     * Ocupa el límite completo y libera cada lugar con la latencia dada, 'rondas' veces
+     */
+    private static void saturar(LimiteAdaptativo limite, long latencia, int rondas) {
+        for (int r = 0; r < rondas; r++) {
+            int tomados = 0;
+            while (limite.adquirir()) {
+                tomados++;
+            }
+            for (int i = 0; i < tomados; i++) {
+                limite.liberar(latencia, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.rvera.sofka.banksimulator.concurrencia;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteConcurrenciaFilterTest {
+
+    private LimitesAdaptativos limites;
+    private LimiteConcurrenciaFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        limites = new LimitesAdaptativos(1, 1, 1, 1.5, 0.2);
+        filter = new LimiteConcurrenciaFilter(limites, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    void testDoFilter_LimiteDelGrupoOcupado_ShouldRespond429WithRetryAfter() throws Exception {
+        // Arrange: la solicitud en curso de /cuentas hace una segunda en el mismo grupo
+        AtomicReference<MockHttpServletResponse> segunda = new AtomicReference<>();
+        FilterChain cadena = (req, res) -> segunda.set(ejecutar("/cuentas/2", (r, s) -> fail("No debe llegar al controlador")));
+
+        // Act
+        MockHttpServletResponse primera = ejecutar("/cuentas/1", cadena);
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), primera.getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), segunda.get().getStatus());
+        assertEquals("1", segunda.get().getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(segunda.get().getContentAsString().contains("cuentas"));
+        assertEquals(1, limites.get(LimitesAdaptativos.CUENTAS).estadisticas().getRechazadas());
+        assertEquals(0, limites.get(LimitesAdaptativos.CUENTAS).estadisticas().getEnCurso());
+    }
+
+    @Test
+    void testDoFilter_OtroGrupo_ShouldNotBeLimited() throws Exception {
+        // Arrange: los reportes tienen su propio límite aunque estén bajo /movimientos
+        AtomicReference<MockHttpServletResponse> segunda = new AtomicReference<>();
+        FilterChain cadena = (req, res) -> segunda.set(ejecutar("/movimientos/reportes/pdf", (r, s) -> { }));
+
+        // Act
+        ejecutar("/movimientos/1", cadena);
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), segunda.get().getStatus());
+    }
+
+    @Test
+    void testGrupoDe_ShouldClassifyRoutes() {
+        // Act & Assert
+        assertEquals(LimitesAdaptativos.MOVIMIENTOS, LimitesAdaptativos.grupoDe("/movimientos"));
+        assertEquals(LimitesAdaptativos.REPORTES, LimitesAdaptativos.grupoDe("/movimientos/reportes/export"));
+        assertEquals(LimitesAdaptativos.PERSONAS, LimitesAdaptativos.grupoDe("/personas/identificacion/123"));
+        assertNull(LimitesAdaptativos.grupoDe("/admin/limites"));
+        assertNull(LimitesAdaptativos.grupoDe("/swagger-ui.html"));
+    }
+
+    private MockHttpServletResponse ejecutar(String ruta, FilterChain cadena) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1" + ruta);
+        request.setContextPath("/api/v1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, cadena);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,43 @@
+package com.rvera.sofka.banksimulator.config;
+
+import com.rvera.sofka.banksimulator.concurrencia.DataSourceLimitado;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class HilosVirtualesConfigTest {
+
+    private final BeanPostProcessor postProcessor =
+            HilosVirtualesConfig.limiteConexionesPostProcessor(new MockEnvironment());
+
+    @Test
+    void testLimiteConexiones_PoolPrincipal_ShouldWrapIt() {
+        // Arrange
+        DataSource pool = mock(DataSource.class);
+
+        // Act
+        Object resultado = postProcessor.postProcessAfterInitialization(pool, HilosVirtualesConfig.DATASOURCE_PRINCIPAL);
+
+        // Assert
+        DataSourceLimitado limitado = assertInstanceOf(DataSourceLimitado.class, resultado);
+        assertSame(pool, limitado.getTargetDataSource());
+        assertEquals(10, limitado.getMaximo());
+    }
+
+    @Test
+    void testLimiteConexiones_OtroDataSource_ShouldKeepItsType() {
+        // Arrange
+        DataSource otro = mock(DataSource.class);
+
+        // Act
+        Object resultado = postProcessor.postProcessAfterInitialization(otro, "reportesDataSource");
+
+        // Assert
+        assertSame(otro, resultado);
+    }
+}
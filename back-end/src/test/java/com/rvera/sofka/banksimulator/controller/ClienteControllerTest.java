@@ -1,6 +1,7 @@
 package com.rvera.sofka.banksimulator.controller;
 
 import com.rvera.sofka.banksimulator.dto.ClienteDTO;
+import com.rvera.sofka.banksimulator.dto.PaginaDTO;
 import com.rvera.sofka.banksimulator.service.IClienteService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -50,10 +51,10 @@ class ClienteControllerTest {
     void testGetAllClientes_ShouldReturnListOfClientes() {
         // Arrange
         List<ClienteDTO> clientes = Arrays.asList(clienteDTO);
-        when(clienteService.findAll()).thenReturn(clientes);
+        when(clienteService.findAll(null, 100)).thenReturn(new PaginaDTO<>(clientes, null));
 
         // Act
-        ResponseEntity<List<ClienteDTO>> response = clienteController.getAllClientes();
+        ResponseEntity<List<ClienteDTO>> response = clienteController.getAllClientes(null, 100);
 
         // Assert
         assertNotNull(response);
@@ -61,7 +62,22 @@ class ClienteControllerTest {
         assertNotNull(response.getBody());
         assertEquals(1, response.getBody().size());
         assertEquals("Juan Pérez", response.getBody().get(0).getNombre());
-        verify(clienteService, times(1)).findAll();
+        assertFalse(response.getHeaders().containsKey("X-Next-Cursor"));
+        verify(clienteService, times(1)).findAll(null, 100);
+    }
+
+    @Test
+    void testGetAllClientes_WithNextPage_ShouldReturnNextCursorHeader() {
+        // Arrange
+        when(clienteService.findAll(5L, 1)).thenReturn(new PaginaDTO<>(List.of(clienteDTO), 7L));
+
+        // Act
+        ResponseEntity<List<ClienteDTO>> response = clienteController.getAllClientes(5L, 1);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().size());
+        assertEquals("7", response.getHeaders().getFirst("X-Next-Cursor"));
     }
 
     @Test
@@ -0,0 +1,185 @@
+package com.rvera.sofka.banksimulator.engine;
+
+import com.rvera.sofka.banksimulator.DatosPrueba;
+import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.entity.Movimientos;
+import com.rvera.sofka.banksimulator.repository.CuentaRepository;
+import com.rvera.sofka.banksimulator.repository.MovimientosRepository;
+import com.rvera.sofka.banksimulator.service.IMovimientosService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de integración del motor por shards (group commit sin bloqueos de fila)
+ */
+@SpringBootTest(properties = {
+        "app.movimientos.motor.habilitado=true",
+        "app.movimientos.motor.shards=4",
+        "app.movimientos.motor.lote-maximo=64"
+})
+class MovimientosPostingEngineTest {
+
+    @Autowired
+    private MovimientosPostingEngine postingEngine;
+
+    @Autowired
+    private IMovimientosService movimientosService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientosRepository movimientosRepository;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testRegistrar_MuchosRetirosEncolados_ShouldNeverOverdrawAndKeepOrder() {
+        // Arrange: 1000 de saldo, 200 retiros de 10 sobre la misma cuenta
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("1000.00"));
+        List<CompletableFuture<MovimientoDTO>> futuros = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            futuros.add(postingEngine.registrar(movimiento(cuenta.getId(), "Retiro", "10.00")));
+        }
+        long aceptados = futuros.stream().filter(this::completadoSinError).count();
+
+        // Assert: se aplican en orden de llegada, los primeros 100 pasan
+        assertEquals(100, aceptados);
+        for (int i = 0; i < futuros.size(); i++) {
+            assertEquals(i < 100, !futuros.get(i).isCompletedExceptionally(), "Orden alterado en " + i);
+        }
+        CompletionException error = assertThrows(CompletionException.class, () -> futuros.get(150).join());
+        assertTrue(error.getCause().getMessage().contains("Saldo insuficiente"));
+        assertEquals(0, BigDecimal.ZERO.compareTo(cuentaRepository.findById(cuenta.getId()).orElseThrow().getSaldoActual()));
+        assertCadenaConsistente(cuenta);
+    }
+
+    @Test
+    void testSave_VariasCuentasEnParalelo_ShouldMatchFinalBalances() {
+        // Arrange
+        List<Cuenta> cuentas = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            cuentas.add(datos.crearCuenta(new BigDecimal("100.00")));
+        }
+        List<CompletableFuture<MovimientoDTO>> futuros = new ArrayList<>();
+
+        // Act: 50 depósitos de 20 y 50 retiros de 5 por cuenta, intercalados entre cuentas
+        for (int i = 0; i < 50; i++) {
+            for (Cuenta cuenta : cuentas) {
+                futuros.add(movimientosService.saveAsync(movimiento(cuenta.getId(), "Deposito", "20.00")));
+                futuros.add(movimientosService.saveAsync(movimiento(cuenta.getId(), "Retiro", "5.00")));
+            }
+        }
+        CompletableFuture.allOf(futuros.toArray(CompletableFuture[]::new)).orTimeout(60, TimeUnit.SECONDS).join();
+
+        // Assert: 100 + 50 * (20 - 5)
+        for (Cuenta cuenta : cuentas) {
+            Cuenta actual = cuentaRepository.findById(cuenta.getId()).orElseThrow();
+            assertEquals(0, new BigDecimal("850.00").compareTo(actual.getSaldoActual()));
+            assertCadenaConsistente(cuenta);
+        }
+    }
+
+    @Test
+    void testRegistrar_EscritorExterno_ShouldReloadBalanceAndRetry() {
+        // Arrange: el motor deja la cuenta en memoria y luego otro proceso modifica el saldo
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("100.00"));
+        postingEngine.registrar(movimiento(cuenta.getId(), "Deposito", "50.00")).join();
+        Cuenta externa = cuentaRepository.findById(cuenta.getId()).orElseThrow();
+        externa.setSaldoActual(new BigDecimal("500.00"));
+        cuentaRepository.save(externa);
+
+        // Act
+        MovimientoDTO resultado = postingEngine.registrar(movimiento(cuenta.getId(), "Retiro", "300.00")).join();
+
+        // Assert: el retiro se calcula sobre el saldo recargado, no sobre el de memoria (150)
+        assertEquals(0, new BigDecimal("200.00").compareTo(resultado.getSaldo()));
+        assertEquals(0, new BigDecimal("200.00").compareTo(
+                cuentaRepository.findById(cuenta.getId()).orElseThrow().getSaldoActual()));
+    }
+
+    @Test
+    void testRegistrar_ConCacheDeSegundoNivel_ShouldKeepCuentasCached() {
+        // Arrange: la cuenta registrada ya está en el shard y otra cuenta está en la cache
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("100.00"));
+        Cuenta otra = datos.crearCuenta(new BigDecimal("100.00"));
+        postingEngine.registrar(movimiento(cuenta.getId(), "Deposito", "10.00")).join();
+        cuentaRepository.findById(otra.getId());
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Act
+        postingEngine.registrar(movimiento(cuenta.getId(), "Deposito", "10.00")).join();
+        estadisticas.clear();
+        Cuenta otraLeida = cuentaRepository.findById(otra.getId()).orElseThrow();
+        Cuenta actual = cuentaRepository.findById(cuenta.getId()).orElseThrow();
+
+        // Assert: el commit del lote no vacía la región y la cuenta registrada queda con su saldo nuevo
+        assertEquals(0, estadisticas.getEntityStatistics(Cuenta.class.getName()).getLoadCount());
+        assertEquals(2, estadisticas.getDomainDataRegionStatistics("cuenta").getHitCount());
+        assertEquals(otra.getId(), otraLeida.getId());
+        assertEquals(0, new BigDecimal("120.00").compareTo(actual.getSaldoActual()));
+    }
+
+    @Test
+    void testRegistrar_CuentaInexistente_ShouldFailFuture() {
+        // Act
+        CompletableFuture<MovimientoDTO> futuro = postingEngine.registrar(movimiento(Long.MAX_VALUE, "Deposito", "10.00"));
+
+        // Assert
+        CompletionException error = assertThrows(CompletionException.class, futuro::join);
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+        assertTrue(error.getCause().getMessage().contains("Cuenta no encontrada"));
+    }
+
+    private boolean completadoSinError(CompletableFuture<MovimientoDTO> futuro) {
+        try {
+            futuro.get(60, TimeUnit.SECONDS);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Verifica que cada saldo sea el anterior más el valor del movimiento
+     */
+    private void assertCadenaConsistente(Cuenta cuenta) {
+        List<Movimientos> movimientos = new ArrayList<>(movimientosRepository.findByCuentaId(cuenta.getId()));
+        movimientos.sort(Comparator.comparing(Movimientos::getId));
+        BigDecimal saldo = cuenta.getSaldoInicial();
+        for (Movimientos movimiento : movimientos) {
+            saldo = saldo.add(movimiento.getValor());
+            assertEquals(0, saldo.compareTo(movimiento.getSaldo()), "Cadena rota en movimiento " + movimiento.getId());
+            assertTrue(movimiento.getSaldo().signum() >= 0);
+        }
+    }
+
+    private MovimientoDTO movimiento(Long cuentaId, String tipo, String valor) {
+        return MovimientoDTO.builder()
+                .tipoMovimiento(tipo)
+                .valor(new BigDecimal(valor))
+                .cuentaId(cuentaId)
+                .build();
+    }
+}
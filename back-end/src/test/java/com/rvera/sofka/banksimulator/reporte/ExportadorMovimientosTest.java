@@ -0,0 +1,117 @@
+package com.rvera.sofka.banksimulator.reporte;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rvera.sofka.banksimulator.dto.MovimientoReporteDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportadorMovimientosTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testExportarCsv_ShouldEscapeFieldsAndKeepExactAmounts() throws IOException {
+        // Arrange
+        ExportadorMovimientos exportador = new ExportadorMovimientos(objectMapper.getFactory(), 500);
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        long escritas = exportador.exportar(List.of(fila(1, "Pérez, \"Juan\"")).iterator(), FormatoExportacion.CSV, salida);
+
+        // Assert
+        assertEquals(1, escritas);
+        assertEquals("fecha,cliente,numeroCuenta,tipoCuenta,saldoInicial,estado,valor,saldo\r\n"
+                        + "2024-01-01T01:00,\"Pérez, \"\"Juan\"\"\",478758,Ahorros,100.00,true,-10.10,89.90\r\n",
+                salida.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testExportarNdjson_ShouldWriteOneObjectPerLine() throws IOException {
+        // Arrange
+        ExportadorMovimientos exportador = new ExportadorMovimientos(objectMapper.getFactory(), 500);
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        long escritas = exportador.exportar(List.of(fila(1, "Juan"), fila(2, "Ana")).iterator(),
+                FormatoExportacion.NDJSON, salida);
+
+        // Assert
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, escritas);
+        assertEquals(2, lineas.length);
+        assertTrue(salida.toString(StandardCharsets.UTF_8).endsWith("}\n"));
+        JsonNode segunda = objectMapper.readTree(lineas[1]);
+        assertEquals("Ana", segunda.get("cliente").asText());
+        assertTrue(lineas[1].contains("\"valor\":-10.10"));
+        assertTrue(segunda.get("estado").asBoolean());
+    }
+
+    @Test
+    void testExportar_SinFilas_ShouldWriteOnlyCsvHeader() throws IOException {
+        // Arrange
+        ExportadorMovimientos exportador = new ExportadorMovimientos(objectMapper.getFactory(), 500);
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+
+        // Act
+        exportador.exportar(Collections.emptyIterator(), FormatoExportacion.CSV, csv);
+        exportador.exportar(Collections.emptyIterator(), FormatoExportacion.NDJSON, ndjson);
+
+        // Assert
+        assertEquals(1, csv.toString(StandardCharsets.UTF_8).split("\r\n").length);
+        assertEquals(0, ndjson.size());
+    }
+
+    @Test
+    void testExportar_ShouldFlushEveryConfiguredRows() throws IOException {
+        // Arrange
+        ExportadorMovimientos exportador = new ExportadorMovimientos(objectMapper.getFactory(), 10);
+        SalidaContadora salida = new SalidaContadora();
+
+        // Act
+        exportador.exportar(IntStream.rangeClosed(1, 35).mapToObj(i -> fila(i, "Juan")).iterator(),
+                FormatoExportacion.NDJSON, salida);
+
+        // Assert: 3 flush periódicos y uno al final
+        assertEquals(4, salida.flushes);
+        assertFalse(salida.cerrada);
+    }
+
+    @Test
+    void testDesde_FormatoDesconocido_ShouldThrowException() {
+        // Act & Assert
+        assertEquals(FormatoExportacion.NDJSON, FormatoExportacion.desde("NdJson"));
+        assertThrows(IllegalArgumentException.class, () -> FormatoExportacion.desde("xml"));
+    }
+
+    private MovimientoReporteDTO fila(int i, String cliente) {
+        return new MovimientoReporteDTO(LocalDateTime.of(2024, 1, 1, 0, 0).plusHours(i), cliente,
+                "478758", "Ahorros", new BigDecimal("100.00"), true, new BigDecimal("-10.10"), new BigDecimal("89.90"));
+    }
+
+    private static class SalidaContadora extends ByteArrayOutputStream {
+        private int flushes;
+        private boolean cerrada;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        @Override
+        public void close() {
+            cerrada = true;
+        }
+    }
+}
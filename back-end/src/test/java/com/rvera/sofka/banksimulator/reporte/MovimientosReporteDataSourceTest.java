@@ -0,0 +1,97 @@
+package com.rvera.sofka.banksimulator.reporte;
+
+import com.rvera.sofka.banksimulator.dto.MovimientoReporteDTO;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
+import net.sf.jasperreports.engine.JRParameter;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRSwapFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MovimientosReporteDataSourceTest {
+
+    @TempDir
+    Path directorioSwap;
+
+    @Test
+    void testGetFieldValue_ShouldMapTemplateFieldTypes() throws JRException {
+        // Arrange
+        MovimientosReporteDataSource dataSource = new MovimientosReporteDataSource(List.of(fila(1)).iterator());
+
+        // Act
+        boolean hayFila = dataSource.next();
+
+        // Assert
+        assertTrue(hayFila);
+        assertEquals("Cliente Reporte", dataSource.getFieldValue(campo("cliente")));
+        assertEquals(478758L, dataSource.getFieldValue(campo("numeroCuenta")));
+        assertEquals(new BigDecimal("100.00"), dataSource.getFieldValue(campo("saldoInicial")));
+        assertEquals(new BigDecimal("-10.50"), dataSource.getFieldValue(campo("movimiento")));
+        assertEquals(new BigDecimal("89.50"), dataSource.getFieldValue(campo("saldoDisponible")));
+        assertInstanceOf(java.util.Date.class, dataSource.getFieldValue(campo("movimientoDate")));
+        assertFalse(dataSource.next());
+        assertEquals(1, dataSource.getProcesadas());
+    }
+
+    @Test
+    void testGetFieldValue_CampoDesconocido_ShouldThrowException() {
+        // Arrange
+        MovimientosReporteDataSource dataSource = new MovimientosReporteDataSource(List.of(fila(1)).iterator());
+        dataSource.next();
+
+        // Act & Assert
+        assertThrows(JRException.class, () -> dataSource.getFieldValue(campo("otro")));
+    }
+
+    @Test
+    void testFill_PlantillaStreamingConVirtualizador_ShouldSwapPagesAndCleanUp() throws JRException {
+        // Arrange: una sola página en memoria, el resto va al archivo de intercambio
+        RegistroPlantillasReporte registro = new RegistroPlantillasReporte("classpath:reports/", false);
+        registro.cargar();
+        JRSwapFileVirtualizer virtualizador = new JRSwapFileVirtualizer(1,
+                new JRSwapFile(directorioSwap.toString(), 4096, 10), true);
+        MovimientosReporteDataSource dataSource = new MovimientosReporteDataSource(
+                IntStream.rangeClosed(1, 40).mapToObj(this::fila).iterator());
+        Map<String, Object> parametros = new HashMap<>();
+        parametros.put(JRParameter.REPORT_VIRTUALIZER, virtualizador);
+
+        // Act
+        JasperPrint jasperPrint = JasperFillManager.fillReport(
+                registro.obtener("movimientos-report-streaming"), parametros, dataSource);
+        File[] durante = directorioSwap.toFile().listFiles();
+        virtualizador.cleanup();
+
+        // Assert
+        assertEquals(40, dataSource.getProcesadas());
+        assertTrue(jasperPrint.getPages().size() > 1);
+        assertEquals(1, durante.length);
+        assertEquals(0, directorioSwap.toFile().listFiles().length);
+    }
+
+    private MovimientoReporteDTO fila(int i) {
+        return new MovimientoReporteDTO(LocalDateTime.of(2024, 1, 1, 0, 0).plusHours(i), "Cliente Reporte",
+                "478758", "Ahorros", new BigDecimal("100.00"), true, new BigDecimal("-10.50"), new BigDecimal("89.50"));
+    }
+
+    private JRField campo(String nombre) {
+        JRField campo = mock(JRField.class);
+        when(campo.getName()).thenReturn(nombre);
+        return campo;
+    }
+}
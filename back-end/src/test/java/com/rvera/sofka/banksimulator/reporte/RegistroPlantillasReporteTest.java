@@ -0,0 +1,87 @@
+package com.rvera.sofka.banksimulator.reporte;
+
+import net.sf.jasperreports.engine.JasperReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistroPlantillasReporteTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void testObtener_ShouldReturnSameCompiledInstance() {
+        // Arrange
+        RegistroPlantillasReporte registro = new RegistroPlantillasReporte("classpath:reports/", false);
+        registro.cargar();
+
+        // Act
+        JasperReport primera = registro.obtener("movimientos-report");
+        JasperReport segunda = registro.obtener("movimientos-report");
+
+        // Assert
+        assertTrue(registro.getNombres().contains("movimientos-report"));
+        assertSame(primera, segunda);
+    }
+
+    @Test
+    void testObtener_PlantillaInexistente_ShouldThrowException() {
+        // Arrange
+        RegistroPlantillasReporte registro = new RegistroPlantillasReporte("classpath:reports/", false);
+        registro.cargar();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> registro.obtener("no-existe"));
+    }
+
+    @Test
+    void testObtener_ArchivoModificadoConRecompilacion_ShouldRecompile() throws IOException {
+        // Arrange: dos plantillas con nombre propio en un directorio del sistema de archivos
+        Path archivo = copiarPlantilla("estado-cuenta.jrxml");
+        copiarPlantilla("resumen.jrxml");
+        RegistroPlantillasReporte registro = new RegistroPlantillasReporte(directorio.toUri().toString(), true);
+        registro.cargar();
+        JasperReport original = registro.obtener("estado-cuenta");
+
+        // Act
+        Files.setLastModifiedTime(archivo, FileTime.from(Instant.now().plusSeconds(60)));
+        JasperReport recompilada = registro.obtener("estado-cuenta");
+
+        // Assert
+        assertEquals(2, registro.getNombres().size());
+        assertNotSame(original, recompilada);
+        assertSame(recompilada, registro.obtener("estado-cuenta"));
+    }
+
+    @Test
+    void testObtener_ArchivoModificadoSinRecompilacion_ShouldKeepCompiledInstance() throws IOException {
+        // Arrange
+        Path archivo = copiarPlantilla("estado-cuenta.jrxml");
+        RegistroPlantillasReporte registro = new RegistroPlantillasReporte(directorio.toUri().toString(), false);
+        registro.cargar();
+        JasperReport original = registro.obtener("estado-cuenta");
+
+        // Act
+        Files.setLastModifiedTime(archivo, FileTime.from(Instant.now().plusSeconds(60)));
+
+        // Assert
+        assertSame(original, registro.obtener("estado-cuenta"));
+    }
+
+    private Path copiarPlantilla(String nombre) throws IOException {
+        Path destino = directorio.resolve(nombre);
+        try (InputStream entrada = getClass().getResourceAsStream("/reports/movimientos-report.jrxml")) {
+            Files.copy(entrada, destino);
+        }
+        return destino;
+    }
+}
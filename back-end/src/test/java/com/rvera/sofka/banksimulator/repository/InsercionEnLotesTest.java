@@ -0,0 +1,68 @@
+package com.rvera.sofka.banksimulator.repository;
+
+import com.rvera.sofka.banksimulator.entity.Cliente;
+import com.rvera.sofka.banksimulator.entity.Persona;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de integración de los IDs por secuencia pooled: las altas se insertan en lotes JDBC
+ */
+@SpringBootTest
+class InsercionEnLotesTest {
+
+    private static final AtomicLong SECUENCIA = new AtomicLong(System.nanoTime() % 1_000_000);
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testSaveAll_ClientesConPersona_ShouldBatchInsertsInsteadOfOnePerRow() {
+        // Arrange
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            clientes.add(cliente(SECUENCIA.incrementAndGet()));
+        }
+        long sentenciasAntes = estadisticas.getPrepareStatementCount();
+
+        // Act
+        List<Cliente> guardados = transactionTemplate.execute(status -> clienteRepository.saveAll(clientes));
+
+        // Assert: con IDENTITY serían 240 INSERT; aquí son lotes de 50 por tabla más un bloque de IDs cada 50
+        long sentencias = estadisticas.getPrepareStatementCount() - sentenciasAntes;
+        assertTrue(sentencias <= 12, "Sentencias preparadas: " + sentencias);
+        assertEquals(120, guardados.stream().map(Cliente::getClienteId).distinct().count());
+        assertEquals(120, guardados.stream().map(c -> c.getPersona().getId()).distinct().count());
+        assertTrue(clienteRepository.findById(guardados.get(119).getClienteId()).isPresent());
+    }
+
+    private Cliente cliente(long n) {
+        Persona persona = new Persona();
+        persona.setNombre("Cliente Alta " + n);
+        persona.setIdentificacion("25" + n);
+
+        Cliente cliente = new Cliente();
+        cliente.setPersona(persona);
+        cliente.setContrasena("password123");
+        cliente.setEstado(true);
+        return cliente;
+    }
+}
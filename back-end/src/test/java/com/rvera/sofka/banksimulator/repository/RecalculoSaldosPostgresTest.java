@@ -0,0 +1,90 @@
+package com.rvera.sofka.banksimulator.repository;
+
+import com.rvera.sofka.banksimulator.DatosPrueba;
+import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.service.IMovimientosService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de integración del recálculo de saldos posteriores contra PostgreSQL
+ * La sentencia es nativa (UPDATE ... FROM con SUM() OVER): H2 no la valida. Se omite si no hay Docker.
+ */
+@SpringBootTest(properties = "spring.datasource.driver-class-name=org.postgresql.Driver")
+@Testcontainers(disabledWithoutDocker = true)
+class RecalculoSaldosPostgresTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private IMovimientosService movimientosService;
+
+    @Autowired
+    private MovimientosRepository movimientosRepository;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Test
+    void testDeleteById_MovimientoIntermedio_ShouldRecomputeLaterBalances() {
+        // Arrange: 100 + 50 = 150, + 30 = 180, - 20 = 160
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("100.00"));
+        MovimientoDTO primero = movimientosService.save(movimiento(cuenta.getId(), "Deposito", "50.00"));
+        MovimientoDTO segundo = movimientosService.save(movimiento(cuenta.getId(), "Deposito", "30.00"));
+        MovimientoDTO tercero = movimientosService.save(movimiento(cuenta.getId(), "Retiro", "20.00"));
+
+        // Act
+        movimientosService.deleteById(primero.getId());
+
+        // Assert: los posteriores pierden los 50 del eliminado; el eliminado conserva su saldo
+        assertSaldo("150.00", primero.getId());
+        assertSaldo("130.00", segundo.getId());
+        assertSaldo("110.00", tercero.getId());
+        assertEquals(0, new BigDecimal("110.00").compareTo(
+                cuentaRepository.findById(cuenta.getId()).orElseThrow().getSaldoActual()));
+    }
+
+    @Test
+    void testDeleteById_UltimoMovimiento_ShouldLeaveEarlierBalancesUntouched() {
+        // Arrange
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("100.00"));
+        MovimientoDTO primero = movimientosService.save(movimiento(cuenta.getId(), "Deposito", "50.00"));
+        MovimientoDTO segundo = movimientosService.save(movimiento(cuenta.getId(), "Deposito", "25.00"));
+
+        // Act
+        movimientosService.deleteById(segundo.getId());
+
+        // Assert
+        assertSaldo("150.00", primero.getId());
+        assertEquals(0, new BigDecimal("150.00").compareTo(
+                cuentaRepository.findById(cuenta.getId()).orElseThrow().getSaldoActual()));
+    }
+
+    private void assertSaldo(String esperado, Long movimientoId) {
+        BigDecimal saldo = movimientosRepository.findById(movimientoId).orElseThrow().getSaldo();
+        assertEquals(0, new BigDecimal(esperado).compareTo(saldo), "Saldo del movimiento " + movimientoId + ": " + saldo);
+    }
+
+    private MovimientoDTO movimiento(Long cuentaId, String tipo, String valor) {
+        return MovimientoDTO.builder()
+                .tipoMovimiento(tipo)
+                .valor(new BigDecimal(valor))
+                .cuentaId(cuentaId)
+                .build();
+    }
+}
@@ -1,8 +1,11 @@
 package com.rvera.sofka.banksimulator.service.impl;
 
+import com.rvera.sofka.banksimulator.busqueda.IndiceBusqueda;
 import com.rvera.sofka.banksimulator.dto.ClienteDTO;
+import com.rvera.sofka.banksimulator.dto.PaginaDTO;
 import com.rvera.sofka.banksimulator.entity.Cliente;
 import com.rvera.sofka.banksimulator.entity.Persona;
+import com.rvera.sofka.banksimulator.event.ClientesModificadosEvent;
 import com.rvera.sofka.banksimulator.mapper.ClienteMapper;
 import com.rvera.sofka.banksimulator.repository.ClienteRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,14 +14,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +37,12 @@ class ClienteServiceImplTest {
     @Mock
     private ClienteMapper clienteMapper;
 
+    @Mock
+    private IndiceBusqueda indiceBusqueda;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ClienteServiceImpl clienteService;
 
@@ -74,19 +87,45 @@ class ClienteServiceImplTest {
     void testFindAll_ShouldReturnListOfClientes() {
         // Arrange
         List<Cliente> clientes = Arrays.asList(cliente);
-        when(clienteRepository.findAllActive()).thenReturn(clientes);
+        when(clienteRepository.findActiveDespuesDe(0L, Limit.of(11))).thenReturn(clientes);
         when(clienteMapper.toDTO(any(Cliente.class))).thenReturn(clienteDTO);
 
         // Act
-        List<ClienteDTO> result = clienteService.findAll();
+        PaginaDTO<ClienteDTO> result = clienteService.findAll(null, 10);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(clienteRepository, times(1)).findAllActive();
+        assertEquals(1, result.getContenido().size());
+        assertNull(result.getSiguiente());
+        verify(clienteRepository, times(1)).findActiveDespuesDe(0L, Limit.of(11));
+        verify(clienteMapper, times(1)).toDTO(any(Cliente.class));
+    }
+
+    @Test
+    void testFindAll_MoreRowsThanLimit_ShouldReturnNextCursor() {
+        // Arrange: se consulta una fila más que el límite
+        Cliente siguiente = new Cliente();
+        siguiente.setClienteId(2L);
+        when(clienteRepository.findActiveDespuesDe(0L, Limit.of(2))).thenReturn(List.of(cliente, siguiente));
+        when(clienteMapper.toDTO(any(Cliente.class))).thenReturn(clienteDTO);
+
+        // Act
+        PaginaDTO<ClienteDTO> result = clienteService.findAll(0L, 1);
+
+        // Assert
+        assertEquals(1, result.getContenido().size());
+        assertEquals(cliente.getClienteId(), result.getSiguiente());
         verify(clienteMapper, times(1)).toDTO(any(Cliente.class));
     }
 
+    @Test
+    void testFindAll_InvalidLimit_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> clienteService.findAll(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> clienteService.findAll(null, 1001));
+        verifyNoInteractions(clienteRepository);
+    }
+
     @Test
     void testFindById_WhenClienteExists_ShouldReturnCliente() {
         // Arrange
@@ -223,5 +262,41 @@ class ClienteServiceImplTest {
         // Assert
         verify(clienteRepository, times(1)).findById(1L);
         verify(clienteRepository, times(1)).save(any(Cliente.class));
+        verify(eventPublisher).publishEvent(new ClientesModificadosEvent(Set.of(1L)));
+    }
+
+    @Test
+    void testSearchByFilter_IndiceDisponible_ShouldKeepRankOrderAndCursor() {
+        // Arrange: el índice devuelve límite + 1 ids en orden de relevancia
+        Cliente segundo = new Cliente();
+        segundo.setClienteId(7L);
+        ClienteDTO segundoDTO = ClienteDTO.builder().clienteId(7L).build();
+        when(indiceBusqueda.buscarClientes("juan", null, 3)).thenReturn(Optional.of(List.of(7L, 1L, 4L)));
+        when(clienteRepository.findActiveByIdIn(List.of(7L, 1L))).thenReturn(List.of(cliente, segundo));
+        when(clienteMapper.toDTO(cliente)).thenReturn(clienteDTO);
+        when(clienteMapper.toDTO(segundo)).thenReturn(segundoDTO);
+
+        // Act
+        PaginaDTO<ClienteDTO> result = clienteService.searchByFilter("juan", null, 2);
+
+        // Assert
+        assertEquals(List.of(segundoDTO, clienteDTO), result.getContenido());
+        assertEquals(1L, result.getSiguiente());
+        verify(clienteRepository, never()).searchByFilter(anyString(), anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void testSearchByFilter_IndiceNoDisponible_ShouldUseSqlQuery() {
+        // Arrange
+        when(indiceBusqueda.buscarClientes("juan", null, 3)).thenReturn(Optional.empty());
+        when(clienteRepository.searchByFilter("juan", 0L, Limit.of(3))).thenReturn(List.of(cliente));
+        when(clienteMapper.toDTO(cliente)).thenReturn(clienteDTO);
+
+        // Act
+        PaginaDTO<ClienteDTO> result = clienteService.searchByFilter("juan", null, 2);
+
+        // Assert
+        assertEquals(List.of(clienteDTO), result.getContenido());
+        assertNull(result.getSiguiente());
     }
 }
@@ -0,0 +1,167 @@
+package com.rvera.sofka.banksimulator.service.impl;
+
+import com.rvera.sofka.banksimulator.DatosPrueba;
+import com.rvera.sofka.banksimulator.dto.ConciliacionResultadoDTO;
+import com.rvera.sofka.banksimulator.dto.DiscrepanciaDTO;
+import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.entity.Movimientos;
+import com.rvera.sofka.banksimulator.repository.CuentaRepository;
+import com.rvera.sofka.banksimulator.repository.MovimientosRepository;
+import com.rvera.sofka.banksimulator.service.IConciliacionService;
+import com.rvera.sofka.banksimulator.service.IMovimientosService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de integración de la conciliación de saldos
+ * Con 2 cuentas por tarea el ForkJoinPool divide el rango aunque haya pocas cuentas
+ * Otras pruebas comparten la base de datos: las verificaciones se limitan a las cuentas creadas aquí
+ */
+@SpringBootTest(properties = {
+        "app.conciliacion.cuentas-por-tarea=2",
+        "app.conciliacion.maximo-discrepancias=100000"
+})
+class ConciliacionServiceImplTest {
+
+    @Autowired
+    private IConciliacionService conciliacionService;
+
+    @Autowired
+    private IMovimientosService movimientosService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientosRepository movimientosRepository;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Test
+    void testConciliar_CadenaRotaPorEliminacion_ShouldReportAndRebuild() {
+        // Arrange: una cuenta consistente y otra con un depósito intermedio desactivado sin recálculo
+        // (datos previos a la eliminación con recálculo de saldos)
+        Cuenta consistente = datos.crearCuenta(new BigDecimal("100.00"));
+        registrar(consistente, "Deposito", "50.00");
+        registrar(consistente, "Retiro", "20.00");
+
+        Cuenta rota = datos.crearCuenta(new BigDecimal("100.00"));
+        registrar(rota, "Deposito", "10.00");
+        MovimientoDTO eliminado = registrar(rota, "Deposito", "20.00");
+        registrar(rota, "Deposito", "30.00");
+        registrar(rota, "Retiro", "5.00");
+        Movimientos desactivado = movimientosRepository.findById(eliminado.getId()).orElseThrow();
+        desactivado.setEstado(false);
+        movimientosRepository.save(desactivado);
+
+        // Act
+        ConciliacionResultadoDTO verificacion = conciliacionService.conciliar(false).orElseThrow();
+
+        // Assert: los dos movimientos posteriores y el saldo vigente quedan descuadrados en 20
+        assertTrue(verificacion.getCuentasRevisadas() >= 2);
+        assertTrue(discrepanciasDe(verificacion, consistente).isEmpty());
+        List<DiscrepanciaDTO> discrepancias = discrepanciasDe(verificacion, rota);
+        assertEquals(2, discrepancias.stream().filter(d -> DiscrepanciaDTO.SALDO_MOVIMIENTO.equals(d.getTipo())).count());
+        assertTrue(discrepancias.stream().anyMatch(d -> DiscrepanciaDTO.SALDO_ACTUAL.equals(d.getTipo())
+                && "135.00".equals(d.getEsperado()) && "155.00".equals(d.getRegistrado())));
+        assertEquals(0, verificacion.getMovimientosCorregidos());
+
+        // Act: reconstruir
+        ConciliacionResultadoDTO reconstruccion = conciliacionService.conciliar(true).orElseThrow();
+        ConciliacionResultadoDTO posterior = conciliacionService.conciliar(false).orElseThrow();
+
+        // Assert
+        assertTrue(reconstruccion.getMovimientosCorregidos() >= 2);
+        assertTrue(discrepanciasDe(posterior, rota).isEmpty());
+        assertEquals(0, new BigDecimal("135.00").compareTo(cuentaRepository.findById(rota.getId()).orElseThrow().getSaldoActual()));
+        List<Movimientos> activos = movimientosRepository.findByCuentaId(rota.getId()).stream()
+                .filter(Movimientos::getEstado)
+                .sorted(Comparator.comparing(Movimientos::getFecha).thenComparing(Movimientos::getId))
+                .toList();
+        assertEquals(0, new BigDecimal("140.00").compareTo(activos.get(1).getSaldo()));
+        assertEquals(0, new BigDecimal("135.00").compareTo(activos.get(2).getSaldo()));
+        assertEquals(posterior, conciliacionService.getUltimoResultado().orElseThrow());
+    }
+
+    @Test
+    void testDeleteById_MovimientoIntermedio_ShouldKeepChainConsistent() {
+        // Arrange
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("100.00"));
+        registrar(cuenta, "Deposito", "10.00");
+        MovimientoDTO eliminado = registrar(cuenta, "Deposito", "20.00");
+        registrar(cuenta, "Deposito", "30.00");
+        MovimientoDTO ultimo = registrar(cuenta, "Retiro", "5.00");
+
+        // Act
+        movimientosService.deleteById(eliminado.getId());
+
+        // Assert
+        assertSaldos(cuenta, "110.00", "140.00", "135.00");
+        Cuenta actualizada = cuentaRepository.findById(cuenta.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("135.00").compareTo(actualizada.getSaldoActual()));
+        assertEquals(ultimo.getId(), actualizada.getUltimoMovimientoId());
+        assertTrue(discrepanciasDe(conciliacionService.conciliar(false).orElseThrow(), cuenta).isEmpty());
+    }
+
+    @Test
+    void testDeleteByIds_VariasCuentas_ShouldRecomputeEachChain() {
+        // Arrange
+        Cuenta primera = datos.crearCuenta(new BigDecimal("100.00"));
+        MovimientoDTO a = registrar(primera, "Deposito", "10.00");
+        registrar(primera, "Deposito", "20.00");
+        MovimientoDTO c = registrar(primera, "Deposito", "30.00");
+        registrar(primera, "Deposito", "40.00");
+
+        Cuenta segunda = datos.crearCuenta(new BigDecimal("200.00"));
+        registrar(segunda, "Deposito", "50.00");
+        MovimientoDTO ultimo = registrar(segunda, "Retiro", "25.00");
+
+        // Act
+        int eliminados = movimientosService.deleteByIds(List.of(a.getId(), c.getId(), ultimo.getId(), -1L));
+
+        // Assert
+        assertEquals(3, eliminados);
+        assertSaldos(primera, "120.00", "160.00");
+        assertSaldos(segunda, "250.00");
+        assertEquals(0, new BigDecimal("160.00").compareTo(cuentaRepository.findById(primera.getId()).orElseThrow().getSaldoActual()));
+        assertEquals(0, new BigDecimal("250.00").compareTo(cuentaRepository.findById(segunda.getId()).orElseThrow().getSaldoActual()));
+        ConciliacionResultadoDTO resultado = conciliacionService.conciliar(false).orElseThrow();
+        assertTrue(discrepanciasDe(resultado, primera).isEmpty());
+        assertTrue(discrepanciasDe(resultado, segunda).isEmpty());
+    }
+
+    private void assertSaldos(Cuenta cuenta, String... saldos) {
+        List<BigDecimal> activos = movimientosRepository.findByCuentaId(cuenta.getId()).stream()
+                .filter(Movimientos::getEstado)
+                .sorted(Comparator.comparing(Movimientos::getFecha).thenComparing(Movimientos::getId))
+                .map(Movimientos::getSaldo)
+                .toList();
+        assertEquals(saldos.length, activos.size());
+        for (int i = 0; i < saldos.length; i++) {
+            assertEquals(0, new BigDecimal(saldos[i]).compareTo(activos.get(i)), "saldo " + i);
+        }
+    }
+
+    private List<DiscrepanciaDTO> discrepanciasDe(ConciliacionResultadoDTO resultado, Cuenta cuenta) {
+        return resultado.getDiscrepancias().stream()
+                .filter(d -> cuenta.getId().equals(d.getCuentaId()))
+                .toList();
+    }
+
+    private MovimientoDTO registrar(Cuenta cuenta, String tipo, String valor) {
+        return movimientosService.save(MovimientoDTO.builder()
+                .tipoMovimiento(tipo)
+                .valor(new BigDecimal(valor))
+                .cuentaId(cuenta.getId())
+                .build());
+    }
+}
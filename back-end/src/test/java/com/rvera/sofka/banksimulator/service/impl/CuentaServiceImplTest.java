@@ -1,6 +1,8 @@
 package com.rvera.sofka.banksimulator.service.impl;
 
+import com.rvera.sofka.banksimulator.busqueda.IndiceBusqueda;
 import com.rvera.sofka.banksimulator.dto.CuentaDTO;
+import com.rvera.sofka.banksimulator.dto.PaginaDTO;
 import com.rvera.sofka.banksimulator.entity.Cliente;
 import com.rvera.sofka.banksimulator.entity.Cuenta;
 import com.rvera.sofka.banksimulator.mapper.CuentaMapper;
@@ -14,6 +16,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -43,6 +47,12 @@ class CuentaServiceImplTest {
     @Mock
     private ICuentaStrategy cuentaStrategy;
 
+    @Mock
+    private IndiceBusqueda indiceBusqueda;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CuentaServiceImpl cuentaService;
 
@@ -82,16 +92,17 @@ class CuentaServiceImplTest {
     void testFindAll_ShouldReturnListOfCuentas() {
         // Arrange
         List<Cuenta> cuentas = Arrays.asList(cuenta);
-        when(cuentaRepository.findAllActive()).thenReturn(cuentas);
+        when(cuentaRepository.findActiveDespuesDe(0L, Limit.of(101))).thenReturn(cuentas);
         when(cuentaMapper.toDTO(any(Cuenta.class))).thenReturn(cuentaDTO);
 
         // Act
-        List<CuentaDTO> result = cuentaService.findAll();
+        PaginaDTO<CuentaDTO> result = cuentaService.findAll(null, 100);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(cuentaRepository, times(1)).findAllActive();
+        assertEquals(1, result.getContenido().size());
+        assertNull(result.getSiguiente());
+        verify(cuentaRepository, times(1)).findActiveDespuesDe(0L, Limit.of(101));
         verify(cuentaMapper, times(1)).toDTO(any(Cuenta.class));
     }
 
@@ -143,16 +154,16 @@ class CuentaServiceImplTest {
     void testFindByClienteId_ShouldReturnListOfCuentas() {
         // Arrange
         List<Cuenta> cuentas = Arrays.asList(cuenta);
-        when(cuentaRepository.findByClienteClienteIdAndActive(1L)).thenReturn(cuentas);
+        when(cuentaRepository.findByClienteClienteIdAndActive(1L, 0L, Limit.of(101))).thenReturn(cuentas);
         when(cuentaMapper.toDTO(any(Cuenta.class))).thenReturn(cuentaDTO);
 
         // Act
-        List<CuentaDTO> result = cuentaService.findByClienteId(1L);
+        PaginaDTO<CuentaDTO> result = cuentaService.findByClienteId(1L, null, 100);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(cuentaRepository, times(1)).findByClienteClienteIdAndActive(1L);
+        assertEquals(1, result.getContenido().size());
+        verify(cuentaRepository, times(1)).findByClienteClienteIdAndActive(1L, 0L, Limit.of(101));
     }
 
     @Test
@@ -230,17 +241,53 @@ class CuentaServiceImplTest {
         verify(cuentaRepository, never()).save(any(Cuenta.class));
     }
 
+    @Test
+    void testSave_ExistingCuenta_ShouldLockRowBeforeUpdating() {
+        // Arrange
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(cuentaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cuenta));
+        when(strategyFactory.getStrategy(anyString())).thenReturn(cuentaStrategy);
+        when(cuentaRepository.save(any(Cuenta.class))).thenReturn(cuenta);
+        when(cuentaMapper.toDTO(any(Cuenta.class))).thenReturn(cuentaDTO);
+
+        // Act
+        cuentaService.save(cuentaDTO);
+
+        // Assert
+        verify(cuentaRepository, times(1)).findByIdForUpdate(1L);
+        verify(cuentaRepository, never()).findById(1L);
+        verify(cuentaMapper, times(1)).updateEntityFromDTO(cuentaDTO, cuenta);
+    }
+
+    @Test
+    void testSave_ChangeSaldoInicialWithMovimientos_ShouldThrowException() {
+        // Arrange: la cuenta ya tiene movimientos calculados sobre el saldo inicial vigente
+        cuenta.setUltimoMovimientoId(10L);
+        cuentaDTO.setSaldoInicial(new BigDecimal("1500.00"));
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(cuentaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cuenta));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            cuentaService.save(cuentaDTO);
+        });
+
+        assertTrue(exception.getMessage().contains("saldo inicial"));
+        verify(cuentaMapper, never()).updateEntityFromDTO(any(CuentaDTO.class), any(Cuenta.class));
+        verify(cuentaRepository, never()).save(any(Cuenta.class));
+    }
+
     @Test
     void testDeleteById_ShouldCallRepository() {
         // Arrange
-        when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuenta));
+        when(cuentaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cuenta));
         when(cuentaRepository.save(any(Cuenta.class))).thenReturn(cuenta);
         
         // Act
         cuentaService.deleteById(1L);
 
         // Assert
-        verify(cuentaRepository, times(1)).findById(1L);
+        verify(cuentaRepository, times(1)).findByIdForUpdate(1L);
         verify(cuentaRepository, times(1)).save(any(Cuenta.class));
     }
 }
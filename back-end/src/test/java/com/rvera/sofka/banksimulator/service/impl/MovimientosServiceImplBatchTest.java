@@ -0,0 +1,225 @@
+package com.rvera.sofka.banksimulator.service.impl;
+
+import com.rvera.sofka.banksimulator.DatosPrueba;
+import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import com.rvera.sofka.banksimulator.dto.MovimientoLoteItemDTO;
+import com.rvera.sofka.banksimulator.dto.MovimientoLoteResultadoDTO;
+import com.rvera.sofka.banksimulator.dto.TransferenciaDTO;
+import com.rvera.sofka.banksimulator.dto.TransferenciaResultadoDTO;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.repository.CuentaRepository;
+import com.rvera.sofka.banksimulator.repository.MovimientosRepository;
+import com.rvera.sofka.banksimulator.service.IMovimientosService;
+import com.rvera.sofka.banksimulator.service.IResumenDiarioService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Prueba de integración de la carga masiva de movimientos
+ */
+@SpringBootTest
+class MovimientosServiceImplBatchTest {
+
+    @Autowired
+    private IMovimientosService movimientosService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientosRepository movimientosRepository;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @SpyBean
+    private IResumenDiarioService resumenDiarioService;
+
+    @Test
+    void testSaveBatch_ShouldAcceptValidAndReportRejectedPerItem() {
+        // Arrange
+        Cuenta ahorros = datos.crearCuenta("Ahorros", new BigDecimal("100.00"));
+        Cuenta corriente = datos.crearCuenta("Corriente", new BigDecimal("500.00"));
+        List<MovimientoDTO> lote = Arrays.asList(
+                movimiento(ahorros.getId(), "Deposito", "50.00"),      // 150
+                movimiento(corriente.getId(), "Retiro", "100.00"),     // 500 - 102 = 398
+                movimiento(ahorros.getId(), "Retiro", "500.00"),       // saldo insuficiente
+                movimiento(999_999L, "Deposito", "10.00"),             // cuenta inexistente
+                movimiento(ahorros.getId(), "Pago", "10.00"),          // tipo inválido
+                null,                                                  // línea mal formada
+                movimiento(ahorros.getId(), "Retiro", "150.00"));      // 0
+
+        // Act
+        MovimientoLoteResultadoDTO resultado = movimientosService.saveBatch(lote);
+
+        // Assert
+        assertEquals(7, resultado.getTotal());
+        assertEquals(3, resultado.getAceptados());
+        assertEquals(4, resultado.getRechazados());
+
+        List<MovimientoLoteItemDTO> items = resultado.getResultados();
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(i, items.get(i).getIndice());
+        }
+        assertTrue(items.get(0).isAceptado());
+        assertEquals(0, new BigDecimal("398.00").compareTo(items.get(1).getSaldo()));
+        assertTrue(items.get(2).getError().contains("Saldo insuficiente"));
+        assertTrue(items.get(3).getError().contains("Cuenta no encontrada"));
+        assertFalse(items.get(4).isAceptado());
+        assertFalse(items.get(5).isAceptado());
+        assertTrue(items.get(6).isAceptado());
+        assertEquals(0, BigDecimal.ZERO.compareTo(items.get(6).getSaldo()));
+
+        Cuenta ahorrosActualizada = cuentaRepository.findById(ahorros.getId()).orElseThrow();
+        assertEquals(0, BigDecimal.ZERO.compareTo(ahorrosActualizada.getSaldoActual()));
+        assertEquals(items.get(6).getMovimientoId(), ahorrosActualizada.getUltimoMovimientoId());
+        assertEquals(2, movimientosRepository.findByCuentaId(ahorros.getId()).size());
+    }
+
+    @Test
+    void testSaveBatch_GrupoQueFallaAlConfirmar_ShouldRejectOnlyThatGroup() {
+        // Arrange: la transacción del grupo de una cuenta falla con un error que no es de acceso a datos
+        Cuenta fallida = datos.crearCuenta("Ahorros", new BigDecimal("100.00"));
+        Cuenta otra = datos.crearCuenta("Ahorros", new BigDecimal("100.00"));
+        doThrow(new IllegalStateException("Fallo al confirmar"))
+                .when(resumenDiarioService).registrarMovimientos(eq(fallida.getId()), anyList());
+        List<MovimientoDTO> lote = Arrays.asList(
+                movimiento(fallida.getId(), "Deposito", "50.00"),
+                movimiento(otra.getId(), "Deposito", "20.00"),
+                movimiento(fallida.getId(), "Retiro", "500.00"));      // saldo insuficiente
+
+        // Act
+        MovimientoLoteResultadoDTO resultado = movimientosService.saveBatch(lote);
+
+        // Assert: el grupo fallido se revierte completo y conserva sus rechazos de negocio
+        assertEquals(1, resultado.getAceptados());
+        List<MovimientoLoteItemDTO> items = resultado.getResultados();
+        assertTrue(items.get(0).getError().contains("intente nuevamente"));
+        assertTrue(items.get(1).isAceptado());
+        assertTrue(items.get(2).getError().contains("Saldo insuficiente"));
+        assertTrue(movimientosRepository.findByCuentaId(fallida.getId()).isEmpty());
+        assertEquals(0, new BigDecimal("100.00").compareTo(
+                cuentaRepository.findById(fallida.getId()).orElseThrow().getSaldoActual()));
+        assertEquals(0, new BigDecimal("120.00").compareTo(
+                cuentaRepository.findById(otra.getId()).orElseThrow().getSaldoActual()));
+    }
+
+    @Test
+    void testSaveBatch_LargeLoad_ShouldKeepRunningBalance() {
+        // Arrange: más registros que el tamaño de lote JDBC y del bloque de la secuencia
+        Cuenta cuenta = datos.crearCuenta("Ahorros", new BigDecimal("100.00"));
+        List<MovimientoDTO> lote = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            lote.add(movimiento(cuenta.getId(), "Deposito", "3.00"));
+            lote.add(movimiento(cuenta.getId(), "Retiro", "1.00"));
+        }
+
+        // Act
+        MovimientoLoteResultadoDTO resultado = movimientosService.saveBatch(lote);
+
+        // Assert
+        assertEquals(1000, resultado.getAceptados());
+        assertEquals(0, new BigDecimal("1100.00").compareTo(
+                cuentaRepository.findById(cuenta.getId()).orElseThrow().getSaldoActual()));
+        assertEquals(1000, movimientosRepository.findByCuentaId(cuenta.getId()).size());
+    }
+
+    @Test
+    void testSaveBatch_IteratorAcrossTramos_ShouldKeepGlobalIndicesAndBalances() {
+        // Arrange: más registros que un tramo (1000), intercalando dos cuentas y un registro mal formado
+        Cuenta ahorros = datos.crearCuenta("Ahorros", new BigDecimal("100.00"));
+        Cuenta corriente = datos.crearCuenta("Corriente", new BigDecimal("500.00"));
+        List<MovimientoDTO> lote = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            lote.add(movimiento(i % 2 == 0 ? ahorros.getId() : corriente.getId(), "Deposito", "1.00"));
+        }
+        lote.set(1100, null);
+
+        // Act
+        MovimientoLoteResultadoDTO resultado = movimientosService.saveBatch(lote.iterator());
+
+        // Assert
+        assertEquals(1200, resultado.getTotal());
+        assertEquals(1199, resultado.getAceptados());
+        List<MovimientoLoteItemDTO> items = resultado.getResultados();
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(i, items.get(i).getIndice());
+        }
+        assertFalse(items.get(1100).isAceptado());
+        assertEquals(0, new BigDecimal("699.00").compareTo(
+                cuentaRepository.findById(ahorros.getId()).orElseThrow().getSaldoActual()));
+        assertEquals(0, new BigDecimal("1100.00").compareTo(
+                cuentaRepository.findById(corriente.getId()).orElseThrow().getSaldoActual()));
+    }
+
+    @Test
+    void testSaveBatch_RetirosSobreLimiteDiario_ShouldRejectOnlyExcess() {
+        // Arrange: límite diario de ahorros de 2000
+        Cuenta cuenta = datos.crearCuenta("Ahorros", new BigDecimal("5000.00"));
+        List<MovimientoDTO> lote = Arrays.asList(
+                movimiento(cuenta.getId(), "Retiro", "1500.00"),
+                movimiento(cuenta.getId(), "Retiro", "600.00"),        // 2100: supera el límite
+                movimiento(cuenta.getId(), "Deposito", "1000.00"),
+                movimiento(cuenta.getId(), "Retiro", "500.00"));       // 2000: justo en el límite
+
+        // Act
+        MovimientoLoteResultadoDTO resultado = movimientosService.saveBatch(lote);
+
+        // Assert
+        assertEquals(3, resultado.getAceptados());
+        assertTrue(resultado.getResultados().get(1).getError().contains("límite diario"));
+        assertEquals(0, new BigDecimal("4000.00").compareTo(
+                cuentaRepository.findById(cuenta.getId()).orElseThrow().getSaldoActual()));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> movimientosService.save(movimiento(cuenta.getId(), "Retiro", "0.01")));
+        assertTrue(exception.getMessage().contains("límite diario"));
+    }
+
+    @Test
+    void testTransferir_LimiteDiarioCompartidoConRetiros_ShouldRejectUntilWithdrawalDeleted() {
+        // Arrange: límite diario de ahorros de 2000, con 1500 ya retirados
+        Cuenta origen = datos.crearCuenta("Ahorros", new BigDecimal("5000.00"));
+        Cuenta destino = datos.crearCuenta("Ahorros", new BigDecimal("100.00"));
+        MovimientoDTO retiro = movimientosService.save(movimiento(origen.getId(), "Retiro", "1500.00"));
+
+        // Act
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> transferir(origen, destino, "600.00"));
+        movimientosService.deleteById(retiro.getId());
+        TransferenciaResultadoDTO transferencia = transferir(origen, destino, "2000.00");
+
+        // Assert: el retiro eliminado devuelve su monto; la transferencia agota el límite
+        assertTrue(exception.getMessage().contains("límite diario"));
+        assertNotNull(transferencia.getDebito().getId());
+        assertThrows(IllegalArgumentException.class,
+                () -> movimientosService.save(movimiento(origen.getId(), "Retiro", "0.01")));
+    }
+
+    private TransferenciaResultadoDTO transferir(Cuenta origen, Cuenta destino, String valor) {
+        return movimientosService.transferir(TransferenciaDTO.builder()
+                .cuentaOrigenId(origen.getId())
+                .cuentaDestinoId(destino.getId())
+                .valor(new BigDecimal(valor))
+                .build());
+    }
+
+    private MovimientoDTO movimiento(Long cuentaId, String tipo, String valor) {
+        return MovimientoDTO.builder()
+                .tipoMovimiento(tipo)
+                .valor(new BigDecimal(valor))
+                .cuentaId(cuentaId)
+                .build();
+    }
+}
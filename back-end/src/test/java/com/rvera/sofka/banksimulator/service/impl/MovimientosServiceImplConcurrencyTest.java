@@ -0,0 +1,183 @@
+package com.rvera.sofka.banksimulator.service.impl;
+
+import com.rvera.sofka.banksimulator.DatosPrueba;
+import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import com.rvera.sofka.banksimulator.dto.TransferenciaDTO;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.entity.Movimientos;
+import com.rvera.sofka.banksimulator.repository.CuentaRepository;
+import com.rvera.sofka.banksimulator.repository.MovimientosRepository;
+import com.rvera.sofka.banksimulator.service.IMovimientosService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de integración: varios hilos registran movimientos y transferencias sobre las mismas cuentas
+ */
+@SpringBootTest
+class MovimientosServiceImplConcurrencyTest {
+
+    @Autowired
+    private IMovimientosService movimientosService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientosRepository movimientosRepository;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Test
+    void testSave_ConcurrentRetiros_ShouldNeverOverdrawAndKeepChainConsistent() throws Exception {
+        // Arrange: 1000 de saldo, 200 retiros de 10 compitiendo por la misma cuenta
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("1000.00"));
+        int hilos = 20;
+        int retirosPorHilo = 10;
+        AtomicInteger aceptados = new AtomicInteger();
+        AtomicInteger rechazados = new AtomicInteger();
+
+        // Act
+        ejecutarEnParalelo(hilos, () -> {
+            for (int i = 0; i < retirosPorHilo; i++) {
+                try {
+                    movimientosService.save(movimiento(cuenta.getId(), "Retiro", "10.00"));
+                    aceptados.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    assertTrue(e.getMessage().contains("Saldo insuficiente"));
+                    rechazados.incrementAndGet();
+                }
+            }
+        });
+
+        // Assert
+        assertEquals(100, aceptados.get());
+        assertEquals(100, rechazados.get());
+        assertEquals(0, BigDecimal.ZERO.compareTo(cuentaRepository.findById(cuenta.getId()).orElseThrow().getSaldoActual()));
+        assertCadenaConsistente(cuenta);
+    }
+
+    @Test
+    void testSave_ConcurrentDepositosYRetiros_ShouldMatchFinalBalance() throws Exception {
+        // Arrange
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("500.00"));
+        int hilos = 16;
+        int operacionesPorHilo = 25;
+
+        // Act: cada hilo deposita 20 y retira 5 alternadamente
+        ejecutarEnParalelo(hilos, () -> {
+            for (int i = 0; i < operacionesPorHilo; i++) {
+                movimientosService.save(movimiento(cuenta.getId(), "Deposito", "20.00"));
+                movimientosService.save(movimiento(cuenta.getId(), "Retiro", "5.00"));
+            }
+        });
+
+        // Assert: 500 + 16 * 25 * (20 - 5)
+        BigDecimal esperado = new BigDecimal("6500.00");
+        assertEquals(0, esperado.compareTo(cuentaRepository.findById(cuenta.getId()).orElseThrow().getSaldoActual()));
+        assertCadenaConsistente(cuenta);
+    }
+
+    @Test
+    void testTransferir_CrossedTransfersBetweenHotAccounts_ShouldNotDeadlockAndConserveMoney() throws Exception {
+        // Arrange: tres cuentas; la corriente cobra $2 de comisión por cada transferencia que origina
+        Cuenta ahorrosA = datos.crearCuenta("Ahorros", new BigDecimal("1000.00"));
+        Cuenta corriente = datos.crearCuenta("Corriente", new BigDecimal("1000.00"));
+        Cuenta ahorrosB = datos.crearCuenta("Ahorros", new BigDecimal("1000.00"));
+        Long[][] pares = {
+                {ahorrosA.getId(), corriente.getId()}, {corriente.getId(), ahorrosA.getId()},
+                {corriente.getId(), ahorrosB.getId()}, {ahorrosB.getId(), corriente.getId()},
+                {ahorrosB.getId(), ahorrosA.getId()}, {ahorrosA.getId(), ahorrosB.getId()}
+        };
+        AtomicInteger hiloActual = new AtomicInteger();
+        AtomicInteger desdeCorriente = new AtomicInteger();
+
+        // Act: cada hilo alterna una transferencia en un sentido y la opuesta
+        ejecutarEnParalelo(12, () -> {
+            int hilo = hiloActual.getAndIncrement();
+            for (int i = 0; i < 20; i++) {
+                Long[] par = pares[(hilo + i) % pares.length];
+                try {
+                    movimientosService.transferir(TransferenciaDTO.builder()
+                            .cuentaOrigenId(par[0])
+                            .cuentaDestinoId(par[1])
+                            .valor(new BigDecimal("5.00"))
+                            .build());
+                    if (par[0].equals(corriente.getId())) {
+                        desdeCorriente.incrementAndGet();
+                    }
+                } catch (IllegalArgumentException e) {
+                    assertTrue(e.getMessage().contains("Saldo insuficiente"));
+                }
+            }
+        });
+
+        // Assert: el dinero solo sale del sistema por las comisiones
+        BigDecimal total = BigDecimal.ZERO;
+        for (Cuenta cuenta : List.of(ahorrosA, corriente, ahorrosB)) {
+            total = total.add(cuentaRepository.findById(cuenta.getId()).orElseThrow().getSaldoActual());
+            assertCadenaConsistente(cuenta);
+        }
+        BigDecimal esperado = new BigDecimal("3000.00").subtract(new BigDecimal("2.00").multiply(BigDecimal.valueOf(desdeCorriente.get())));
+        assertEquals(0, esperado.compareTo(total));
+        assertTrue(desdeCorriente.get() > 0);
+    }
+
+    private void ejecutarEnParalelo(int hilos, Runnable tarea) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<?>> futuros = new ArrayList<>();
+        try {
+            for (int i = 0; i < hilos; i++) {
+                futuros.add(executor.submit(() -> {
+                    inicio.await();
+                    tarea.run();
+                    return null;
+                }));
+            }
+            inicio.countDown();
+            for (Future<?> futuro : futuros) {
+                futuro.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Verifica que cada saldo sea el anterior más el valor del movimiento
+     */
+    private void assertCadenaConsistente(Cuenta cuenta) {
+        List<Movimientos> movimientos = new ArrayList<>(movimientosRepository.findByCuentaId(cuenta.getId()));
+        movimientos.sort(Comparator.comparing(Movimientos::getFecha).thenComparing(Movimientos::getId));
+        BigDecimal saldo = cuenta.getSaldoInicial();
+        for (Movimientos movimiento : movimientos) {
+            saldo = saldo.add(movimiento.getValor());
+            assertEquals(0, saldo.compareTo(movimiento.getSaldo()), "Cadena rota en movimiento " + movimiento.getId());
+            assertTrue(movimiento.getSaldo().signum() >= 0);
+        }
+    }
+
+    private MovimientoDTO movimiento(Long cuentaId, String tipo, String valor) {
+        return MovimientoDTO.builder()
+                .tipoMovimiento(tipo)
+                .valor(new BigDecimal(valor))
+                .cuentaId(cuentaId)
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.rvera.sofka.banksimulator.service.impl;
+
+import com.rvera.sofka.banksimulator.DatosPrueba;
+import com.rvera.sofka.banksimulator.dto.CuentaDTO;
+import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import com.rvera.sofka.banksimulator.dto.MovimientoReporteDTO;
+import com.rvera.sofka.banksimulator.dto.PaginaDTO;
+import com.rvera.sofka.banksimulator.entity.Cliente;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.service.ICuentaService;
+import com.rvera.sofka.banksimulator.service.IMovimientosService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de integración del número de sentencias SQL de los reportes y listados
+ * Cada consulta debe resolverse con una sola sentencia, sin cargas adicionales por fila
+ */
+@SpringBootTest
+class MovimientosServiceImplConsultasTest {
+
+    @Autowired
+    private IMovimientosService movimientosService;
+
+    @Autowired
+    private ICuentaService cuentaService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testFindByClienteIdAndFechaBetween_ShouldUseSingleStatementAndExactAmounts() {
+        // Arrange: dos cuentas del mismo cliente con varios movimientos
+        Cliente cliente = datos.crearCliente();
+        Cuenta ahorros = datos.crearCuenta(cliente, "Ahorros", new BigDecimal("1000.00"));
+        Cuenta corriente = datos.crearCuenta(cliente, "Corriente", new BigDecimal("1000.00"));
+        for (int i = 0; i < 5; i++) {
+            registrar(ahorros, "Deposito", "10.10");
+            registrar(corriente, "Retiro", "0.10");
+        }
+        estadisticas.clear();
+
+        // Act
+        List<MovimientoReporteDTO> reporte = movimientosService.findByClienteIdAndFechaBetween(
+                cliente.getClienteId(), LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1));
+
+        // Assert
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+        assertEquals(10, reporte.size());
+        assertTrue(reporte.stream().anyMatch(fila -> new BigDecimal("-2.10").compareTo(fila.getMovimiento()) == 0));
+        assertTrue(reporte.stream().anyMatch(fila -> new BigDecimal("1050.50").compareTo(fila.getSaldoDisponible()) == 0));
+        assertEquals(cliente.getPersona().getNombre(), reporte.get(0).getCliente());
+    }
+
+    @Test
+    void testListados_ShouldUseSingleStatementPerPage() {
+        // Arrange
+        Cliente cliente = datos.crearCliente();
+        Cuenta cuenta = datos.crearCuenta(cliente, "Ahorros", new BigDecimal("1000.00"));
+        for (int i = 0; i < 5; i++) {
+            registrar(cuenta, "Deposito", "1.00");
+        }
+        estadisticas.clear();
+
+        // Act
+        PaginaDTO<MovimientoDTO> movimientos = movimientosService.findByCuentaId(cuenta.getId(), null, 100);
+        long sentenciasMovimientos = estadisticas.getPrepareStatementCount();
+        estadisticas.clear();
+        PaginaDTO<CuentaDTO> cuentas = cuentaService.findAll(cuenta.getId() - 1, 10);
+        long sentenciasCuentas = estadisticas.getPrepareStatementCount();
+
+        // Assert
+        assertEquals(5, movimientos.getContenido().size());
+        assertEquals(cliente.getPersona().getNombre(), movimientos.getContenido().get(0).getCuenta().getCliente().getNombre());
+        assertEquals(1, sentenciasMovimientos);
+        assertEquals(cuenta.getId(), cuentas.getContenido().get(0).getId());
+        assertEquals(1, sentenciasCuentas);
+    }
+
+    private void registrar(Cuenta cuenta, String tipo, String valor) {
+        movimientosService.save(MovimientoDTO.builder()
+                .tipoMovimiento(tipo)
+                .valor(new BigDecimal(valor))
+                .cuentaId(cuenta.getId())
+                .build());
+    }
+}
@@ -0,0 +1,165 @@
+package com.rvera.sofka.banksimulator.service.impl;
+
+import com.rvera.sofka.banksimulator.DatosPrueba;
+import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.exception.ClaveIdempotenciaEnUsoException;
+import com.rvera.sofka.banksimulator.repository.CuentaRepository;
+import com.rvera.sofka.banksimulator.repository.MovimientosRepository;
+import com.rvera.sofka.banksimulator.service.IMovimientosService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de integración del encabezado Idempotency-Key en el registro de movimientos
+ * La cache admite solo 2 claves para forzar el camino de respaldo por la columna única
+ */
+@SpringBootTest(properties = "app.movimientos.idempotencia.maximo-entradas=2")
+class MovimientosServiceImplIdempotenciaTest {
+
+    private static final AtomicLong SECUENCIA = new AtomicLong(System.nanoTime() % 1_000_000);
+
+    @Autowired
+    private IMovimientosService movimientosService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientosRepository movimientosRepository;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Test
+    void testSave_ClaveRepetida_ShouldReturnOriginalWithoutSecondInsert() {
+        // Arrange
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("1000.00"));
+        String clave = "retiro-" + SECUENCIA.incrementAndGet();
+
+        // Act
+        MovimientoDTO original = movimientosService.save(movimiento(cuenta.getId(), "Retiro", "100.00", clave));
+        MovimientoDTO repetido = movimientosService.save(movimiento(cuenta.getId(), "Retiro", "100.00", clave));
+
+        // Assert
+        assertEquals(original.getId(), repetido.getId());
+        assertEquals(1, movimientosRepository.findByCuentaId(cuenta.getId()).size());
+        assertEquals(0, new BigDecimal("900.00").compareTo(cuentaRepository.findById(cuenta.getId()).orElseThrow().getSaldoActual()));
+    }
+
+    @Test
+    void testSave_ClaveRepetidaEnParalelo_ShouldInsertOnce() throws Exception {
+        // Arrange
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("1000.00"));
+        String clave = "deposito-" + SECUENCIA.incrementAndGet();
+        int hilos = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<MovimientoDTO>> futuros = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < hilos; i++) {
+                futuros.add(executor.submit(() -> {
+                    inicio.await();
+                    return movimientosService.save(movimiento(cuenta.getId(), "Deposito", "50.00", clave));
+                }));
+            }
+            inicio.countDown();
+            Long id = futuros.get(0).get(60, TimeUnit.SECONDS).getId();
+            for (Future<MovimientoDTO> futuro : futuros) {
+                // Assert
+                assertEquals(id, futuro.get(60, TimeUnit.SECONDS).getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, movimientosRepository.findByCuentaId(cuenta.getId()).size());
+    }
+
+    @Test
+    void testSave_ClaveFueraDeCache_ShouldResolveByUniqueColumn() {
+        // Arrange: la clave original sale de la cache al registrar otras dos
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("1000.00"));
+        String clave = "antiguo-" + SECUENCIA.incrementAndGet();
+        MovimientoDTO original = movimientosService.save(movimiento(cuenta.getId(), "Deposito", "10.00", clave));
+        movimientosService.save(movimiento(cuenta.getId(), "Deposito", "10.00", "otro-" + SECUENCIA.incrementAndGet()));
+        movimientosService.save(movimiento(cuenta.getId(), "Deposito", "10.00", "otro-" + SECUENCIA.incrementAndGet()));
+
+        // Act
+        MovimientoDTO repetido = movimientosService.save(movimiento(cuenta.getId(), "Deposito", "10.00", clave));
+
+        // Assert
+        assertEquals(original.getId(), repetido.getId());
+        assertEquals(3, movimientosRepository.findByCuentaId(cuenta.getId()).size());
+        assertEquals(0, new BigDecimal("1030.00").compareTo(cuentaRepository.findById(cuenta.getId()).orElseThrow().getSaldoActual()));
+    }
+
+    @Test
+    void testSave_ClaveUsadaEnOtraCuenta_ShouldThrowException() {
+        // Arrange
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("1000.00"));
+        Cuenta otraCuenta = datos.crearCuenta(new BigDecimal("1000.00"));
+        String clave = "cruzada-" + SECUENCIA.incrementAndGet();
+        movimientosService.save(movimiento(cuenta.getId(), "Deposito", "10.00", clave));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> movimientosService.save(movimiento(otraCuenta.getId(), "Deposito", "10.00", clave)));
+        assertTrue(exception.getMessage().contains("clave de idempotencia"));
+        assertTrue(movimientosRepository.findByCuentaId(otraCuenta.getId()).isEmpty());
+    }
+
+    @Test
+    void testSave_ClaveRepetidaConOtroValor_ShouldThrowException() {
+        // Arrange
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("1000.00"));
+        String clave = "valor-" + SECUENCIA.incrementAndGet();
+        movimientosService.save(movimiento(cuenta.getId(), "Retiro", "100.00", clave));
+
+        // Act & Assert
+        assertThrows(ClaveIdempotenciaEnUsoException.class,
+                () -> movimientosService.save(movimiento(cuenta.getId(), "Retiro", "150.00", clave)));
+        assertEquals(1, movimientosRepository.findByCuentaId(cuenta.getId()).size());
+        assertEquals(0, new BigDecimal("900.00").compareTo(cuentaRepository.findById(cuenta.getId()).orElseThrow().getSaldoActual()));
+    }
+
+    @Test
+    void testSave_PrimerIntentoRechazado_ShouldAllowRetryWithSameKey() {
+        // Arrange
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("50.00"));
+        String clave = "reintento-" + SECUENCIA.incrementAndGet();
+        assertThrows(IllegalArgumentException.class,
+                () -> movimientosService.save(movimiento(cuenta.getId(), "Retiro", "100.00", clave)));
+        movimientosService.save(movimiento(cuenta.getId(), "Deposito", "100.00", null));
+
+        // Act
+        MovimientoDTO resultado = movimientosService.save(movimiento(cuenta.getId(), "Retiro", "100.00", clave));
+
+        // Assert
+        assertNotNull(resultado.getId());
+        assertEquals(0, new BigDecimal("50.00").compareTo(resultado.getSaldo()));
+    }
+
+    private MovimientoDTO movimiento(Long cuentaId, String tipo, String valor, String clave) {
+        return MovimientoDTO.builder()
+                .tipoMovimiento(tipo)
+                .valor(new BigDecimal(valor))
+                .cuentaId(cuentaId)
+                .claveIdempotencia(clave)
+                .build();
+    }
+}
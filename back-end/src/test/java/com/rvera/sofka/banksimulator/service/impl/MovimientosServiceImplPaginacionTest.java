@@ -0,0 +1,146 @@
+package com.rvera.sofka.banksimulator.service.impl;
+
+import com.rvera.sofka.banksimulator.DatosPrueba;
+import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import com.rvera.sofka.banksimulator.dto.PaginaDTO;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.service.IMovimientosService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de integración de la paginación por keyset de los movimientos
+ * La búsqueda se resuelve con la consulta SQL; IndiceMovimientosTest cubre la misma búsqueda desde el índice
+ */
+@SpringBootTest(properties = "app.busqueda.movimientos.habilitado=false")
+class MovimientosServiceImplPaginacionTest {
+
+    @Autowired
+    private IMovimientosService movimientosService;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Test
+    void testFindByCuentaId_ShouldWalkAllPagesNewestFirstWithCursor() {
+        // Arrange: 5 movimientos activos y uno eliminado
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("100.00"));
+        List<Long> registrados = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            registrados.add(registrar(cuenta, i + ".00"));
+        }
+        movimientosService.deleteById(registrados.remove(2));
+
+        // Act
+        List<Long> recorridos = new ArrayList<>();
+        List<Integer> tamanios = new ArrayList<>();
+        Long before = null;
+        do {
+            PaginaDTO<MovimientoDTO> pagina = movimientosService.findByCuentaId(cuenta.getId(), before, 2);
+            pagina.getContenido().forEach(movimiento -> recorridos.add(movimiento.getId()));
+            tamanios.add(pagina.getContenido().size());
+            before = pagina.getSiguiente();
+        } while (before != null);
+
+        // Assert
+        Collections.reverse(registrados);
+        assertEquals(registrados, recorridos);
+        assertEquals(List.of(2, 2, 1), tamanios);
+    }
+
+    @Test
+    void testSearchByFilter_ShouldPageOnlyMatchingRows() {
+        // Arrange
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("100.00"));
+        Long primero = registrar(cuenta, "10.00");
+        Long segundo = registrar(cuenta, "20.00");
+
+        // Act
+        PaginaDTO<MovimientoDTO> inicial = movimientosService.searchByFilter(cuenta.getNumeroCuenta(), null, 1);
+        PaginaDTO<MovimientoDTO> ultima = movimientosService.searchByFilter(cuenta.getNumeroCuenta(), inicial.getSiguiente(), 1);
+
+        // Assert
+        assertEquals(primero, inicial.getContenido().get(0).getId());
+        assertEquals(primero, inicial.getSiguiente());
+        assertEquals(List.of(segundo), ultima.getContenido().stream().map(MovimientoDTO::getId).toList());
+        assertNull(ultima.getSiguiente());
+    }
+
+    @Test
+    void testSearchByFilter_RangosYCampos_ShouldMatchExactly() {
+        // Arrange: el depósito de 250 deja saldo 350; el retiro de 50 se guarda como -50 y deja saldo 300
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("100.00"));
+        registrar(cuenta, "10.00");
+        Long deposito = registrar(cuenta, "240.00");
+        Long retiro = movimientosService.save(MovimientoDTO.builder()
+                .tipoMovimiento("Retiro")
+                .valor(new BigDecimal("50.00"))
+                .cuentaId(cuenta.getId())
+                .build()).getId();
+        String hoy = LocalDate.now().toString();
+        String nombre = cuenta.getCliente().getPersona().getNombre();
+
+        // Act
+        List<Long> porValor = ids("cuenta:" + cuenta.getNumeroCuenta() + " valor:[100 TO 500]");
+        List<Long> retiros = ids(cuenta.getNumeroCuenta() + " tipo:retiro valor:[* TO 0]");
+        List<Long> porSaldo = ids("cliente:\"" + nombre + "\" cuenta:" + cuenta.getNumeroCuenta() + " saldo:[300 TO 349.99]");
+        List<Long> porFecha = ids("cuenta:" + cuenta.getNumeroCuenta() + " fecha:[" + hoy + " TO " + hoy + "]");
+        List<Long> otroDia = ids("cuenta:" + cuenta.getNumeroCuenta() + " fecha:2000-01-01");
+
+        // Assert
+        assertEquals(List.of(deposito), porValor);
+        assertEquals(List.of(retiro), retiros);
+        assertEquals(List.of(retiro), porSaldo);
+        assertEquals(3, porFecha.size());
+        assertTrue(otroDia.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> movimientosService.searchByFilter("valor:[x TO 1]", null, 10));
+    }
+
+    @Test
+    void testSearchByFilter_TerminosLibres_ShouldMatchTipoPrefixOrResolvedCuentas() {
+        // Arrange
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("100.00"));
+        Long deposito = registrar(cuenta, "20.00");
+        Long retiro = movimientosService.save(MovimientoDTO.builder()
+                .tipoMovimiento("Retiro")
+                .valor(new BigDecimal("5.00"))
+                .cuentaId(cuenta.getId())
+                .build()).getId();
+        String nombre = cuenta.getCliente().getPersona().getNombre();
+
+        // Act
+        List<Long> porNumero = ids(cuenta.getNumeroCuenta());
+        List<Long> porNombreYTipo = ids("cuenta:" + cuenta.getNumeroCuenta() + " \"" + nombre + "\" ret");
+        List<Long> porClienteYTipo = ids("cliente:\"" + nombre + "\" cuenta:" + cuenta.getNumeroCuenta() + " tipo:DEPOSITO");
+        List<Long> sinCoincidencias = ids("cuenta:" + cuenta.getNumeroCuenta() + " zzz_sin_coincidencias");
+
+        // Assert
+        assertEquals(List.of(deposito, retiro), porNumero);
+        assertEquals(List.of(retiro), porNombreYTipo);
+        assertEquals(List.of(deposito), porClienteYTipo);
+        assertTrue(sinCoincidencias.isEmpty());
+    }
+
+    private List<Long> ids(String filtro) {
+        return movimientosService.searchByFilter(filtro, null, 10).getContenido().stream()
+                .map(MovimientoDTO::getId)
+                .toList();
+    }
+
+    private Long registrar(Cuenta cuenta, String valor) {
+        return movimientosService.save(MovimientoDTO.builder()
+                .tipoMovimiento("Deposito")
+                .valor(new BigDecimal(valor))
+                .cuentaId(cuenta.getId())
+                .build()).getId();
+    }
+}
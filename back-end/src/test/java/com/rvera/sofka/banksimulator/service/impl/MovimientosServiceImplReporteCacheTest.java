@@ -0,0 +1,95 @@
+package com.rvera.sofka.banksimulator.service.impl;
+
+import com.rvera.sofka.banksimulator.DatosPrueba;
+import com.rvera.sofka.banksimulator.cache.ReporteCache;
+import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import com.rvera.sofka.banksimulator.dto.MovimientoReporteDTO;
+import com.rvera.sofka.banksimulator.dto.TransferenciaDTO;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.service.IMovimientosService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de integración de la cache de reportes con la invalidación por cliente al confirmar movimientos
+ */
+@SpringBootTest
+class MovimientosServiceImplReporteCacheTest {
+
+    private final LocalDateTime inicio = LocalDateTime.now().minusDays(1);
+    private final LocalDateTime fin = LocalDateTime.now().plusDays(1);
+
+    @Autowired
+    private IMovimientosService movimientosService;
+
+    @Autowired
+    private ReporteCache reporteCache;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Test
+    void testFindByClienteIdAndFechaBetween_ShouldServeFromCacheUntilNewMovimiento() {
+        // Arrange
+        Cuenta cuenta = datos.crearCuenta(new BigDecimal("1000.00"));
+        Long clienteId = cuenta.getCliente().getClienteId();
+        registrar(cuenta, "Deposito", "100.00");
+        List<MovimientoReporteDTO> primero = movimientosService.findByClienteIdAndFechaBetween(clienteId, inicio, fin);
+        long aciertos = reporteCache.estadisticas().getJsonAciertos();
+
+        // Act
+        List<MovimientoReporteDTO> repetido = movimientosService.findByClienteIdAndFechaBetween(clienteId, inicio, fin);
+        registrar(cuenta, "Retiro", "50.00");
+        List<MovimientoReporteDTO> posterior = movimientosService.findByClienteIdAndFechaBetween(clienteId, inicio, fin);
+
+        // Assert
+        assertEquals(primero, repetido);
+        assertEquals(aciertos + 1, reporteCache.estadisticas().getJsonAciertos());
+        assertEquals(1, primero.size());
+        assertEquals(2, posterior.size());
+    }
+
+    @Test
+    void testTransferir_ShouldInvalidateOnlyBothClients() {
+        // Arrange
+        Cuenta origen = datos.crearCuenta(new BigDecimal("500.00"));
+        Cuenta destino = datos.crearCuenta(new BigDecimal("0.00"));
+        Cuenta ajena = datos.crearCuenta(new BigDecimal("0.00"));
+        for (Cuenta cuenta : List.of(origen, destino, ajena)) {
+            movimientosService.findByClienteIdAndFechaBetween(cuenta.getCliente().getClienteId(), inicio, fin);
+        }
+
+        // Act
+        movimientosService.transferir(TransferenciaDTO.builder()
+                .cuentaOrigenId(origen.getId())
+                .cuentaDestinoId(destino.getId())
+                .valor(new BigDecimal("100.00"))
+                .build());
+
+        // Assert
+        assertTrue(reporteCache.obtenerJson(clave(origen)).isEmpty());
+        assertTrue(reporteCache.obtenerJson(clave(destino)).isEmpty());
+        assertTrue(reporteCache.obtenerJson(clave(ajena)).isPresent());
+        assertEquals(1, movimientosService.findByClienteIdAndFechaBetween(
+                destino.getCliente().getClienteId(), inicio, fin).size());
+    }
+
+    private ReporteCache.Clave clave(Cuenta cuenta) {
+        return new ReporteCache.Clave(cuenta.getCliente().getClienteId(), inicio, fin);
+    }
+
+    private void registrar(Cuenta cuenta, String tipo, String valor) {
+        movimientosService.save(MovimientoDTO.builder()
+                .tipoMovimiento(tipo)
+                .valor(new BigDecimal(valor))
+                .cuentaId(cuenta.getId())
+                .build());
+    }
+}
@@ -1,28 +1,45 @@
 package com.rvera.sofka.banksimulator.service.impl;
 
+import com.rvera.sofka.banksimulator.busqueda.IndiceMovimientos;
+import com.rvera.sofka.banksimulator.cache.ReporteCache;
+import com.rvera.sofka.banksimulator.cache.VentanaRetiros;
 import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import com.rvera.sofka.banksimulator.dto.PaginaDTO;
+import com.rvera.sofka.banksimulator.dto.TransferenciaDTO;
+import com.rvera.sofka.banksimulator.entity.Cliente;
 import com.rvera.sofka.banksimulator.entity.Cuenta;
 import com.rvera.sofka.banksimulator.entity.Movimientos;
+import com.rvera.sofka.banksimulator.event.MovimientosModificadosEvent;
 import com.rvera.sofka.banksimulator.mapper.MovimientoMapper;
 import com.rvera.sofka.banksimulator.repository.CuentaRepository;
 import com.rvera.sofka.banksimulator.repository.MovimientosRepository;
+import com.rvera.sofka.banksimulator.service.IResumenDiarioService;
 import com.rvera.sofka.banksimulator.strategy.CuentaStrategyFactory;
 import com.rvera.sofka.banksimulator.strategy.ICuentaStrategy;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -44,6 +61,27 @@ class MovimientosServiceImplTest {
     @Mock
     private ICuentaStrategy cuentaStrategy;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ReporteCache reporteCache;
+
+    @Mock
+    private VentanaRetiros ventanaRetiros;
+
+    @Mock
+    private IndiceMovimientos indiceMovimientos;
+
+    @Mock
+    private IResumenDiarioService resumenDiarioService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private MovimientosServiceImpl movimientosService;
 
@@ -53,13 +91,22 @@ class MovimientosServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        // El contexto de persistencia se inyecta por campo, fuera del constructor
+        ReflectionTestUtils.setField(movimientosService, "entityManager", entityManager);
+
+        // La transacción programática ejecuta el callback directamente
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+
         // Setup Cuenta
         cuenta = new Cuenta();
         cuenta.setId(1L);
         cuenta.setNumeroCuenta("1234567890");
         cuenta.setTipoCuenta("Ahorros");
         cuenta.setSaldoInicial(new BigDecimal("1000.00"));
+        cuenta.setSaldoActual(new BigDecimal("1000.00"));
         cuenta.setEstado(true);
+        cuenta.setCliente(cliente(10L));
 
         // Setup Movimiento entity
         movimiento = new Movimientos();
@@ -85,16 +132,17 @@ class MovimientosServiceImplTest {
     void testFindAll_ShouldReturnListOfMovimientos() {
         // Arrange
         List<Movimientos> movimientos = Arrays.asList(movimiento);
-        when(movimientosRepository.findAllActive()).thenReturn(movimientos);
+        when(movimientosRepository.findActiveDespuesDe(0L, Limit.of(101))).thenReturn(movimientos);
         when(movimientoMapper.toDTO(any(Movimientos.class))).thenReturn(movimientoDTO);
 
         // Act
-        List<MovimientoDTO> result = movimientosService.findAll();
+        PaginaDTO<MovimientoDTO> result = movimientosService.findAll(null, 100);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(movimientosRepository, times(1)).findAllActive();
+        assertEquals(1, result.getContenido().size());
+        assertNull(result.getSiguiente());
+        verify(movimientosRepository, times(1)).findActiveDespuesDe(0L, Limit.of(101));
         verify(movimientoMapper, times(1)).toDTO(any(Movimientos.class));
     }
 
@@ -131,16 +179,16 @@ class MovimientosServiceImplTest {
     void testFindByCuentaId_ShouldReturnListOfMovimientos() {
         // Arrange
         List<Movimientos> movimientos = Arrays.asList(movimiento);
-        when(movimientosRepository.findByCuentaIdAndActiveOrderByFechaDesc(1L)).thenReturn(movimientos);
+        when(movimientosRepository.findByCuentaIdAndActive(1L, Long.MAX_VALUE, Limit.of(101))).thenReturn(movimientos);
         when(movimientoMapper.toDTO(any(Movimientos.class))).thenReturn(movimientoDTO);
 
         // Act
-        List<MovimientoDTO> result = movimientosService.findByCuentaId(1L);
+        PaginaDTO<MovimientoDTO> result = movimientosService.findByCuentaId(1L, null, 100);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(movimientosRepository, times(1)).findByCuentaIdAndActiveOrderByFechaDesc(1L);
+        assertEquals(1, result.getContenido().size());
+        verify(movimientosRepository, times(1)).findByCuentaIdAndActive(1L, Long.MAX_VALUE, Limit.of(101));
     }
 
     @Test
@@ -152,8 +200,7 @@ class MovimientosServiceImplTest {
                 .cuentaId(1L)
                 .build();
 
-        when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuenta));
-        when(movimientosRepository.findByCuentaIdAndActiveOrderByFechaDesc(1L)).thenReturn(Arrays.asList());
+        when(cuentaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cuenta));
         when(movimientoMapper.toEntity(any(MovimientoDTO.class))).thenReturn(movimiento);
         when(movimientosRepository.save(any(Movimientos.class))).thenReturn(movimiento);
         when(movimientoMapper.toDTO(any(Movimientos.class))).thenReturn(depositoDTO);
@@ -163,8 +210,11 @@ class MovimientosServiceImplTest {
 
         // Assert
         assertNotNull(result);
-        verify(cuentaRepository, times(2)).findById(1L); // Una para save() y otra para obtenerUltimoSaldo()
+        verify(cuentaRepository, times(1)).findByIdForUpdate(1L); // El saldo vigente se lee de la cuenta bloqueada
+        verify(movimientosRepository, never()).findByCuentaIdAndActive(anyLong(), anyLong(), any(Limit.class));
         verify(movimientosRepository, times(1)).save(any(Movimientos.class));
+        assertEquals(new BigDecimal("1500.00"), cuenta.getSaldoActual());
+        assertEquals(1L, cuenta.getUltimoMovimientoId());
     }
 
     @Test
@@ -176,10 +226,9 @@ class MovimientosServiceImplTest {
                 .cuentaId(1L)
                 .build();
 
-        when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuenta));
-        when(movimientosRepository.findByCuentaIdAndActiveOrderByFechaDesc(1L)).thenReturn(Arrays.asList());
+        when(cuentaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cuenta));
         when(strategyFactory.getStrategy("Ahorros")).thenReturn(cuentaStrategy);
-        when(cuentaStrategy.aplicarComision(any(BigDecimal.class))).thenReturn(new BigDecimal("201.00"));
+        when(cuentaStrategy.aplicarComisionCentavos(anyLong())).thenReturn(20100L);
         when(movimientoMapper.toEntity(any(MovimientoDTO.class))).thenReturn(movimiento);
         when(movimientosRepository.save(any(Movimientos.class))).thenReturn(movimiento);
         when(movimientoMapper.toDTO(any(Movimientos.class))).thenReturn(retiroDTO);
@@ -190,8 +239,10 @@ class MovimientosServiceImplTest {
         // Assert
         assertNotNull(result);
         verify(strategyFactory, times(1)).getStrategy("Ahorros");
-        verify(cuentaStrategy, times(1)).aplicarComision(any(BigDecimal.class));
+        verify(cuentaStrategy, times(1)).aplicarComisionCentavos(20000L);
         verify(movimientosRepository, times(1)).save(any(Movimientos.class));
+        assertEquals(0, new BigDecimal("1.00").compareTo(movimiento.getComision()));
+        verify(resumenDiarioService).registrarMovimientos(1L, List.of(movimiento));
     }
 
     @Test
@@ -203,10 +254,9 @@ class MovimientosServiceImplTest {
                 .cuentaId(1L)
                 .build();
 
-        when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuenta));
-        when(movimientosRepository.findByCuentaIdAndActiveOrderByFechaDesc(1L)).thenReturn(Arrays.asList());
+        when(cuentaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cuenta));
         when(strategyFactory.getStrategy("Ahorros")).thenReturn(cuentaStrategy);
-        when(cuentaStrategy.aplicarComision(any(BigDecimal.class))).thenReturn(new BigDecimal("2001.00"));
+        when(cuentaStrategy.aplicarComisionCentavos(anyLong())).thenReturn(200100L);
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -217,6 +267,73 @@ class MovimientosServiceImplTest {
         verify(movimientosRepository, never()).save(any(Movimientos.class));
     }
 
+    @Test
+    void testSave_RetiroSobreLimiteDiario_ShouldThrowException() {
+        // Arrange
+        MovimientoDTO retiroDTO = MovimientoDTO.builder()
+                .tipoMovimiento("Retiro")
+                .valor(new BigDecimal("200.00"))
+                .cuentaId(1L)
+                .build();
+
+        when(cuentaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cuenta));
+        when(strategyFactory.getStrategy("Ahorros")).thenReturn(cuentaStrategy);
+        when(cuentaStrategy.aplicarComisionCentavos(anyLong())).thenReturn(20000L);
+        when(ventanaRetiros.reservar(cuenta, -20000L, 20000L))
+                .thenThrow(new IllegalArgumentException("El retiro supera el límite diario de $2000.00 (disponible $100.00)"));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> movimientosService.save(retiroDTO));
+
+        assertTrue(exception.getMessage().contains("límite diario"));
+        verify(movimientosRepository, never()).save(any(Movimientos.class));
+    }
+
+    @Test
+    void testSave_DepositoNegativo_ShouldCountAgainstDailyLimit() {
+        // Arrange: los clientes anteriores registran débitos como depósitos con valor negativo
+        MovimientoDTO depositoDTO = MovimientoDTO.builder()
+                .tipoMovimiento("Deposito")
+                .valor(new BigDecimal("-500.00"))
+                .cuentaId(1L)
+                .build();
+
+        when(cuentaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cuenta));
+        when(movimientoMapper.toEntity(any(MovimientoDTO.class))).thenReturn(movimiento);
+        when(movimientosRepository.save(any(Movimientos.class))).thenReturn(movimiento);
+        when(movimientoMapper.toDTO(any(Movimientos.class))).thenReturn(depositoDTO);
+
+        // Act
+        movimientosService.save(depositoDTO);
+
+        // Assert: se sigue aceptando, pero el débito pasa por el límite diario
+        verify(ventanaRetiros).reservar(cuenta, -50000L, -50000L);
+        assertEquals(new BigDecimal("500.00"), cuenta.getSaldoActual());
+    }
+
+    @Test
+    void testSave_TransferenciaPositiva_ShouldCreditWithoutReservation() {
+        // Arrange: un tipo Transferencia enviado a POST /movimientos se registra como crédito, igual que antes
+        MovimientoDTO transferenciaDTO = MovimientoDTO.builder()
+                .tipoMovimiento("Transferencia")
+                .valor(new BigDecimal("500.00"))
+                .cuentaId(1L)
+                .build();
+
+        when(cuentaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cuenta));
+        when(movimientoMapper.toEntity(any(MovimientoDTO.class))).thenReturn(movimiento);
+        when(movimientosRepository.save(any(Movimientos.class))).thenReturn(movimiento);
+        when(movimientoMapper.toDTO(any(Movimientos.class))).thenReturn(transferenciaDTO);
+
+        // Act
+        movimientosService.save(transferenciaDTO);
+
+        // Assert
+        verify(ventanaRetiros).reservar(cuenta, 50000L, 50000L);
+        assertEquals(new BigDecimal("1500.00"), cuenta.getSaldoActual());
+    }
+
     @Test
     void testSave_CuentaNotFound_ShouldThrowException() {
         // Arrange
@@ -226,7 +343,7 @@ class MovimientosServiceImplTest {
                 .cuentaId(999L) // Cuenta inexistente
                 .build();
 
-        when(cuentaRepository.findById(999L)).thenReturn(Optional.empty());
+        when(cuentaRepository.findByIdForUpdate(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -236,4 +353,179 @@ class MovimientosServiceImplTest {
         assertTrue(exception.getMessage().contains("Cuenta no encontrada"));
         verify(movimientosRepository, never()).save(any(Movimientos.class));
     }
+
+    @Test
+    void testDeleteById_UltimoMovimiento_ShouldRestoreSaldoActual() {
+        // Arrange: movimiento 1 (valor 500, saldo 1500) es el último de la cadena
+        Movimientos anterior = new Movimientos();
+        anterior.setId(2L);
+        anterior.setSaldo(new BigDecimal("1000.00"));
+        cuenta.setSaldoActual(new BigDecimal("1500.00"));
+        cuenta.setUltimoMovimientoId(1L);
+
+        when(movimientosRepository.findById(1L)).thenReturn(Optional.of(movimiento));
+        when(cuentaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cuenta));
+        when(movimientosRepository.sumarValoresPosteriores(eq(1L), any(), eq(1L))).thenReturn(BigDecimal.ZERO);
+        when(movimientosRepository.findFirstByCuentaIdAndEstadoTrueOrderByFechaDescIdDesc(1L))
+                .thenReturn(Optional.of(anterior));
+
+        // Act
+        movimientosService.deleteById(1L);
+
+        // Assert
+        assertFalse(movimiento.getEstado());
+        assertEquals(new BigDecimal("1000.00"), cuenta.getSaldoActual());
+        assertEquals(2L, cuenta.getUltimoMovimientoId());
+        verify(movimientosRepository).recalcularSaldosPosteriores(eq(1L), any(), eq(1L), eq(new BigDecimal("1000.00")));
+    }
+
+    @Test
+    void testDeleteById_EliminadoConcurrentemente_ShouldNotRevertTwice() {
+        // Arrange: otra eliminación confirma mientras esta espera el bloqueo de la cuenta
+        when(movimientosRepository.findById(1L)).thenReturn(Optional.of(movimiento));
+        when(cuentaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cuenta));
+        doAnswer(inv -> {
+            movimiento.setEstado(false);
+            return null;
+        }).when(entityManager).refresh(movimiento);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> movimientosService.deleteById(1L));
+        verify(movimientosRepository, never()).recalcularSaldosPosteriores(anyLong(), any(), anyLong(), any());
+        verify(resumenDiarioService, never()).revertirMovimiento(any());
+        verify(ventanaRetiros, never()).descontar(any());
+    }
+
+    @Test
+    void testDeleteById_SaldoPosteriorNegativo_ShouldThrowException() {
+        // Arrange: sin el depósito de 500, un retiro posterior deja la cuenta en -50
+        when(movimientosRepository.findById(1L)).thenReturn(Optional.of(movimiento));
+        when(cuentaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cuenta));
+        when(movimientosRepository.minimoSaldoPosterior(eq(1L), any(), eq(1L))).thenReturn(new BigDecimal("-50.00"));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> movimientosService.deleteById(1L));
+        assertTrue(exception.getMessage().contains("-50.00"));
+        verify(resumenDiarioService, never()).revertirMovimiento(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testDeleteByIds_SameCuenta_ShouldRecomputeOnceFromEarliest() {
+        // Arrange: dos movimientos de la misma cuenta, el de ID 3 es el más antiguo
+        Movimientos posterior = new Movimientos();
+        posterior.setId(4L);
+        posterior.setFecha(LocalDateTime.of(2024, 1, 2, 10, 0));
+        posterior.setValor(new BigDecimal("-200.00"));
+        posterior.setSaldo(new BigDecimal("900.00"));
+        posterior.setEstado(true);
+        posterior.setCuenta(cuenta);
+        Movimientos primero = new Movimientos();
+        primero.setId(3L);
+        primero.setFecha(LocalDateTime.of(2024, 1, 1, 10, 0));
+        primero.setValor(new BigDecimal("100.00"));
+        primero.setSaldo(new BigDecimal("1100.00"));
+        primero.setEstado(true);
+        primero.setCuenta(cuenta);
+
+        when(movimientosRepository.findAllById(List.of(4L, 3L, 99L))).thenReturn(List.of(posterior, primero));
+        when(cuentaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cuenta));
+        when(movimientosRepository.sumarValoresPosteriores(1L, primero.getFecha(), 3L)).thenReturn(new BigDecimal("50.00"));
+        when(movimientosRepository.findFirstByCuentaIdAndEstadoTrueOrderByFechaDescIdDesc(1L)).thenReturn(Optional.empty());
+
+        // Act
+        int eliminados = movimientosService.deleteByIds(List.of(4L, 3L, 99L));
+
+        // Assert
+        assertEquals(2, eliminados);
+        assertFalse(posterior.getEstado());
+        assertFalse(primero.getEstado());
+        verify(movimientosRepository, times(1)).recalcularSaldosPosteriores(
+                1L, primero.getFecha(), 3L, new BigDecimal("1000.00"));
+        assertEquals(new BigDecimal("1050.00"), cuenta.getSaldoActual());
+    }
+
+    @Test
+    void testTransferir_ShouldLockLowerIdFirstAndApplyOrigenComision() {
+        // Arrange: origen con ID mayor que destino
+        Cuenta origen = new Cuenta();
+        origen.setId(2L);
+        origen.setTipoCuenta("Corriente");
+        origen.setSaldoInicial(new BigDecimal("800.00"));
+        origen.setSaldoActual(new BigDecimal("800.00"));
+        origen.setCliente(cliente(20L));
+        TransferenciaDTO transferencia = TransferenciaDTO.builder()
+                .cuentaOrigenId(2L)
+                .cuentaDestinoId(1L)
+                .valor(new BigDecimal("100.00"))
+                .build();
+        when(cuentaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cuenta));
+        when(cuentaRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(origen));
+        when(strategyFactory.getStrategy("Corriente")).thenReturn(cuentaStrategy);
+        when(cuentaStrategy.aplicarComisionCentavos(anyLong())).thenReturn(10200L);
+        when(movimientosRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Movimientos> guardados = inv.getArgument(0);
+            guardados.get(0).setId(500L);
+            guardados.get(1).setId(501L);
+            return guardados;
+        });
+
+        // Act
+        movimientosService.transferir(transferencia);
+
+        // Assert
+        InOrder orden = inOrder(cuentaRepository);
+        orden.verify(cuentaRepository).findByIdForUpdate(1L);
+        orden.verify(cuentaRepository).findByIdForUpdate(2L);
+        assertEquals(0, new BigDecimal("698.00").compareTo(origen.getSaldoActual()));
+        assertEquals(0, new BigDecimal("1100.00").compareTo(cuenta.getSaldoActual()));
+        verify(movimientosRepository, times(1)).saveAll(anyList());
+        verify(eventPublisher).publishEvent(new MovimientosModificadosEvent(Set.of(1L, 2L), Set.of(10L, 20L), Set.of(500L, 501L)));
+    }
+
+    @Test
+    void testTransferir_InsufficientBalance_ShouldThrowException() {
+        // Arrange
+        Cuenta destino = new Cuenta();
+        destino.setId(2L);
+        destino.setTipoCuenta("Ahorros");
+        destino.setSaldoInicial(BigDecimal.ZERO);
+        destino.setCliente(cliente(20L));
+        TransferenciaDTO transferencia = TransferenciaDTO.builder()
+                .cuentaOrigenId(1L)
+                .cuentaDestinoId(2L)
+                .valor(new BigDecimal("5000.00"))
+                .build();
+        when(cuentaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cuenta));
+        when(cuentaRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(destino));
+        when(strategyFactory.getStrategy("Ahorros")).thenReturn(cuentaStrategy);
+        when(cuentaStrategy.aplicarComisionCentavos(anyLong())).thenReturn(500000L);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> movimientosService.transferir(transferencia));
+        assertEquals("Saldo insuficiente para realizar el movimiento", exception.getMessage());
+        verify(movimientosRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testTransferir_MismaCuenta_ShouldThrowException() {
+        // Arrange
+        TransferenciaDTO transferencia = TransferenciaDTO.builder()
+                .cuentaOrigenId(1L)
+                .cuentaDestinoId(1L)
+                .valor(new BigDecimal("10.00"))
+                .build();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> movimientosService.transferir(transferencia));
+        verify(cuentaRepository, never()).findByIdForUpdate(anyLong());
+    }
+
+    private Cliente cliente(Long clienteId) {
+        Cliente cliente = new Cliente();
+        cliente.setClienteId(clienteId);
+        return cliente;
+    }
 }
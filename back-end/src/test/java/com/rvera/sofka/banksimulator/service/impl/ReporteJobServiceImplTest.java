@@ -0,0 +1,233 @@
+package com.rvera.sofka.banksimulator.service.impl;
+
+import com.rvera.sofka.banksimulator.concurrencia.Bulkhead;
+import com.rvera.sofka.banksimulator.concurrencia.Bulkheads;
+import com.rvera.sofka.banksimulator.concurrencia.Carga;
+import com.rvera.sofka.banksimulator.dto.ReporteJobDTO;
+import com.rvera.sofka.banksimulator.dto.ReporteJobSolicitudDTO;
+import com.rvera.sofka.banksimulator.service.IReporteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReporteJobServiceImplTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime FIN = LocalDateTime.of(2024, 12, 31, 23, 59);
+
+    @TempDir
+    Path directorio;
+
+    private final IReporteService reporteService = mock(IReporteService.class);
+    // Un permiso de reportes con espera corta: una solicitud síncrona lo agotaría enseguida
+    private final Bulkheads bulkheads = new Bulkheads(entorno());
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private ReporteJobServiceImpl reporteJobService;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        liberar.countDown();
+        reporteJobService.destroy();
+    }
+
+    @Test
+    void testCrear_ShouldGenerateReportOnDisk() throws Exception {
+        // Arrange
+        reporteJobService = nuevoServicio(1, 5, Duration.ofHours(1));
+        escribirPdf(false);
+
+        // Act
+        ReporteJobDTO trabajo = reporteJobService.crear(solicitud(1L)).orElseThrow();
+        ReporteJobDTO finalizado = esperarFin(trabajo.getId());
+
+        // Assert
+        assertEquals(ReporteJobDTO.COMPLETADO, finalizado.getEstado());
+        Path archivo = reporteJobService.getArchivo(trabajo.getId()).orElseThrow();
+        assertEquals("%PDF-contenido", Files.readString(archivo));
+        assertEquals(14L, finalizado.getTamanoBytes());
+    }
+
+    @Test
+    void testCrear_SolicitudIdenticaEnCurso_ShouldReuseJob() throws Exception {
+        // Arrange: la generación queda bloqueada hasta liberar el latch
+        reporteJobService = nuevoServicio(1, 5, Duration.ofHours(1));
+        escribirPdf(true);
+
+        // Act
+        ReporteJobDTO primero = reporteJobService.crear(solicitud(1L)).orElseThrow();
+        ReporteJobDTO repetido = reporteJobService.crear(solicitud(1L)).orElseThrow();
+        ReporteJobDTO otroCliente = reporteJobService.crear(solicitud(2L)).orElseThrow();
+        liberar.countDown();
+        esperarFin(primero.getId());
+        esperarFin(otroCliente.getId());
+        ReporteJobDTO posterior = reporteJobService.crear(solicitud(1L)).orElseThrow();
+
+        // Assert: el mismo trabajo mientras está en curso; uno nuevo después de finalizar
+        assertEquals(primero.getId(), repetido.getId());
+        assertNotEquals(primero.getId(), otroCliente.getId());
+        assertNotEquals(primero.getId(), posterior.getId());
+        verify(reporteService, times(1)).generarReporteMovimientos(eq(2L), any(), any(), any());
+    }
+
+    @Test
+    void testCrear_ColaLlena_ShouldReturnEmpty() throws Exception {
+        // Arrange: un hilo ocupado y una posición de cola
+        reporteJobService = nuevoServicio(1, 1, Duration.ofHours(1));
+        escribirPdf(true);
+        ReporteJobDTO enProceso = reporteJobService.crear(solicitud(1L)).orElseThrow();
+        esperarEstado(enProceso.getId(), ReporteJobDTO.EN_PROCESO);
+        reporteJobService.crear(solicitud(2L)).orElseThrow();
+
+        // Act
+        var rechazado = reporteJobService.crear(solicitud(3L));
+
+        // Assert
+        assertTrue(rechazado.isEmpty());
+    }
+
+    @Test
+    void testCrear_ErrorAlGenerar_ShouldMarkFailedWithoutFile() throws Exception {
+        // Arrange
+        reporteJobService = nuevoServicio(1, 5, Duration.ofHours(1));
+        doThrow(new RuntimeException("Error al generar el reporte PDF"))
+                .when(reporteService).generarReporteMovimientos(anyLong(), any(), any(), any());
+
+        // Act
+        ReporteJobDTO trabajo = reporteJobService.crear(solicitud(1L)).orElseThrow();
+        ReporteJobDTO finalizado = esperarFin(trabajo.getId());
+
+        // Assert
+        assertEquals(ReporteJobDTO.FALLIDO, finalizado.getEstado());
+        assertEquals("Error al generar el reporte PDF", finalizado.getError());
+        assertTrue(reporteJobService.getArchivo(trabajo.getId()).isEmpty());
+        try (var archivos = Files.list(directorio)) {
+            assertEquals(0, archivos.count());
+        }
+    }
+
+    @Test
+    void testCrear_PermisosDeReportesOcupados_ShouldWaitAndComplete() throws Exception {
+        // Arrange: un reporte síncrono ocupa el único permiso más allá de la espera del bulkhead
+        reporteJobService = nuevoServicio(1, 5, Duration.ofHours(1));
+        escribirPdf(false);
+        Bulkhead.Permiso sincrono = bulkheads.adquirir(Carga.REPORTES);
+
+        // Act
+        ReporteJobDTO trabajo = reporteJobService.crear(solicitud(1L)).orElseThrow();
+        Thread.sleep(200);
+        String estadoConPermisoOcupado = reporteJobService.findById(trabajo.getId()).orElseThrow().getEstado();
+        sincrono.close();
+        ReporteJobDTO finalizado = esperarFin(trabajo.getId());
+
+        // Assert: el hilo del trabajo cuenta en la partición de reportes y no falla por esperar
+        assertEquals(ReporteJobDTO.EN_PROCESO, estadoConPermisoOcupado);
+        assertEquals(ReporteJobDTO.COMPLETADO, finalizado.getEstado());
+        assertEquals(2, bulkheads.get(Carga.REPORTES).estadisticas().getAceptadas());
+        assertEquals(0, bulkheads.get(Carga.REPORTES).estadisticas().getEnEjecucion());
+    }
+
+    @Test
+    void testCrear_FechaInicioPosterior_ShouldThrowException() {
+        // Arrange
+        reporteJobService = nuevoServicio(1, 5, Duration.ofHours(1));
+        ReporteJobSolicitudDTO solicitud = new ReporteJobSolicitudDTO(1L, FIN, INICIO);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> reporteJobService.crear(solicitud));
+    }
+
+    @Test
+    void testLimpiarExpirados_ShouldRemoveJobAndFile() throws Exception {
+        // Arrange
+        reporteJobService = nuevoServicio(1, 5, Duration.ZERO);
+        escribirPdf(false);
+        ReporteJobDTO trabajo = reporteJobService.crear(solicitud(1L)).orElseThrow();
+        esperarFin(trabajo.getId());
+        Path archivo = reporteJobService.getArchivo(trabajo.getId()).orElseThrow();
+
+        // Act
+        int eliminados = reporteJobService.limpiarExpirados();
+
+        // Assert
+        assertEquals(1, eliminados);
+        assertTrue(reporteJobService.findById(trabajo.getId()).isEmpty());
+        assertFalse(Files.exists(archivo));
+    }
+
+    @Test
+    void testConstructor_ShouldDiscardFilesFromPreviousRun() throws IOException {
+        // Arrange
+        Path anterior = Files.writeString(directorio.resolve("anterior.pdf"), "%PDF");
+
+        // Act
+        reporteJobService = nuevoServicio(1, 5, Duration.ofHours(1));
+
+        // Assert
+        assertFalse(Files.exists(anterior));
+    }
+
+    private static MockEnvironment entorno() {
+        MockEnvironment entorno = new MockEnvironment()
+                .withProperty("app.bulkheads.reportes.concurrentes", "1")
+                .withProperty("app.bulkheads.reportes.espera", "PT0.05S");
+        entorno.setConversionService(new ApplicationConversionService());
+        return entorno;
+    }
+
+    private ReporteJobServiceImpl nuevoServicio(int hilos, int capacidadCola, Duration ttl) {
+        return new ReporteJobServiceImpl(reporteService, bulkheads, hilos, capacidadCola, directorio, ttl);
+    }
+
+    private void escribirPdf(boolean esperar) throws IOException {
+        doAnswer(invocacion -> {
+            if (esperar) {
+                liberar.await(10, TimeUnit.SECONDS);
+            }
+            OutputStream salida = invocacion.getArgument(3);
+            salida.write("%PDF-contenido".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(reporteService).generarReporteMovimientos(anyLong(), any(), any(), any());
+    }
+
+    private ReporteJobSolicitudDTO solicitud(Long clienteId) {
+        return new ReporteJobSolicitudDTO(clienteId, INICIO, FIN);
+    }
+
+    private ReporteJobDTO esperarFin(String id) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < limite) {
+            ReporteJobDTO trabajo = reporteJobService.findById(id).orElseThrow();
+            if (trabajo.getFinalizado() != null) {
+                return trabajo;
+            }
+            Thread.sleep(10);
+        }
+        return fail("El trabajo " + id + " no finalizó");
+    }
+
+    private void esperarEstado(String id, String estado) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!estado.equals(reporteJobService.findById(id).orElseThrow().getEstado())) {
+            assertTrue(System.nanoTime() < limite, "El trabajo " + id + " no llegó a " + estado);
+            Thread.sleep(10);
+        }
+    }
+}
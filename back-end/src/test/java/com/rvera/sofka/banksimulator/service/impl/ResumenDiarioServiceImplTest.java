@@ -0,0 +1,225 @@
+package com.rvera.sofka.banksimulator.service.impl;
+
+import com.rvera.sofka.banksimulator.DatosPrueba;
+import com.rvera.sofka.banksimulator.dto.MovimientoDTO;
+import com.rvera.sofka.banksimulator.dto.ResumenPeriodoDTO;
+import com.rvera.sofka.banksimulator.entity.Cuenta;
+import com.rvera.sofka.banksimulator.entity.Movimientos;
+import com.rvera.sofka.banksimulator.entity.ResumenDiarioCuenta;
+import com.rvera.sofka.banksimulator.repository.CuentaRepository;
+import com.rvera.sofka.banksimulator.repository.MovimientosRepository;
+import com.rvera.sofka.banksimulator.repository.ResumenDiarioCuentaRepository;
+import com.rvera.sofka.banksimulator.service.IMovimientosService;
+import com.rvera.sofka.banksimulator.service.IResumenDiarioService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de integración de los resúmenes diarios: actualización incremental, reconstrucción y resúmenes
+ */
+@SpringBootTest
+class ResumenDiarioServiceImplTest {
+
+    @Autowired
+    private IResumenDiarioService resumenDiarioService;
+
+    @Autowired
+    private IMovimientosService movimientosService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientosRepository movimientosRepository;
+
+    @Autowired
+    private ResumenDiarioCuentaRepository resumenRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Test
+    void testSave_ShouldUpdateDailyRollupIncrementally() {
+        // Arrange
+        Cuenta cuenta = datos.crearCuenta("Corriente", new BigDecimal("1000.00"));
+
+        // Act
+        registrar(cuenta, "Deposito", "100.00");
+        registrar(cuenta, "Retiro", "50.00");
+
+        // Assert: el retiro de una cuenta corriente incluye $2 de comisión
+        List<ResumenDiarioCuenta> incrementales = resumenes(cuenta);
+        assertEquals(1, incrementales.size());
+        ResumenDiarioCuenta hoy = incrementales.get(0);
+        assertEquals(LocalDate.now(), hoy.getFecha());
+        assertMonto("1000.00", hoy.getSaldoApertura());
+        assertMonto("1048.00", hoy.getSaldoCierre());
+        assertMonto("100.00", hoy.getTotalCreditos());
+        assertMonto("52.00", hoy.getTotalDebitos());
+        assertMonto("2.00", hoy.getTotalComisiones());
+        assertEquals(2, hoy.getCantidadMovimientos());
+        assertEquals(incrementales, reconstruir(cuenta));
+    }
+
+    @Test
+    void testDeleteById_DiaAnterior_ShouldShiftLaterDays() {
+        // Arrange: depósitos en dos días
+        Cuenta cuenta = datos.crearCuenta("Ahorros", new BigDecimal("100.00"));
+        LocalDateTime dia1 = LocalDateTime.of(2023, 5, 10, 9, 0);
+        Movimientos eliminado = insertar(cuenta, dia1, "50.00", "150.00");
+        insertar(cuenta, dia1.plusHours(1), "10.00", "160.00");
+        insertar(cuenta, dia1.plusDays(1), "40.00", "200.00");
+        reconstruir(cuenta);
+
+        // Act
+        movimientosService.deleteById(eliminado.getId());
+
+        // Assert
+        List<ResumenDiarioCuenta> incrementales = resumenes(cuenta);
+        assertEquals(2, incrementales.size());
+        assertMonto("100.00", incrementales.get(0).getSaldoApertura());
+        assertMonto("110.00", incrementales.get(0).getSaldoCierre());
+        assertMonto("10.00", incrementales.get(0).getTotalCreditos());
+        assertEquals(1, incrementales.get(0).getCantidadMovimientos());
+        assertMonto("110.00", incrementales.get(1).getSaldoApertura());
+        assertMonto("150.00", incrementales.get(1).getSaldoCierre());
+        assertEquals(incrementales, reconstruir(cuenta));
+    }
+
+    @Test
+    void testDeleteById_UnicoMovimientoDelDia_ShouldRemoveDay() {
+        // Arrange
+        Cuenta cuenta = datos.crearCuenta("Ahorros", new BigDecimal("100.00"));
+        Movimientos eliminado = insertar(cuenta, LocalDateTime.of(2023, 5, 10, 9, 0), "50.00", "150.00");
+        insertar(cuenta, LocalDateTime.of(2023, 5, 12, 9, 0), "-20.00", "130.00");
+        reconstruir(cuenta);
+
+        // Act
+        movimientosService.deleteById(eliminado.getId());
+
+        // Assert
+        List<ResumenDiarioCuenta> incrementales = resumenes(cuenta);
+        assertEquals(1, incrementales.size());
+        assertEquals(LocalDate.of(2023, 5, 12), incrementales.get(0).getFecha());
+        assertMonto("80.00", incrementales.get(0).getSaldoCierre());
+        assertEquals(incrementales, reconstruir(cuenta));
+    }
+
+    @Test
+    void testDeleteById_MismoMovimientoDosVeces_ShouldRevertOnce() {
+        // Arrange
+        Cuenta cuenta = datos.crearCuenta("Ahorros", new BigDecimal("100.00"));
+        LocalDateTime dia1 = LocalDateTime.of(2023, 5, 10, 9, 0);
+        Movimientos eliminado = insertar(cuenta, dia1, "50.00", "150.00");
+        insertar(cuenta, dia1.plusHours(1), "10.00", "160.00");
+        insertar(cuenta, dia1.plusDays(1), "40.00", "200.00");
+        reconstruir(cuenta);
+        movimientosService.deleteById(eliminado.getId());
+
+        // Act
+        assertThrows(IllegalArgumentException.class, () -> movimientosService.deleteById(eliminado.getId()));
+        assertEquals(0, movimientosService.deleteByIds(List.of(eliminado.getId())));
+
+        // Assert: el día y los posteriores reflejan una sola reversión
+        List<ResumenDiarioCuenta> incrementales = resumenes(cuenta);
+        assertEquals(2, incrementales.size());
+        assertMonto("110.00", incrementales.get(0).getSaldoCierre());
+        assertMonto("10.00", incrementales.get(0).getTotalCreditos());
+        assertEquals(1, incrementales.get(0).getCantidadMovimientos());
+        assertMonto("110.00", incrementales.get(1).getSaldoApertura());
+        assertMonto("150.00", incrementales.get(1).getSaldoCierre());
+        assertEquals(incrementales, reconstruir(cuenta));
+    }
+
+    @Test
+    void testResumenAnual_ShouldAggregateDaysByMonth() {
+        // Arrange
+        Cuenta cuenta = datos.crearCuenta("Ahorros", new BigDecimal("100.00"));
+        insertar(cuenta, LocalDateTime.of(2022, 12, 31, 9, 0), "100.00", "200.00");
+        insertar(cuenta, LocalDateTime.of(2023, 1, 10, 9, 0), "50.00", "250.00");
+        insertar(cuenta, LocalDateTime.of(2023, 1, 20, 9, 0), "-30.00", "220.00");
+        insertar(cuenta, LocalDateTime.of(2023, 3, 5, 9, 0), "5.00", "225.00");
+        reconstruir(cuenta);
+
+        // Act
+        ResumenPeriodoDTO anual = resumenDiarioService.resumenAnual(cuenta.getId(), 2023).orElseThrow();
+        ResumenPeriodoDTO enero = resumenDiarioService.resumenMensual(cuenta.getId(), 2023, 1).orElseThrow();
+        ResumenPeriodoDTO febrero = resumenDiarioService.resumenMensual(cuenta.getId(), 2023, 2).orElseThrow();
+
+        // Assert
+        assertMonto("200.00", anual.getSaldoApertura());
+        assertMonto("225.00", anual.getSaldoCierre());
+        assertMonto("55.00", anual.getTotalCreditos());
+        assertMonto("30.00", anual.getTotalDebitos());
+        assertEquals(3, anual.getCantidadMovimientos());
+        assertEquals(List.of(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 3, 1)),
+                anual.getDetalle().stream().map(ResumenPeriodoDTO::getDesde).toList());
+        assertEquals(LocalDate.of(2023, 3, 31), anual.getDetalle().get(1).getHasta());
+        assertEquals(2, enero.getDetalle().size());
+        assertMonto("220.00", enero.getSaldoCierre());
+        assertMonto("220.00", febrero.getSaldoApertura());
+        assertMonto("220.00", febrero.getSaldoCierre());
+        assertEquals(0, febrero.getCantidadMovimientos());
+        assertTrue(febrero.getDetalle().isEmpty());
+    }
+
+    @Test
+    void testResumenMensual_PeriodoInvalidoOCuentaInexistente_ShouldRejectOrReturnEmpty() {
+        // Arrange
+        Cuenta cuenta = datos.crearCuenta("Ahorros", new BigDecimal("100.00"));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> resumenDiarioService.resumenMensual(cuenta.getId(), 2023, 13));
+        assertTrue(resumenDiarioService.resumenMensual(-1L, 2023, 1).isEmpty());
+    }
+
+    private List<ResumenDiarioCuenta> resumenes(Cuenta cuenta) {
+        return resumenRepository.findByCuentaIdAndFechaGreaterThanEqualOrderByFecha(cuenta.getId(), LocalDate.of(2000, 1, 1));
+    }
+
+    private List<ResumenDiarioCuenta> reconstruir(Cuenta cuenta) {
+        transactionTemplate.executeWithoutResult(status -> resumenDiarioService.reconstruirCuenta(cuenta.getId()));
+        return resumenes(cuenta);
+    }
+
+    private void registrar(Cuenta cuenta, String tipo, String valor) {
+        movimientosService.save(MovimientoDTO.builder()
+                .tipoMovimiento(tipo)
+                .valor(new BigDecimal(valor))
+                .cuentaId(cuenta.getId())
+                .build());
+    }
+
+    // Movimiento con fecha pasada, insertado sin pasar por el servicio
+    private Movimientos insertar(Cuenta cuenta, LocalDateTime fecha, String valor, String saldo) {
+        Movimientos movimiento = new Movimientos();
+        movimiento.setTipoMovimiento(new BigDecimal(valor).signum() >= 0 ? "Deposito" : "Retiro");
+        movimiento.setFecha(fecha);
+        movimiento.setValor(new BigDecimal(valor));
+        movimiento.setSaldo(new BigDecimal(saldo));
+        movimiento.setCuenta(cuenta);
+        Movimientos guardado = movimientosRepository.save(movimiento);
+
+        Cuenta actual = cuentaRepository.findById(cuenta.getId()).orElseThrow();
+        actual.setSaldoActual(guardado.getSaldo());
+        actual.setUltimoMovimientoId(guardado.getId());
+        cuentaRepository.save(actual);
+        return guardado;
+    }
+
+    private static void assertMonto(String esperado, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(esperado).compareTo(actual), () -> "esperado " + esperado + " pero fue " + actual);
+    }
+}
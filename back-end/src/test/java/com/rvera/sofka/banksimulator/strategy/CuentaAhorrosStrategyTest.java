@@ -38,6 +38,16 @@ class CuentaAhorrosStrategyTest {
         assertEquals(new BigDecimal("100.00"), saldoMinimo);
     }
 
+    @Test
+    void testObtenerLimiteRetiroDiario_ShouldReturn2000() {
+        // Act
+        BigDecimal limite = strategy.obtenerLimiteRetiroDiario();
+
+        // Assert
+        assertEquals(new BigDecimal("2000.00"), limite);
+        assertEquals(200000L, strategy.obtenerLimiteRetiroDiarioCentavos());
+    }
+
     @Test
     void testValidarCuenta_WithValidBalance_ShouldNotThrowException() {
         // Arrange
@@ -95,4 +105,13 @@ class CuentaAhorrosStrategyTest {
             assertEquals(monto, strategy.aplicarComision(monto));
         }
     }
+
+    @Test
+    void testAplicarComisionCentavos_ShouldReturnSameAmount() {
+        // Act
+        long resultado = strategy.aplicarComisionCentavos(20000L);
+
+        // Assert
+        assertEquals(20000L, resultado);
+    }
 }
@@ -38,6 +38,16 @@ class CuentaCorrienteStrategyTest {
         assertEquals(new BigDecimal("500.00"), saldoMinimo);
     }
 
+    @Test
+    void testObtenerLimiteRetiroDiario_ShouldReturn5000() {
+        // Act
+        BigDecimal limite = strategy.obtenerLimiteRetiroDiario();
+
+        // Assert
+        assertEquals(new BigDecimal("5000.00"), limite);
+        assertEquals(500000L, strategy.obtenerLimiteRetiroDiarioCentavos());
+    }
+
     @Test
     void testValidarCuenta_WithValidBalance_ShouldNotThrowException() {
         // Arrange
@@ -111,4 +121,17 @@ class CuentaCorrienteStrategyTest {
         // Assert
         assertEquals(expectedResult, resultado);
     }
+
+    @Test
+    void testAplicarComisionCentavos_ShouldMatchBigDecimalVariant() {
+        // Arrange - $200.00 en centavos
+        long monto = 20000L;
+
+        // Act
+        long resultado = strategy.aplicarComisionCentavos(monto);
+
+        // Assert
+        assertEquals(20200L, resultado);
+        assertEquals(strategy.aplicarComision(new BigDecimal("200.00")), Centavos.aBigDecimal(resultado));
+    }
 }
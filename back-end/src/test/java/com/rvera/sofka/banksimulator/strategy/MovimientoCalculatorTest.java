@@ -0,0 +1,78 @@
+package com.rvera.sofka.banksimulator.strategy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovimientoCalculatorTest {
+
+    private CuentaStrategyFactory strategyFactory;
+
+    @BeforeEach
+    void setUp() {
+        strategyFactory = new CuentaStrategyFactory(List.of(new CuentaAhorrosStrategy(), new CuentaCorrienteStrategy()));
+    }
+
+    @Test
+    void testCalcularValor_RetiroCorriente_ShouldBeNegativeWithCommission() {
+        // Act
+        long valor = MovimientoCalculator.calcularValor(strategyFactory, "Corriente", "Retiro", 10000L);
+
+        // Assert
+        assertEquals(-10200L, valor);
+    }
+
+    @Test
+    void testCalcularValor_RetiroConValorNegativo_ShouldUseAbsoluteValue() {
+        // Act
+        long valor = MovimientoCalculator.calcularValor(strategyFactory, "Ahorros", "Retiro", -5000L);
+
+        // Assert
+        assertEquals(-5000L, valor);
+    }
+
+    @Test
+    void testCalcularValor_Deposito_ShouldKeepValue() {
+        // Act
+        long valor = MovimientoCalculator.calcularValor(strategyFactory, "Corriente", "Deposito", 10000L);
+
+        // Assert
+        assertEquals(10000L, valor);
+    }
+
+    @Test
+    void testCalcularComision_ShouldBeDifferenceOnDebitsOnly() {
+        // Act & Assert
+        assertEquals(200L, MovimientoCalculator.calcularComision(-10200L, 10000L));
+        assertEquals(0L, MovimientoCalculator.calcularComision(-5000L, -5000L));
+        assertEquals(0L, MovimientoCalculator.calcularComision(10000L, 10000L));
+    }
+
+    @Test
+    void testCalcularNuevoSaldo_InsufficientBalance_ShouldThrowException() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> MovimientoCalculator.calcularNuevoSaldo(10000L, -10001L));
+        assertEquals("Saldo insuficiente para realizar el movimiento", exception.getMessage());
+    }
+
+    @Test
+    void testCalcularNuevoSaldo_Overflow_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> MovimientoCalculator.calcularNuevoSaldo(Long.MAX_VALUE, 1L));
+    }
+
+    @Test
+    void testCentavos_ShouldRoundToTwoDecimalsAndConvertBack() {
+        // Act & Assert
+        assertEquals(1235L, Centavos.desde(new BigDecimal("12.345")));
+        assertEquals(1200L, Centavos.desde(new BigDecimal("12")));
+        assertEquals(new BigDecimal("12.35"), Centavos.aBigDecimal(1235L));
+        assertThrows(IllegalArgumentException.class, () -> Centavos.desde(new BigDecimal("1E+30")));
+    }
+}
@@ -1,4 +1,4 @@
-import { renderHook, waitFor } from '@testing-library/react';
+import { renderHook, waitFor, act } from '@testing-library/react';
 import { useClientes } from '../../hooks/useClientes';
 import clientesService from '../../services/clientesService';
 
@@ -15,7 +15,7 @@ describe('useClientes Hook', () => {
   });
 
   test('fetches clientes successfully', async () => {
-    clientesService.getAll.mockResolvedValue(mockClientes);
+    clientesService.getAll.mockResolvedValue({ contenido: mockClientes, siguiente: null });
 
     const { result } = renderHook(() => useClientes());
 
@@ -45,7 +45,7 @@ describe('useClientes Hook', () => {
   });
 
   test('calls clientesService.getAll on mount', async () => {
-    clientesService.getAll.mockResolvedValue(mockClientes);
+    clientesService.getAll.mockResolvedValue({ contenido: mockClientes, siguiente: null });
 
     renderHook(() => useClientes());
 
@@ -53,4 +53,28 @@ describe('useClientes Hook', () => {
       expect(clientesService.getAll).toHaveBeenCalledTimes(1);
     });
   });
+
+  test('cargarMas appends the next page using the cursor', async () => {
+    const siguientePagina = [{ clienteId: 3 }];
+    clientesService.getAll
+      .mockResolvedValueOnce({ contenido: mockClientes, siguiente: '2' })
+      .mockResolvedValueOnce({ contenido: siguientePagina, siguiente: null });
+
+    const { result } = renderHook(() => useClientes());
+
+    await waitFor(() => {
+      expect(result.current.hayMas).toBe(true);
+    });
+
+    act(() => {
+      result.current.cargarMas();
+    });
+
+    await waitFor(() => {
+      expect(result.current.hayMas).toBe(false);
+    });
+
+    expect(clientesService.getAll).toHaveBeenLastCalledWith('2');
+    expect(result.current.clientes).toEqual([...mockClientes, ...siguientePagina]);
+  });
 });
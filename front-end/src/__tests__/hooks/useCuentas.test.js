@@ -1,4 +1,4 @@
-import { renderHook, waitFor } from '@testing-library/react';
+import { renderHook, waitFor, act } from '@testing-library/react';
 import { useCuentas } from '../../hooks/useCuentas';
 import cuentasService from '../../services/cuentasService';
 
@@ -15,7 +15,7 @@ describe('useCuentas Hook', () => {
   });
 
   test('fetches cuentas successfully', async () => {
-    cuentasService.getAll.mockResolvedValue(mockCuentas);
+    cuentasService.getAll.mockResolvedValue({ contenido: mockCuentas, siguiente: null });
 
     const { result } = renderHook(() => useCuentas());
 
@@ -45,7 +45,7 @@ describe('useCuentas Hook', () => {
   });
 
   test('calls cuentasService.getAll on mount', async () => {
-    cuentasService.getAll.mockResolvedValue(mockCuentas);
+    cuentasService.getAll.mockResolvedValue({ contenido: mockCuentas, siguiente: null });
 
     renderHook(() => useCuentas());
 
@@ -53,4 +53,28 @@ describe('useCuentas Hook', () => {
       expect(cuentasService.getAll).toHaveBeenCalledTimes(1);
     });
   });
+
+  test('cargarMas appends the next page using the cursor', async () => {
+    const siguientePagina = [{ cuentaId: 3 }];
+    cuentasService.getAll
+      .mockResolvedValueOnce({ contenido: mockCuentas, siguiente: '2' })
+      .mockResolvedValueOnce({ contenido: siguientePagina, siguiente: null });
+
+    const { result } = renderHook(() => useCuentas());
+
+    await waitFor(() => {
+      expect(result.current.hayMas).toBe(true);
+    });
+
+    act(() => {
+      result.current.cargarMas();
+    });
+
+    await waitFor(() => {
+      expect(result.current.hayMas).toBe(false);
+    });
+
+    expect(cuentasService.getAll).toHaveBeenLastCalledWith('2');
+    expect(result.current.cuentas).toEqual([...mockCuentas, ...siguientePagina]);
+  });
 });
@@ -23,7 +23,7 @@ describe('clientesService', () => {
       const result = await clientesService.getAll();
 
       expect(fetch).toHaveBeenCalledWith(API_ENDPOINTS.CLIENTES);
-      expect(result).toEqual(mockClientes);
+      expect(result).toEqual({ contenido: mockClientes, siguiente: null });
     });
 
     test('throws error when fetch fails', async () => {
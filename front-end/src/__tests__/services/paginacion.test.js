@@ -0,0 +1,57 @@
+import { obtenerPagina, NEXT_CURSOR } from '../../services/paginacion';
+
+global.fetch = jest.fn();
+
+const pagina = (contenido, cursor) => ({
+  ok: true,
+  headers: { get: (nombre) => (nombre === NEXT_CURSOR ? cursor : null) },
+  json: async () => contenido
+});
+
+describe('obtenerPagina', () => {
+  beforeEach(() => {
+    fetch.mockClear();
+  });
+
+  test('fetches only the first page and returns the next cursor', async () => {
+    fetch.mockResolvedValueOnce(pagina([{ id: 1 }, { id: 2 }], '2'));
+
+    const result = await obtenerPagina('http://api/clientes', 'Error');
+
+    expect(fetch).toHaveBeenCalledTimes(1);
+    expect(fetch).toHaveBeenCalledWith('http://api/clientes');
+    expect(result).toEqual({ contenido: [{ id: 1 }, { id: 2 }], siguiente: '2' });
+  });
+
+  test('sends the cursor as after by default', async () => {
+    fetch.mockResolvedValueOnce(pagina([{ id: 3 }], null));
+
+    const result = await obtenerPagina('http://api/clientes', 'Error', '2');
+
+    expect(fetch).toHaveBeenCalledWith('http://api/clientes?after=2');
+    expect(result).toEqual({ contenido: [{ id: 3 }], siguiente: null });
+  });
+
+  test('uses the given cursor parameter', async () => {
+    fetch.mockResolvedValueOnce(pagina([{ id: 4 }], null));
+
+    await obtenerPagina('http://api/movimientos/cuenta/1', 'Error', '9', 'before');
+
+    expect(fetch).toHaveBeenCalledWith('http://api/movimientos/cuenta/1?before=9');
+  });
+
+  test('returns no next cursor when the response has no headers', async () => {
+    fetch.mockResolvedValueOnce({ ok: true, json: async () => [{ id: 1 }] });
+
+    const result = await obtenerPagina('http://api/cuentas', 'Error');
+
+    expect(result).toEqual({ contenido: [{ id: 1 }], siguiente: null });
+  });
+
+  test('throws error when the page fails', async () => {
+    fetch.mockResolvedValueOnce({ ok: false });
+
+    await expect(obtenerPagina('http://api/cuentas', 'Error al obtener las cuentas'))
+      .rejects.toThrow('Error al obtener las cuentas');
+  });
+});
@@ -11,7 +11,7 @@ const CuentaForm = ({
   onCancel,
   isLoading = false 
 }) => {
-  const { clientes, loading: loadingClientes } = useClientes();
+  const { clientes, loading: loadingClientes, hayMas: hayMasClientes, cargarMas: cargarMasClientes } = useClientes();
   
   const {
     register,
@@ -118,6 +118,11 @@ const CuentaForm = ({
           placeholder="Seleccionar cliente"
           disabled={!!defaultValues || loadingClientes}
         />
+        {hayMasClientes && !defaultValues && (
+          <Button type="button" variant="ghost" size="small" onClick={cargarMasClientes} disabled={loadingClientes}>
+            Cargar más clientes
+          </Button>
+        )}
 
         <FormField
           label="Estado"
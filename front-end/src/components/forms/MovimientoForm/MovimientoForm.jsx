@@ -11,7 +11,7 @@ const MovimientoForm = ({
   onCancel,
   isLoading = false 
 }) => {
-  const { cuentas, loading: loadingCuentas } = useCuentas();
+  const { cuentas, loading: loadingCuentas, hayMas: hayMasCuentas, cargarMas: cargarMasCuentas } = useCuentas();
   
   const {
     register,
@@ -96,6 +96,11 @@ const MovimientoForm = ({
           placeholder="Seleccionar cuenta"
           disabled={!!defaultValues || loadingCuentas}
         />
+        {hayMasCuentas && !defaultValues && (
+          <Button type="button" variant="ghost" size="small" onClick={cargarMasCuentas} disabled={loadingCuentas}>
+            Cargar más cuentas
+          </Button>
+        )}
       </div>
 
       <div className="form-actions">
@@ -1,28 +1,37 @@
 import { useState, useEffect } from 'react';
 import clientesService from '../services/clientesService';
 
+// Primera página del listado; cargarMas agrega la siguiente mientras la respuesta traiga cursor
 export const useClientes = () => {
   const [clientes, setClientes] = useState([]);
+  const [siguiente, setSiguiente] = useState(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
 
-  useEffect(() => {
-    const fetchClientes = async () => {
-      try {
-        setLoading(true);
-        setError(null);
-        const data = await clientesService.getAll();
-        setClientes(data);
-      } catch (err) {
-        setError(err.message || 'Error al cargar los clientes');
-        console.error('Error fetching clientes:', err);
-      } finally {
-        setLoading(false);
-      }
-    };
+  const cargar = async (cursor) => {
+    try {
+      setLoading(true);
+      setError(null);
+      const pagina = await clientesService.getAll(cursor);
+      setClientes(prev => (cursor ? [...prev, ...pagina.contenido] : pagina.contenido));
+      setSiguiente(pagina.siguiente);
+    } catch (err) {
+      setError(err.message || 'Error al cargar los clientes');
+      console.error('Error fetching clientes:', err);
+    } finally {
+      setLoading(false);
+    }
+  };
 
-    fetchClientes();
+  useEffect(() => {
+    cargar(null);
   }, []);
 
-  return { clientes, loading, error };
+  const cargarMas = () => {
+    if (siguiente && !loading) {
+      cargar(siguiente);
+    }
+  };
+
+  return { clientes, loading, error, hayMas: !!siguiente, cargarMas };
 };
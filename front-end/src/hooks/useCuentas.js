@@ -1,28 +1,37 @@
 import { useState, useEffect } from 'react';
 import cuentasService from '../services/cuentasService';
 
+// Primera página del listado; cargarMas agrega la siguiente mientras la respuesta traiga cursor
 export const useCuentas = () => {
   const [cuentas, setCuentas] = useState([]);
+  const [siguiente, setSiguiente] = useState(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
 
-  useEffect(() => {
-    const fetchCuentas = async () => {
-      try {
-        setLoading(true);
-        setError(null);
-        const data = await cuentasService.getAll();
-        setCuentas(data);
-      } catch (err) {
-        setError(err.message || 'Error al cargar las cuentas');
-        console.error('Error fetching cuentas:', err);
-      } finally {
-        setLoading(false);
-      }
-    };
+  const cargar = async (cursor) => {
+    try {
+      setLoading(true);
+      setError(null);
+      const pagina = await cuentasService.getAll(cursor);
+      setCuentas(prev => (cursor ? [...prev, ...pagina.contenido] : pagina.contenido));
+      setSiguiente(pagina.siguiente);
+    } catch (err) {
+      setError(err.message || 'Error al cargar las cuentas');
+      console.error('Error fetching cuentas:', err);
+    } finally {
+      setLoading(false);
+    }
+  };
 
-    fetchCuentas();
+  useEffect(() => {
+    cargar(null);
   }, []);
 
-  return { cuentas, loading, error };
+  const cargarMas = () => {
+    if (siguiente && !loading) {
+      cargar(siguiente);
+    }
+  };
+
+  return { cuentas, loading, error, hayMas: !!siguiente, cargarMas };
 };
@@ -13,6 +13,8 @@ import './page.css';
 
 const Clientes = () => {
   const [clientes, setClientes] = useState([]);
+  const [siguiente, setSiguiente] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [isLoading, setIsLoading] = useState(true);
   const [error, setError] = useState(null);
   const [searchText, setSearchText] = useState('');
@@ -43,8 +45,9 @@ const Clientes = () => {
     try {
       setIsLoading(true);
       setError(null);
-      const data = await clientesService.getAll();
-      setClientes(data);
+      const pagina = await clientesService.getAll();
+      setClientes(pagina.contenido);
+      setSiguiente(pagina.siguiente);
     } catch (err) {
       setError(err.message);
       console.error('Error al cargar clientes:', err);
@@ -53,15 +56,32 @@ const Clientes = () => {
     }
   };
 
+  // Página siguiente del listado según el cursor de la última respuesta
+  const loadMoreClientes = async () => {
+    if (!siguiente) return;
+    try {
+      setLoadingMore(true);
+      const pagina = await clientesService.getAll(siguiente);
+      setClientes(prev => [...prev, ...pagina.contenido]);
+      setSiguiente(pagina.siguiente);
+    } catch (err) {
+      toast.error(`Error al cargar más clientes: ${err.message}`);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const searchClientes = async (filtro) => {
     try {
       setIsLoading(true);
       setError(null);
       const data = await clientesService.buscar(filtro);
       setClientes(data);
+      setSiguiente(null);
     } catch (err) {
       setError(err.message);
       setClientes([]);
+      setSiguiente(null);
     } finally {
       setIsLoading(false);
     }
@@ -221,6 +241,13 @@ const Clientes = () => {
           isLoading={isLoading}
           emptyMessage="No hay clientes registrados"
         />
+        {siguiente && !isLoading && (
+          <div className="load-more">
+            <Button variant="outline" onClick={loadMoreClientes} disabled={loadingMore}>
+              {loadingMore ? 'Cargando...' : 'Cargar más'}
+            </Button>
+          </div>
+        )}
       </div>
 
       {/* Modal de creación */}
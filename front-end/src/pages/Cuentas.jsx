@@ -13,6 +13,8 @@ import './page.css';
 
 const Cuentas = () => {
   const [cuentas, setCuentas] = useState([]);
+  const [siguiente, setSiguiente] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [isLoading, setIsLoading] = useState(true);
   const [error, setError] = useState(null);
   const [searchText, setSearchText] = useState('');
@@ -42,8 +44,9 @@ const Cuentas = () => {
     try {
       setIsLoading(true);
       setError(null);
-      const data = await cuentasService.getAll();
-      setCuentas(data);
+      const pagina = await cuentasService.getAll();
+      setCuentas(pagina.contenido);
+      setSiguiente(pagina.siguiente);
     } catch (err) {
       setError(err.message);
       console.error('Error al cargar cuentas:', err);
@@ -52,15 +55,32 @@ const Cuentas = () => {
     }
   };
 
+  // Página siguiente del listado según el cursor de la última respuesta
+  const loadMoreCuentas = async () => {
+    if (!siguiente) return;
+    try {
+      setLoadingMore(true);
+      const pagina = await cuentasService.getAll(siguiente);
+      setCuentas(prev => [...prev, ...pagina.contenido]);
+      setSiguiente(pagina.siguiente);
+    } catch (err) {
+      toast.error(`Error al cargar más cuentas: ${err.message}`);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const searchCuentas = async (filtro) => {
     try {
       setIsLoading(true);
       setError(null);
       const data = await cuentasService.buscar(filtro);
       setCuentas(data);
+      setSiguiente(null);
     } catch (err) {
       setError(err.message);
       setCuentas([]);
+      setSiguiente(null);
     } finally {
       setIsLoading(false);
     }
@@ -221,6 +241,13 @@ const Cuentas = () => {
           isLoading={isLoading}
           emptyMessage="No hay cuentas registradas"
         />
+        {siguiente && !isLoading && (
+          <div className="load-more">
+            <Button variant="outline" onClick={loadMoreCuentas} disabled={loadingMore}>
+              {loadingMore ? 'Cargando...' : 'Cargar más'}
+            </Button>
+          </div>
+        )}
       </div>
 
       {/* Modal de creación */}
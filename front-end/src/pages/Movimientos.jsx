@@ -14,6 +14,8 @@ import './page.css';
 
 const Movimientos = () => {
   const [movimientos, setMovimientos] = useState([]);
+  const [siguiente, setSiguiente] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [isLoading, setIsLoading] = useState(true);
   const [error, setError] = useState(null);
   const [searchText, setSearchText] = useState('');
@@ -43,8 +45,9 @@ const Movimientos = () => {
     try {
       setIsLoading(true);
       setError(null);
-      const data = await movimientosService.getAll();
-      setMovimientos(data);
+      const pagina = await movimientosService.getAll();
+      setMovimientos(pagina.contenido);
+      setSiguiente(pagina.siguiente);
     } catch (err) {
       setError(err.message);
       console.error('Error al cargar movimientos:', err);
@@ -53,15 +56,32 @@ const Movimientos = () => {
     }
   };
 
+  // Página siguiente del listado según el cursor de la última respuesta
+  const loadMoreMovimientos = async () => {
+    if (!siguiente) return;
+    try {
+      setLoadingMore(true);
+      const pagina = await movimientosService.getAll(siguiente);
+      setMovimientos(prev => [...prev, ...pagina.contenido]);
+      setSiguiente(pagina.siguiente);
+    } catch (err) {
+      toast.error(`Error al cargar más movimientos: ${err.message}`);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const searchMovimientos = async (filtro) => {
     try {
       setIsLoading(true);
       setError(null);
       const data = await movimientosService.buscar(filtro);
       setMovimientos(data);
+      setSiguiente(null);
     } catch (err) {
       setError(err.message);
       setMovimientos([]);
+      setSiguiente(null);
     } finally {
       setIsLoading(false);
     }
@@ -219,6 +239,13 @@ const Movimientos = () => {
           isLoading={isLoading}
           emptyMessage="No hay movimientos registrados"
         />
+        {siguiente && !isLoading && (
+          <div className="load-more">
+            <Button variant="outline" onClick={loadMoreMovimientos} disabled={loadingMore}>
+              {loadingMore ? 'Cargando...' : 'Cargar más'}
+            </Button>
+          </div>
+        )}
       </div>
 
       {/* Modal de creación */}
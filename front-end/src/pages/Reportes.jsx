@@ -15,7 +15,7 @@ const Reportes = () => {
   const [fechaFin, setFechaFin] = useState('');
   const [reporteData, setReporteData] = useState([]);
   const [isLoading, setIsLoading] = useState(false);
-  const { clientes, loading: loadingClientes } = useClientes();
+  const { clientes, loading: loadingClientes, hayMas: hayMasClientes, cargarMas: cargarMasClientes } = useClientes();
   const toast = useToast();
 
   const handleFechaInicioChange = (e) => {
@@ -208,6 +208,11 @@ const Reportes = () => {
                 placeholder="Seleccionar cliente"
                 disabled={loadingClientes || isLoading}
               />
+              {hayMasClientes && (
+                <Button type="button" variant="ghost" size="small" onClick={cargarMasClientes} disabled={loadingClientes}>
+                  Cargar más clientes
+                </Button>
+              )}
             </div>
 
             <div className="filter-field">
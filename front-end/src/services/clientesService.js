@@ -1,14 +1,11 @@
 import { API_ENDPOINTS } from '../config/api';
+import { obtenerPagina } from './paginacion';
 
 const clientesService = {
-  // Obtener todos los clientes
-  getAll: async () => {
+  // Obtener una página de clientes: { contenido, siguiente }
+  getAll: async (cursor = null) => {
     try {
-      const response = await fetch(API_ENDPOINTS.CLIENTES);
-      if (!response.ok) {
-        throw new Error('Error al obtener los clientes');
-      }
-      return await response.json();
+      return await obtenerPagina(API_ENDPOINTS.CLIENTES, 'Error al obtener los clientes', cursor);
     } catch (error) {
       console.error('Error en getAll:', error);
       throw error;
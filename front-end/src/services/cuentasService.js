@@ -1,14 +1,11 @@
 import { API_ENDPOINTS } from '../config/api';
+import { obtenerPagina } from './paginacion';
 
 const cuentasService = {
-  // Obtener todas las cuentas
-  getAll: async () => {
+  // Obtener una página de cuentas: { contenido, siguiente }
+  getAll: async (cursor = null) => {
     try {
-      const response = await fetch(API_ENDPOINTS.CUENTAS);
-      if (!response.ok) {
-        throw new Error('Error al obtener las cuentas');
-      }
-      return await response.json();
+      return await obtenerPagina(API_ENDPOINTS.CUENTAS, 'Error al obtener las cuentas', cursor);
     } catch (error) {
       console.error('Error en getAll:', error);
       throw error;
@@ -43,14 +40,14 @@ const cuentasService = {
     }
   },
 
-  // Obtener cuentas por cliente ID
-  getByCliente: async (clienteId) => {
+  // Obtener una página de cuentas por cliente ID: { contenido, siguiente }
+  getByCliente: async (clienteId, cursor = null) => {
     try {
-      const response = await fetch(API_ENDPOINTS.CUENTAS_BY_CLIENTE(clienteId));
-      if (!response.ok) {
-        throw new Error(`Error al obtener las cuentas del cliente ${clienteId}`);
-      }
-      return await response.json();
+      return await obtenerPagina(
+        API_ENDPOINTS.CUENTAS_BY_CLIENTE(clienteId),
+        `Error al obtener las cuentas del cliente ${clienteId}`,
+        cursor
+      );
     } catch (error) {
       console.error('Error en getByCliente:', error);
       throw error;
@@ -1,14 +1,11 @@
 import { API_ENDPOINTS } from '../config/api';
+import { obtenerPagina } from './paginacion';
 
 const movimientosService = {
-  // Obtener todos los movimientos
-  getAll: async () => {
+  // Obtener una página de movimientos: { contenido, siguiente }
+  getAll: async (cursor = null) => {
     try {
-      const response = await fetch(API_ENDPOINTS.MOVIMIENTOS);
-      if (!response.ok) {
-        throw new Error('Error al obtener los movimientos');
-      }
-      return await response.json();
+      return await obtenerPagina(API_ENDPOINTS.MOVIMIENTOS, 'Error al obtener los movimientos', cursor);
     } catch (error) {
       console.error('Error en getAll:', error);
       throw error;
@@ -29,14 +26,16 @@ const movimientosService = {
     }
   },
 
-  // Obtener movimientos por cuenta ID
-  getByCuenta: async (cuentaId) => {
+  // Obtener una página de movimientos por cuenta ID: { contenido, siguiente }
+  getByCuenta: async (cuentaId, cursor = null) => {
     try {
-      const response = await fetch(API_ENDPOINTS.MOVIMIENTOS_BY_CUENTA(cuentaId));
-      if (!response.ok) {
-        throw new Error(`Error al obtener los movimientos de la cuenta ${cuentaId}`);
-      }
-      return await response.json();
+      // Del más reciente al más antiguo: el cursor de la página siguiente se envía en 'before'
+      return await obtenerPagina(
+        API_ENDPOINTS.MOVIMIENTOS_BY_CUENTA(cuentaId),
+        `Error al obtener los movimientos de la cuenta ${cuentaId}`,
+        cursor,
+        'before'
+      );
     } catch (error) {
       console.error('Error en getByCuenta:', error);
       throw error;
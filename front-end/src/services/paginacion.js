@@ -0,0 +1,13 @@
+export const NEXT_CURSOR = 'X-Next-Cursor';
+
+// Pide una página de un listado paginado por keyset; siguiente es el cursor de la próxima página (null en la última)
+// parametroCursor es 'after' en los listados por ID ascendente y 'before' en los que van del más reciente al más antiguo
+export const obtenerPagina = async (url, mensajeError, cursor = null, parametroCursor = 'after') => {
+  const separador = url.includes('?') ? '&' : '?';
+  const response = await fetch(cursor ? `${url}${separador}${parametroCursor}=${encodeURIComponent(cursor)}` : url);
+  if (!response.ok) {
+    throw new Error(mensajeError);
+  }
+  const contenido = await response.json();
+  return { contenido, siguiente: response.headers?.get(NEXT_CURSOR) || null };
+};